@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,6 +14,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.trs.therepairsystem.common.dto.ApiResponse;
+import org.trs.therepairsystem.common.exception.IdempotencyConflictException;
+import org.trs.therepairsystem.common.exception.OrderStateConflictException;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.util.HashMap;
@@ -116,6 +119,36 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.forbidden("没有权限访问该资源"));
     }
 
+    /**
+     * 处理工单状态冲突（条件更新未命中）
+     */
+    @ExceptionHandler(OrderStateConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOrderStateConflictException(OrderStateConflictException ex) {
+        logger.warn("工单状态冲突: 工单 {} 预期 {}，当前 {}", ex.getOrderId(), ex.getExpectedStatus(), ex.getCurrentStatus());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.conflict(ex.getMessage()));
+    }
+
+    /**
+     * 处理幂等键冲突（键被复用于不同请求，或相同请求仍在处理中）
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        logger.warn("幂等键冲突: {}，{}", ex.getIdempotencyKey(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.conflict(ex.getMessage()));
+    }
+
+    /**
+     * 处理乐观锁冲突（整实体保存时版本号不一致）
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException ex) {
+        logger.warn("乐观锁冲突: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.conflict("数据已被其他操作修改，请刷新后重试"));
+    }
+
     /**
      * 处理业务异常
      */
@@ -0,0 +1,27 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 自动分配结果
+ */
+public enum AssignmentOutcome {
+
+    /**
+     * 已分配工程师
+     */
+    ASSIGNED,
+
+    /**
+     * 没有符合资质与区域的工程师，等待管理员手动分配
+     */
+    NO_ENGINEER,
+
+    /**
+     * 工单已被处理（已分配、已取消或不存在），无需分配
+     */
+    SKIPPED,
+
+    /**
+     * 多次重试后仍然失败
+     */
+    FAILED
+}
@@ -0,0 +1,27 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 自动分配工程师策略
+ */
+public enum AssignmentStrategyType {
+
+    /**
+     * 优先分配给未完成工单最少的工程师
+     */
+    LEAST_OPEN_ORDERS,
+
+    /**
+     * 同一楼层的工单在候选工程师之间轮流分配
+     */
+    ROUND_ROBIN_PER_AREA,
+
+    /**
+     * 按历史评分与当前负载加权随机
+     */
+    WEIGHTED_RATING,
+
+    /**
+     * 均匀随机（原有行为）
+     */
+    RANDOM
+}
@@ -0,0 +1,19 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 工单状态计数器的统计范围
+ */
+public enum CounterScope {
+    /**
+     * 全局（scopeId 固定为 0）
+     */
+    GLOBAL,
+    /**
+     * 按提交用户
+     */
+    USER,
+    /**
+     * 按分配工程师
+     */
+    ENGINEER
+}
@@ -0,0 +1,41 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 工单事件类型（工单时间线）
+ */
+public enum OrderEventType {
+
+    CREATED("提交工单"),
+
+    DRAFT_SAVED("保存草稿"),
+
+    DRAFT_UPDATED("修改草稿"),
+
+    SUBMITTED("提交草稿"),
+
+    ASSIGNED("分配工程师"),
+
+    AUTO_ASSIGNED("系统自动分配"),
+
+    ACCEPTED("工程师接单"),
+
+    COMPLETED("维修完成"),
+
+    CLOSED("确认关闭并评价"),
+
+    CANCELLED("用户取消"),
+
+    ADMIN_CANCELLED("管理员强制取消"),
+
+    STATUS_CHANGED("状态变更");
+
+    private final String description;
+
+    OrderEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,33 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 工单导出格式
+ */
+public enum OrderExportFormat {
+
+    /**
+     * 逗号分隔，带 UTF-8 BOM，便于 Excel 直接打开
+     */
+    CSV("text/csv;charset=UTF-8", "csv"),
+
+    /**
+     * 每行一个 JSON 对象，便于脚本逐行处理
+     */
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    OrderExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
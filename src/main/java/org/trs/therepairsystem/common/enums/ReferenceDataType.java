@@ -0,0 +1,23 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 进程内缓存的基础数据类型
+ */
+public enum ReferenceDataType {
+    /**
+     * 楼栋
+     */
+    BUILDING,
+    /**
+     * 楼层（缓存中带所属楼栋）
+     */
+    FLOOR,
+    /**
+     * 故障类型
+     */
+    FAULT_TYPE,
+    /**
+     * 角色
+     */
+    ROLE
+}
@@ -70,10 +70,17 @@ public enum RepairOrderStatus {
     }
     
     /**
-     * 判断是否可以撤销
+     * 判断是否可以分配工程师
+     */
+    public boolean canAssign() {
+        return this == SUBMITTED;
+    }
+
+    /**
+     * 判断用户是否可以撤销（工程师开始处理后不可撤销）
      */
     public boolean canCancel() {
-        return this == DRAFT || this == PENDING;
+        return this == DRAFT || this == SUBMITTED || this == PENDING;
     }
     
     /**
@@ -103,4 +110,22 @@ public enum RepairOrderStatus {
     public boolean isFinalStatus() {
         return this == CLOSED || this == CANCELLED;
     }
+
+    /**
+     * 状态机：判断能否从当前状态变更为目标状态
+     * 管理员可以把任意未结束的工单强制取消
+     */
+    public boolean canTransitionTo(RepairOrderStatus target) {
+        if (target == CANCELLED) {
+            return !isFinalStatus();
+        }
+        return switch (this) {
+            case DRAFT -> target == SUBMITTED;
+            case SUBMITTED -> target == PENDING;
+            case PENDING -> target == IN_PROGRESS;
+            case IN_PROGRESS -> target == COMPLETED;
+            case COMPLETED -> target == CLOSED;
+            case CLOSED, CANCELLED -> false;
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.trs.therepairsystem.common.enums;
+
+/**
+ * 分片上传会话状态
+ */
+public enum UploadSessionStatus {
+
+    /**
+     * 上传中 - 可继续上传或重传分片
+     */
+    UPLOADING,
+
+    /**
+     * 已完成 - 分片已合并并登记为附件，保留到过期以便客户端重试完成请求
+     */
+    COMPLETED
+}
@@ -0,0 +1,21 @@
+package org.trs.therepairsystem.common.exception;
+
+/**
+ * 幂等键冲突异常
+ * 同一幂等键被用于内容不同的请求，或首个请求仍在处理中且等待超时
+ */
+public class IdempotencyConflictException extends BusinessException {
+
+    public static final String CODE = "IDEMPOTENCY_CONFLICT";
+
+    private final String idempotencyKey;
+
+    public IdempotencyConflictException(String idempotencyKey, String message) {
+        super(CODE, message);
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,37 @@
+package org.trs.therepairsystem.common.exception;
+
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+/**
+ * 工单状态冲突异常
+ * 条件更新时工单已被其他请求修改（状态或处理人不再满足预期），调用方应刷新后重试
+ */
+public class OrderStateConflictException extends BusinessException {
+
+    public static final String CODE = "ORDER_STATE_CONFLICT";
+
+    private final Long orderId;
+    private final RepairOrderStatus expectedStatus;
+    private final RepairOrderStatus currentStatus;
+
+    public OrderStateConflictException(Long orderId, RepairOrderStatus expectedStatus, RepairOrderStatus currentStatus) {
+        super(CODE, currentStatus != null
+            ? "工单状态已变化（当前：" + currentStatus.getDescription() + "），请刷新后重试"
+            : "工单已被其他操作修改，请刷新后重试");
+        this.orderId = orderId;
+        this.expectedStatus = expectedStatus;
+        this.currentStatus = currentStatus;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public RepairOrderStatus getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    public RepairOrderStatus getCurrentStatus() {
+        return currentStatus;
+    }
+}
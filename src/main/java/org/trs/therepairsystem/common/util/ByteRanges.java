@@ -0,0 +1,90 @@
+package org.trs.therepairsystem.common.util;
+
+import org.springframework.http.HttpRange;
+
+import java.util.List;
+
+/**
+ * 字节范围请求（Range / If-Range）解析，用于附件断点续传
+ * <p>
+ * 只支持单个区间；多区间请求以及格式错误的 Range 头按 RFC 9110 允许的方式忽略，返回完整内容。
+ * 携带 If-Range 且与当前 ETag 不一致（或为日期形式）时同样返回完整内容，避免客户端把新旧文件拼接在一起。
+ * 起始位置超出内容长度时返回 416。
+ */
+public final class ByteRanges {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private ByteRanges() {
+    }
+
+    /**
+     * @param rangeHeader   请求的 Range 头，可为空
+     * @param ifRangeHeader 请求的 If-Range 头，可为空
+     * @param etag          当前内容的强校验 ETag（含引号）
+     * @param contentLength 完整内容长度
+     */
+    public static Selection select(String rangeHeader, String ifRangeHeader, String etag, long contentLength) {
+        if (rangeHeader == null || !rangeHeader.trim().startsWith(BYTES_UNIT)) {
+            return Selection.FULL;
+        }
+        if (ifRangeHeader != null && !ifRangeHeader.trim().equals(etag)) {
+            return Selection.FULL;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException ex) {
+            return Selection.FULL;
+        }
+        if (ranges.size() != 1) {
+            return Selection.FULL;
+        }
+        HttpRange range = ranges.get(0);
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(contentLength);
+            end = range.getRangeEnd(contentLength);
+        } catch (IllegalArgumentException ex) {
+            return Selection.UNSATISFIABLE;
+        }
+        if (start >= contentLength || start > end) {
+            return Selection.UNSATISFIABLE;
+        }
+        return new Selection(Kind.PARTIAL, start, end);
+    }
+
+    /**
+     * 416 响应的 Content-Range 值
+     */
+    public static String unsatisfiedContentRange(long contentLength) {
+        return "bytes */" + contentLength;
+    }
+
+    public enum Kind {
+        /** 返回完整内容（200） */
+        FULL,
+        /** 返回指定区间（206） */
+        PARTIAL,
+        /** 区间无法满足（416） */
+        UNSATISFIABLE
+    }
+
+    /**
+     * 解析结果，start/end 为闭区间，仅 PARTIAL 时有效
+     */
+    public record Selection(Kind kind, long start, long end) {
+
+        static final Selection FULL = new Selection(Kind.FULL, 0, -1);
+        static final Selection UNSATISFIABLE = new Selection(Kind.UNSATISFIABLE, 0, -1);
+
+        public long length() {
+            return end - start + 1;
+        }
+
+        public String contentRange(long contentLength) {
+            return "bytes " + start + "-" + end + "/" + contentLength;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.trs.therepairsystem.common.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * 基于版本标识的条件 GET（ETag / If-None-Match）
+ * <p>
+ * 接口先用轻量查询取得版本标识（工单版本号、基础数据失效计数等），与请求携带的 If-None-Match 一致时直接返回 304，
+ * 不再执行完整查询与 DTO 转换。处理方法在 {@link #notModified} 返回 true 时应直接返回 null，
+ * 由 Spring MVC 结束请求，GlobalResponseAdvice 不会再包装响应体。
+ * <p>
+ * ETag 均为弱校验值；响应带 Cache-Control: private, no-cache，客户端可以缓存，但每次使用前都需重新验证。
+ */
+public final class ConditionalRequests {
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * 写入 ETag 并判断是否未修改；versionTag 为空（例如资源不存在或无权访问）时不做条件判断，交由完整流程处理
+     *
+     * @param resource   资源类别，避免不同接口的版本标识相同时互相匹配
+     * @param versionTag 版本标识，只能包含字母、数字及 . - _
+     */
+    public static boolean notModified(WebRequest request, String resource, String versionTag) {
+        if (versionTag == null) {
+            return false;
+        }
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified("W/\"" + resource + "-" + versionTag + "\"");
+    }
+}
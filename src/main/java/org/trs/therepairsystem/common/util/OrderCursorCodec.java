@@ -0,0 +1,43 @@
+package org.trs.therepairsystem.common.util;
+
+import org.trs.therepairsystem.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 工单游标分页的游标编解码
+ * 游标由排序键 (createTime, id) 组成，对外以 Base64URL 字符串呈现，客户端不应解析其内容
+ */
+public final class OrderCursorCodec {
+
+    private static final char SEPARATOR = '|';
+
+    private OrderCursorCodec() {
+    }
+
+    public static String encode(LocalDateTime createTime, Long id) {
+        String raw = createTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0 || index == raw.length() - 1) {
+                throw new BusinessException("分页游标格式不正确");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("分页游标格式不正确");
+        }
+    }
+
+    public record Cursor(LocalDateTime createTime, Long id) {
+    }
+}
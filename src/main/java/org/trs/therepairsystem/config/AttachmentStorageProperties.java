@@ -5,6 +5,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.trs.therepairsystem.common.enums.StorageProvider;
 
+import java.time.Duration;
 import java.util.List;
 
 @Data
@@ -22,6 +23,10 @@ public class AttachmentStorageProperties {
 
     private Minio minio = new Minio();
 
+    private Session session = new Session();
+
+    private Thumbnail thumbnail = new Thumbnail();
+
     @Data
     public static class Minio {
         private boolean enabled = false;
@@ -30,5 +35,43 @@ public class AttachmentStorageProperties {
         private String secretKey;
         private String bucket = "repair-attachments";
         private boolean autoCreateBucket = true;
+        /**
+         * 直传模式：签发预签名 URL，由客户端直接与 MinIO 上传/下载，上传完成后回调确认登记附件
+         */
+        private boolean directTransfer = false;
+        private Duration uploadUrlExpiry = Duration.ofMinutes(10);
+        private Duration downloadUrlExpiry = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 分片上传会话：大文件按分片逐个上传，不受单次上传大小限制
+     */
+    @Data
+    public static class Session {
+        /** 分片上传允许的最大文件大小 */
+        private long maxFileSizeBytes = 200L * 1024L * 1024L;
+        /** 分片大小；MinIO 合并要求除最后一片外不小于 5MB */
+        private long partSize = 8L * 1024L * 1024L;
+        /** 会话自最后一次上传分片起的有效期，过期未完成的会话由清理任务删除 */
+        private Duration ttl = Duration.ofHours(24);
+        /** 过期会话清理间隔 */
+        private Duration cleanupInterval = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 缩略图：附件登记后由后台线程池生成固定尺寸的 JPEG 缩略图，列表页只需加载缩略图
+     */
+    @Data
+    public static class Thumbnail {
+        private boolean enabled = true;
+        /** 缩略图最长边（像素），按 2 倍屏 120px 预览取 240 */
+        private int maxDimension = 240;
+        /** JPEG 压缩质量，0-1 */
+        private float quality = 0.8f;
+        /** 生成线程数；解码原图占用 CPU 与内存，线程数即同时解码的图片数上限 */
+        private int workers = 2;
+        /** 待生成队列容量，队列满时跳过，启动时补生成 */
+        private int queueCapacity = 1000;
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
     }
 }
@@ -0,0 +1,30 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.auto-assign")
+public class AutoAssignProperties {
+
+    private boolean enabled = true;
+
+    private AssignmentStrategyType strategy = AssignmentStrategyType.LEAST_OPEN_ORDERS;
+
+    private int queueCapacity = 10000;
+
+    private int batchSize = 20;
+
+    private int maxConcurrentBatches = 4;
+
+    private int maxAttempts = 3;
+
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,21 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.idempotency")
+public class IdempotencyProperties {
+
+    private int maximumEntries = 10000;
+
+    private Duration ttl = Duration.ofHours(24);
+
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    private int maxKeyLength = 128;
+}
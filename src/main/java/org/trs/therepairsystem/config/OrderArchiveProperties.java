@@ -0,0 +1,34 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.archive")
+public class OrderArchiveProperties {
+
+    /**
+     * 归档会从 repair_order 等在用表删除已迁移的行，需运维显式开启
+     */
+    private boolean enabled = false;
+
+    private Duration minAge = Duration.ofDays(180);
+
+    private int chunkSize = 500;
+
+    private int maxChunksPerRun = 200;
+
+    /**
+     * 归档表按查询范围缓存的总数条数上限
+     */
+    private int countCacheSize = 10000;
+
+    /**
+     * 归档总数缓存有效期；本节点归档后立即失效，其他节点以此为最长不一致时间
+     */
+    private Duration countCacheTtl = Duration.ofHours(1);
+}
@@ -0,0 +1,23 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.events")
+public class OrderEventProperties {
+
+    private int queueCapacity = 50000;
+
+    private int batchSize = 200;
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    private int maxAttempts = 3;
+
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
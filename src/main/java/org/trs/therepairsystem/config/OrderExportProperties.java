@@ -0,0 +1,15 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.export")
+public class OrderExportProperties {
+
+    private int fetchSize = 1000;
+
+    private int chunkSize = 1000;
+}
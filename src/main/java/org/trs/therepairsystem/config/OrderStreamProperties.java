@@ -0,0 +1,23 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.stream")
+public class OrderStreamProperties {
+
+    private int maxSubscribers = 5000;
+
+    private int subscriberBufferSize = 64;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+
+    private Duration maxConnectionLifetime = Duration.ofMinutes(30);
+
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+}
@@ -0,0 +1,17 @@
+package org.trs.therepairsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "repair-order.reference-cache")
+public class ReferenceDataCacheProperties {
+
+    private int maximumSize = 10000;
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,12 @@
+package org.trs.therepairsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 启用定时任务（统计对账等后台任务）
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,48 @@
+package org.trs.therepairsystem.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 读写分离路由：readOnly 事务走健康的从库，其余（读写事务、无事务的访问）走主库
+ * <p>
+ * 路由在取得物理连接时决定，必须包在 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 中使用：
+ * 事务管理器在开启事务时就会取连接，而此时当前事务的只读标记尚未设置，延迟到第一条语句才能读到正确的标记。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaPool replicaPool;
+    private final boolean readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicaPool, boolean readYourWrites) {
+        this.replicaPool = replicaPool;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>(replicaPool.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (readYourWrites && ReadYourWritesContext.hasWritten()) {
+            return PRIMARY;
+        }
+        String replica = replicaPool.next();
+        return replica != null ? replica : PRIMARY;
+    }
+}
@@ -0,0 +1,37 @@
+package org.trs.therepairsystem.config.datasource;
+
+/**
+ * 请求内“读己之写”标记
+ * 请求开始时开启作用域；作用域内发生过写事务后，后续只读事务也走主库，避免读到从库尚未同步的旧数据。
+ * 作用域之外（定时任务、异步线程）不做粘滞，每个事务独立路由。
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<boolean[]> SCOPE = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void begin() {
+        SCOPE.set(new boolean[1]);
+    }
+
+    public static void end() {
+        SCOPE.remove();
+    }
+
+    /**
+     * 当前作用域内开启了读写事务
+     */
+    public static void markWrite() {
+        boolean[] written = SCOPE.get();
+        if (written != null) {
+            written[0] = true;
+        }
+    }
+
+    public static boolean hasWritten() {
+        boolean[] written = SCOPE.get();
+        return written != null && written[0];
+    }
+}
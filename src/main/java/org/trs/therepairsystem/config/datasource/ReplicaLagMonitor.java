@@ -0,0 +1,82 @@
+package org.trs.therepairsystem.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从库复制延迟检测
+ * 每次检测先向主库 replica_heartbeat 写入当前时间，再从各从库读回该行：延迟 = 当前时间 - 从库上的心跳时间。
+ * 从库已追上时读到的就是刚写入的值；落后时读到的是更早的心跳，测得的延迟最多比实际多一个检测间隔，因此 max-lag 应大于检测间隔。
+ * 延迟超过 max-lag、心跳缺失或从库无法连接时将其标记为不可用，只读事务回退主库，恢复后自动重新启用。
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final ReplicaPool replicaPool;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(DataSource primary, ReplicaPool replicaPool, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicaPool = replicaPool;
+        this.maxLag = maxLag;
+        replicaPool.getReplicas().forEach((name, dataSource) -> replicas.put(name, new JdbcTemplate(dataSource)));
+    }
+
+    @Scheduled(fixedDelayString = "${repair-order.read-replica.lag-check-interval:PT1S}")
+    public void check() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            writeHeartbeat(now);
+        } catch (DataAccessException e) {
+            log.warn("写入主库复制心跳失败", e);
+        }
+        replicas.forEach((name, replica) -> replicaPool.markHealthy(name, isWithinMaxLag(name, replica, now)));
+    }
+
+    private void writeHeartbeat(LocalDateTime now) {
+        Timestamp beat = Timestamp.valueOf(now);
+        int updated = primary.update("UPDATE replica_heartbeat SET beat_time = ? WHERE id = ?", beat, HEARTBEAT_ID);
+        if (updated == 0) {
+            try {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_time) VALUES (?, ?)", HEARTBEAT_ID, beat);
+            } catch (DuplicateKeyException e) {
+                // 其他实例同时插入了心跳行，下次检测时更新即可
+            }
+        }
+    }
+
+    private boolean isWithinMaxLag(String name, JdbcTemplate replica, LocalDateTime now) {
+        try {
+            List<Timestamp> beats = replica.queryForList(
+                "SELECT beat_time FROM replica_heartbeat WHERE id = ?", Timestamp.class, HEARTBEAT_ID);
+            if (beats.isEmpty() || beats.get(0) == null) {
+                log.debug("从库 {} 尚未同步到复制心跳", name);
+                return false;
+            }
+            Duration lag = Duration.between(beats.get(0).toLocalDateTime(), now);
+            if (lag.compareTo(maxLag) > 0) {
+                log.debug("从库 {} 复制延迟 {} ms，超过上限 {} ms", name, lag.toMillis(), maxLag.toMillis());
+                return false;
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.debug("从库 {} 延迟检测失败", name, e);
+            return false;
+        }
+    }
+}
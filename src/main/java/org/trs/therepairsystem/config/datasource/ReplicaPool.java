@@ -0,0 +1,81 @@
+package org.trs.therepairsystem.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 从库集合及其健康状态
+ * 由 {@link ReplicaLagMonitor} 按复制延迟更新健康状态；只读事务在健康的从库间轮询，全部不可用时返回 null 由调用方回退主库。
+ * 新加入的从库在首次检测通过前视为不可用。
+ */
+@Slf4j
+public class ReplicaPool implements AutoCloseable {
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private volatile List<String> available = List.of();
+
+    public ReplicaPool(Map<String, DataSource> replicas) {
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 轮询选出一个健康的从库名，没有可用从库时返回 null
+     */
+    public String next() {
+        List<String> current = available;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(cursor.getAndIncrement(), current.size()));
+    }
+
+    public boolean isHealthy(String name) {
+        return healthy.getOrDefault(name, false);
+    }
+
+    public void markHealthy(String name, boolean isHealthy) {
+        Boolean previous = healthy.put(name, isHealthy);
+        if (previous == null || previous != isHealthy) {
+            if (isHealthy) {
+                log.info("从库 {} 可用，只读事务开始路由到该从库", name);
+            } else {
+                log.warn("从库 {} 不可用或复制延迟过大，只读事务暂时回退主库", name);
+            }
+            refreshAvailable();
+        }
+    }
+
+    private synchronized void refreshAvailable() {
+        List<String> names = new ArrayList<>();
+        for (String name : replicas.keySet()) {
+            if (isHealthy(name)) {
+                names.add(name);
+            }
+        }
+        available = List.copyOf(names);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.trs.therepairsystem.dto.request.announcement.AnnouncementCreateRequest;
 import org.trs.therepairsystem.dto.request.announcement.AnnouncementUpdateRequest;
 import org.trs.therepairsystem.dto.response.AnnouncementDTO;
+import org.trs.therepairsystem.common.util.ConditionalRequests;
 import org.trs.therepairsystem.entity.Announcement;
 import org.trs.therepairsystem.security.CustomUserDetails;
 import org.trs.therepairsystem.service.AnnouncementService;
@@ -98,8 +100,12 @@ public class AnnouncementController {
     }
 
     @GetMapping("/published")
-    @Operation(summary = "查询已发布公告", description = "获取所有已发布状态的公告列表")
-    public List<AnnouncementDTO> getPublishedAnnouncements() {
+    @Operation(summary = "查询已发布公告", description = "获取所有已发布状态的公告列表。支持 ETag，携带 If-None-Match 且公告未变化时返回 304")
+    public List<AnnouncementDTO> getPublishedAnnouncements(WebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, "announcements",
+                announcementService.getPublishedAnnouncementsVersionTag())) {
+            return null;
+        }
         return announcementService.getPublishedAnnouncements();
     }
 
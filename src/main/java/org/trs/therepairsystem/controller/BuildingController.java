@@ -13,6 +13,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.trs.therepairsystem.common.util.ConditionalRequests;
 import org.trs.therepairsystem.entity.Building;
 import org.trs.therepairsystem.service.BuildingService;
 import org.trs.therepairsystem.web.converter.BuildingConverter;
@@ -35,12 +37,16 @@ public class BuildingController {
     private BuildingService buildingService;
 
     @GetMapping
-    @Operation(summary = "获取所有楼栋", description = "获取系统中所有楼栋列表，按名称排序")
+    @Operation(summary = "获取所有楼栋", description = "获取系统中所有楼栋列表，按名称排序。支持 ETag，携带 If-None-Match 且数据未变化时返回 304")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "获取成功"),
+        @ApiResponse(responseCode = "304", description = "数据未变化"),
         @ApiResponse(responseCode = "401", description = "未认证")
     })
-    public List<BuildingDTO> getAllBuildings() {
+    public List<BuildingDTO> getAllBuildings(WebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, "buildings", buildingService.getAllBuildingsVersionTag())) {
+            return null;
+        }
         List<Building> buildings = buildingService.getAllBuildings();
         return BuildingConverter.toDTOList(buildings);
     }
@@ -0,0 +1,42 @@
+package org.trs.therepairsystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.trs.therepairsystem.common.dto.ApiResponse;
+import org.trs.therepairsystem.dto.response.ReferenceCacheStatsResponse;
+import org.trs.therepairsystem.service.cache.ReferenceDataCache;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/reference-cache")
+@RequiredArgsConstructor
+@Tag(name = "基础数据缓存", description = "楼栋、楼层、故障类型、角色缓存的命中统计与手动清理")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ReferenceDataCacheController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    @Operation(summary = "查看缓存统计", description = "各类基础数据缓存的条目数、命中/未命中、淘汰与失效次数（本节点自启动起累计）")
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<ReferenceCacheStatsResponse>>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success(referenceDataCache.getStats()));
+    }
+
+    @Operation(summary = "清空缓存", description = "直接修改数据库中的基础数据后使用，清空本节点缓存并通知其他节点")
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> evictAll() {
+        referenceDataCache.evictAll();
+        return ResponseEntity.ok(ApiResponse.success());
+    }
+}
@@ -8,23 +8,36 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.common.util.ByteRanges;
 import org.trs.therepairsystem.common.util.ContentDispositionUtils;
+import org.trs.therepairsystem.dto.request.AttachmentUploadConfirmRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadSessionRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadUrlRequest;
+import org.trs.therepairsystem.dto.response.AttachmentDownloadUrlResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadSessionResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadUrlResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderAttachmentResponse;
 import org.trs.therepairsystem.security.CustomUserDetails;
 import org.trs.therepairsystem.service.RepairOrderAttachmentService;
+import org.trs.therepairsystem.service.storage.AttachmentContent;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -34,6 +47,8 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class RepairOrderAttachmentController {
 
+    private static final Duration THUMBNAIL_MAX_AGE = Duration.ofDays(7);
+
     private final RepairOrderAttachmentService attachmentService;
 
     @PostMapping(value = "/{orderId}/attachments", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -56,6 +71,140 @@ public class RepairOrderAttachmentController {
                 return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
     }
 
+    @PostMapping("/{orderId}/attachments/upload-url")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "申请附件直传地址", description = "直传模式下签发短期有效的预签名 PUT 地址，客户端携带返回的请求头直接上传到对象存储，完成后调用确认接口登记附件。上传权限规则与普通上传一致。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "签发成功"),
+            @ApiResponse(responseCode = "400", description = "参数错误、文件校验失败或未启用直传模式"),
+            @ApiResponse(responseCode = "403", description = "没有权限上传该工单附件"),
+            @ApiResponse(responseCode = "404", description = "工单不存在")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<AttachmentUploadUrlResponse>> createUploadUrl(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Valid @RequestBody AttachmentUploadUrlRequest request) {
+
+        AttachmentUploadUrlResponse response = attachmentService.createUploadUrl(
+                userDetails.getUserId(), isAdmin(userDetails), orderId, request);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
+    }
+
+    @PostMapping("/{orderId}/attachments/confirm")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "确认附件直传完成", description = "核对对象存储中文件的实际大小与类型后登记附件；校验不通过的文件会被删除。重复确认返回已登记的附件。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "登记成功"),
+            @ApiResponse(responseCode = "400", description = "文件大小或类型不符合要求，或未启用直传模式"),
+            @ApiResponse(responseCode = "403", description = "没有权限确认该上传"),
+            @ApiResponse(responseCode = "404", description = "工单不存在或文件尚未上传")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<RepairOrderAttachmentResponse>> confirmUpload(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Valid @RequestBody AttachmentUploadConfirmRequest request) {
+
+        RepairOrderAttachmentResponse response = attachmentService.confirmUpload(
+                userDetails.getUserId(), isAdmin(userDetails), orderId, request);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
+    }
+
+    @PostMapping("/{orderId}/attachments/upload-sessions")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "创建分片上传会话", description = "大文件按返回的分片大小切分后逐片上传，断线后可查询会话获取已上传分片继续上传。上传权限规则与普通上传一致。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "创建成功"),
+            @ApiResponse(responseCode = "400", description = "参数错误或文件校验失败"),
+            @ApiResponse(responseCode = "403", description = "没有权限上传该工单附件"),
+            @ApiResponse(responseCode = "404", description = "工单不存在")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<AttachmentUploadSessionResponse>> createUploadSession(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Valid @RequestBody AttachmentUploadSessionRequest request) {
+
+        AttachmentUploadSessionResponse response = attachmentService.createUploadSession(
+                userDetails.getUserId(), isAdmin(userDetails), orderId, request);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
+    }
+
+    @PutMapping(value = "/{orderId}/attachments/upload-sessions/{sessionId}/parts/{partNumber}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节，分片号从 1 开始；除最后一片外大小须等于会话分片大小。重复上传同一分片会覆盖之前的内容。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "上传成功"),
+            @ApiResponse(responseCode = "400", description = "分片号或分片大小不正确，或会话已完成"),
+            @ApiResponse(responseCode = "403", description = "没有权限操作该上传会话"),
+            @ApiResponse(responseCode = "404", description = "上传会话不存在或已过期")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<Void>> uploadSessionPart(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Parameter(description = "上传会话ID") @PathVariable String sessionId,
+            @Parameter(description = "分片号，从 1 开始", example = "1") @PathVariable int partNumber,
+            HttpServletRequest request) throws IOException {
+
+        attachmentService.uploadSessionPart(userDetails.getUserId(), orderId, sessionId, partNumber,
+                request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success());
+    }
+
+    @GetMapping("/{orderId}/attachments/upload-sessions/{sessionId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "查询分片上传会话", description = "返回会话状态及已上传的分片号，客户端据此只补传缺失的分片。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "查询成功"),
+            @ApiResponse(responseCode = "403", description = "没有权限操作该上传会话"),
+            @ApiResponse(responseCode = "404", description = "上传会话不存在或已过期")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<AttachmentUploadSessionResponse>> getUploadSession(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Parameter(description = "上传会话ID") @PathVariable String sessionId) {
+
+        AttachmentUploadSessionResponse response = attachmentService.getUploadSession(
+                userDetails.getUserId(), orderId, sessionId);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
+    }
+
+    @PostMapping("/{orderId}/attachments/upload-sessions/{sessionId}/complete")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "完成分片上传", description = "校验分片齐全后在存储端合并为附件文件并登记附件。重复调用返回已登记的附件。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "登记成功"),
+            @ApiResponse(responseCode = "400", description = "分片未全部上传"),
+            @ApiResponse(responseCode = "403", description = "没有权限操作该上传会话"),
+            @ApiResponse(responseCode = "404", description = "上传会话不存在或已过期")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<RepairOrderAttachmentResponse>> completeUploadSession(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Parameter(description = "上传会话ID") @PathVariable String sessionId) {
+
+        RepairOrderAttachmentResponse response = attachmentService.completeUploadSession(
+                userDetails.getUserId(), isAdmin(userDetails), orderId, sessionId);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
+    }
+
+    @DeleteMapping("/{orderId}/attachments/upload-sessions/{sessionId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "取消分片上传", description = "删除未完成会话及已上传的分片。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "取消成功"),
+            @ApiResponse(responseCode = "400", description = "会话已完成"),
+            @ApiResponse(responseCode = "403", description = "没有权限操作该上传会话"),
+            @ApiResponse(responseCode = "404", description = "上传会话不存在或已过期")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<Void>> abortUploadSession(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Parameter(description = "上传会话ID") @PathVariable String sessionId) {
+
+        attachmentService.abortUploadSession(userDetails.getUserId(), orderId, sessionId);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success());
+    }
+
     @GetMapping("/{orderId}/attachments")
     @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
     @Operation(summary = "查询工单附件列表", description = "查询指定工单的附件列表。")
@@ -75,32 +224,111 @@ public class RepairOrderAttachmentController {
 
     @GetMapping("/{orderId}/attachments/{attachmentId}/download")
     @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
-    @Operation(summary = "下载工单附件", description = "下载指定工单附件文件。")
+    @Operation(summary = "下载工单附件", description = "下载指定工单附件文件。支持 Range 断点续传（单个区间，返回 206），可配合 If-Range 携带上次响应的 ETag，文件不一致时返回完整内容。")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "下载成功", content = @Content(schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "206", description = "返回请求的字节区间", content = @Content(schema = @Schema(type = "string", format = "binary"))),
             @ApiResponse(responseCode = "403", description = "没有权限下载该工单附件"),
-            @ApiResponse(responseCode = "404", description = "工单或附件不存在")
+            @ApiResponse(responseCode = "404", description = "工单或附件不存在"),
+            @ApiResponse(responseCode = "416", description = "请求的字节区间超出文件长度")
     })
-    public ResponseEntity<InputStreamResource> downloadAttachment(
+    public ResponseEntity<StreamingResponseBody> downloadAttachment(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
-            @Parameter(description = "附件ID", example = "10") @PathVariable Long attachmentId) throws IOException {
+            @Parameter(description = "附件ID", example = "10") @PathVariable Long attachmentId,
+            @Parameter(description = "字节区间，如 bytes=1024-") @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @Parameter(description = "上次响应的 ETag，与当前文件一致时 Range 才生效") @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
 
         RepairOrderAttachmentService.AttachmentDownloadInfo info = attachmentService.getAttachmentForDownload(
                 userDetails.getUserId(), isAdmin(userDetails), orderId, attachmentId);
 
+        AttachmentContent content = info.content();
+        long contentLength = content.contentLength();
+        // 附件上传后内容不再变化（对象键每次上传重新生成），ID 与长度即可作为强校验 ETag
+        String etag = "\"attachment-" + attachmentId + "-" + contentLength + "\"";
+        ByteRanges.Selection selection = ByteRanges.select(range, ifRange, etag, contentLength);
+        if (selection.kind() == ByteRanges.Kind.UNSATISFIABLE) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, ByteRanges.unsatisfiedContentRange(contentLength))
+                    .build();
+        }
+
         MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
         if (info.attachment().getContentType() != null) {
             mediaType = MediaType.parseMediaType(info.attachment().getContentType());
         }
 
-        InputStreamResource resource = new InputStreamResource(new ByteArrayResource(info.content()).getInputStream());
-        return ResponseEntity.ok()
+        boolean partial = selection.kind() == ByteRanges.Kind.PARTIAL;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
                 .contentType(mediaType)
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         ContentDispositionUtils.buildAttachmentHeaderValue(info.attachment().getOriginalFileName()))
-                .contentLength(info.attachment().getFileSize())
-                .body(resource);
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(etag);
+        if (partial) {
+            long start = selection.start();
+            long length = selection.length();
+            StreamingResponseBody body = out -> content.transferTo(out, start, length);
+            return builder.header(HttpHeaders.CONTENT_RANGE, selection.contentRange(contentLength))
+                    .contentLength(length)
+                    .body(body);
+        }
+        StreamingResponseBody body = content::transferTo;
+        return builder.contentLength(contentLength).body(body);
+    }
+
+    @GetMapping("/{orderId}/attachments/{attachmentId}/thumbnail")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "获取附件缩略图", description = "返回后台生成的 JPEG 缩略图，访问规则与下载原图一致。缩略图内容不会变化，客户端可缓存并以 If-None-Match 重新验证。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "获取成功", content = @Content(schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "304", description = "缩略图未变化"),
+            @ApiResponse(responseCode = "403", description = "没有权限查看该工单附件"),
+            @ApiResponse(responseCode = "404", description = "工单或附件不存在，或缩略图尚未生成")
+    })
+    public ResponseEntity<StreamingResponseBody> downloadThumbnail(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Parameter(description = "附件ID", example = "10") @PathVariable Long attachmentId,
+            WebRequest webRequest) {
+
+        RepairOrderAttachmentService.AttachmentDownloadInfo info = attachmentService.getThumbnailForDownload(
+                userDetails.getUserId(), isAdmin(userDetails), orderId, attachmentId);
+
+        // 缩略图生成后不再变化，附件ID即可作为强校验 ETag
+        String etag = "\"thumbnail-" + attachmentId + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        AttachmentContent content = info.content();
+        StreamingResponseBody body = content::transferTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(content.contentLength())
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(THUMBNAIL_MAX_AGE).cachePrivate())
+                .body(body);
+    }
+
+    @GetMapping("/{orderId}/attachments/{attachmentId}/download-url")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    @Operation(summary = "申请附件直传下载地址", description = "直传模式下签发短期有效的预签名 GET 地址，客户端直接从对象存储下载。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "签发成功"),
+            @ApiResponse(responseCode = "400", description = "未启用直传模式或附件不在对象存储中"),
+            @ApiResponse(responseCode = "403", description = "没有权限下载该工单附件"),
+            @ApiResponse(responseCode = "404", description = "工单或附件不存在")
+    })
+    public ResponseEntity<org.trs.therepairsystem.common.dto.ApiResponse<AttachmentDownloadUrlResponse>> createDownloadUrl(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID", example = "1001") @PathVariable Long orderId,
+            @Parameter(description = "附件ID", example = "10") @PathVariable Long attachmentId) {
+
+        AttachmentDownloadUrlResponse response = attachmentService.createDownloadUrl(
+                userDetails.getUserId(), isAdmin(userDetails), orderId, attachmentId);
+        return ResponseEntity.ok(org.trs.therepairsystem.common.dto.ApiResponse.success(response));
     }
 
     @DeleteMapping("/{orderId}/attachments/{attachmentId}")
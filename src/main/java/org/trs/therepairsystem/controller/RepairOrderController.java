@@ -9,19 +9,47 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.trs.therepairsystem.dto.request.*;
+import org.trs.therepairsystem.dto.response.CursorPageResponse;
 import org.trs.therepairsystem.dto.response.EngineerResponse;
+import org.trs.therepairsystem.dto.response.OrderAssignmentRecordResponse;
+import org.trs.therepairsystem.dto.response.OrderCounterReconcileResponse;
+import org.trs.therepairsystem.dto.response.OrderDailyStatsResponse;
+import org.trs.therepairsystem.dto.response.OrderEventResponse;
+import org.trs.therepairsystem.dto.response.RepairOrderBulkResultResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderStatsResponse;
+import org.trs.therepairsystem.common.enums.OrderExportFormat;
 import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.util.ConditionalRequests;
+import org.trs.therepairsystem.common.util.ContentDispositionUtils;
 import org.trs.therepairsystem.security.CustomUserDetails;
+import org.trs.therepairsystem.service.OrderDailyRollupService;
+import org.trs.therepairsystem.service.OrderStatsCounterService;
+import org.trs.therepairsystem.service.RepairOrderExportService;
 import org.trs.therepairsystem.service.RepairOrderService;
+import org.trs.therepairsystem.service.event.OrderChangeBus;
+import org.trs.therepairsystem.service.event.OrderChangedEvent;
+import org.trs.therepairsystem.service.idempotency.IdempotencyStore;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
 import org.trs.therepairsystem.common.dto.ApiResponse;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 @Tag(name = "维修工单管理", description = "维修工单相关操作接口")
@@ -30,7 +58,19 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RepairOrderController {
 
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    // 单页不能超过检索可翻页的结果窗口
+    private static final int MAX_SEARCH_PAGE_SIZE = Math.min(100, OrderSearchIndex.MAX_RESULT_WINDOW);
+    private static final DateTimeFormatter EXPORT_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
     private final RepairOrderService repairOrderService;
+    private final OrderStatsCounterService orderStatsCounterService;
+    private final OrderDailyRollupService orderDailyRollupService;
+    private final OrderChangeBus orderChangeBus;
+    private final RepairOrderExportService repairOrderExportService;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "用户提交维修工单", description = "普通用户提交新的维修工单，状态变为已提交，等待系统自动分配或管理员手动分配工程师")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
@@ -43,9 +83,11 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> submitOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Valid @RequestBody RepairOrderSubmitRequest request) {
+            @Valid @RequestBody RepairOrderSubmitRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.submitOrder(userDetails.getUserId(), request);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("submit", request), () -> repairOrderService.submitOrder(userDetails.getUserId(), request));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -54,13 +96,15 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> saveDraft(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Valid @RequestBody RepairOrderSubmitRequest request) {
+            @Valid @RequestBody RepairOrderSubmitRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.saveDraft(userDetails.getUserId(), request);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("draft", request), () -> repairOrderService.saveDraft(userDetails.getUserId(), request));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
-    @Operation(summary = "提交草稿工单", description = "将已保存的草稿工单提交，状态变为已提交并尝试自动分配工程师，如果自动分配失败则等待管理员手动分配")
+    @Operation(summary = "提交草稿工单", description = "将已保存的草稿工单提交，状态变为已提交并立即返回，系统随后异步自动分配工程师，分配失败则等待管理员手动分配")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "提交成功"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "工单状态不允许提交或请求参数错误"),
@@ -71,9 +115,11 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> submitDraft(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+            @Parameter(description = "工单ID") @PathVariable Long orderId,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.submitDraft(userDetails.getUserId(), orderId);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("submitDraft", orderId), () -> repairOrderService.submitDraft(userDetails.getUserId(), orderId));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -89,9 +135,11 @@ public class RepairOrderController {
     public ResponseEntity<ApiResponse<RepairOrderResponse>> updateDraft(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @Parameter(description = "工单ID") @PathVariable Long orderId,
-            @Valid @RequestBody RepairOrderSubmitRequest request) {
+            @Valid @RequestBody RepairOrderSubmitRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.updateDraft(userDetails.getUserId(), orderId, request);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("updateDraft", orderId, request), () -> repairOrderService.updateDraft(userDetails.getUserId(), orderId, request));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -107,10 +155,11 @@ public class RepairOrderController {
     public ResponseEntity<ApiResponse<RepairOrderResponse>> assignEngineer(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @Parameter(description = "工单ID") @PathVariable Long orderId,
-            @Valid @RequestBody RepairOrderAssignRequest request) {
+            @Valid @RequestBody RepairOrderAssignRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.assignEngineer(
-            userDetails.getUserId(), orderId, request);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("assign", orderId, request), () -> repairOrderService.assignEngineer(userDetails.getUserId(), orderId, request));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -125,10 +174,11 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> autoAssignEngineer(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+            @Parameter(description = "工单ID") @PathVariable Long orderId,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.autoAssignEngineer(
-            userDetails.getUserId(), orderId);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("autoAssign", orderId), () -> repairOrderService.autoAssignEngineer(userDetails.getUserId(), orderId));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -137,10 +187,11 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('ENGINEER')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> acceptOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+            @Parameter(description = "工单ID") @PathVariable Long orderId,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.acceptOrder(
-            userDetails.getUserId(), orderId);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("accept", orderId), () -> repairOrderService.acceptOrder(userDetails.getUserId(), orderId));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -150,10 +201,11 @@ public class RepairOrderController {
     public ResponseEntity<ApiResponse<RepairOrderResponse>> completeOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @Parameter(description = "工单ID") @PathVariable Long orderId,
-            @Valid @RequestBody RepairOrderCompleteRequest request) {
+            @Valid @RequestBody RepairOrderCompleteRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.completeOrder(
-            userDetails.getUserId(), orderId, request);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("complete", orderId, request), () -> repairOrderService.completeOrder(userDetails.getUserId(), orderId, request));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -163,10 +215,11 @@ public class RepairOrderController {
     public ResponseEntity<ApiResponse<RepairOrderResponse>> closeOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @Parameter(description = "工单ID") @PathVariable Long orderId,
-            @Valid @RequestBody RepairRatingRequest ratingRequest) {
+            @Valid @RequestBody RepairRatingRequest ratingRequest,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.closeOrderWithRating(
-            userDetails.getUserId(), orderId, ratingRequest);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("close", orderId, ratingRequest), () -> repairOrderService.closeOrderWithRating(userDetails.getUserId(), orderId, ratingRequest));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -181,10 +234,11 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> cancelOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+            @Parameter(description = "工单ID") @PathVariable Long orderId,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.cancelOrder(
-            userDetails.getUserId(), orderId);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("cancel", orderId), () -> repairOrderService.cancelOrder(userDetails.getUserId(), orderId));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -198,19 +252,57 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> adminCancelOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+            @Parameter(description = "工单ID") @PathVariable Long orderId,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         
-        RepairOrderResponse response = repairOrderService.adminCancelOrder(
-            userDetails.getUserId(), orderId);
+        RepairOrderResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("adminCancel", orderId), () -> repairOrderService.adminCancelOrder(userDetails.getUserId(), orderId));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "管理员批量分配工程师", description = "一次为多个工单指定工程师（单次最多500个）。逐单校验状态和工程师资质，不合格的工单在结果中标注原因，不影响其他工单。")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "处理完成，逐单结果见响应"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "请求参数错误"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "权限不足")
+    })
+    @PutMapping("/admin/bulk-assign")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RepairOrderBulkResultResponse>> bulkAssignEngineers(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody RepairOrderBulkAssignRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+
+        RepairOrderBulkResultResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("bulkAssign", request), () -> repairOrderService.bulkAssignEngineers(userDetails.getUserId(), request));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "管理员批量强制取消工单", description = "一次强制取消多个工单（单次最多500个），已关闭或已取消的工单在结果中标注原因。")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "处理完成，逐单结果见响应"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "请求参数错误"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "权限不足")
+    })
+    @PutMapping("/admin/bulk-cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RepairOrderBulkResultResponse>> bulkCancelOrders(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody RepairOrderBulkCancelRequest request,
+            @Parameter(description = "幂等键，网络重试时携带相同的值可避免重复执行") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+
+        RepairOrderBulkResultResponse response = idempotencyStore.execute(userDetails.getUserId(), idempotencyKey,
+            List.of("bulkCancel", request), () -> repairOrderService.bulkCancelOrders(userDetails.getUserId(), request));
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
         @Operation(
             summary = "查询工单详情",
-            description = "根据工单ID查询详细信息。权限范围：管理员可查看任意工单；普通用户仅可查看自己提交的工单；工程师仅可查看分配给自己的工单。联系方式字段可能根据权限返回脱敏值。"
+            description = "根据工单ID查询详细信息。权限范围：管理员可查看任意工单；普通用户仅可查看自己提交的工单；工程师仅可查看分配给自己的工单。联系方式字段可能根据权限返回脱敏值。支持 ETag，携带 If-None-Match 且工单未变化时返回 304。"
         )
         @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "查询成功"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "工单未变化"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "无权限查看该工单"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "工单不存在")
         })
@@ -218,23 +310,69 @@ public class RepairOrderController {
     @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<RepairOrderResponse>> getOrderById(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+            @Parameter(description = "工单ID") @PathVariable Long orderId,
+            WebRequest webRequest) {
 
         boolean isAdmin = userDetails.getAuthorities().stream()
                 .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (ConditionalRequests.notModified(webRequest, "order",
+                repairOrderService.getOrderVersionTag(userDetails.getUserId(), isAdmin, orderId))) {
+            return null;
+        }
         RepairOrderResponse response = repairOrderService.getOrderById(userDetails.getUserId(), isAdmin, orderId);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
-    @Operation(summary = "获取用户工单列表", description = "查询当前用户的工单列表")
+    @Operation(summary = "订阅工单实时变化（SSE）", description = "以 Server-Sent Events 推送工单变化通知（事件名 order-changed），替代轮询。普通用户收到自己提交的工单变化，工程师另外收到分配给自己（及被改派走）的工单变化，管理员收到全部工单变化。服务端定期发送心跳注释，连接达到最长时长后正常结束，客户端按 retry 间隔自动重连，重连后应重新拉取一次列表。")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    public Flux<ServerSentEvent<OrderChangedEvent>> streamOrderChanges(
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        List<OrderChangeBus.Topic> topics = new ArrayList<>();
+        topics.add(new OrderChangeBus.Topic(OrderChangeBus.Scope.USER, userDetails.getUserId()));
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            if ("ROLE_ENGINEER".equals(authority.getAuthority())) {
+                topics.add(new OrderChangeBus.Topic(OrderChangeBus.Scope.ENGINEER, userDetails.getUserId()));
+            } else if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                topics.add(new OrderChangeBus.Topic(OrderChangeBus.Scope.ALL, null));
+            }
+        }
+        return orderChangeBus.subscribe(topics);
+    }
+
+    @Operation(summary = "查询工单时间线", description = "按发生时间列出工单的全部生命周期事件（提交、分配、接单、完成、关闭、取消等）及操作人。查看权限与工单详情一致，刚发生的事件可能有不超过一秒的写入延迟。")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "查询成功"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "无权限查看该工单"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "工单不存在")
+    })
+    @GetMapping("/{orderId}/timeline")
+    @PreAuthorize("hasRole('USER') or hasRole('ENGINEER') or hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<OrderEventResponse>>> getOrderTimeline(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+
+        boolean isAdmin = userDetails.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        List<OrderEventResponse> response = repairOrderService.getOrderTimeline(userDetails.getUserId(), isAdmin, orderId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "获取用户工单列表", description = "查询当前用户的工单列表。支持 ETag，携带 If-None-Match 且该用户的工单均未变化时返回 304")
     @GetMapping("/my")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Page<RepairOrderResponse>>> getUserOrders(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @Parameter(description = "状态筛选") @RequestParam(required = false) RepairOrderStatus status,
             @Parameter(description = "页码") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "页大小") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "页大小") @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
         
+        if (ConditionalRequests.notModified(webRequest, "my-orders",
+                repairOrderService.getUserOrdersVersionTag(userDetails.getUserId()))) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by("createTime").descending());
         Page<RepairOrderResponse> response = repairOrderService.getUserOrders(
             userDetails.getUserId(), status, pageable);
@@ -288,6 +426,93 @@ public class RepairOrderController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(summary = "管理员游标分页查询工单", description = "按创建时间倒序的游标分页，不统计总数，适合大数据量下连续翻页。首次请求不传cursor，后续请求传入上一页返回的nextCursor")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "查询成功"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "分页游标格式不正确"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "权限不足")
+    })
+    @GetMapping("/admin/all/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<RepairOrderResponse>>> getAllOrdersByCursor(
+            @Parameter(description = "状态筛选") @RequestParam(required = false) RepairOrderStatus status,
+            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId,
+            @Parameter(description = "工程师ID") @RequestParam(required = false) Long engineerId,
+            @Parameter(description = "建筑ID") @RequestParam(required = false) Long buildingId,
+            @Parameter(description = "故障类型ID") @RequestParam(required = false) Long faultTypeId,
+            @Parameter(description = "分页游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小，最大100") @RequestParam(defaultValue = "20") int size) {
+
+        RepairOrderQueryRequest request = new RepairOrderQueryRequest();
+        request.setStatus(status);
+        request.setUserId(userId);
+        request.setEngineerId(engineerId);
+        request.setBuildingId(buildingId);
+        request.setFaultTypeId(faultTypeId);
+
+        CursorPageResponse<RepairOrderResponse> response = repairOrderService.getAllOrdersByCursor(
+            request, cursor, normalizeCursorPageSize(size));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "管理员全文检索工单", description = "按关键词检索工单描述和维修说明（支持中文任意连续片段），按相关度排序，可叠加状态、楼栋、故障类型筛选。关键词至少两个字符，最多查看前1000条结果")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "查询成功"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "关键词过短、过长或超出可翻页范围"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "权限不足")
+    })
+    @GetMapping("/admin/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Page<RepairOrderResponse>>> searchOrders(
+            @Parameter(description = "关键词", example = "空调漏水") @RequestParam String keyword,
+            @Parameter(description = "状态筛选") @RequestParam(required = false) RepairOrderStatus status,
+            @Parameter(description = "建筑ID") @RequestParam(required = false) Long buildingId,
+            @Parameter(description = "故障类型ID") @RequestParam(required = false) Long faultTypeId,
+            @Parameter(description = "页码") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "页大小，最大100") @RequestParam(defaultValue = "20") int size) {
+
+        Page<RepairOrderResponse> orders = repairOrderService.searchOrders(
+            keyword, status, buildingId, faultTypeId, Math.max(page, 0), normalizeSearchPageSize(size));
+        return ResponseEntity.ok(ApiResponse.success(orders));
+    }
+
+    @Operation(summary = "管理员导出工单", description = "按与管理员查询相同的筛选条件导出工单，边查边写，适合导出大量数据。format 可选 CSV（带 BOM，可直接用 Excel 打开）或 NDJSON（每行一个 JSON 对象），按创建时间倒序输出")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "开始导出"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "时间格式不正确或区间无效"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "权限不足")
+    })
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "导出格式") @RequestParam(defaultValue = "CSV") OrderExportFormat format,
+            @Parameter(description = "状态筛选") @RequestParam(required = false) RepairOrderStatus status,
+            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId,
+            @Parameter(description = "工程师ID") @RequestParam(required = false) Long engineerId,
+            @Parameter(description = "建筑ID") @RequestParam(required = false) Long buildingId,
+            @Parameter(description = "故障类型ID") @RequestParam(required = false) Long faultTypeId,
+            @Parameter(description = "创建时间起（含），格式 yyyy-MM-dd HH:mm:ss") @RequestParam(required = false) String startTime,
+            @Parameter(description = "创建时间止（含），格式 yyyy-MM-dd HH:mm:ss") @RequestParam(required = false) String endTime) {
+
+        RepairOrderQueryRequest request = new RepairOrderQueryRequest();
+        request.setStatus(status);
+        request.setUserId(userId);
+        request.setEngineerId(engineerId);
+        request.setBuildingId(buildingId);
+        request.setFaultTypeId(faultTypeId);
+        request.setStartTime(startTime);
+        request.setEndTime(endTime);
+        // 响应开始写出后无法再返回错误信息，先校验筛选条件
+        repairOrderExportService.validateFilters(request);
+
+        StreamingResponseBody body = output -> repairOrderExportService.exportOrders(request, format, output);
+        String fileName = "repair-orders-" + LocalDateTime.now().format(EXPORT_FILE_TIME) + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDispositionUtils.buildAttachmentHeaderValue(fileName))
+                .body(body);
+    }
+
     @Operation(summary = "获取待分配工单", description = "管理员查看未分配工程师的待处理工单")
     @GetMapping("/admin/unassigned")
     @PreAuthorize("hasRole('ADMIN')")
@@ -300,6 +525,18 @@ public class RepairOrderController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(summary = "游标分页获取待分配工单", description = "按创建时间正序的游标分页，不统计总数。首次请求不传cursor，后续请求传入上一页返回的nextCursor")
+    @GetMapping("/admin/unassigned/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<RepairOrderResponse>>> getUnassignedOrdersByCursor(
+            @Parameter(description = "分页游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小，最大100") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<RepairOrderResponse> response = repairOrderService.getUnassignedOrdersByCursor(
+            cursor, normalizeCursorPageSize(size));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @Operation(summary = "获取可用工程师列表", description = "根据故障类型和区域获取可分配的工程师列表")
     @GetMapping("/available-engineers")
     @PreAuthorize("hasRole('ADMIN')")
@@ -312,6 +549,16 @@ public class RepairOrderController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(summary = "获取自动分配记录", description = "查看工单提交后自动分配的执行结果（最新在前），用于排查未分配原因")
+    @GetMapping("/{orderId}/auto-assign/records")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<OrderAssignmentRecordResponse>>> getAutoAssignRecords(
+            @Parameter(description = "工单ID") @PathVariable Long orderId) {
+
+        List<OrderAssignmentRecordResponse> response = repairOrderService.getAutoAssignRecords(orderId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @Operation(summary = "获取工单统计信息", description = "获取系统工单的统计数据")
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
@@ -320,6 +567,41 @@ public class RepairOrderController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(summary = "统计计数器对账", description = "根据工单表重建全局、用户、工程师维度的状态计数器，返回修正前的偏差明细")
+    @PostMapping("/stats/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<OrderCounterReconcileResponse>> reconcileOrderStats() {
+        OrderCounterReconcileResponse response = orderStatsCounterService.reconcile();
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "获取工单每日趋势", description = "按工单创建日期逐日统计数量及状态分布，区间最长366天")
+    @GetMapping("/stats/trend")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<OrderDailyStatsResponse>>> getOrderTrend(
+            @Parameter(description = "开始日期（含）", example = "2024-05-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "结束日期（含）", example = "2024-05-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "建筑ID，不传表示全部") @RequestParam(required = false) Long buildingId) {
+
+        List<OrderDailyStatsResponse> response = orderDailyRollupService.getTrend(from, to, buildingId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "回填按日统计", description = "根据工单表重建指定日期区间的按日汇总，返回回填天数")
+    @PostMapping("/stats/daily/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> backfillDailyStats(
+            @Parameter(description = "开始日期（含）", example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "结束日期（含）", example = "2024-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        int days = orderDailyRollupService.backfill(from, to);
+        return ResponseEntity.ok(ApiResponse.success(days));
+    }
+
     @Operation(summary = "获取用户工单统计", description = "获取当前用户的工单统计数据")
     @GetMapping("/stats/my")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -339,4 +621,18 @@ public class RepairOrderController {
         RepairOrderStatsResponse response = repairOrderService.getEngineerOrderStats(userDetails.getUserId());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
+
+    private int normalizeCursorPageSize(int size) {
+        if (size <= 0) {
+            return DEFAULT_CURSOR_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_CURSOR_PAGE_SIZE);
+    }
+
+    private int normalizeSearchPageSize(int size) {
+        if (size <= 0) {
+            return DEFAULT_SEARCH_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_SEARCH_PAGE_SIZE);
+    }
 }
\ No newline at end of file
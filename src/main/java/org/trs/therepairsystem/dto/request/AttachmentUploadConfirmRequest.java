@@ -0,0 +1,22 @@
+package org.trs.therepairsystem.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+
+@Data
+public class AttachmentUploadConfirmRequest {
+
+    @NotBlank(message = "对象键不能为空")
+    @Size(max = 500, message = "对象键长度不能超过500个字符")
+    private String objectKey;
+
+    @NotNull(message = "附件类型不能为空")
+    private AttachmentType attachmentType;
+
+    @NotBlank(message = "文件名不能为空")
+    @Size(max = 255, message = "文件名长度不能超过255个字符")
+    private String fileName;
+}
@@ -0,0 +1,26 @@
+package org.trs.therepairsystem.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+
+@Data
+public class AttachmentUploadSessionRequest {
+
+    @NotNull(message = "附件类型不能为空")
+    private AttachmentType attachmentType;
+
+    @NotBlank(message = "文件名不能为空")
+    @Size(max = 255, message = "文件名长度不能超过255个字符")
+    private String fileName;
+
+    @NotBlank(message = "文件内容类型不能为空")
+    private String contentType;
+
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long fileSize;
+}
@@ -0,0 +1,33 @@
+package org.trs.therepairsystem.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "批量分配工程师请求")
+public class RepairOrderBulkAssignRequest {
+
+    @Valid
+    @NotEmpty(message = "分配列表不能为空")
+    @Size(max = 500, message = "单次最多分配500个工单")
+    private List<Assignment> assignments;
+
+    @Data
+    @Schema(description = "单个工单的分配")
+    public static class Assignment {
+
+        @NotNull(message = "工单ID不能为空")
+        @Schema(description = "工单ID", example = "1001")
+        private Long orderId;
+
+        @NotNull(message = "工程师ID不能为空")
+        @Schema(description = "工程师ID", example = "12")
+        private Long engineerId;
+    }
+}
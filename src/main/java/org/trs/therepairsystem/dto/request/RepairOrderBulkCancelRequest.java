@@ -0,0 +1,19 @@
+package org.trs.therepairsystem.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "批量强制取消请求")
+public class RepairOrderBulkCancelRequest {
+
+    @NotEmpty(message = "工单ID列表不能为空")
+    @Size(max = 500, message = "单次最多取消500个工单")
+    @Schema(description = "工单ID列表", example = "[1001, 1002]")
+    private List<@NotNull(message = "工单ID不能为空") Long> orderIds;
+}
@@ -0,0 +1,23 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "附件直传下载地址")
+public class AttachmentDownloadUrlResponse {
+
+    @Schema(description = "预签名下载地址")
+    private String url;
+
+    @Schema(description = "下载地址过期时间")
+    private LocalDateTime expireTime;
+}
@@ -0,0 +1,53 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.common.enums.UploadSessionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "附件分片上传会话")
+public class AttachmentUploadSessionResponse {
+
+    @Schema(description = "会话ID")
+    private String sessionId;
+
+    @Schema(description = "工单ID", example = "1001")
+    private Long orderId;
+
+    @Schema(description = "附件类型", example = "PROBLEM_PHOTO")
+    private AttachmentType attachmentType;
+
+    @Schema(description = "原始文件名", example = "repair.mp4")
+    private String originalFileName;
+
+    @Schema(description = "文件大小(字节)", example = "52428800")
+    private Long fileSize;
+
+    @Schema(description = "分片大小(字节)，除最后一片外每片必须恰好为该大小", example = "8388608")
+    private Long partSize;
+
+    @Schema(description = "分片总数", example = "7")
+    private Integer partCount;
+
+    @Schema(description = "已上传的分片号，续传时只需上传缺少的分片")
+    private List<Integer> uploadedParts;
+
+    @Schema(description = "会话状态", example = "UPLOADING")
+    private UploadSessionStatus status;
+
+    @Schema(description = "完成后登记的附件ID")
+    private Long attachmentId;
+
+    @Schema(description = "会话过期时间，每上传一个分片顺延")
+    private LocalDateTime expireTime;
+}
@@ -0,0 +1,33 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "附件直传上传地址")
+public class AttachmentUploadUrlResponse {
+
+    @Schema(description = "对象键，上传完成后确认时原样提交", example = "repair-orders/1001/problem_photo/u2-3f2a9c.jpg")
+    private String objectKey;
+
+    @Schema(description = "预签名上传地址")
+    private String uploadUrl;
+
+    @Schema(description = "上传使用的 HTTP 方法", example = "PUT")
+    private String method;
+
+    @Schema(description = "上传时必须携带的请求头")
+    private Map<String, String> headers;
+
+    @Schema(description = "上传地址过期时间")
+    private LocalDateTime expireTime;
+}
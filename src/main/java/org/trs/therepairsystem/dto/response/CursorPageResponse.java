@@ -0,0 +1,27 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "游标分页响应对象（不返回总数）")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "当前页数据")
+    private List<T> content;
+
+    @Schema(description = "下一页游标，为空表示没有更多数据", example = "MjAyNi0xMC0xN1QwOToxMjozNHwxMjM0")
+    private String nextCursor;
+
+    @Schema(description = "是否还有下一页", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "本次请求的页大小", example = "20")
+    private int size;
+}
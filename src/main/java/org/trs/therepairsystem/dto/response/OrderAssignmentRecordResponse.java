@@ -0,0 +1,34 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.AssignmentOutcome;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "自动分配执行记录")
+public class OrderAssignmentRecordResponse {
+
+    @Schema(description = "工单ID", example = "1001")
+    private Long orderId;
+
+    @Schema(description = "分配结果", example = "ASSIGNED")
+    private AssignmentOutcome outcome;
+
+    @Schema(description = "分配到的工程师ID", example = "12")
+    private Long engineerId;
+
+    @Schema(description = "尝试次数", example = "1")
+    private int attempts;
+
+    @Schema(description = "失败原因", example = "没有可用的工程师处理此工单")
+    private String message;
+
+    @Schema(description = "记录时间")
+    private LocalDateTime createTime;
+}
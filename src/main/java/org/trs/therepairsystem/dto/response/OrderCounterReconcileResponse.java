@@ -0,0 +1,52 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "工单状态计数器对账结果")
+public class OrderCounterReconcileResponse {
+
+    @Schema(description = "参与比对的计数项数量", example = "120")
+    private long checkedCounters;
+
+    @Schema(description = "存在偏差并已修正的计数项数量", example = "2")
+    private int driftCount;
+
+    @Schema(description = "偏差明细（最多返回前100条）")
+    private List<Drift> drifts;
+
+    @Schema(description = "对账时间")
+    private LocalDateTime reconciledAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "计数偏差")
+    public static class Drift {
+
+        @Schema(description = "统计范围", example = "USER")
+        private CounterScope scope;
+
+        @Schema(description = "范围ID（全局为0）", example = "12")
+        private Long scopeId;
+
+        @Schema(description = "工单状态", example = "PENDING")
+        private RepairOrderStatus status;
+
+        @Schema(description = "根据 repair_order 重新统计的数量", example = "3")
+        private long expected;
+
+        @Schema(description = "修正前计数器中的数量", example = "4")
+        private long recorded;
+    }
+}
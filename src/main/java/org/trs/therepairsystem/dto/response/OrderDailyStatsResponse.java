@@ -0,0 +1,26 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "单日工单统计")
+public class OrderDailyStatsResponse {
+
+    @Schema(description = "统计日期（工单创建日期）", example = "2024-05-01")
+    private LocalDate date;
+
+    @Schema(description = "当天创建的工单总数", example = "18")
+    private long totalOrders;
+
+    @Schema(description = "当天创建的工单按当前状态分布")
+    private Map<RepairOrderStatus, Long> statusCounts;
+}
@@ -0,0 +1,41 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "工单时间线事件")
+public class OrderEventResponse {
+
+    @Schema(description = "事件类型", example = "ACCEPTED")
+    private OrderEventType eventType;
+
+    @Schema(description = "事件说明", example = "工程师接单")
+    private String eventDescription;
+
+    @Schema(description = "变化前状态，新建工单为空", example = "PENDING")
+    private RepairOrderStatus fromStatus;
+
+    @Schema(description = "变化后状态", example = "IN_PROGRESS")
+    private RepairOrderStatus toStatus;
+
+    @Schema(description = "操作人ID，系统自动处理时为空", example = "12")
+    private Long operatorId;
+
+    @Schema(description = "操作人姓名", example = "张工")
+    private String operatorName;
+
+    @Schema(description = "事件发生后的工程师ID", example = "12")
+    private Long engineerId;
+
+    @Schema(description = "发生时间")
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,35 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "基础数据缓存统计（自进程启动起累计）")
+public class ReferenceCacheStatsResponse {
+
+    @Schema(description = "数据类型", example = "BUILDING")
+    private ReferenceDataType type;
+
+    @Schema(description = "当前缓存的记录数", example = "24")
+    private int size;
+
+    @Schema(description = "命中次数", example = "15230")
+    private long hits;
+
+    @Schema(description = "未命中（查库）次数", example = "31")
+    private long misses;
+
+    @Schema(description = "命中率", example = "0.998")
+    private double hitRate;
+
+    @Schema(description = "超出容量被淘汰的记录数", example = "0")
+    private long evictions;
+
+    @Schema(description = "因数据修改而失效的次数", example = "3")
+    private long invalidations;
+}
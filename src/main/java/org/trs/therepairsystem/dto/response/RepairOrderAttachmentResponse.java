@@ -46,4 +46,7 @@ public class RepairOrderAttachmentResponse {
 
     @Schema(description = "下载地址", example = "/api/repair-orders/1001/attachments/1/download")
     private String downloadUrl;
+
+    @Schema(description = "缩略图地址，缩略图生成前为空，此时可回退使用下载地址", example = "/api/repair-orders/1001/attachments/1/thumbnail")
+    private String thumbnailUrl;
 }
@@ -0,0 +1,60 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量操作结果")
+public class RepairOrderBulkResultResponse {
+
+    @Schema(description = "请求的工单数", example = "500")
+    private int requested;
+
+    @Schema(description = "成功数", example = "488")
+    private int succeeded;
+
+    @Schema(description = "失败数", example = "12")
+    private int failed;
+
+    @Schema(description = "逐单结果，顺序与请求一致")
+    private List<Item> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "单个工单的处理结果")
+    public static class Item {
+
+        @Schema(description = "工单ID", example = "1001")
+        private Long orderId;
+
+        @Schema(description = "是否成功", example = "true")
+        private boolean success;
+
+        @Schema(description = "处理后的工单状态，失败时为空", example = "PENDING")
+        private RepairOrderStatus status;
+
+        @Schema(description = "失败原因", example = "当前状态不允许分配工程师")
+        private String message;
+
+        public static Item success(Long orderId, RepairOrderStatus status) {
+            return new Item(orderId, true, status, null);
+        }
+
+        public static Item failure(Long orderId, String message) {
+            return new Item(orderId, false, null, message);
+        }
+    }
+
+    public static RepairOrderBulkResultResponse of(List<Item> results) {
+        int succeeded = (int) results.stream().filter(Item::isSuccess).count();
+        return new RepairOrderBulkResultResponse(results.size(), succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,46 @@
+package org.trs.therepairsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "工单导出行（NDJSON 每行一个对象，CSV 按字段顺序输出列）")
+public class RepairOrderExportRow {
+
+    private Long id;
+    private RepairOrderStatus status;
+    private String description;
+    private String repairInfo;
+
+    private Long submitUserId;
+    private String submitUserName;
+    private String submitUserPhone;
+
+    private Long buildingId;
+    private String buildingName;
+    private Long floorId;
+    private String floorName;
+
+    private Long faultTypeId;
+    private String faultTypeName;
+
+    private Long adminId;
+    private String adminName;
+
+    private Long engineerId;
+    private String engineerName;
+    private String engineerPhone;
+
+    private LocalDateTime createTime;
+    private LocalDateTime acceptTime;
+    private LocalDateTime finishTime;
+}
@@ -0,0 +1,108 @@
+package org.trs.therepairsystem.entity;
+
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 归档工单：已关闭/已取消且超过保留期的工单从 repair_order 迁移至此
+ * 列与 repair_order 保持一致（主键沿用原工单ID），只读，不再参与状态流转
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@NamedEntityGraph(name = ArchivedRepairOrder.GRAPH_DETAIL, attributeNodes = {
+    @NamedAttributeNode("submitUser"),
+    @NamedAttributeNode("building"),
+    @NamedAttributeNode("floor"),
+    @NamedAttributeNode("faultType"),
+    @NamedAttributeNode("admin"),
+    @NamedAttributeNode("engineer")
+})
+@Table(name = "repair_order_archive", indexes = {
+    @Index(name = "idx_archive_user_create_time", columnList = "user_id, create_time"),
+    @Index(name = "idx_archive_engineer_create_time", columnList = "engineer_id, create_time"),
+    @Index(name = "idx_archive_status_create_time", columnList = "status, create_time"),
+    @Index(name = "idx_archive_create_time_id", columnList = "create_time, id")
+})
+public class ArchivedRepairOrder {
+
+    public static final String GRAPH_DETAIL = "ArchivedRepairOrder.detail";
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User submitUser;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "building_id", nullable = false)
+    private Building building;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "floor_id", nullable = false)
+    private Floor floor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fault_type_id", nullable = false)
+    private FaultType faultType;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "admin_id")
+    private User admin;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "engineer_id")
+    private User engineer;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RepairOrderStatus status;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String description;
+
+    @Column(columnDefinition = "TEXT")
+    private String repairInfo;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+
+    @Column(name = "accept_time")
+    private LocalDateTime acceptTime;
+
+    @Column(name = "finish_time")
+    private LocalDateTime finishTime;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "archive_time", nullable = false)
+    private LocalDateTime archiveTime;
+
+    /**
+     * 转换为未托管的工单对象，供详情/列表复用同一套响应转换逻辑，不可保存
+     */
+    public RepairOrder toOrder() {
+        return RepairOrder.builder()
+            .id(id)
+            .submitUser(submitUser)
+            .building(building)
+            .floor(floor)
+            .faultType(faultType)
+            .admin(admin)
+            .engineer(engineer)
+            .status(status)
+            .description(description)
+            .repairInfo(repairInfo)
+            .createTime(createTime)
+            .acceptTime(acceptTime)
+            .finishTime(finishTime)
+            .version(version)
+            .build();
+    }
+}
@@ -0,0 +1,83 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.common.enums.StorageProvider;
+
+import java.time.LocalDateTime;
+
+/**
+ * 归档附件元数据：随所属工单一起从 repair_order_attachment 迁移，文件本身仍留在原存储中
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "repair_order_attachment_archive", indexes = {
+        @Index(name = "idx_attachment_archive_order", columnList = "repair_order_id")
+})
+public class ArchivedRepairOrderAttachment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "repair_order_id", nullable = false)
+    private Long orderId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "uploaded_by", nullable = false)
+    private User uploadedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "attachment_type", nullable = false, length = 30)
+    private AttachmentType attachmentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_provider", nullable = false, length = 20)
+    private StorageProvider storageProvider;
+
+    @Column(name = "original_file_name", nullable = false, length = 255)
+    private String originalFileName;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "upload_time", nullable = false)
+    private LocalDateTime uploadTime;
+
+    /**
+     * 缩略图对象键，后台生成完成前为空
+     */
+    @Column(name = "thumbnail_key", length = 500)
+    private String thumbnailKey;
+
+    /**
+     * 转换为未托管的附件对象，order 为归档工单转换后的对象
+     */
+    public RepairOrderAttachment toAttachment(RepairOrder order) {
+        return RepairOrderAttachment.builder()
+                .id(id)
+                .order(order)
+                .uploadedBy(uploadedBy)
+                .attachmentType(attachmentType)
+                .storageProvider(storageProvider)
+                .originalFileName(originalFileName)
+                .objectKey(objectKey)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .uploadTime(uploadTime)
+                .thumbnailKey(thumbnailKey)
+                .build();
+    }
+}
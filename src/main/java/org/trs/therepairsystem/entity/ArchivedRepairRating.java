@@ -0,0 +1,47 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 归档评价：随所属工单一起从 repair_rating 迁移，主键沿用原评价ID
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "repair_rating_archive", indexes = {
+    @Index(name = "idx_rating_archive_order_id", columnList = "order_id", unique = true)
+})
+public class ArchivedRepairRating {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Integer rating;
+
+    @Column(length = 500)
+    private String comment;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+
+    /**
+     * 转换为未托管的评价对象，order 为归档工单转换后的对象
+     */
+    public RepairRating toRating(RepairOrder order) {
+        return RepairRating.builder()
+            .id(id)
+            .order(order)
+            .rating(rating)
+            .comment(comment)
+            .createTime(createTime)
+            .build();
+    }
+}
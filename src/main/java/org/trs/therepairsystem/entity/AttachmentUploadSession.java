@@ -0,0 +1,86 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.common.enums.StorageProvider;
+import org.trs.therepairsystem.common.enums.UploadSessionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 附件分片上传会话：记录目标文件与分片规格，已上传的分片以存储中的实际分片为准
+ * 超过 expireTime 仍未完成的会话由清理任务删除分片
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "attachment_upload_session", indexes = {
+        @Index(name = "idx_upload_session_expire_time", columnList = "expire_time")
+})
+public class AttachmentUploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "repair_order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "uploader_id", nullable = false)
+    private Long uploaderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "attachment_type", nullable = false, length = 30)
+    private AttachmentType attachmentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_provider", nullable = false, length = 20)
+    private StorageProvider storageProvider;
+
+    @Column(name = "original_file_name", nullable = false, length = 255)
+    private String originalFileName;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "part_size", nullable = false)
+    private Long partSize;
+
+    @Column(name = "part_count", nullable = false)
+    private Integer partCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UploadSessionStatus status;
+
+    @Column(name = "attachment_id")
+    private Long attachmentId;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+
+    @Column(name = "expire_time", nullable = false)
+    private LocalDateTime expireTime;
+
+    /**
+     * 指定分片应有的字节数，最后一个分片为剩余部分
+     */
+    public long expectedPartSize(int partNumber) {
+        if (partNumber < partCount) {
+            return partSize;
+        }
+        return fileSize - partSize * (partCount - 1);
+    }
+}
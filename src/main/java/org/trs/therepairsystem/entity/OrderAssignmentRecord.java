@@ -0,0 +1,44 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.trs.therepairsystem.common.enums.AssignmentOutcome;
+
+import java.time.LocalDateTime;
+
+/**
+ * 自动分配执行记录
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_assignment_record", indexes = {
+    @Index(name = "idx_assignment_order", columnList = "order_id, create_time")
+})
+public class OrderAssignmentRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AssignmentOutcome outcome;
+
+    @Column(name = "engineer_id")
+    private Long engineerId;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(length = 255)
+    private String message;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,38 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDate;
+
+/**
+ * 工单按日汇总表
+ * 记录某天创建、位于某楼栋、当前处于某状态的工单数量，随工单状态变化增量维护
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_daily_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_date_building_status", columnNames = {"stat_date", "building_id", "status"})
+})
+public class OrderDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "building_id", nullable = false)
+    private Long buildingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RepairOrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+}
@@ -0,0 +1,26 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 按日汇总回填完成标记
+ * 某天有标记表示该天的汇总已按工单表完整重建，之后的增量维护可以直接读取
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_daily_rollup_mark")
+public class OrderDailyRollupMark {
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(name = "backfill_time", nullable = false)
+    private LocalDateTime backfillTime;
+}
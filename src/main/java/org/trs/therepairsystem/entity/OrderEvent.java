@@ -0,0 +1,55 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工单事件（只追加，不修改）
+ * 每次生命周期变化记录一条，由 OrderEventWriter 批量写入
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_event", indexes = {
+    @Index(name = "idx_order_event_order", columnList = "order_id, create_time")
+})
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderEventType eventType;
+
+    // 变化前的状态，新建工单为空
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private RepairOrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private RepairOrderStatus toStatus;
+
+    // 操作人，系统自动处理时为空
+    @Column(name = "operator_id")
+    private Long operatorId;
+
+    // 事件发生后的工程师
+    @Column(name = "engineer_id")
+    private Long engineerId;
+
+    // 事件发生时间（业务事务内取值，不是写入时间）
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,39 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+/**
+ * 工单状态计数器（物化统计）
+ * 每次工单状态变化时在同一事务内增减，统计接口直接读取，不再扫描 repair_order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_status_counter", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_counter_scope_status", columnNames = {"scope", "scope_id", "status"})
+})
+public class OrderStatusCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CounterScope scope;
+
+    // 全局范围为 0，用户/工程师范围为对应用户ID
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RepairOrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+}
@@ -10,14 +10,31 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@NamedEntityGraph(name = RepairOrder.GRAPH_DETAIL, attributeNodes = {
+    @NamedAttributeNode("submitUser"),
+    @NamedAttributeNode("building"),
+    @NamedAttributeNode("floor"),
+    @NamedAttributeNode("faultType"),
+    @NamedAttributeNode("admin"),
+    @NamedAttributeNode("engineer")
+})
 @Table(name = "repair_order", indexes = {
     @Index(name = "idx_user_status", columnList = "user_id, status"),
     @Index(name = "idx_engineer_status", columnList = "engineer_id, status"),
     @Index(name = "idx_status_create_time", columnList = "status, create_time"),
-    @Index(name = "idx_building_floor", columnList = "building_id, floor_id")
+    @Index(name = "idx_building_floor", columnList = "building_id, floor_id"),
+    @Index(name = "idx_create_time_id", columnList = "create_time, id"),
+    @Index(name = "idx_building_create_time", columnList = "building_id, create_time"),
+    @Index(name = "idx_fault_status_create_time", columnList = "fault_type_id, status, create_time")
 })
 public class RepairOrder {
 
+    /**
+     * 列表/详情展示所需的全部关联（convertToResponse 会访问这些关联），
+     * 通过一次 LEFT JOIN 加载，避免分页列表出现 N+1 查询
+     */
+    public static final String GRAPH_DETAIL = "RepairOrder.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -68,6 +85,13 @@ public class RepairOrder {
     @Column(name = "finish_time")
     private LocalDateTime finishTime;
 
+    /**
+     * 乐观锁版本号：整实体保存时由 Hibernate 校验，状态流转的条件 UPDATE 同步加一
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (createTime == null) {
@@ -89,23 +113,21 @@ public class RepairOrder {
         }
     }
 
-    // 业务方法
+    // 业务方法（状态判断统一由 RepairOrderStatus 状态机提供）
     public boolean canAssignEngineer() {
-        return status == RepairOrderStatus.SUBMITTED;
+        return status != null && status.canAssign();
     }
 
     public boolean canAccept() {
-        return status == RepairOrderStatus.PENDING;
+        return status != null && status.canAccept();
     }
 
     public boolean canComplete() {
-        return status == RepairOrderStatus.IN_PROGRESS;
+        return status != null && status.canComplete();
     }
 
     public boolean canCancel() {
-        return status == RepairOrderStatus.DRAFT 
-            || status == RepairOrderStatus.SUBMITTED 
-            || status == RepairOrderStatus.PENDING;
+        return status != null && status.canCancel();
     }
 
     public boolean isAssignedTo(Long engineerId) {
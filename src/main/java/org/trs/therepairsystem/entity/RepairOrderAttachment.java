@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 @Table(name = "repair_order_attachment", indexes = {
         @Index(name = "idx_attachment_order", columnList = "repair_order_id"),
         @Index(name = "idx_attachment_uploader", columnList = "uploaded_by"),
-        @Index(name = "idx_attachment_time", columnList = "upload_time")
+        @Index(name = "idx_attachment_time", columnList = "upload_time"),
+        @Index(name = "idx_attachment_object_key", columnList = "object_key", unique = true)
 })
 public class RepairOrderAttachment {
 
@@ -57,6 +58,12 @@ public class RepairOrderAttachment {
     @Column(name = "upload_time", nullable = false)
     private LocalDateTime uploadTime;
 
+    /**
+     * 缩略图对象键，后台生成完成前为空
+     */
+    @Column(name = "thumbnail_key", length = 500)
+    private String thumbnailKey;
+
     @PrePersist
     protected void onCreate() {
         if (uploadTime == null) {
@@ -0,0 +1,26 @@
+package org.trs.therepairsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 主从复制心跳：主库定期写入当前时间，从库读到的时间与当前时间之差即为复制延迟
+ * 由 ReplicaLagMonitor 通过 JDBC 直接读写，实体仅用于建表
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_time", nullable = false)
+    private LocalDateTime beatTime;
+}
@@ -35,4 +35,11 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
      * 根据状态查询公告，按置顶和创建时间排序
      */
     List<Announcement> findByStatusOrderByIsTopDescCreateTimeDesc(AnnouncementStatus status);
+
+    /**
+     * 指定状态公告的数量、ID之和与最近修改时间，用于条件请求
+     */
+    @Query("SELECT COUNT(a) AS total, COALESCE(SUM(a.id), 0) AS idSum, MAX(a.updateTime) AS lastUpdateTime " +
+           "FROM Announcement a WHERE a.status = :status")
+    AnnouncementVersionSummary summarizeByStatus(@Param("status") AnnouncementStatus status);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package org.trs.therepairsystem.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一组公告的数量、ID之和与最近修改时间，用于条件请求（ETag）
+ */
+public interface AnnouncementVersionSummary {
+
+    Long getTotal();
+
+    Long getIdSum();
+
+    LocalDateTime getLastUpdateTime();
+}
@@ -0,0 +1,32 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.trs.therepairsystem.entity.ArchivedRepairOrderAttachment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedRepairOrderAttachmentRepository extends JpaRepository<ArchivedRepairOrderAttachment, Long> {
+
+    List<ArchivedRepairOrderAttachment> findByOrderIdOrderByUploadTimeDesc(Long orderId);
+
+    Optional<ArchivedRepairOrderAttachment> findByIdAndOrderId(Long attachmentId, Long orderId);
+
+    /**
+     * 归档：复制指定工单的附件元数据（调用方须已锁定所属工单）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO repair_order_attachment_archive (id, repair_order_id, uploaded_by, attachment_type, " +
+                   "storage_provider, original_file_name, object_key, content_type, file_size, upload_time, thumbnail_key) " +
+                   "SELECT a.id, a.repair_order_id, a.uploaded_by, a.attachment_type, a.storage_provider, " +
+                   "a.original_file_name, a.object_key, a.content_type, a.file_size, a.upload_time, a.thumbnail_key " +
+                   "FROM repair_order_attachment a WHERE a.repair_order_id IN (:orderIds)",
+           nativeQuery = true)
+    int copyFromAttachments(@Param("orderIds") Collection<Long> orderIds);
+}
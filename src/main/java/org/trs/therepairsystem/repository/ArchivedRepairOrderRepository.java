@@ -0,0 +1,74 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedRepairOrderRepository extends JpaRepository<ArchivedRepairOrder, Long>,
+        JpaSpecificationExecutor<ArchivedRepairOrder>, ArchivedRepairOrderRepositoryCustom {
+
+    @EntityGraph(ArchivedRepairOrder.GRAPH_DETAIL)
+    @Query("SELECT ao FROM ArchivedRepairOrder ao WHERE ao.id = :id")
+    Optional<ArchivedRepairOrder> findDetailById(@Param("id") Long id);
+
+    // 条件请求（ETag）：只取版本号，不加载关联
+    @Query("SELECT ao.version AS version, ao.submitUser.id AS submitUserId, e.id AS engineerId " +
+           "FROM ArchivedRepairOrder ao LEFT JOIN ao.engineer e WHERE ao.id = :id")
+    Optional<OrderVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(ao) AS total, COALESCE(SUM(ao.version), 0) AS versionSum " +
+           "FROM ArchivedRepairOrder ao WHERE ao.submitUser.id = :userId")
+    OrderVersionSummary summarizeVersionsBySubmitUserId(@Param("userId") Long userId);
+
+    /**
+     * 归档：将 repair_order 中指定的终态工单原样复制到归档表（调用方须已锁定这些行）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO repair_order_archive (id, user_id, building_id, floor_id, fault_type_id, " +
+                   "admin_id, engineer_id, status, description, repair_info, create_time, accept_time, " +
+                   "finish_time, version, archive_time) " +
+                   "SELECT ro.id, ro.user_id, ro.building_id, ro.floor_id, ro.fault_type_id, " +
+                   "ro.admin_id, ro.engineer_id, ro.status, ro.description, ro.repair_info, ro.create_time, " +
+                   "ro.accept_time, ro.finish_time, ro.version, :archiveTime FROM repair_order ro " +
+                   "WHERE ro.id IN (:ids) AND ro.status IN ('CLOSED', 'CANCELLED')",
+           nativeQuery = true)
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("archiveTime") LocalDateTime archiveTime);
+
+    // 计数器对账：归档工单仍计入各状态总数
+    @Query("SELECT ao.status AS status, COUNT(ao) AS total FROM ArchivedRepairOrder ao GROUP BY ao.status")
+    List<RepairOrderStatusCount> countGroupByStatus();
+
+    @Query("SELECT ao.submitUser.id, ao.status, COUNT(ao) FROM ArchivedRepairOrder ao " +
+           "GROUP BY ao.submitUser.id, ao.status")
+    List<Object[]> countGroupByUserAndStatus();
+
+    @Query("SELECT ao.engineer.id, ao.status, COUNT(ao) FROM ArchivedRepairOrder ao " +
+           "WHERE ao.engineer IS NOT NULL GROUP BY ao.engineer.id, ao.status")
+    List<Object[]> countGroupByEngineerAndStatus();
+
+    // 半开区间 [start, end) 内创建的归档工单按状态分组，按日汇总缺失时的兜底查询
+    @Query("SELECT ao.status AS status, COUNT(ao) AS total FROM ArchivedRepairOrder ao " +
+           "WHERE ao.createTime >= :start AND ao.createTime < :end GROUP BY ao.status")
+    List<RepairOrderStatusCount> countCreatedBetweenGroupByStatus(@Param("start") LocalDateTime start,
+                                                                  @Param("end") LocalDateTime end);
+
+    @Query("SELECT ao.status AS status, COUNT(ao) AS total FROM ArchivedRepairOrder ao " +
+           "WHERE ao.createTime >= :start AND ao.createTime < :end AND ao.building.id = :buildingId GROUP BY ao.status")
+    List<RepairOrderStatusCount> countCreatedBetweenByBuildingGroupByStatus(@Param("start") LocalDateTime start,
+                                                                            @Param("end") LocalDateTime end,
+                                                                            @Param("buildingId") Long buildingId);
+
+    @Query("SELECT MIN(ao.createTime) FROM ArchivedRepairOrder ao")
+    Optional<LocalDateTime> findEarliestCreateTime();
+}
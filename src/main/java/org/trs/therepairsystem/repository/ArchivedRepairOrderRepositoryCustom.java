@@ -0,0 +1,25 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedRepairOrderRepositoryCustom {
+
+    /**
+     * 按动态条件跳过前 offset 条后查询至多 limit 条归档工单（加载展示所需关联，不执行 COUNT 查询）
+     * 用于在活跃工单之后续接归档工单，偏移量不必与页大小对齐
+     */
+    List<ArchivedRepairOrder> findRange(Specification<ArchivedRepairOrder> spec, Sort sort, long offset, int limit);
+
+    /**
+     * 按动态条件逐行读取归档工单（加载展示所需关联，只读），用于与活跃工单一起导出
+     * 必须在事务内使用并在用完后关闭；与 {@link RepairOrderRepositoryCustom#streamAll} 同时打开时连接串需开启 useCursorFetch
+     *
+     * @param fetchSize JDBC 每次从数据库拉取的行数
+     */
+    Stream<ArchivedRepairOrder> streamAll(Specification<ArchivedRepairOrder> spec, Sort sort, int fetchSize);
+}
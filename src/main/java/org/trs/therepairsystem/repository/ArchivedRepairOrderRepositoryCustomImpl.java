@@ -0,0 +1,57 @@
+package org.trs.therepairsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ArchivedRepairOrderRepositoryCustomImpl implements ArchivedRepairOrderRepositoryCustom {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+    private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+    private static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ArchivedRepairOrder> findRange(Specification<ArchivedRepairOrder> spec, Sort sort,
+                                               long offset, int limit) {
+        return entityManager.createQuery(buildQuery(spec, sort))
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(ArchivedRepairOrder.GRAPH_DETAIL))
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ArchivedRepairOrder> streamAll(Specification<ArchivedRepairOrder> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(buildQuery(spec, sort))
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(ArchivedRepairOrder.GRAPH_DETAIL))
+                .setHint(FETCH_SIZE_HINT, fetchSize)
+                .setHint(READ_ONLY_HINT, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<ArchivedRepairOrder> buildQuery(Specification<ArchivedRepairOrder> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArchivedRepairOrder> query = cb.createQuery(ArchivedRepairOrder.class);
+        Root<ArchivedRepairOrder> root = query.from(ArchivedRepairOrder.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+}
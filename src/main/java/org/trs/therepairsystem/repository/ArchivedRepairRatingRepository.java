@@ -0,0 +1,39 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.trs.therepairsystem.entity.ArchivedRepairRating;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedRepairRatingRepository extends JpaRepository<ArchivedRepairRating, Long> {
+
+    Optional<ArchivedRepairRating> findByOrderId(Long orderId);
+
+    /**
+     * 归档：复制指定工单的评价（调用方须已锁定所属工单）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO repair_rating_archive (id, order_id, rating, comment, create_time) " +
+                   "SELECT r.id, r.order_id, r.rating, r.comment, r.create_time FROM repair_rating r " +
+                   "WHERE r.order_id IN (:orderIds)",
+           nativeQuery = true)
+    int copyFromRatings(@Param("orderIds") Collection<Long> orderIds);
+
+    // 某工程师归档评价的 [评分, 数量] 分布
+    @Query("SELECT r.rating, COUNT(r) FROM ArchivedRepairRating r JOIN ArchivedRepairOrder ao ON ao.id = r.orderId " +
+           "WHERE ao.engineer.id = :engineerId GROUP BY r.rating")
+    List<Object[]> countByEngineerIdGroupByRating(@Param("engineerId") Long engineerId);
+
+    // 按 [工程师ID, 平均分, 评价数] 汇总归档评价
+    @Query("SELECT ao.engineer.id, AVG(r.rating), COUNT(r) FROM ArchivedRepairRating r " +
+           "JOIN ArchivedRepairOrder ao ON ao.id = r.orderId " +
+           "WHERE ao.engineer IS NOT NULL GROUP BY ao.engineer.id")
+    List<Object[]> summarizeRatingsGroupByEngineer();
+}
@@ -0,0 +1,40 @@
+package org.trs.therepairsystem.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.trs.therepairsystem.common.enums.UploadSessionStatus;
+import org.trs.therepairsystem.entity.AttachmentUploadSession;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttachmentUploadSessionRepository extends JpaRepository<AttachmentUploadSession, String> {
+
+    Optional<AttachmentUploadSession> findByIdAndOrderId(String id, Long orderId);
+
+    // 完成上传：锁定会话，避免重复的完成请求同时合并分片
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AttachmentUploadSession s WHERE s.id = :id AND s.orderId = :orderId")
+    Optional<AttachmentUploadSession> lockByIdAndOrderId(@Param("id") String id, @Param("orderId") Long orderId);
+
+    // 清理：按过期时间分批取出已过期的会话
+    @Query("SELECT s FROM AttachmentUploadSession s WHERE s.expireTime < :now ORDER BY s.expireTime")
+    List<AttachmentUploadSession> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 上传分片时顺延过期时间；分片写入不在事务内进行，这里单独开启短事务
+    @Transactional
+    @Modifying
+    @Query("UPDATE AttachmentUploadSession s SET s.expireTime = :expireTime WHERE s.id = :id AND s.status = :status")
+    int extendExpireTime(@Param("id") String id,
+                         @Param("status") UploadSessionStatus status,
+                         @Param("expireTime") LocalDateTime expireTime);
+}
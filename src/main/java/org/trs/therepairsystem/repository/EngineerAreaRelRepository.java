@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.trs.therepairsystem.entity.EngineerAreaRel;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EngineerAreaRelRepository extends JpaRepository<EngineerAreaRel, Long> {
@@ -39,4 +40,16 @@ public interface EngineerAreaRelRepository extends JpaRepository<EngineerAreaRel
      */
     @Query("SELECT f.id, COUNT(ear) FROM Floor f LEFT JOIN EngineerAreaRel ear ON f.id = ear.floor.id GROUP BY f.id")
     List<Object[]> countEngineersByFloor();
-}
\ No newline at end of file
+
+    /**
+     * 全部 [工程师ID, 楼层ID] 对，用于构建资质索引
+     */
+    @Query("SELECT ear.engineer.id, ear.floor.id FROM EngineerAreaRel ear")
+    List<Object[]> findAllEngineerFloorPairs();
+
+    /**
+     * 指定工程师的 [工程师ID, 楼层ID] 对，用于批量分配校验
+     */
+    @Query("SELECT ear.engineer.id, ear.floor.id FROM EngineerAreaRel ear WHERE ear.engineer.id IN :engineerIds")
+    List<Object[]> findEngineerFloorPairs(@Param("engineerIds") Collection<Long> engineerIds);
+}
@@ -2,8 +2,10 @@ package org.trs.therepairsystem.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.trs.therepairsystem.entity.EngineerFaultRel;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EngineerFaultRelRepository extends JpaRepository<EngineerFaultRel, Long> {
@@ -38,4 +40,16 @@ public interface EngineerFaultRelRepository extends JpaRepository<EngineerFaultR
      */
     @Query("SELECT ft.id, COUNT(efr) FROM FaultType ft LEFT JOIN EngineerFaultRel efr ON ft.id = efr.faultType.id GROUP BY ft.id")
     List<Object[]> countEngineersByFaultType();
-}
\ No newline at end of file
+
+    /**
+     * 全部 [工程师ID, 故障类型ID] 对，用于构建资质索引
+     */
+    @Query("SELECT efr.engineer.id, efr.faultType.id FROM EngineerFaultRel efr")
+    List<Object[]> findAllEngineerFaultTypePairs();
+
+    /**
+     * 指定工程师的 [工程师ID, 故障类型ID] 对，用于批量分配校验
+     */
+    @Query("SELECT efr.engineer.id, efr.faultType.id FROM EngineerFaultRel efr WHERE efr.engineer.id IN :engineerIds")
+    List<Object[]> findEngineerFaultTypePairs(@Param("engineerIds") Collection<Long> engineerIds);
+}
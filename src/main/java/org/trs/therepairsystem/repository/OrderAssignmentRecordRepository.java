@@ -0,0 +1,11 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.trs.therepairsystem.entity.OrderAssignmentRecord;
+
+import java.util.List;
+
+public interface OrderAssignmentRecordRepository extends JpaRepository<OrderAssignmentRecord, Long> {
+
+    List<OrderAssignmentRecord> findByOrderIdOrderByCreateTimeDesc(Long orderId);
+}
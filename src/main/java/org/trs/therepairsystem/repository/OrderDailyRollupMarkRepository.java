@@ -0,0 +1,25 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.trs.therepairsystem.entity.OrderDailyRollupMark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderDailyRollupMarkRepository extends JpaRepository<OrderDailyRollupMark, LocalDate> {
+
+    /**
+     * 最近一个已回填的日期
+     */
+    @Query("SELECT MAX(m.statDate) FROM OrderDailyRollupMark m")
+    Optional<LocalDate> findLatestStatDate();
+
+    /**
+     * 日期区间 [from, to] 内已回填的日期
+     */
+    @Query("SELECT m.statDate FROM OrderDailyRollupMark m WHERE m.statDate >= :from AND m.statDate <= :to")
+    List<LocalDate> findStatDatesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,74 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.trs.therepairsystem.entity.OrderDailyRollup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderDailyRollupRepository extends JpaRepository<OrderDailyRollup, Long> {
+
+    /**
+     * 原子增减某天/楼栋/状态的计数，行不存在时插入
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_daily_rollup (stat_date, building_id, status, order_count) " +
+                   "VALUES (:statDate, :buildingId, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + :delta",
+           nativeQuery = true)
+    int increment(@Param("statDate") LocalDate statDate,
+                  @Param("buildingId") Long buildingId,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    /**
+     * 某一天各状态的工单数量（汇总所有楼栋）
+     */
+    @Query("SELECT r.status AS status, SUM(r.orderCount) AS total FROM OrderDailyRollup r " +
+           "WHERE r.statDate = :statDate GROUP BY r.status")
+    List<RepairOrderStatusCount> sumByDateGroupByStatus(@Param("statDate") LocalDate statDate);
+
+    /**
+     * 日期区间 [from, to) 内全部楼栋按 [日期, 状态, 数量] 分组
+     */
+    @Query("SELECT r.statDate, r.status, SUM(r.orderCount) FROM OrderDailyRollup r " +
+           "WHERE r.statDate >= :from AND r.statDate < :to " +
+           "GROUP BY r.statDate, r.status ORDER BY r.statDate")
+    List<Object[]> sumByDateRangeGroupByDateAndStatus(@Param("from") LocalDate from,
+                                                      @Param("to") LocalDate to);
+
+    /**
+     * 日期区间 [from, to) 内某个楼栋按 [日期, 状态, 数量] 分组
+     */
+    @Query("SELECT r.statDate, r.status, SUM(r.orderCount) FROM OrderDailyRollup r " +
+           "WHERE r.statDate >= :from AND r.statDate < :to AND r.buildingId = :buildingId " +
+           "GROUP BY r.statDate, r.status ORDER BY r.statDate")
+    List<Object[]> sumByDateRangeAndBuildingGroupByDateAndStatus(@Param("from") LocalDate from,
+                                                                 @Param("to") LocalDate to,
+                                                                 @Param("buildingId") Long buildingId);
+
+    @Modifying
+    @Query("DELETE FROM OrderDailyRollup r WHERE r.statDate = :statDate")
+    int deleteByStatDate(@Param("statDate") LocalDate statDate);
+
+    /**
+     * 回填：按半开区间 [start, end) 从 repair_order 及其归档表重新汇总一天的数据
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_daily_rollup (stat_date, building_id, status, order_count) " +
+                   "SELECT :statDate, o.building_id, o.status, COUNT(*) FROM (" +
+                   "SELECT ro.building_id, ro.status FROM repair_order ro " +
+                   "WHERE ro.create_time >= :start AND ro.create_time < :end " +
+                   "UNION ALL " +
+                   "SELECT ao.building_id, ao.status FROM repair_order_archive ao " +
+                   "WHERE ao.create_time >= :start AND ao.create_time < :end) o " +
+                   "GROUP BY o.building_id, o.status",
+           nativeQuery = true)
+    int insertFromOrders(@Param("statDate") LocalDate statDate,
+                         @Param("start") LocalDateTime start,
+                         @Param("end") LocalDateTime end);
+}
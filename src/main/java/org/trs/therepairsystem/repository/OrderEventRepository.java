@@ -0,0 +1,18 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.trs.therepairsystem.entity.OrderEvent;
+
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * 工单时间线：[事件, 操作人姓名]，按发生时间先后
+     */
+    @Query("SELECT e, u.realName FROM OrderEvent e LEFT JOIN User u ON u.id = e.operatorId " +
+           "WHERE e.orderId = :orderId ORDER BY e.createTime ASC, e.id ASC")
+    List<Object[]> findTimeline(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,31 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.entity.OrderStatusCounter;
+
+import java.util.List;
+
+public interface OrderStatusCounterRepository extends JpaRepository<OrderStatusCounter, Long> {
+
+    /**
+     * 查询某个统计范围下的全部状态计数
+     */
+    List<OrderStatusCounter> findByScopeAndScopeId(CounterScope scope, Long scopeId);
+
+    /**
+     * 原子增减计数，计数行不存在时插入
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_status_counter (scope, scope_id, status, order_count) " +
+                   "VALUES (:scope, :scopeId, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + :delta",
+           nativeQuery = true)
+    int increment(@Param("scope") String scope,
+                  @Param("scopeId") Long scopeId,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+}
@@ -0,0 +1,12 @@
+package org.trs.therepairsystem.repository;
+
+/**
+ * 一组工单的数量与版本号之和
+ * 工单只会新增或版本号递增（归档只是在两张表之间移动），两表合计的这两个值任何变化都说明列表内容可能已变
+ */
+public interface OrderVersionSummary {
+
+    Long getTotal();
+
+    Long getVersionSum();
+}
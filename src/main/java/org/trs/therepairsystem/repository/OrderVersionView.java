@@ -0,0 +1,16 @@
+package org.trs.therepairsystem.repository;
+
+/**
+ * 工单版本号及查看权限判断所需的ID，用于条件请求（ETag）的轻量查询
+ */
+public interface OrderVersionView {
+
+    Long getVersion();
+
+    Long getSubmitUserId();
+
+    /**
+     * 未分配工程师时为空
+     */
+    Long getEngineerId();
+}
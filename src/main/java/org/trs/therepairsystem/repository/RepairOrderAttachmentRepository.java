@@ -1,9 +1,15 @@
 package org.trs.therepairsystem.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.trs.therepairsystem.entity.RepairOrderAttachment;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +19,26 @@ public interface RepairOrderAttachmentRepository extends JpaRepository<RepairOrd
     List<RepairOrderAttachment> findByOrderIdOrderByUploadTimeDesc(Long orderId);
 
     Optional<RepairOrderAttachment> findByIdAndOrderId(Long attachmentId, Long orderId);
+
+    Optional<RepairOrderAttachment> findByObjectKey(String objectKey);
+
+    /**
+     * 指定类型中尚未生成缩略图的附件ID，新上传的优先
+     */
+    @Query("SELECT a.id FROM RepairOrderAttachment a WHERE a.thumbnailKey IS NULL " +
+           "AND a.contentType IN :contentTypes ORDER BY a.id DESC")
+    List<Long> findIdsWithoutThumbnail(@Param("contentTypes") Collection<String> contentTypes, Pageable pageable);
+
+    /**
+     * 登记缩略图；附件已被删除时返回 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RepairOrderAttachment a SET a.thumbnailKey = :thumbnailKey WHERE a.id = :id")
+    int updateThumbnailKey(@Param("id") Long id, @Param("thumbnailKey") String thumbnailKey);
+
+    // 归档：删除已复制到归档表的附件元数据（存储中的文件保留）
+    @Modifying
+    @Query("DELETE FROM RepairOrderAttachment a WHERE a.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,46 +1,76 @@
 package org.trs.therepairsystem.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
 import org.trs.therepairsystem.common.enums.RepairOrderStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RepairOrderRepository extends JpaRepository<RepairOrder, Long> {
+public interface RepairOrderRepository extends JpaRepository<RepairOrder, Long>,
+        JpaSpecificationExecutor<RepairOrder>, RepairOrderRepositoryCustom {
 
     // 基础查询方法
     List<RepairOrder> findByStatusOrderByCreateTimeDesc(RepairOrderStatus status);
     
     Page<RepairOrder> findByStatusOrderByCreateTimeDesc(RepairOrderStatus status, Pageable pageable);
 
+    // 条件请求（ETag）：只取版本号，不加载关联
+    @Query("SELECT ro.version AS version, ro.submitUser.id AS submitUserId, e.id AS engineerId " +
+           "FROM RepairOrder ro LEFT JOIN ro.engineer e WHERE ro.id = :id")
+    Optional<OrderVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(ro) AS total, COALESCE(SUM(ro.version), 0) AS versionSum " +
+           "FROM RepairOrder ro WHERE ro.submitUser.id = :userId")
+    OrderVersionSummary summarizeVersionsBySubmitUserId(@Param("userId") Long userId);
+
     // 用户相关查询
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
     Page<RepairOrder> findBySubmitUserIdOrderByCreateTimeDesc(Long userId, Pageable pageable);
     
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
     @Query("SELECT ro FROM RepairOrder ro WHERE ro.submitUser.id = :userId AND ro.status = :status ORDER BY ro.createTime DESC")
     Page<RepairOrder> findByUserIdAndStatus(@Param("userId") Long userId, 
                                            @Param("status") RepairOrderStatus status, 
                                            Pageable pageable);
 
     // 工程师相关查询
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
     Page<RepairOrder> findByEngineerIdOrderByCreateTimeDesc(Long engineerId, Pageable pageable);
     
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
     @Query("SELECT ro FROM RepairOrder ro WHERE ro.engineer.id = :engineerId AND ro.status = :status ORDER BY ro.createTime DESC")
     Page<RepairOrder> findByEngineerIdAndStatus(@Param("engineerId") Long engineerId, 
                                                @Param("status") RepairOrderStatus status, 
                                                Pageable pageable);
 
     // 待分配的工单（未分配工程师的 SUBMITTED 状态）
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
     @Query("SELECT ro FROM RepairOrder ro WHERE ro.status = 'SUBMITTED' AND ro.engineer IS NULL ORDER BY ro.createTime ASC")
     Page<RepairOrder> findUnassignedPendingOrders(Pageable pageable);
 
+    // 自动分配恢复：待分配工单ID，按创建时间先后
+    @Query("SELECT ro.id FROM RepairOrder ro WHERE ro.status = 'SUBMITTED' AND ro.engineer IS NULL ORDER BY ro.createTime ASC")
+    List<Long> findUnassignedSubmittedIds(Pageable limit);
+
     // 根据故障类型查询
     @Query("SELECT ro FROM RepairOrder ro WHERE ro.faultType.id = :faultTypeId ORDER BY ro.createTime DESC")
     Page<RepairOrder> findByFaultTypeId(@Param("faultTypeId") Long faultTypeId, Pageable pageable);
@@ -78,22 +108,65 @@ public interface RepairOrderRepository extends JpaRepository<RepairOrder, Long>
     Page<RepairOrder> findAllByStatusOptional(@Param("status") RepairOrderStatus status, 
                                              Pageable pageable);
 
+    // 待分配工单游标分页（按 createTime ASC, id ASC，先到先分配）
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
+    @Query("SELECT ro FROM RepairOrder ro WHERE ro.status = 'SUBMITTED' AND ro.engineer IS NULL " +
+           "ORDER BY ro.createTime ASC, ro.id ASC")
+    List<RepairOrder> findFirstUnassignedKeyset(Pageable limit);
+
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
+    @Query("SELECT ro FROM RepairOrder ro WHERE ro.status = 'SUBMITTED' AND ro.engineer IS NULL " +
+           "AND (ro.createTime > :cursorTime OR (ro.createTime = :cursorTime AND ro.id > :cursorId)) " +
+           "ORDER BY ro.createTime ASC, ro.id ASC")
+    List<RepairOrder> findNextUnassignedKeyset(@Param("cursorTime") LocalDateTime cursorTime,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable limit);
+
     // 时间范围查询
     @Query("SELECT ro FROM RepairOrder ro WHERE ro.createTime BETWEEN :startTime AND :endTime ORDER BY ro.createTime DESC")
     Page<RepairOrder> findByCreateTimeBetween(@Param("startTime") LocalDateTime startTime, 
                                              @Param("endTime") LocalDateTime endTime, 
                                              Pageable pageable);
 
-    // 统计查询
-    @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE ro.status = :status")
-    long countByStatus(@Param("status") RepairOrderStatus status);
+    // 统计查询：按状态分组一次返回各状态数量
+    @Query("SELECT ro.status AS status, COUNT(ro) AS total FROM RepairOrder ro GROUP BY ro.status")
+    List<RepairOrderStatusCount> countGroupByStatus();
 
-    @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE ro.submitUser.id = :userId AND ro.status = :status")
-    long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") RepairOrderStatus status);
+    // 半开区间 [start, end) 内创建的工单按状态分组，按日汇总缺失时的兜底查询
+    @Query("SELECT ro.status AS status, COUNT(ro) AS total FROM RepairOrder ro " +
+           "WHERE ro.createTime >= :start AND ro.createTime < :end GROUP BY ro.status")
+    List<RepairOrderStatusCount> countCreatedBetweenGroupByStatus(@Param("start") LocalDateTime start,
+                                                                  @Param("end") LocalDateTime end);
+
+    @Query("SELECT ro.status AS status, COUNT(ro) AS total FROM RepairOrder ro " +
+           "WHERE ro.createTime >= :start AND ro.createTime < :end AND ro.building.id = :buildingId GROUP BY ro.status")
+    List<RepairOrderStatusCount> countCreatedBetweenByBuildingGroupByStatus(@Param("start") LocalDateTime start,
+                                                                            @Param("end") LocalDateTime end,
+                                                                            @Param("buildingId") Long buildingId);
+
+    @Query("SELECT MIN(ro.createTime) FROM RepairOrder ro")
+    Optional<LocalDateTime> findEarliestCreateTime();
+
+    // 按日汇总回填前锁定当天创建的工单（含区间间隙），期间该天的状态流转与新建工单等待回填提交
+    @Query(value = "SELECT ro.id FROM repair_order ro WHERE ro.create_time >= :start AND ro.create_time < :end FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockIdsCreatedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // 计数器对账：按 [用户ID, 状态, 数量] 分组
+    @Query("SELECT ro.submitUser.id, ro.status, COUNT(ro) FROM RepairOrder ro " +
+           "GROUP BY ro.submitUser.id, ro.status")
+    List<Object[]> countGroupByUserAndStatus();
+
+    // 计数器对账：按 [工程师ID, 状态, 数量] 分组
+    @Query("SELECT ro.engineer.id, ro.status, COUNT(ro) FROM RepairOrder ro " +
+           "WHERE ro.engineer IS NOT NULL GROUP BY ro.engineer.id, ro.status")
+    List<Object[]> countGroupByEngineerAndStatus();
+
+    // 工程师负载表：未完成工单的 [工单ID, 工程师ID, 版本号]
+    @Query("SELECT ro.id, ro.engineer.id, ro.version FROM RepairOrder ro " +
+           "WHERE ro.engineer IS NOT NULL AND ro.status IN :statuses")
+    List<Object[]> findOpenOrderEngineers(@Param("statuses") Collection<RepairOrderStatus> statuses);
 
-    @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE ro.engineer.id = :engineerId AND ro.status = :status")
-    long countByEngineerIdAndStatus(@Param("engineerId") Long engineerId, @Param("status") RepairOrderStatus status);
-    
     // 统计用户的所有工单（不区分状态）
     @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE ro.submitUser.id = :userId")
     long countBySubmitUserId(@Param("userId") Long userId);
@@ -102,41 +175,112 @@ public interface RepairOrderRepository extends JpaRepository<RepairOrder, Long>
     @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE ro.engineer.id = :engineerId")
     long countByEngineerId(@Param("engineerId") Long engineerId);
 
-    // 今日统计
-    @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE DATE(ro.createTime) = CURRENT_DATE")
-    long countTodayOrders();
-
-    @Query("SELECT COUNT(ro) FROM RepairOrder ro WHERE DATE(ro.createTime) = CURRENT_DATE AND ro.status = :status")
-    long countTodayOrdersByStatus(@Param("status") RepairOrderStatus status);
-
-    // 可分配的工程师查询辅助（根据故障类型和区域）
-    @Query("SELECT DISTINCT u.id FROM User u " +
-           "INNER JOIN UserRoleRel urr ON u.id = urr.user.id " +
-           "INNER JOIN UserRole ur ON urr.role.id = ur.id " +
-           "WHERE ur.roleName = 'ENGINEER' " +
-           "AND u.id IN (" +
-           "    SELECT efr.engineer.id FROM EngineerFaultRel efr " +
-           "    WHERE efr.faultType.id = :faultTypeId" +
-           ") " +
-           "AND u.id IN (" +
-           "    SELECT ear.engineer.id FROM EngineerAreaRel ear " +
-           "    WHERE ear.floor.id = :floorId" +
-           ")")
-    List<Long> findAvailableEngineerIds(@Param("faultTypeId") Long faultTypeId, 
-                                       @Param("floorId") Long floorId);
-
-    // 复杂条件查询
-    @Query("SELECT ro FROM RepairOrder ro " +
-           "WHERE (:userId IS NULL OR ro.submitUser.id = :userId) " +
-           "AND (:engineerId IS NULL OR ro.engineer.id = :engineerId) " +
-           "AND (:status IS NULL OR ro.status = :status) " +
-           "AND (:buildingId IS NULL OR ro.building.id = :buildingId) " +
-           "AND (:faultTypeId IS NULL OR ro.faultType.id = :faultTypeId) " +
-           "ORDER BY ro.createTime DESC")
-    Page<RepairOrder> findByConditions(@Param("userId") Long userId,
-                                      @Param("engineerId") Long engineerId,
-                                      @Param("status") RepairOrderStatus status,
-                                      @Param("buildingId") Long buildingId,
-                                      @Param("faultTypeId") Long faultTypeId,
-                                      Pageable pageable);
+    // 状态流转前读取工单及全部展示关联（条件更新会清空持久化上下文，之后仍可直接组装响应）
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
+    @Query("SELECT ro FROM RepairOrder ro WHERE ro.id = :id")
+    Optional<RepairOrder> findDetailById(@Param("id") Long id);
+
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
+    @Query("SELECT ro FROM RepairOrder ro WHERE ro.id IN :ids")
+    List<RepairOrder> findDetailByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 全文检索索引重建：按ID升序逐行读取可检索文本与筛选属性（id, description, repairInfo, status, buildingId, faultTypeId）
+     * 需在事务内使用并在用完后关闭
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT ro.id, ro.description, ro.repairInfo, ro.status, ro.building.id, ro.faultType.id " +
+           "FROM RepairOrder ro ORDER BY ro.id")
+    Stream<Object[]> streamSearchDocuments();
+
+    @Query("SELECT ro.status FROM RepairOrder ro WHERE ro.id = :id")
+    Optional<RepairOrderStatus> findStatusById(@Param("id") Long id);
+
+    // ===== 冷热归档：按 (create_time, id) 键集分批挑选早于截止时间的终态工单，走 idx_status_create_time =====
+
+    @Query("SELECT ro.id, ro.createTime FROM RepairOrder ro WHERE ro.status = :status " +
+           "AND ro.createTime < :cutoff AND (ro.finishTime IS NULL OR ro.finishTime < :cutoff) " +
+           "ORDER BY ro.createTime ASC, ro.id ASC")
+    List<Object[]> findFirstArchiveCandidates(@Param("status") RepairOrderStatus status,
+                                              @Param("cutoff") LocalDateTime cutoff,
+                                              Pageable limit);
+
+    @Query("SELECT ro.id, ro.createTime FROM RepairOrder ro WHERE ro.status = :status " +
+           "AND ro.createTime < :cutoff AND (ro.finishTime IS NULL OR ro.finishTime < :cutoff) " +
+           "AND (ro.createTime > :cursorTime OR (ro.createTime = :cursorTime AND ro.id > :cursorId)) " +
+           "ORDER BY ro.createTime ASC, ro.id ASC")
+    List<Object[]> findNextArchiveCandidates(@Param("status") RepairOrderStatus status,
+                                             @Param("cutoff") LocalDateTime cutoff,
+                                             @Param("cursorTime") LocalDateTime cursorTime,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable limit);
+
+    // 归档前锁定仍处于终态的工单行，同时阻止并发写入引用这些工单的评价/附件
+    @Query(value = "SELECT ro.id FROM repair_order ro WHERE ro.id IN (:ids) " +
+                   "AND ro.status IN ('CLOSED', 'CANCELLED') FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockFinalOrderIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM RepairOrder ro WHERE ro.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 批量操作：锁定待处理的工单，防止与单条操作并发修改
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ro FROM RepairOrder ro WHERE ro.id IN :ids")
+    List<RepairOrder> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // ===== 状态流转：条件 UPDATE（compare-and-set），返回 0 表示工单已被其他请求修改 =====
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RepairOrder ro SET ro.status = :target, ro.version = ro.version + 1 " +
+           "WHERE ro.id = :id AND ro.status = :expected")
+    int updateStatusIfMatch(@Param("id") Long id,
+                            @Param("expected") RepairOrderStatus expected,
+                            @Param("target") RepairOrderStatus target);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RepairOrder ro SET ro.status = :target, ro.admin = :admin, ro.version = ro.version + 1 " +
+           "WHERE ro.id = :id AND ro.status = :expected")
+    int updateStatusByAdminIfMatch(@Param("id") Long id,
+                                   @Param("expected") RepairOrderStatus expected,
+                                   @Param("target") RepairOrderStatus target,
+                                   @Param("admin") User admin);
+
+    // 分配工程师（单条与批量共用）：只有已提交的工单可以分配
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RepairOrder ro SET ro.engineer = :engineer, ro.admin = :admin, ro.status = 'PENDING', " +
+           "ro.version = ro.version + 1 WHERE ro.id IN :ids AND ro.status = 'SUBMITTED'")
+    int assignIfSubmitted(@Param("ids") Collection<Long> ids,
+                          @Param("engineer") User engineer,
+                          @Param("admin") User admin);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RepairOrder ro SET ro.status = 'IN_PROGRESS', ro.acceptTime = :acceptTime, " +
+           "ro.version = ro.version + 1 WHERE ro.id = :id AND ro.status = 'PENDING' AND ro.engineer.id = :engineerId")
+    int acceptIfPending(@Param("id") Long id,
+                        @Param("engineerId") Long engineerId,
+                        @Param("acceptTime") LocalDateTime acceptTime);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RepairOrder ro SET ro.status = 'COMPLETED', ro.repairInfo = :repairInfo, ro.finishTime = :finishTime, " +
+           "ro.version = ro.version + 1 WHERE ro.id = :id AND ro.status = 'IN_PROGRESS' AND ro.engineer.id = :engineerId")
+    int completeIfInProgress(@Param("id") Long id,
+                             @Param("engineerId") Long engineerId,
+                             @Param("repairInfo") String repairInfo,
+                             @Param("finishTime") LocalDateTime finishTime);
+
+    // 批量强制取消（调用方已锁定工单）
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RepairOrder ro SET ro.status = 'CANCELLED', ro.admin = :admin, ro.version = ro.version + 1 " +
+           "WHERE ro.id IN :ids AND ro.status NOT IN ('CLOSED', 'CANCELLED')")
+    int bulkAdminCancel(@Param("ids") Collection<Long> ids, @Param("admin") User admin);
+
+    // 复杂条件查询（条件由 RepairOrderSpecifications 动态生成）
+    @Override
+    @EntityGraph(RepairOrder.GRAPH_DETAIL)
+    Page<RepairOrder> findAll(Specification<RepairOrder> spec, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package org.trs.therepairsystem.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface RepairOrderRepositoryCustom {
+
+    /**
+     * 按动态条件查询前 limit 条工单（加载展示所需关联，不执行 COUNT 查询），用于游标分页
+     */
+    List<RepairOrder> findLimited(Specification<RepairOrder> spec, Sort sort, int limit);
+
+    /**
+     * 按动态条件逐行读取工单（加载展示所需关联，只读，不做脏检查），用于大批量导出
+     * 必须在事务内使用并在用完后关闭；调用方应定期调用 {@link #clearPersistenceContext()} 释放已处理的实体
+     *
+     * @param fetchSize JDBC 每次从数据库拉取的行数
+     */
+    Stream<RepairOrder> streamAll(Specification<RepairOrder> spec, Sort sort, int fetchSize);
+
+    /**
+     * 清空当前持久化上下文，丢弃已加载的实体
+     */
+    void clearPersistenceContext();
+}
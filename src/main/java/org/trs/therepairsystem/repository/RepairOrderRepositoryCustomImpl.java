@@ -0,0 +1,61 @@
+package org.trs.therepairsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class RepairOrderRepositoryCustomImpl implements RepairOrderRepositoryCustom {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+    private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+    private static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RepairOrder> findLimited(Specification<RepairOrder> spec, Sort sort, int limit) {
+        return entityManager.createQuery(buildQuery(spec, sort))
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(RepairOrder.GRAPH_DETAIL))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<RepairOrder> streamAll(Specification<RepairOrder> spec, Sort sort, int fetchSize) {
+        // 关联随主查询一次取回：逐行读取期间同一连接上不能再发起懒加载查询
+        return entityManager.createQuery(buildQuery(spec, sort))
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(RepairOrder.GRAPH_DETAIL))
+                .setHint(FETCH_SIZE_HINT, fetchSize)
+                .setHint(READ_ONLY_HINT, true)
+                .getResultStream();
+    }
+
+    @Override
+    public void clearPersistenceContext() {
+        entityManager.clear();
+    }
+
+    private CriteriaQuery<RepairOrder> buildQuery(Specification<RepairOrder> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RepairOrder> query = cb.createQuery(RepairOrder.class);
+        Root<RepairOrder> root = query.from(RepairOrder.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+}
@@ -0,0 +1,76 @@
+package org.trs.therepairsystem.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 工单动态查询条件
+ * 只为实际传入的筛选条件生成谓词，避免 "(:param IS NULL OR col = :param)" 形式导致 MySQL 无法选择合适索引
+ * 条件按属性名构造，同样适用于属性一致的归档工单 {@link org.trs.therepairsystem.entity.ArchivedRepairOrder}
+ */
+public final class RepairOrderSpecifications {
+
+    private RepairOrderSpecifications() {
+    }
+
+    /**
+     * 管理员多条件筛选，参数为 null 表示不筛选该字段
+     */
+    public static <T> Specification<T> byConditions(Long userId,
+                                                   Long engineerId,
+                                                   RepairOrderStatus status,
+                                                   Long buildingId,
+                                                   Long faultTypeId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("submitUser").get("id"), userId));
+            }
+            if (engineerId != null) {
+                predicates.add(cb.equal(root.get("engineer").get("id"), engineerId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (buildingId != null) {
+                predicates.add(cb.equal(root.get("building").get("id"), buildingId));
+            }
+            if (faultTypeId != null) {
+                predicates.add(cb.equal(root.get("faultType").get("id"), faultTypeId));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 创建时间位于 [start, end] 内，任一端为 null 表示该端不限
+     */
+    public static <T> Specification<T> createdBetween(LocalDateTime start, LocalDateTime end) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (start != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createTime"), start));
+            }
+            if (end != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("createTime"), end));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 游标条件：位于 (createTime, id) 之后（按 createTime DESC, id DESC 排序）
+     */
+    public static <T> Specification<T> createdBefore(LocalDateTime createTime, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("createTime"), createTime),
+                cb.and(
+                        cb.equal(root.get("createTime"), createTime),
+                        cb.lessThan(root.<Long>get("id"), id)));
+    }
+}
@@ -0,0 +1,16 @@
+package org.trs.therepairsystem.repository;
+
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+
+/**
+ * 工单按状态分组统计的投影结果
+ */
+public interface RepairOrderStatusCount {
+
+    RepairOrderStatus getStatus();
+
+    /**
+     * 该状态下的工单总数
+     */
+    Long getTotal();
+}
@@ -3,11 +3,14 @@ package org.trs.therepairsystem.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.trs.therepairsystem.entity.RepairRating;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -27,6 +30,11 @@ public interface RepairRatingRepository extends JpaRepository<RepairRating, Long
     @Query("SELECT AVG(r.rating) FROM RepairRating r WHERE r.order.engineer.id = :engineerId")
     Double findAverageRatingByEngineerId(@Param("engineerId") Long engineerId);
 
+    // 按工程师汇总 [工程师ID, 平均评分, 评价数量]，供加权分配策略使用
+    @Query("SELECT r.order.engineer.id, AVG(r.rating), COUNT(r) FROM RepairRating r " +
+           "WHERE r.order.engineer IS NOT NULL GROUP BY r.order.engineer.id")
+    List<Object[]> summarizeRatingsGroupByEngineer();
+
     // 根据工程师ID查询评价数量
     @Query("SELECT COUNT(r) FROM RepairRating r WHERE r.order.engineer.id = :engineerId")
     Long countByEngineerId(@Param("engineerId") Long engineerId);
@@ -51,4 +59,9 @@ public interface RepairRatingRepository extends JpaRepository<RepairRating, Long
 
     // 根据最高评分查询
     Page<RepairRating> findByRatingLessThanEqual(Integer maxRating, Pageable pageable);
-}
\ No newline at end of file
+
+    // 归档：删除已复制到归档表的评价
+    @Modifying
+    @Query("DELETE FROM RepairRating r WHERE r.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
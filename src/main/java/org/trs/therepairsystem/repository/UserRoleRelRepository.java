@@ -1,6 +1,8 @@
 package org.trs.therepairsystem.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.trs.therepairsystem.entity.UserRoleRel;
 
 import java.util.List;
@@ -8,4 +10,7 @@ import java.util.List;
 public interface UserRoleRelRepository extends JpaRepository<UserRoleRel, Long> {
     List<UserRoleRel> findByUserId(Long userId);
     void deleteByUserId(Long userId);
+
+    @Query("SELECT urr.user.id FROM UserRoleRel urr WHERE urr.role.roleName = :roleName")
+    List<Long> findUserIdsByRoleName(@Param("roleName") String roleName);
 }
@@ -1,5 +1,6 @@
 package org.trs.therepairsystem.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,6 +44,9 @@ public class SecurityConfig {
                         // 登录接口 + Swagger 放行
                         .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**", "/error").permitAll()
 
+                        // SSE 等异步响应的 ASYNC 分派：首次请求已完成认证与鉴权
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 其他接口需要认证（具体权限由@PreAuthorize控制）
                         .anyRequest().authenticated()
                 )
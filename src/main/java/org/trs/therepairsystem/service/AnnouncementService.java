@@ -49,6 +49,11 @@ public interface AnnouncementService {
      * 获取已发布公告列表
      */
     List<AnnouncementDTO> getPublishedAnnouncements();
+
+    /**
+     * 已发布公告列表的版本标识（用于 ETag），发布、下架、修改、删除已发布公告后变化
+     */
+    String getPublishedAnnouncementsVersionTag();
     
     /**
      * 发布公告
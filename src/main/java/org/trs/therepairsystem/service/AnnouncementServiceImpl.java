@@ -12,10 +12,12 @@ import org.trs.therepairsystem.dto.response.AnnouncementDTO;
 import org.trs.therepairsystem.entity.Announcement;
 import org.trs.therepairsystem.entity.User;
 import org.trs.therepairsystem.repository.AnnouncementRepository;
+import org.trs.therepairsystem.repository.AnnouncementVersionSummary;
 import org.trs.therepairsystem.repository.UserRepository;
 import org.trs.therepairsystem.web.converter.AnnouncementConverter;
 import org.trs.therepairsystem.common.enums.AnnouncementStatus;
 
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -112,6 +114,16 @@ public class AnnouncementServiceImpl implements AnnouncementService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getPublishedAnnouncementsVersionTag() {
+        AnnouncementVersionSummary summary = announcementRepository.summarizeByStatus(AnnouncementStatus.PUBLISHED);
+        long lastUpdate = summary.getLastUpdateTime() != null
+                ? summary.getLastUpdateTime().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : 0;
+        return summary.getTotal() + "." + summary.getIdSum() + "." + lastUpdate;
+    }
+
     @Override
     public AnnouncementDTO publishAnnouncement(Long id, Long adminId) {
         Announcement announcement = announcementRepository.findById(id)
@@ -11,6 +11,11 @@ import java.util.List;
 public interface BuildingService {
 
     List<Building> getAllBuildings();
+
+    /**
+     * 全部楼栋列表的版本标识（用于 ETag）
+     */
+    String getAllBuildingsVersionTag();
     
     Page<Building> getBuildings(int page, int size);
     
@@ -11,8 +11,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
 import org.trs.therepairsystem.entity.Building;
 import org.trs.therepairsystem.repository.BuildingRepository;
+import org.trs.therepairsystem.service.cache.ReferenceDataCache;
 
 import java.util.List;
 
@@ -25,9 +27,17 @@ public class BuildingServiceImpl implements BuildingService {
     @Autowired
     private BuildingRepository buildingRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Override
     public List<Building> getAllBuildings() {
-        return buildingRepository.findAllByOrderByName();
+        return referenceDataCache.getAllBuildings();
+    }
+
+    @Override
+    public String getAllBuildingsVersionTag() {
+        return referenceDataCache.getVersionTag(ReferenceDataType.BUILDING);
     }
 
     @Override
@@ -38,7 +48,7 @@ public class BuildingServiceImpl implements BuildingService {
 
     @Override
     public Building getBuildingById(Long id) {
-        return buildingRepository.findById(id)
+        return referenceDataCache.getBuilding(id)
                 .orElseThrow(() -> new EntityNotFoundException("楼栋不存在，ID: " + id));
     }
 
@@ -49,13 +59,15 @@ public class BuildingServiceImpl implements BuildingService {
         if (buildingRepository.existsByName(building.getName())) {
             throw new DataIntegrityViolationException("楼栋名称已存在: " + building.getName());
         }
-        return buildingRepository.save(building);
+        Building saved = buildingRepository.save(building);
+        referenceDataCache.evict(ReferenceDataType.BUILDING, saved.getId());
+        return saved;
     }
 
     @Override
     @Transactional
     public Building updateBuilding(Long id, Building updatedBuilding) {
-        Building existingBuilding = getBuildingById(id);
+        Building existingBuilding = findBuilding(id);
         validateBuilding(updatedBuilding);
         
         if (!existingBuilding.getName().equals(updatedBuilding.getName()) &&
@@ -64,17 +76,20 @@ public class BuildingServiceImpl implements BuildingService {
         }
         
         existingBuilding.setName(updatedBuilding.getName());
-        return buildingRepository.save(existingBuilding);
+        Building saved = buildingRepository.save(existingBuilding);
+        referenceDataCache.evict(ReferenceDataType.BUILDING, id);
+        return saved;
     }
 
     @Override
     @Transactional
     public void deleteBuilding(Long id) {
-        Building building = getBuildingById(id);
+        findBuilding(id);
         if (!canDelete(id)) {
             throw new DataIntegrityViolationException("无法删除楼栋，已被引用");
         }
         buildingRepository.deleteById(id);
+        referenceDataCache.evict(ReferenceDataType.BUILDING, id);
     }
 
     @Override
@@ -93,6 +108,14 @@ public class BuildingServiceImpl implements BuildingService {
         return true; // 暂时返回true，等Floor和RepairOrder创建后再完善
     }
 
+    /**
+     * 加载托管实体用于修改，缓存中的是副本不能直接保存
+     */
+    private Building findBuilding(Long id) {
+        return buildingRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("楼栋不存在，ID: " + id));
+    }
+
     private void validateBuilding(Building building) {
         if (building == null) {
             throw new IllegalArgumentException("楼栋不能为空");
@@ -8,6 +8,7 @@ import org.trs.therepairsystem.dto.response.engineer.EngineerFaultDTO;
 import org.trs.therepairsystem.dto.response.UserDTO;
 import org.trs.therepairsystem.entity.*;
 import org.trs.therepairsystem.repository.*;
+import org.trs.therepairsystem.service.assign.EngineerEligibilityIndex;
 import org.trs.therepairsystem.web.converter.EngineerAreaConverter;
 import org.trs.therepairsystem.web.converter.EngineerFaultConverter;
 import org.trs.therepairsystem.web.converter.UserConverter;
@@ -26,6 +27,7 @@ public class EngineerAssignServiceImpl implements EngineerAssignService {
     private final FloorRepository floorRepository;
     private final FaultTypeRepository faultTypeRepository;
     private final UserRoleRelRepository userRoleRelRepository;
+    private final EngineerEligibilityIndex eligibilityIndex;
     
     /**
      * 验证用户是否具有工程师角色
@@ -91,11 +93,13 @@ public class EngineerAssignServiceImpl implements EngineerAssignService {
                 engineerAreaRelRepository.save(rel);
             }
         }
+        eligibilityIndex.replaceFloors(engineerId, floorIds);
     }
     
     @Override
     public void removeEngineerFromArea(Long engineerId, Long floorId) {
         engineerAreaRelRepository.deleteByEngineerIdAndFloorId(engineerId, floorId);
+        eligibilityIndex.removeFloor(engineerId, floorId);
     }
     
     @Override
@@ -149,11 +153,13 @@ public class EngineerAssignServiceImpl implements EngineerAssignService {
                 engineerFaultRelRepository.save(rel);
             }
         }
+        eligibilityIndex.replaceFaultTypes(engineerId, faultTypeIds);
     }
     
     @Override
     public void removeEngineerFromFaultType(Long engineerId, Long faultTypeId) {
         engineerFaultRelRepository.deleteByEngineerIdAndFaultTypeId(engineerId, faultTypeId);
+        eligibilityIndex.removeFaultType(engineerId, faultTypeId);
     }
     
     @Override
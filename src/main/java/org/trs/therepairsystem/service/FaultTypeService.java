@@ -15,6 +15,11 @@ public interface FaultTypeService {
      */
     List<FaultType> getAllFaultTypes();
 
+    /**
+     * 全部故障类型列表的版本标识（用于 ETag）
+     */
+    String getAllFaultTypesVersionTag();
+
     /**
      * 分页获取故障类型
      */
@@ -11,8 +11,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
 import org.trs.therepairsystem.entity.FaultType;
 import org.trs.therepairsystem.repository.FaultTypeRepository;
+import org.trs.therepairsystem.service.cache.ReferenceDataCache;
 
 import java.util.List;
 
@@ -28,10 +30,18 @@ public class FaultTypeServiceImpl implements FaultTypeService {
     @Autowired
     private FaultTypeRepository faultTypeRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Override
     public List<FaultType> getAllFaultTypes() {
         logger.debug("获取所有故障类型");
-        return faultTypeRepository.findAllByOrderByName();
+        return referenceDataCache.getAllFaultTypes();
+    }
+
+    @Override
+    public String getAllFaultTypesVersionTag() {
+        return referenceDataCache.getVersionTag(ReferenceDataType.FAULT_TYPE);
     }
 
     @Override
@@ -44,7 +54,7 @@ public class FaultTypeServiceImpl implements FaultTypeService {
     @Override
     public FaultType getFaultTypeById(Long id) {
         logger.debug("根据ID获取故障类型: id={}", id);
-        return faultTypeRepository.findById(id)
+        return referenceDataCache.getFaultType(id)
                 .orElseThrow(() -> new EntityNotFoundException("故障类型不存在，ID: " + id));
     }
 
@@ -70,6 +80,7 @@ public class FaultTypeServiceImpl implements FaultTypeService {
         
         try {
             FaultType saved = faultTypeRepository.save(faultType);
+            referenceDataCache.evict(ReferenceDataType.FAULT_TYPE, saved.getId());
             logger.info("故障类型创建成功: id={}, name={}", saved.getId(), saved.getName());
             return saved;
         } catch (Exception e) {
@@ -83,8 +94,8 @@ public class FaultTypeServiceImpl implements FaultTypeService {
     public FaultType updateFaultType(Long id, FaultType updatedFaultType) {
         logger.info("更新故障类型: id={}", id);
         
-        // 查找现有的故障类型
-        FaultType existingFaultType = getFaultTypeById(id);
+        // 查找现有的故障类型（缓存中的是副本，修改需加载托管实体）
+        FaultType existingFaultType = findFaultType(id);
         
         // 验证更新的数据
         validateFaultType(updatedFaultType);
@@ -102,6 +113,7 @@ public class FaultTypeServiceImpl implements FaultTypeService {
         
         try {
             FaultType saved = faultTypeRepository.save(existingFaultType);
+            referenceDataCache.evict(ReferenceDataType.FAULT_TYPE, id);
             logger.info("故障类型更新成功: id={}, name={}", saved.getId(), saved.getName());
             return saved;
         } catch (Exception e) {
@@ -116,7 +128,7 @@ public class FaultTypeServiceImpl implements FaultTypeService {
         logger.info("删除故障类型: id={}", id);
         
         // 检查故障类型是否存在
-        FaultType faultType = getFaultTypeById(id);
+        FaultType faultType = findFaultType(id);
         
         // 检查是否可以删除（未被报修单引用）
         if (!canDelete(id)) {
@@ -125,6 +137,7 @@ public class FaultTypeServiceImpl implements FaultTypeService {
         
         try {
             faultTypeRepository.deleteById(id);
+            referenceDataCache.evict(ReferenceDataType.FAULT_TYPE, id);
             logger.info("故障类型删除成功: id={}, name={}", id, faultType.getName());
         } catch (Exception e) {
             logger.error("删除故障类型失败: id={}", id, e);
@@ -162,6 +175,11 @@ public class FaultTypeServiceImpl implements FaultTypeService {
         }
     }
 
+    private FaultType findFaultType(Long id) {
+        return faultTypeRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("故障类型不存在，ID: " + id));
+    }
+
     /**
      * 验证故障类型数据
      */
@@ -7,10 +7,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
 import org.trs.therepairsystem.entity.Building;
 import org.trs.therepairsystem.entity.Floor;
 import org.trs.therepairsystem.repository.FloorRepository;
 import org.trs.therepairsystem.repository.BuildingRepository;
+import org.trs.therepairsystem.service.cache.ReferenceDataCache;
 
 import java.util.List;
 
@@ -24,10 +26,13 @@ public class FloorServiceImpl implements FloorService {
     @Autowired
     private BuildingRepository buildingRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Override
     @Transactional(readOnly = true)
     public Floor getById(Long id) {
-        return floorRepository.findById(id).orElse(null);
+        return referenceDataCache.getFloor(id).orElse(null);
     }
 
     @Override
@@ -44,12 +49,15 @@ public class FloorServiceImpl implements FloorService {
         }
 
         floor.setBuilding(building);
-        return floorRepository.save(floor);
+        Floor saved = floorRepository.save(floor);
+        referenceDataCache.evict(ReferenceDataType.FLOOR, saved.getId());
+        return saved;
     }
 
     @Override
     public Floor updateFloor(Long id, Floor floor) {
-        Floor existingFloor = getById(id);
+        // 缓存中的是副本，修改需加载托管实体
+        Floor existingFloor = floorRepository.findById(id).orElse(null);
         if (existingFloor == null) {
             throw new RuntimeException("楼层不存在");
         }
@@ -69,16 +77,18 @@ public class FloorServiceImpl implements FloorService {
             existingFloor.setName(floor.getName().trim());
         }
 
-        return floorRepository.save(existingFloor);
+        Floor saved = floorRepository.save(existingFloor);
+        referenceDataCache.evict(ReferenceDataType.FLOOR, id);
+        return saved;
     }
 
     @Override
     public void deleteFloor(Long id) {
-        Floor floor = getById(id);
-        if (floor == null) {
+        if (!floorRepository.existsById(id)) {
             throw new RuntimeException("楼层不存在");
         }
         floorRepository.deleteById(id);
+        referenceDataCache.evict(ReferenceDataType.FLOOR, id);
     }
 
     @Override
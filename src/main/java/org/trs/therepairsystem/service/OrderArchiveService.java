@@ -0,0 +1,12 @@
+package org.trs.therepairsystem.service;
+
+public interface OrderArchiveService {
+
+    /**
+     * 将创建和完成时间都早于保留期的已关闭/已取消工单连同评价、附件元数据迁移到归档表
+     * 按 (create_time, id) 键集分批进行，每批独立事务；单次最多迁移配置的批数
+     *
+     * @return 本次归档的工单数
+     */
+    int archiveExpiredOrders();
+}
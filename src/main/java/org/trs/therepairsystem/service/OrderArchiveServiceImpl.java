@@ -0,0 +1,95 @@
+package org.trs.therepairsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.config.OrderArchiveProperties;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairRatingRepository;
+import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairRatingRepository;
+import org.trs.therepairsystem.service.cache.ArchivedOrderCountCache;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private final RepairOrderRepository repairOrderRepository;
+    private final RepairRatingRepository repairRatingRepository;
+    private final RepairOrderAttachmentRepository attachmentRepository;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    private final ArchivedRepairRatingRepository archivedRepairRatingRepository;
+    private final ArchivedRepairOrderAttachmentRepository archivedAttachmentRepository;
+    private final OrderSearchIndex orderSearchIndex;
+    private final ArchivedOrderCountCache archivedOrderCountCache;
+    private final OrderArchiveProperties archiveProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public int archiveExpiredOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveProperties.getMinAge());
+        Pageable chunk = PageRequest.of(0, Math.max(archiveProperties.getChunkSize(), 1));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int archived = 0;
+        int chunks = 0;
+        int maxChunks = archiveProperties.getMaxChunksPerRun();
+        for (RepairOrderStatus status : RepairOrderStatus.values()) {
+            if (!status.isFinalStatus() || chunks >= maxChunks) {
+                continue;
+            }
+            List<Object[]> candidates = repairOrderRepository.findFirstArchiveCandidates(status, cutoff, chunk);
+            while (!candidates.isEmpty()) {
+                List<Long> ids = candidates.stream().map(row -> (Long) row[0]).toList();
+                Integer moved = transactionTemplate.execute(tx -> archiveChunk(ids));
+                if (moved != null && moved > 0) {
+                    archived += moved;
+                    // 本批已提交，列表分页拼接归档工单时重新统计归档总数
+                    archivedOrderCountCache.invalidateAll();
+                }
+                chunks++;
+                if (candidates.size() < chunk.getPageSize() || chunks >= maxChunks) {
+                    break;
+                }
+                // 游标始终前移：本批中未能归档的行（如已被并发删除）不会被反复挑选
+                Object[] last = candidates.get(candidates.size() - 1);
+                candidates = repairOrderRepository.findNextArchiveCandidates(
+                    status, cutoff, (LocalDateTime) last[1], (Long) last[0], chunk);
+            }
+        }
+        log.info("工单归档完成：截止时间 {}，共 {} 批，迁移 {} 个工单", cutoff, chunks, archived);
+        return archived;
+    }
+
+    /**
+     * 单批归档：先锁定仍处于终态的工单行，再复制工单、评价、附件元数据，最后按子表到主表的顺序删除
+     */
+    private int archiveChunk(List<Long> candidateIds) {
+        List<Long> ids = repairOrderRepository.lockFinalOrderIds(candidateIds);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedRepairOrderRepository.copyFromOrders(ids, LocalDateTime.now());
+        archivedRepairRatingRepository.copyFromRatings(ids);
+        archivedAttachmentRepository.copyFromAttachments(ids);
+
+        attachmentRepository.deleteByOrderIdIn(ids);
+        repairRatingRepository.deleteByOrderIdIn(ids);
+        repairOrderRepository.deleteByIdIn(ids);
+
+        orderSearchIndex.onOrdersArchived(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,14 @@
+package org.trs.therepairsystem.service;
+
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+/**
+ * 工单的一次变化，供计数器、汇总表等派生数据增量更新
+ *
+ * @param order              变化后的工单
+ * @param previousStatus     变化前的状态，新建工单为 null
+ * @param previousEngineerId 变化前的工程师ID，未分配为 null
+ */
+public record OrderChange(RepairOrder order, RepairOrderStatus previousStatus, Long previousEngineerId) {
+}
@@ -0,0 +1,51 @@
+package org.trs.therepairsystem.service;
+
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.response.OrderDailyStatsResponse;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface OrderDailyRollupService {
+
+    /**
+     * 工单创建、状态或楼栋变化后更新按日汇总（与调用方处于同一事务）
+     *
+     * @param order              变化后的工单
+     * @param previousStatus     变化前的状态，新建工单传 null
+     * @param previousBuildingId 变化前的楼栋ID，新建工单传 null
+     */
+    void onOrderChanged(RepairOrder order, RepairOrderStatus previousStatus, Long previousBuildingId);
+
+    /**
+     * 批量状态变化（楼栋不变）后合并更新，每个汇总行只更新一次
+     */
+    void onOrdersChanged(List<OrderChange> changes);
+
+    /**
+     * 读取某天创建的工单按状态的数量，该天尚未回填时按半开区间回查工单表及归档表
+     */
+    Map<RepairOrderStatus, Long> getDailyCounts(LocalDate date);
+
+    /**
+     * 日期区间 [from, to] 内逐日统计，buildingId 为空表示全部楼栋
+     */
+    List<OrderDailyStatsResponse> getTrend(LocalDate from, LocalDate to, Long buildingId);
+
+    /**
+     * 根据 repair_order 及其归档表重建日期区间 [from, to] 的按日汇总，每天独立事务
+     * 回填期间锁定当天创建的工单，可以在业务运行中重建当天
+     *
+     * @return 回填的天数
+     */
+    int backfill(LocalDate from, LocalDate to);
+
+    /**
+     * 回填所有尚无完成标记的日期（首次运行覆盖最早工单至今天），启动时调用
+     *
+     * @return 回填的天数
+     */
+    int backfillMissing();
+}
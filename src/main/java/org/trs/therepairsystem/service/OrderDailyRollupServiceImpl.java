@@ -0,0 +1,253 @@
+package org.trs.therepairsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.dto.response.OrderDailyStatsResponse;
+import org.trs.therepairsystem.entity.OrderDailyRollupMark;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.OrderDailyRollupMarkRepository;
+import org.trs.therepairsystem.repository.OrderDailyRollupRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderStatusCount;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OrderDailyRollupServiceImpl implements OrderDailyRollupService {
+
+    private static final long MAX_TREND_DAYS = 366;
+
+    // 按固定顺序更新汇总行，避免并发事务交叉加锁造成死锁
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+        .comparing(RollupKey::statDate)
+        .thenComparing(RollupKey::buildingId)
+        .thenComparing(RollupKey::status);
+
+    private final OrderDailyRollupRepository rollupRepository;
+    private final RepairOrderRepository repairOrderRepository;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    private final OrderDailyRollupMarkRepository markRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void onOrderChanged(RepairOrder order, RepairOrderStatus previousStatus, Long previousBuildingId) {
+        Map<RollupKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        collect(deltas, order, previousStatus, previousBuildingId);
+        apply(deltas);
+    }
+
+    @Override
+    public void onOrdersChanged(List<OrderChange> changes) {
+        Map<RollupKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (OrderChange change : changes) {
+            collect(deltas, change.order(), change.previousStatus(), null);
+        }
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<RepairOrderStatus, Long> getDailyCounts(LocalDate date) {
+        if (!completedDays(date, date).contains(date)) {
+            return countFromOrders(date, null);
+        }
+        return toCounts(rollupRepository.sumByDateGroupByStatus(date));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDailyStatsResponse> getTrend(LocalDate from, LocalDate to, Long buildingId) {
+        validateRange(from, to);
+
+        // 不按楼栋筛选时使用不带楼栋条件的语句，避免 OR 条件影响索引选择
+        List<Object[]> rows = buildingId == null
+            ? rollupRepository.sumByDateRangeGroupByDateAndStatus(from, to.plusDays(1))
+            : rollupRepository.sumByDateRangeAndBuildingGroupByDateAndStatus(from, to.plusDays(1), buildingId);
+        Map<LocalDate, Map<RepairOrderStatus, Long>> byDate = new HashMap<>();
+        for (Object[] row : rows) {
+            long count = ((Number) row[2]).longValue();
+            if (count != 0) {
+                byDate.computeIfAbsent((LocalDate) row[0], d -> new EnumMap<>(RepairOrderStatus.class))
+                    .put((RepairOrderStatus) row[1], count);
+            }
+        }
+
+        CompletedDays completed = completedDays(from, to);
+        List<OrderDailyStatsResponse> trend = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            // 尚未回填的日期汇总不完整（只有部署后的增量），按工单表统计
+            Map<RepairOrderStatus, Long> counts = completed.contains(date)
+                ? byDate.getOrDefault(date, new EnumMap<>(RepairOrderStatus.class))
+                : countFromOrders(date, buildingId);
+            long total = counts.values().stream().mapToLong(Long::longValue).sum();
+            trend.add(new OrderDailyStatsResponse(date, total, counts));
+        }
+        return trend;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int days = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            backfillDay(transactionTemplate, date);
+            days++;
+        }
+        log.info("工单按日汇总回填完成：{} ~ {}，共 {} 天", from, to, days);
+        return days;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfillMissing() {
+        LocalDate latest = markRepository.findLatestStatDate().orElse(null);
+        // 首次回填覆盖到今天；之后的日期从零开始增量维护，本身就是完整的
+        LocalDate to = latest != null ? latest : LocalDate.now();
+        LocalDate earliest = earliestOrderDate().orElse(to);
+        Set<LocalDate> done = new HashSet<>(markRepository.findStatDatesBetween(earliest, to));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int days = 0;
+        // 从新到旧回填：中途中断时，已有标记之后的日期仍可视为完整
+        for (LocalDate date = to; !date.isBefore(earliest); date = date.minusDays(1)) {
+            if (!done.contains(date)) {
+                backfillDay(transactionTemplate, date);
+                days++;
+            }
+        }
+        if (days > 0) {
+            log.info("工单按日汇总补齐回填完成：{} ~ {}，共 {} 天", earliest, to, days);
+        }
+        return days;
+    }
+
+    /**
+     * 单天回填：先锁定当天创建的工单（含区间间隙），该天的状态流转（先改工单行再写汇总）
+     * 与新建工单都要等回填提交，删除与重新汇总之间不会有增量写入丢失或插入重复行
+     */
+    private void backfillDay(TransactionTemplate transactionTemplate, LocalDate statDate) {
+        LocalDateTime start = statDate.atStartOfDay();
+        LocalDateTime end = statDate.plusDays(1).atStartOfDay();
+        Integer rows = transactionTemplate.execute(status -> {
+            repairOrderRepository.lockIdsCreatedBetween(start, end);
+            rollupRepository.deleteByStatDate(statDate);
+            int inserted = rollupRepository.insertFromOrders(statDate, start, end);
+            markRepository.save(new OrderDailyRollupMark(statDate, LocalDateTime.now()));
+            return inserted;
+        });
+        log.debug("工单按日汇总回填 {}：写入 {} 行", statDate, rows);
+    }
+
+    /**
+     * 汇总可直接读取的日期：已回填，或晚于最近一次回填（这些日期从第一单起就有增量维护）
+     */
+    private CompletedDays completedDays(LocalDate from, LocalDate to) {
+        LocalDate latest = markRepository.findLatestStatDate().orElse(null);
+        if (latest == null) {
+            return new CompletedDays(null, Set.of());
+        }
+        return new CompletedDays(latest, new HashSet<>(markRepository.findStatDatesBetween(from, to)));
+    }
+
+    /**
+     * 按 [当天0点, 次日0点) 统计工单表及归档表，仍可走 create_time 索引
+     */
+    private Map<RepairOrderStatus, Long> countFromOrders(LocalDate date, Long buildingId) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        List<RepairOrderStatusCount> rows = new ArrayList<>();
+        if (buildingId == null) {
+            rows.addAll(repairOrderRepository.countCreatedBetweenGroupByStatus(start, end));
+            rows.addAll(archivedRepairOrderRepository.countCreatedBetweenGroupByStatus(start, end));
+        } else {
+            rows.addAll(repairOrderRepository.countCreatedBetweenByBuildingGroupByStatus(start, end, buildingId));
+            rows.addAll(archivedRepairOrderRepository.countCreatedBetweenByBuildingGroupByStatus(start, end, buildingId));
+        }
+        return toCounts(rows);
+    }
+
+    private Map<RepairOrderStatus, Long> toCounts(List<RepairOrderStatusCount> rows) {
+        Map<RepairOrderStatus, Long> counts = new EnumMap<>(RepairOrderStatus.class);
+        for (RepairOrderStatusCount row : rows) {
+            if (row.getTotal() != null && row.getTotal() != 0) {
+                counts.merge(row.getStatus(), row.getTotal(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private Optional<LocalDate> earliestOrderDate() {
+        return Stream.of(repairOrderRepository.findEarliestCreateTime(), archivedRepairOrderRepository.findEarliestCreateTime())
+            .flatMap(Optional::stream)
+            .min(Comparator.naturalOrder())
+            .map(LocalDateTime::toLocalDate);
+    }
+
+    private void collect(Map<RollupKey, Long> deltas, RepairOrder order,
+                         RepairOrderStatus previousStatus, Long previousBuildingId) {
+        LocalDate statDate = order.getCreateTime().toLocalDate();
+        Long buildingId = order.getBuilding().getId();
+        if (previousStatus != null) {
+            Long oldBuildingId = previousBuildingId != null ? previousBuildingId : buildingId;
+            deltas.merge(new RollupKey(statDate, oldBuildingId, previousStatus), -1L, Long::sum);
+        }
+        deltas.merge(new RollupKey(statDate, buildingId, order.getStatus()), 1L, Long::sum);
+    }
+
+    private void apply(Map<RollupKey, Long> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                rollupRepository.increment(key.statDate(), key.buildingId(), key.status().name(), delta);
+            }
+        });
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BusinessException("统计起止日期不能为空");
+        }
+        if (from.isAfter(to)) {
+            throw new BusinessException("开始日期不能晚于结束日期");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_TREND_DAYS) {
+            throw new BusinessException("统计区间不能超过" + MAX_TREND_DAYS + "天");
+        }
+    }
+
+    private record CompletedDays(LocalDate latest, Set<LocalDate> marked) {
+
+        boolean contains(LocalDate date) {
+            return marked.contains(date) || (latest != null && date.isAfter(latest));
+        }
+    }
+
+    private record RollupKey(LocalDate statDate, Long buildingId, RepairOrderStatus status) {
+    }
+}
@@ -0,0 +1,31 @@
+package org.trs.therepairsystem.service;
+
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.response.OrderEventResponse;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+import java.util.List;
+
+public interface OrderEventService {
+
+    /**
+     * 记录一次工单变化，事务提交后异步批量写入（回滚的变化不会留下事件）
+     *
+     * @param order          变化后的工单
+     * @param type           事件类型
+     * @param previousStatus 变化前的状态，新建工单传 null
+     * @param operatorId     操作人，系统自动处理传 null
+     */
+    void record(RepairOrder order, OrderEventType type, RepairOrderStatus previousStatus, Long operatorId);
+
+    /**
+     * 批量记录同一操作人的同类变化
+     */
+    void recordAll(List<OrderChange> changes, OrderEventType type, Long operatorId);
+
+    /**
+     * 工单时间线，按发生时间先后；刚发生的事件最多延迟一个写入周期可见
+     */
+    List<OrderEventResponse> getTimeline(Long orderId);
+}
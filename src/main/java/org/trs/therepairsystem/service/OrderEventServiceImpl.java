@@ -0,0 +1,76 @@
+package org.trs.therepairsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.util.TransactionCallbacks;
+import org.trs.therepairsystem.dto.response.OrderEventResponse;
+import org.trs.therepairsystem.entity.OrderEvent;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.OrderEventRepository;
+import org.trs.therepairsystem.service.job.OrderEventWriter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OrderEventServiceImpl implements OrderEventService {
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventWriter orderEventWriter;
+
+    @Override
+    public void record(RepairOrder order, OrderEventType type, RepairOrderStatus previousStatus, Long operatorId) {
+        OrderEvent event = toEvent(order, type, previousStatus, operatorId, LocalDateTime.now());
+        TransactionCallbacks.afterCommit(() -> orderEventWriter.enqueue(List.of(event)));
+    }
+
+    @Override
+    public void recordAll(List<OrderChange> changes, OrderEventType type, Long operatorId) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderEvent> events = new ArrayList<>(changes.size());
+        for (OrderChange change : changes) {
+            events.add(toEvent(change.order(), type, change.previousStatus(), operatorId, now));
+        }
+        TransactionCallbacks.afterCommit(() -> orderEventWriter.enqueue(events));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderEventResponse> getTimeline(Long orderId) {
+        List<OrderEventResponse> timeline = new ArrayList<>();
+        for (Object[] row : orderEventRepository.findTimeline(orderId)) {
+            OrderEvent event = (OrderEvent) row[0];
+            timeline.add(new OrderEventResponse(
+                event.getEventType(),
+                event.getEventType().getDescription(),
+                event.getFromStatus(),
+                event.getToStatus(),
+                event.getOperatorId(),
+                (String) row[1],
+                event.getEngineerId(),
+                event.getCreateTime()));
+        }
+        return timeline;
+    }
+
+    private static OrderEvent toEvent(RepairOrder order, OrderEventType type, RepairOrderStatus previousStatus,
+                                      Long operatorId, LocalDateTime time) {
+        return OrderEvent.builder()
+            .orderId(order.getId())
+            .eventType(type)
+            .fromStatus(previousStatus)
+            .toStatus(order.getStatus())
+            .operatorId(operatorId)
+            .engineerId(order.getEngineer() != null ? order.getEngineer().getId() : null)
+            .createTime(time)
+            .build();
+    }
+}
@@ -0,0 +1,41 @@
+package org.trs.therepairsystem.service;
+
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.response.OrderCounterReconcileResponse;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+import java.util.List;
+import java.util.Map;
+
+public interface OrderStatsCounterService {
+
+    /**
+     * 工单创建、状态变化或工程师变化后更新计数器（与调用方处于同一事务）
+     *
+     * @param order              变化后的工单
+     * @param previousStatus     变化前的状态，新建工单传 null
+     * @param previousEngineerId 变化前的工程师ID，未分配传 null
+     */
+    void onOrderChanged(RepairOrder order, RepairOrderStatus previousStatus, Long previousEngineerId);
+
+    /**
+     * 批量操作后合并所有工单的变化，每个计数行只更新一次
+     */
+    void onOrdersChanged(List<OrderChange> changes);
+
+    /**
+     * 读取某个统计范围下各状态的工单数量
+     */
+    Map<RepairOrderStatus, Long> getCounts(CounterScope scope, Long scopeId);
+
+    /**
+     * 根据 repair_order 重建计数器并返回偏差明细
+     */
+    OrderCounterReconcileResponse reconcile();
+
+    /**
+     * 计数器是否从未初始化（计数表为空但已有工单）
+     */
+    boolean needsInitialization();
+}
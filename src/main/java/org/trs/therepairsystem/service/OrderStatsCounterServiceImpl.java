@@ -0,0 +1,167 @@
+package org.trs.therepairsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.response.OrderCounterReconcileResponse;
+import org.trs.therepairsystem.entity.OrderStatusCounter;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.OrderStatusCounterRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderStatusCount;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OrderStatsCounterServiceImpl implements OrderStatsCounterService {
+
+    private static final long GLOBAL_SCOPE_ID = 0L;
+    private static final int MAX_REPORTED_DRIFTS = 100;
+
+    // 按固定顺序更新计数行，避免并发事务交叉加锁造成死锁
+    private static final Comparator<CounterKey> KEY_ORDER = Comparator
+        .comparing(CounterKey::scope)
+        .thenComparing(CounterKey::scopeId)
+        .thenComparing(CounterKey::status);
+
+    private final OrderStatusCounterRepository counterRepository;
+    private final RepairOrderRepository repairOrderRepository;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+
+    @Override
+    public void onOrderChanged(RepairOrder order, RepairOrderStatus previousStatus, Long previousEngineerId) {
+        onOrdersChanged(List.of(new OrderChange(order, previousStatus, previousEngineerId)));
+    }
+
+    @Override
+    public void onOrdersChanged(List<OrderChange> changes) {
+        Map<CounterKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (OrderChange change : changes) {
+            RepairOrder order = change.order();
+            Long userId = order.getSubmitUser().getId();
+            Long engineerId = order.getEngineer() != null ? order.getEngineer().getId() : null;
+            if (change.previousStatus() != null) {
+                collect(deltas, change.previousStatus(), userId, change.previousEngineerId(), -1);
+            }
+            collect(deltas, order.getStatus(), userId, engineerId, 1);
+        }
+
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                counterRepository.increment(key.scope().name(), key.scopeId(), key.status().name(), delta);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<RepairOrderStatus, Long> getCounts(CounterScope scope, Long scopeId) {
+        Map<RepairOrderStatus, Long> counts = new EnumMap<>(RepairOrderStatus.class);
+        for (OrderStatusCounter counter : counterRepository.findByScopeAndScopeId(scope, scopeIdOf(scope, scopeId))) {
+            counts.put(counter.getStatus(), counter.getOrderCount());
+        }
+        return counts;
+    }
+
+    /**
+     * 工单表与计数表在同一个一致性快照中读取，快照之后提交的状态流转两边都看不到；
+     * 修正只把快照内的差值（期望 - 记录）经与状态流转相同的原子增减写入，不会覆盖并发流转已累加的计数
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public OrderCounterReconcileResponse reconcile() {
+        // 归档只是换表存放，计数口径不变：活跃表与归档表的分组结果相加
+        Map<CounterKey, Long> expected = new HashMap<>();
+        List<RepairOrderStatusCount> statusCounts = new ArrayList<>(repairOrderRepository.countGroupByStatus());
+        statusCounts.addAll(archivedRepairOrderRepository.countGroupByStatus());
+        for (RepairOrderStatusCount count : statusCounts) {
+            expected.merge(new CounterKey(CounterScope.GLOBAL, GLOBAL_SCOPE_ID, count.getStatus()),
+                count.getTotal(), Long::sum);
+        }
+        List<Object[]> userCounts = new ArrayList<>(repairOrderRepository.countGroupByUserAndStatus());
+        userCounts.addAll(archivedRepairOrderRepository.countGroupByUserAndStatus());
+        for (Object[] row : userCounts) {
+            expected.merge(new CounterKey(CounterScope.USER, (Long) row[0], (RepairOrderStatus) row[1]),
+                (Long) row[2], Long::sum);
+        }
+        List<Object[]> engineerCounts = new ArrayList<>(repairOrderRepository.countGroupByEngineerAndStatus());
+        engineerCounts.addAll(archivedRepairOrderRepository.countGroupByEngineerAndStatus());
+        for (Object[] row : engineerCounts) {
+            expected.merge(new CounterKey(CounterScope.ENGINEER, (Long) row[0], (RepairOrderStatus) row[1]),
+                (Long) row[2], Long::sum);
+        }
+
+        Map<CounterKey, Long> recorded = new HashMap<>();
+        for (OrderStatusCounter counter : counterRepository.findAll()) {
+            recorded.put(new CounterKey(counter.getScope(), counter.getScopeId(), counter.getStatus()),
+                counter.getOrderCount());
+        }
+
+        Set<CounterKey> keys = new TreeSet<>(KEY_ORDER);
+        keys.addAll(expected.keySet());
+        keys.addAll(recorded.keySet());
+
+        List<OrderCounterReconcileResponse.Drift> drifts = new ArrayList<>();
+        int driftCount = 0;
+        for (CounterKey key : keys) {
+            long expectedCount = expected.getOrDefault(key, 0L);
+            long recordedCount = recorded.getOrDefault(key, 0L);
+            if (expectedCount == recordedCount) {
+                continue;
+            }
+            counterRepository.increment(key.scope().name(), key.scopeId(), key.status().name(),
+                expectedCount - recordedCount);
+            driftCount++;
+            if (drifts.size() < MAX_REPORTED_DRIFTS) {
+                drifts.add(new OrderCounterReconcileResponse.Drift(
+                    key.scope(), key.scopeId(), key.status(), expectedCount, recordedCount));
+            }
+        }
+
+        if (driftCount > 0) {
+            log.warn("工单状态计数器对账发现 {} 项偏差，已按 repair_order 修正，示例: {}", driftCount, drifts);
+        } else {
+            log.info("工单状态计数器对账完成，{} 项计数无偏差", keys.size());
+        }
+        return new OrderCounterReconcileResponse(keys.size(), driftCount, drifts, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean needsInitialization() {
+        return counterRepository.count() == 0 && repairOrderRepository.count() > 0;
+    }
+
+    private void collect(Map<CounterKey, Long> deltas, RepairOrderStatus status,
+                         Long userId, Long engineerId, long delta) {
+        deltas.merge(new CounterKey(CounterScope.GLOBAL, GLOBAL_SCOPE_ID, status), delta, Long::sum);
+        deltas.merge(new CounterKey(CounterScope.USER, userId, status), delta, Long::sum);
+        if (engineerId != null) {
+            deltas.merge(new CounterKey(CounterScope.ENGINEER, engineerId, status), delta, Long::sum);
+        }
+    }
+
+    private long scopeIdOf(CounterScope scope, Long scopeId) {
+        return scope == CounterScope.GLOBAL ? GLOBAL_SCOPE_ID : scopeId;
+    }
+
+    private record CounterKey(CounterScope scope, Long scopeId, RepairOrderStatus status) {
+    }
+}
@@ -2,9 +2,17 @@ package org.trs.therepairsystem.service;
 
 import org.springframework.web.multipart.MultipartFile;
 import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.dto.request.AttachmentUploadConfirmRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadSessionRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadUrlRequest;
+import org.trs.therepairsystem.dto.response.AttachmentDownloadUrlResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadSessionResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadUrlResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderAttachmentResponse;
 import org.trs.therepairsystem.entity.RepairOrderAttachment;
+import org.trs.therepairsystem.service.storage.AttachmentContent;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface RepairOrderAttachmentService {
@@ -24,11 +32,85 @@ public interface RepairOrderAttachmentService {
                                                     Long orderId,
                                                     Long attachmentId);
 
+    /**
+     * 打开附件缩略图用于下载，访问规则与原图一致；缩略图尚未生成时抛出“缩略图不存在”
+     */
+    AttachmentDownloadInfo getThumbnailForDownload(Long requesterId,
+                                                   boolean isAdmin,
+                                                   Long orderId,
+                                                   Long attachmentId);
+
+    /**
+     * 直传模式：签发预签名上传地址，客户端上传完成后调用 {@link #confirmUpload} 登记附件
+     */
+    AttachmentUploadUrlResponse createUploadUrl(Long requesterId,
+                                                boolean isAdmin,
+                                                Long orderId,
+                                                AttachmentUploadUrlRequest request);
+
+    /**
+     * 直传模式：核对已上传对象的实际大小与类型后登记附件，重复确认返回已登记的附件
+     */
+    RepairOrderAttachmentResponse confirmUpload(Long requesterId,
+                                                boolean isAdmin,
+                                                Long orderId,
+                                                AttachmentUploadConfirmRequest request);
+
+    /**
+     * 直传模式：签发预签名下载地址
+     */
+    AttachmentDownloadUrlResponse createDownloadUrl(Long requesterId,
+                                                    boolean isAdmin,
+                                                    Long orderId,
+                                                    Long attachmentId);
+
+    /**
+     * 创建分片上传会话，上传权限规则与普通上传一致
+     */
+    AttachmentUploadSessionResponse createUploadSession(Long requesterId,
+                                                        boolean isAdmin,
+                                                        Long orderId,
+                                                        AttachmentUploadSessionRequest request);
+
+    /**
+     * 上传（或重传）一个分片，分片数据直接写入存储，不在事务内进行
+     */
+    void uploadSessionPart(Long requesterId,
+                           Long orderId,
+                           String sessionId,
+                           int partNumber,
+                           InputStream data,
+                           long contentLength);
+
+    /**
+     * 查询会话及已上传的分片，供断线后续传
+     */
+    AttachmentUploadSessionResponse getUploadSession(Long requesterId,
+                                                     Long orderId,
+                                                     String sessionId);
+
+    /**
+     * 校验分片齐全后合并并登记附件，重复调用返回已登记的附件
+     */
+    RepairOrderAttachmentResponse completeUploadSession(Long requesterId,
+                                                        boolean isAdmin,
+                                                        Long orderId,
+                                                        String sessionId);
+
+    void abortUploadSession(Long requesterId,
+                            Long orderId,
+                            String sessionId);
+
+    /**
+     * 清理过期会话：删除未完成会话的分片及会话记录，返回清理的会话数
+     */
+    int cleanupExpiredUploadSessions();
+
     void deleteAttachment(Long requesterId,
                           boolean isAdmin,
                           Long orderId,
                           Long attachmentId);
 
-    record AttachmentDownloadInfo(RepairOrderAttachment attachment, byte[] content) {
+    record AttachmentDownloadInfo(RepairOrderAttachment attachment, AttachmentContent content) {
     }
 }
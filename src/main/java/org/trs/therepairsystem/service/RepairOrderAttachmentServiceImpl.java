@@ -1,41 +1,77 @@
 package org.trs.therepairsystem.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.trs.therepairsystem.common.enums.AttachmentType;
 import org.trs.therepairsystem.common.enums.StorageProvider;
+import org.trs.therepairsystem.common.enums.UploadSessionStatus;
 import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.common.util.ContentDispositionUtils;
 import org.trs.therepairsystem.config.AttachmentStorageProperties;
+import org.trs.therepairsystem.dto.request.AttachmentUploadConfirmRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadSessionRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadUrlRequest;
+import org.trs.therepairsystem.dto.response.AttachmentDownloadUrlResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadSessionResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadUrlResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderAttachmentResponse;
+import org.trs.therepairsystem.entity.AttachmentUploadSession;
 import org.trs.therepairsystem.entity.RepairOrder;
 import org.trs.therepairsystem.entity.RepairOrderAttachment;
 import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.AttachmentUploadSessionRepository;
 import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
 import org.trs.therepairsystem.repository.RepairOrderRepository;
 import org.trs.therepairsystem.repository.UserRepository;
+import org.trs.therepairsystem.service.event.AttachmentStoredEvent;
+import org.trs.therepairsystem.service.storage.AttachmentContent;
 import org.trs.therepairsystem.service.storage.AttachmentStorageService;
+import org.trs.therepairsystem.service.storage.ChunkedAttachmentStorage;
+import org.trs.therepairsystem.service.storage.PresignedAttachmentStorage;
 
 import org.trs.therepairsystem.common.enums.RepairOrderStatus;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentService {
 
+    /** 分片下限：MinIO 合并时除最后一片外每片不得小于 5MB */
+    private static final long MIN_PART_SIZE = 5L * 1024L * 1024L;
+    /** 分片数上限，与 S3 分段上传一致 */
+    private static final int MAX_PART_COUNT = 10000;
+    private static final int SESSION_CLEANUP_BATCH_SIZE = 500;
+
     private final RepairOrderAttachmentRepository attachmentRepository;
     private final RepairOrderRepository repairOrderRepository;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    private final ArchivedRepairOrderAttachmentRepository archivedAttachmentRepository;
     private final UserRepository userRepository;
+    private final AttachmentUploadSessionRepository uploadSessionRepository;
     private final AttachmentStorageProperties storageProperties;
     private final List<AttachmentStorageService> storageServices;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Map<StorageProvider, AttachmentStorageService> storageServiceByProvider;
 
@@ -59,12 +95,7 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
         RepairOrder order = assertCanAccessOrder(requesterId, isAdmin, orderId);
         
         // 校验状态与类型权限（在文件验证前进行）
-        String userRole = getUserRoleForOrder(requesterId, order, isAdmin);
-        if (!canUploadByStatusAndType(userRole, order.getStatus(), attachmentType)) {
-            throw new BusinessException("STATE_VIOLATION",
-                String.format("用户在工单状态 %s 下禁止上传 %s 类型附件", 
-                    order.getStatus(), attachmentType));
-        }
+        assertCanUpload(requesterId, isAdmin, order, attachmentType);
         
         User uploader = userRepository.findById(requesterId)
                 .orElseThrow(() -> new BusinessException("上传用户不存在"));
@@ -96,6 +127,7 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
                 .build();
 
         RepairOrderAttachment saved = attachmentRepository.save(attachment);
+        eventPublisher.publishEvent(new AttachmentStoredEvent(saved.getId()));
         return toResponse(saved);
     }
 
@@ -104,7 +136,13 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
     public List<RepairOrderAttachmentResponse> listAttachments(Long requesterId,
                                                                boolean isAdmin,
                                                                Long orderId) {
-        assertCanAccessOrder(requesterId, isAdmin, orderId);
+        ViewableOrder viewable = assertCanViewOrder(requesterId, isAdmin, orderId);
+        if (viewable.archived()) {
+            return archivedAttachmentRepository.findByOrderIdOrderByUploadTimeDesc(orderId)
+                    .stream()
+                    .map(archived -> toResponse(archived.toAttachment(viewable.order())))
+                    .toList();
+        }
         return attachmentRepository.findByOrderIdOrderByUploadTimeDesc(orderId)
                 .stream()
                 .map(this::toResponse)
@@ -117,16 +155,312 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
                                                            boolean isAdmin,
                                                            Long orderId,
                                                            Long attachmentId) {
-        assertCanAccessOrder(requesterId, isAdmin, orderId);
+        RepairOrderAttachment attachment = findViewableAttachment(requesterId, isAdmin, orderId, attachmentId);
 
-        RepairOrderAttachment attachment = attachmentRepository.findByIdAndOrderId(attachmentId, orderId)
-                .orElseThrow(() -> new BusinessException("附件不存在"));
+        AttachmentContent content = resolveStorageService(attachment.getStorageProvider()).download(attachment.getObjectKey());
 
-        byte[] content = resolveStorageService(attachment.getStorageProvider()).download(attachment.getObjectKey());
+        return new AttachmentDownloadInfo(attachment, content);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentDownloadInfo getThumbnailForDownload(Long requesterId,
+                                                          boolean isAdmin,
+                                                          Long orderId,
+                                                          Long attachmentId) {
+        RepairOrderAttachment attachment = findViewableAttachment(requesterId, isAdmin, orderId, attachmentId);
+        if (attachment.getThumbnailKey() == null) {
+            throw new BusinessException("缩略图不存在");
+        }
+
+        AttachmentContent content = resolveStorageService(attachment.getStorageProvider()).download(attachment.getThumbnailKey());
 
         return new AttachmentDownloadInfo(attachment, content);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentUploadUrlResponse createUploadUrl(Long requesterId,
+                                                       boolean isAdmin,
+                                                       Long orderId,
+                                                       AttachmentUploadUrlRequest request) {
+        PresignedAttachmentStorage storage = requirePresignedStorage();
+        RepairOrder order = assertCanAccessOrder(requesterId, isAdmin, orderId);
+        assertCanUpload(requesterId, isAdmin, order, request.getAttachmentType());
+        String contentType = request.getContentType().trim();
+        validateContentTypeAndSize(contentType, request.getFileSize());
+
+        String objectKey = directUploadKeyPrefix(orderId, request.getAttachmentType(), requesterId)
+                + UUID.randomUUID() + getSafeFileExtension(request.getFileName());
+        Duration expiry = storageProperties.getMinio().getUploadUrlExpiry();
+        String uploadUrl = storage.presignUpload(objectKey, contentType, expiry);
+
+        return AttachmentUploadUrlResponse.builder()
+                .objectKey(objectKey)
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .headers(Map.of("Content-Type", contentType))
+                .expireTime(LocalDateTime.now().plus(expiry))
+                .build();
+    }
+
+    @Override
+    public RepairOrderAttachmentResponse confirmUpload(Long requesterId,
+                                                       boolean isAdmin,
+                                                       Long orderId,
+                                                       AttachmentUploadConfirmRequest request) {
+        PresignedAttachmentStorage storage = requirePresignedStorage();
+        RepairOrder order = assertCanAccessOrder(requesterId, isAdmin, orderId);
+
+        String objectKey = request.getObjectKey();
+        String prefix = directUploadKeyPrefix(orderId, request.getAttachmentType(), requesterId);
+        String generatedName = objectKey.startsWith(prefix) ? objectKey.substring(prefix.length()) : "";
+        if (generatedName.isEmpty() || generatedName.contains("/") || generatedName.contains("..")) {
+            throw new BusinessException("无权确认该上传对象");
+        }
+
+        // 客户端重试确认时直接返回已登记的附件
+        Optional<RepairOrderAttachment> confirmed = attachmentRepository.findByObjectKey(objectKey);
+        if (confirmed.isPresent()) {
+            return toResponse(confirmed.get());
+        }
+
+        // 签发地址后工单状态可能已变化，确认时重新校验
+        assertCanUpload(requesterId, isAdmin, order, request.getAttachmentType());
+
+        PresignedAttachmentStorage.StoredObject stored = storage.stat(objectKey)
+                .orElseThrow(() -> new BusinessException("上传文件不存在，请先完成上传"));
+        try {
+            validateContentTypeAndSize(stored.contentType(), stored.size());
+        } catch (BusinessException ex) {
+            storage.delete(objectKey);
+            throw ex;
+        }
+
+        User uploader = userRepository.findById(requesterId)
+                .orElseThrow(() -> new BusinessException("上传用户不存在"));
+
+        RepairOrderAttachment attachment = RepairOrderAttachment.builder()
+                .order(order)
+                .uploadedBy(uploader)
+                .attachmentType(request.getAttachmentType())
+                .storageProvider(storage.provider())
+                .originalFileName(request.getFileName())
+                .objectKey(objectKey)
+                .contentType(stored.contentType())
+                .fileSize(stored.size())
+                .uploadTime(LocalDateTime.now())
+                .build();
+
+        RepairOrderAttachment saved = attachmentRepository.save(attachment);
+        eventPublisher.publishEvent(new AttachmentStoredEvent(saved.getId()));
+        return toResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentDownloadUrlResponse createDownloadUrl(Long requesterId,
+                                                           boolean isAdmin,
+                                                           Long orderId,
+                                                           Long attachmentId) {
+        PresignedAttachmentStorage storage = requirePresignedStorage();
+        RepairOrderAttachment attachment = findViewableAttachment(requesterId, isAdmin, orderId, attachmentId);
+        if (attachment.getStorageProvider() != storage.provider()) {
+            throw new BusinessException("该附件不支持直传下载，请使用下载接口");
+        }
+
+        Duration expiry = storageProperties.getMinio().getDownloadUrlExpiry();
+        String url = storage.presignDownload(attachment.getObjectKey(),
+                attachment.getContentType(),
+                ContentDispositionUtils.buildAttachmentHeaderValue(attachment.getOriginalFileName()),
+                expiry);
+
+        return AttachmentDownloadUrlResponse.builder()
+                .url(url)
+                .expireTime(LocalDateTime.now().plus(expiry))
+                .build();
+    }
+
+    @Override
+    public AttachmentUploadSessionResponse createUploadSession(Long requesterId,
+                                                               boolean isAdmin,
+                                                               Long orderId,
+                                                               AttachmentUploadSessionRequest request) {
+        StorageProvider activeProvider = storageProperties.getStorageProvider();
+        resolveChunkedStorage(activeProvider);
+        RepairOrder order = assertCanAccessOrder(requesterId, isAdmin, orderId);
+        assertCanUpload(requesterId, isAdmin, order, request.getAttachmentType());
+
+        AttachmentStorageProperties.Session sessionProperties = storageProperties.getSession();
+        String contentType = request.getContentType().trim();
+        if (request.getFileSize() > sessionProperties.getMaxFileSizeBytes()) {
+            throw new BusinessException("附件大小超出限制");
+        }
+        if (storageProperties.getAllowedContentTypes().stream().noneMatch(allowed -> allowed.trim().equalsIgnoreCase(contentType))) {
+            throw new BusinessException("不支持的文件类型，仅支持 jpeg/png/webp");
+        }
+        long partSize = Math.max(sessionProperties.getPartSize(), MIN_PART_SIZE);
+        long partCount = (request.getFileSize() + partSize - 1) / partSize;
+        if (partCount > MAX_PART_COUNT) {
+            throw new BusinessException("附件大小超出限制");
+        }
+
+        String objectKey = String.format("repair-orders/%d/%s/%s",
+                orderId,
+                request.getAttachmentType().name().toLowerCase(Locale.ROOT),
+                UUID.randomUUID() + getSafeFileExtension(request.getFileName()));
+        LocalDateTime now = LocalDateTime.now();
+        AttachmentUploadSession session = AttachmentUploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .orderId(orderId)
+                .uploaderId(requesterId)
+                .attachmentType(request.getAttachmentType())
+                .storageProvider(activeProvider)
+                .originalFileName(request.getFileName())
+                .objectKey(objectKey)
+                .contentType(contentType)
+                .fileSize(request.getFileSize())
+                .partSize(partSize)
+                .partCount((int) partCount)
+                .status(UploadSessionStatus.UPLOADING)
+                .createTime(now)
+                .expireTime(now.plus(sessionProperties.getTtl()))
+                .build();
+        return toSessionResponse(uploadSessionRepository.save(session), List.of());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void uploadSessionPart(Long requesterId,
+                                  Long orderId,
+                                  String sessionId,
+                                  int partNumber,
+                                  InputStream data,
+                                  long contentLength) {
+        AttachmentUploadSession session = requireUploadSession(requesterId, orderId, sessionId);
+        assertUploading(session);
+        if (partNumber < 1 || partNumber > session.getPartCount()) {
+            throw new BusinessException(String.format("分片号应在 1-%d 之间", session.getPartCount()));
+        }
+        long expectedSize = session.expectedPartSize(partNumber);
+        if (contentLength != expectedSize) {
+            throw new BusinessException(String.format("分片 %d 的大小应为 %d 字节", partNumber, expectedSize));
+        }
+
+        resolveChunkedStorage(session.getStorageProvider()).writePart(sessionId, partNumber, data, expectedSize);
+        uploadSessionRepository.extendExpireTime(sessionId, UploadSessionStatus.UPLOADING,
+                LocalDateTime.now().plus(storageProperties.getSession().getTtl()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentUploadSessionResponse getUploadSession(Long requesterId,
+                                                            Long orderId,
+                                                            String sessionId) {
+        AttachmentUploadSession session = requireUploadSession(requesterId, orderId, sessionId);
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            return toSessionResponse(session, IntStream.rangeClosed(1, session.getPartCount()).boxed().toList());
+        }
+        Map<Integer, Long> parts = resolveChunkedStorage(session.getStorageProvider()).listParts(sessionId);
+        List<Integer> uploadedParts = parts.entrySet().stream()
+                .filter(part -> part.getKey() >= 1 && part.getKey() <= session.getPartCount()
+                        && part.getValue() == session.expectedPartSize(part.getKey()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        return toSessionResponse(session, uploadedParts);
+    }
+
+    @Override
+    public RepairOrderAttachmentResponse completeUploadSession(Long requesterId,
+                                                               boolean isAdmin,
+                                                               Long orderId,
+                                                               String sessionId) {
+        AttachmentUploadSession session = uploadSessionRepository.lockByIdAndOrderId(sessionId, orderId)
+                .orElseThrow(() -> new BusinessException("上传会话不存在"));
+        assertSessionOwner(session, requesterId);
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            return attachmentRepository.findById(session.getAttachmentId())
+                    .map(this::toResponse)
+                    .orElseThrow(() -> new BusinessException("附件不存在"));
+        }
+        assertUploading(session);
+
+        // 会话创建后工单状态可能已变化，完成时重新校验
+        RepairOrder order = assertCanAccessOrder(requesterId, isAdmin, orderId);
+        assertCanUpload(requesterId, isAdmin, order, session.getAttachmentType());
+
+        ChunkedAttachmentStorage storage = resolveChunkedStorage(session.getStorageProvider());
+        Map<Integer, Long> parts = storage.listParts(sessionId);
+        List<Integer> missingParts = new ArrayList<>();
+        for (int partNumber = 1; partNumber <= session.getPartCount(); partNumber++) {
+            Long size = parts.get(partNumber);
+            if (size == null || size != session.expectedPartSize(partNumber)) {
+                missingParts.add(partNumber);
+            }
+        }
+        if (!missingParts.isEmpty()) {
+            throw new BusinessException("分片未全部上传，缺少分片：" + missingParts);
+        }
+
+        User uploader = userRepository.findById(requesterId)
+                .orElseThrow(() -> new BusinessException("上传用户不存在"));
+
+        storage.assemble(sessionId, session.getPartCount(), session.getObjectKey(), session.getContentType());
+
+        RepairOrderAttachment saved = attachmentRepository.save(RepairOrderAttachment.builder()
+                .order(order)
+                .uploadedBy(uploader)
+                .attachmentType(session.getAttachmentType())
+                .storageProvider(session.getStorageProvider())
+                .originalFileName(session.getOriginalFileName())
+                .objectKey(session.getObjectKey())
+                .contentType(session.getContentType())
+                .fileSize(session.getFileSize())
+                .uploadTime(LocalDateTime.now())
+                .build());
+
+        session.setStatus(UploadSessionStatus.COMPLETED);
+        session.setAttachmentId(saved.getId());
+        session.setExpireTime(LocalDateTime.now().plus(storageProperties.getSession().getTtl()));
+        uploadSessionRepository.save(session);
+        eventPublisher.publishEvent(new AttachmentStoredEvent(saved.getId()));
+        return toResponse(saved);
+    }
+
+    @Override
+    public void abortUploadSession(Long requesterId,
+                                   Long orderId,
+                                   String sessionId) {
+        AttachmentUploadSession session = requireUploadSession(requesterId, orderId, sessionId);
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            throw new BusinessException("上传会话已完成，无法取消");
+        }
+        resolveChunkedStorage(session.getStorageProvider()).discardParts(sessionId);
+        uploadSessionRepository.delete(session);
+    }
+
+    @Override
+    public int cleanupExpiredUploadSessions() {
+        List<AttachmentUploadSession> expired = uploadSessionRepository.findExpired(
+                LocalDateTime.now(), PageRequest.of(0, SESSION_CLEANUP_BATCH_SIZE));
+        int cleaned = 0;
+        for (AttachmentUploadSession session : expired) {
+            if (session.getStatus() == UploadSessionStatus.UPLOADING) {
+                try {
+                    resolveChunkedStorage(session.getStorageProvider()).discardParts(session.getId());
+                } catch (BusinessException ex) {
+                    // 保留会话记录，下次清理时重试
+                    log.warn("清理上传会话 {} 的分片失败: {}", session.getId(), ex.getMessage());
+                    continue;
+                }
+            }
+            uploadSessionRepository.delete(session);
+            cleaned++;
+        }
+        return cleaned;
+    }
+
     @Override
     public void deleteAttachment(Long requesterId,
                                  boolean isAdmin,
@@ -149,7 +483,11 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
                 String.format("用户在工单状态 %s 下禁止删除附件", order.getStatus()));
         }
 
-        resolveStorageService(attachment.getStorageProvider()).delete(attachment.getObjectKey());
+        AttachmentStorageService storage = resolveStorageService(attachment.getStorageProvider());
+        storage.delete(attachment.getObjectKey());
+        if (attachment.getThumbnailKey() != null) {
+            storage.delete(attachment.getThumbnailKey());
+        }
 
         attachmentRepository.delete(attachment);
     }
@@ -161,19 +499,124 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
         if (file == null || file.isEmpty()) {
             throw new BusinessException("上传文件不能为空");
         }
-        if (file.getSize() > storageProperties.getMaxFileSizeBytes()) {
+        validateContentTypeAndSize(file.getContentType(), file.getSize());
+    }
+
+    private void validateContentTypeAndSize(String contentType, long size) {
+        if (size <= 0) {
+            throw new BusinessException("上传文件不能为空");
+        }
+        if (size > storageProperties.getMaxFileSizeBytes()) {
             throw new BusinessException("附件大小超出限制");
         }
-        String contentType = file.getContentType();
         if (contentType == null || storageProperties.getAllowedContentTypes().stream().noneMatch(allowed -> allowed.trim().equalsIgnoreCase(contentType))) {
             throw new BusinessException("不支持的文件类型，仅支持 jpeg/png/webp");
         }
     }
 
+    private void assertCanUpload(Long requesterId, boolean isAdmin, RepairOrder order, AttachmentType attachmentType) {
+        String userRole = getUserRoleForOrder(requesterId, order, isAdmin);
+        if (!canUploadByStatusAndType(userRole, order.getStatus(), attachmentType)) {
+            throw new BusinessException("STATE_VIOLATION",
+                String.format("用户在工单状态 %s 下禁止上传 %s 类型附件", 
+                    order.getStatus(), attachmentType));
+        }
+    }
+
+    /**
+     * 直传对象键前缀，带上传者ID，确认时据此校验对象确为本人在该工单下申请的上传
+     */
+    private String directUploadKeyPrefix(Long orderId, AttachmentType attachmentType, Long requesterId) {
+        return String.format("repair-orders/%d/%s/u%d-",
+                orderId,
+                attachmentType.name().toLowerCase(Locale.ROOT),
+                requesterId);
+    }
+
+    private RepairOrderAttachment findViewableAttachment(Long requesterId, boolean isAdmin, Long orderId, Long attachmentId) {
+        ViewableOrder viewable = assertCanViewOrder(requesterId, isAdmin, orderId);
+        return (viewable.archived()
+                ? archivedAttachmentRepository.findByIdAndOrderId(attachmentId, orderId)
+                        .map(archived -> archived.toAttachment(viewable.order()))
+                : attachmentRepository.findByIdAndOrderId(attachmentId, orderId))
+                .orElseThrow(() -> new BusinessException("附件不存在"));
+    }
+
+    private AttachmentUploadSession requireUploadSession(Long requesterId, Long orderId, String sessionId) {
+        AttachmentUploadSession session = uploadSessionRepository.findByIdAndOrderId(sessionId, orderId)
+                .orElseThrow(() -> new BusinessException("上传会话不存在"));
+        assertSessionOwner(session, requesterId);
+        return session;
+    }
+
+    private void assertSessionOwner(AttachmentUploadSession session, Long requesterId) {
+        if (!session.getUploaderId().equals(requesterId)) {
+            throw new BusinessException("无权操作该上传会话");
+        }
+    }
+
+    private void assertUploading(AttachmentUploadSession session) {
+        if (session.getStatus() != UploadSessionStatus.UPLOADING) {
+            throw new BusinessException("上传会话已完成");
+        }
+        if (session.getExpireTime().isBefore(LocalDateTime.now())) {
+            throw new BusinessException("上传会话已过期，请重新上传");
+        }
+    }
+
+    private ChunkedAttachmentStorage resolveChunkedStorage(StorageProvider provider) {
+        if (resolveStorageService(provider) instanceof ChunkedAttachmentStorage chunked) {
+            return chunked;
+        }
+        throw new BusinessException("当前存储不支持分片上传: " + provider);
+    }
+
+    private AttachmentUploadSessionResponse toSessionResponse(AttachmentUploadSession session, List<Integer> uploadedParts) {
+        return AttachmentUploadSessionResponse.builder()
+                .sessionId(session.getId())
+                .orderId(session.getOrderId())
+                .attachmentType(session.getAttachmentType())
+                .originalFileName(session.getOriginalFileName())
+                .fileSize(session.getFileSize())
+                .partSize(session.getPartSize())
+                .partCount(session.getPartCount())
+                .uploadedParts(uploadedParts)
+                .status(session.getStatus())
+                .attachmentId(session.getAttachmentId())
+                .expireTime(session.getExpireTime())
+                .build();
+    }
+
+    private PresignedAttachmentStorage requirePresignedStorage() {
+        if (!storageProperties.getMinio().isDirectTransfer()) {
+            throw new BusinessException("未启用附件直传模式");
+        }
+        if (storageServiceByProvider.get(StorageProvider.MINIO) instanceof PresignedAttachmentStorage presigned) {
+            return presigned;
+        }
+        throw new BusinessException("当前存储不支持附件直传");
+    }
+
     private RepairOrder assertCanAccessOrder(Long requesterId, boolean isAdmin, Long orderId) {
         RepairOrder order = repairOrderRepository.findById(orderId)
                 .orElseThrow(() -> new BusinessException("工单不存在"));
+        return checkAccess(requesterId, isAdmin, order);
+    }
+
+    /**
+     * 只读访问：活跃表中不存在时回查归档工单，归档工单不可再上传或删除附件
+     */
+    private ViewableOrder assertCanViewOrder(Long requesterId, boolean isAdmin, Long orderId) {
+        ViewableOrder viewable = repairOrderRepository.findById(orderId)
+                .map(order -> new ViewableOrder(order, false))
+                .or(() -> archivedRepairOrderRepository.findDetailById(orderId)
+                        .map(archived -> new ViewableOrder(archived.toOrder(), true)))
+                .orElseThrow(() -> new BusinessException("工单不存在"));
+        checkAccess(requesterId, isAdmin, viewable.order());
+        return viewable;
+    }
 
+    private RepairOrder checkAccess(Long requesterId, boolean isAdmin, RepairOrder order) {
         if (isAdmin) {
             return order;
         }
@@ -188,6 +631,9 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
         return order;
     }
 
+    private record ViewableOrder(RepairOrder order, boolean archived) {
+    }
+
     private AttachmentStorageService resolveStorageService(StorageProvider provider) {
         AttachmentStorageService storageService = storageServiceByProvider.get(provider);
         if (storageService == null) {
@@ -223,6 +669,10 @@ public class RepairOrderAttachmentServiceImpl implements RepairOrderAttachmentSe
                 .downloadUrl(String.format("/api/repair-orders/%d/attachments/%d/download",
                         attachment.getOrder().getId(),
                         attachment.getId()))
+                .thumbnailUrl(attachment.getThumbnailKey() == null ? null
+                        : String.format("/api/repair-orders/%d/attachments/%d/thumbnail",
+                        attachment.getOrder().getId(),
+                        attachment.getId()))
                 .build();
     }
 
@@ -0,0 +1,23 @@
+package org.trs.therepairsystem.service;
+
+import org.trs.therepairsystem.common.enums.OrderExportFormat;
+import org.trs.therepairsystem.dto.request.RepairOrderQueryRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface RepairOrderExportService {
+
+    /**
+     * 校验导出筛选条件，需在开始写响应之前调用，以便错误仍能以普通错误响应返回
+     */
+    void validateFilters(RepairOrderQueryRequest request);
+
+    /**
+     * 按与管理员查询相同的筛选条件逐行导出工单（含已归档的工单），边读边写，内存占用与导出行数无关
+     * 分页与排序参数被忽略，固定按创建时间倒序输出
+     *
+     * @return 导出的行数
+     */
+    long exportOrders(RepairOrderQueryRequest request, OrderExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,263 @@
+package org.trs.therepairsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.trs.therepairsystem.common.enums.OrderExportFormat;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.common.util.ContactVisibilityPolicy;
+import org.trs.therepairsystem.config.OrderExportProperties;
+import org.trs.therepairsystem.dto.request.RepairOrderQueryRequest;
+import org.trs.therepairsystem.dto.response.RepairOrderExportRow;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderSpecifications;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RepairOrderExportServiceImpl implements RepairOrderExportService {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Sort EXPORT_SORT = Sort.by(Sort.Direction.DESC, "createTime", "id");
+
+    /** 与 EXPORT_SORT 一致，用于归并活跃表与归档表两路有序结果 */
+    private static final Comparator<RepairOrder> EXPORT_ORDER = Comparator
+        .comparing(RepairOrder::getCreateTime)
+        .thenComparing(RepairOrder::getId)
+        .reversed();
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> CSV_HEADER = List.of(
+        "工单ID", "状态", "故障描述", "维修说明",
+        "报修人ID", "报修人", "报修人电话",
+        "楼栋ID", "楼栋", "楼层ID", "楼层",
+        "故障类型ID", "故障类型",
+        "管理员ID", "管理员",
+        "工程师ID", "工程师", "工程师电话",
+        "创建时间", "接单时间", "完成时间");
+
+    private final RepairOrderRepository repairOrderRepository;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    private final OrderExportProperties exportProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void validateFilters(RepairOrderQueryRequest request) {
+        toSpecification(request);
+    }
+
+    /**
+     * 活跃工单与归档工单各按导出顺序逐行读取，边读边归并，已关闭、已取消的旧工单不会因归档而漏导
+     */
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(RepairOrderQueryRequest request, OrderExportFormat format,
+                             OutputStream output) throws IOException {
+        Specification<RepairOrder> spec = toSpecification(request);
+        Specification<ArchivedRepairOrder> archiveSpec = toSpecification(request);
+        // 归档表只有已关闭、已取消的工单，按其他状态筛选时不必读取
+        boolean includeArchived = request.getStatus() == null || request.getStatus().isFinalStatus();
+        int chunkSize = Math.max(exportProperties.getChunkSize(), 1);
+        ObjectWriter jsonWriter = objectMapper.writerFor(RepairOrderExportRow.class);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+
+        long rows = 0;
+        try (Stream<RepairOrder> orders = repairOrderRepository.streamAll(
+                spec, EXPORT_SORT, exportProperties.getFetchSize());
+             Stream<RepairOrder> archivedOrders = includeArchived
+                 ? archivedRepairOrderRepository.streamAll(archiveSpec, EXPORT_SORT, exportProperties.getFetchSize())
+                     .map(ArchivedRepairOrder::toOrder)
+                 : Stream.empty()) {
+            if (format == OrderExportFormat.CSV) {
+                // BOM 让 Excel 按 UTF-8 识别中文
+                writer.write('\uFEFF');
+                writeCsvLine(writer, CSV_HEADER);
+            }
+            Iterator<RepairOrder> iterator = mergeInExportOrder(orders.iterator(), archivedOrders.iterator());
+            while (iterator.hasNext()) {
+                RepairOrderExportRow row = toRow(iterator.next());
+                if (format == OrderExportFormat.CSV) {
+                    writeCsvLine(writer, csvValues(row));
+                } else {
+                    writeJsonLine(writer, jsonWriter, row);
+                }
+                // 每写完一批推送给客户端，并丢弃已处理的实体（两张表共用同一持久化上下文），堆内存只与批大小有关
+                if (++rows % chunkSize == 0) {
+                    writer.flush();
+                    repairOrderRepository.clearPersistenceContext();
+                }
+            }
+        }
+        writer.flush();
+        log.info("工单导出完成：格式 {}，共 {} 行", format, rows);
+        return rows;
+    }
+
+    private <T> Specification<T> toSpecification(RepairOrderQueryRequest request) {
+        LocalDateTime start = parseTime(request.getStartTime(), "开始时间");
+        LocalDateTime end = parseTime(request.getEndTime(), "结束时间");
+        if (start != null && end != null && start.isAfter(end)) {
+            throw new BusinessException("开始时间不能晚于结束时间");
+        }
+        return RepairOrderSpecifications.<T>byConditions(
+            request.getUserId(),
+            request.getEngineerId(),
+            request.getStatus(),
+            request.getBuildingId(),
+            request.getFaultTypeId()
+        ).and(RepairOrderSpecifications.createdBetween(start, end));
+    }
+
+    /**
+     * 归并两路已按导出顺序排好的结果，每路只预读一条
+     */
+    static Iterator<RepairOrder> mergeInExportOrder(Iterator<RepairOrder> first, Iterator<RepairOrder> second) {
+        return new Iterator<>() {
+            private RepairOrder nextFirst = first.hasNext() ? first.next() : null;
+            private RepairOrder nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public RepairOrder next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RepairOrder result;
+                if (nextSecond == null || (nextFirst != null && EXPORT_ORDER.compare(nextFirst, nextSecond) <= 0)) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    private RepairOrderExportRow toRow(RepairOrder order) {
+        return RepairOrderExportRow.builder()
+            .id(order.getId())
+            .status(order.getStatus())
+            .description(order.getDescription())
+            .repairInfo(order.getRepairInfo())
+            .submitUserId(order.getSubmitUser().getId())
+            .submitUserName(order.getSubmitUser().getRealName())
+            .submitUserPhone(ContactVisibilityPolicy.resolveOrderPhone(order.getSubmitUser(), order, null, true))
+            .buildingId(order.getBuilding().getId())
+            .buildingName(order.getBuilding().getName())
+            .floorId(order.getFloor().getId())
+            .floorName(order.getFloor().getName())
+            .faultTypeId(order.getFaultType().getId())
+            .faultTypeName(order.getFaultType().getName())
+            .adminId(order.getAdmin() != null ? order.getAdmin().getId() : null)
+            .adminName(order.getAdmin() != null ? order.getAdmin().getRealName() : null)
+            .engineerId(order.getEngineer() != null ? order.getEngineer().getId() : null)
+            .engineerName(order.getEngineer() != null ? order.getEngineer().getRealName() : null)
+            .engineerPhone(order.getEngineer() != null
+                ? ContactVisibilityPolicy.resolveOrderPhone(order.getEngineer(), order, null, true)
+                : null)
+            .createTime(order.getCreateTime())
+            .acceptTime(order.getAcceptTime())
+            .finishTime(order.getFinishTime())
+            .build();
+    }
+
+    private List<String> csvValues(RepairOrderExportRow row) {
+        return Arrays.asList(
+            text(row.getId()), row.getStatus() != null ? row.getStatus().getDescription() : null,
+            row.getDescription(), row.getRepairInfo(),
+            text(row.getSubmitUserId()), row.getSubmitUserName(), row.getSubmitUserPhone(),
+            text(row.getBuildingId()), row.getBuildingName(), text(row.getFloorId()), row.getFloorName(),
+            text(row.getFaultTypeId()), row.getFaultTypeName(),
+            text(row.getAdminId()), row.getAdminName(),
+            text(row.getEngineerId()), row.getEngineerName(), row.getEngineerPhone(),
+            time(row.getCreateTime()), time(row.getAcceptTime()), time(row.getFinishTime()));
+    }
+
+    private void writeJsonLine(Writer writer, ObjectWriter jsonWriter, RepairOrderExportRow row) throws IOException {
+        try {
+            writer.write(jsonWriter.writeValueAsString(row));
+        } catch (JsonProcessingException e) {
+            throw new IOException("工单 " + row.getId() + " 序列化失败", e);
+        }
+        writer.write('\n');
+    }
+
+    static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    static String escapeCsv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // 用户填写的文本以公式字符开头时加单引号，防止表格软件将其当作公式执行
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static String text(Long value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String time(LocalDateTime value) {
+        return value != null ? value.format(TIME_FORMAT) : null;
+    }
+
+    private static LocalDateTime parseTime(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim(), TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(field + "格式不正确，应为 yyyy-MM-dd HH:mm:ss");
+        }
+    }
+}
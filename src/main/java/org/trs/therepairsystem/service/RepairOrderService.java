@@ -3,6 +3,10 @@ package org.trs.therepairsystem.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.trs.therepairsystem.dto.request.*;
+import org.trs.therepairsystem.dto.response.CursorPageResponse;
+import org.trs.therepairsystem.dto.response.OrderAssignmentRecordResponse;
+import org.trs.therepairsystem.dto.response.OrderEventResponse;
+import org.trs.therepairsystem.dto.response.RepairOrderBulkResultResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderStatsResponse;
 import org.trs.therepairsystem.dto.response.EngineerResponse;
@@ -13,6 +17,11 @@ import java.util.List;
 
 public interface RepairOrderService {
 
+    /**
+     * 自动分配时没有符合故障类型和区域的工程师，{@link org.trs.therepairsystem.common.exception.BusinessException} 的错误码
+     */
+    String NO_ENGINEER_AVAILABLE = "NO_ENGINEER_AVAILABLE";
+
     /**
      * 用户提交维修工单
      */
@@ -40,6 +49,7 @@ public interface RepairOrderService {
 
     /**
      * 自动分配工程师（根据故障类型和区域）
+     * 没有可用工程师时抛出错误码为 {@link #NO_ENGINEER_AVAILABLE} 的业务异常
      */
     RepairOrderResponse autoAssignEngineer(Long adminId, Long orderId);
 
@@ -68,11 +78,38 @@ public interface RepairOrderService {
      */
     RepairOrderResponse adminCancelOrder(Long adminId, Long orderId);
 
+    /**
+     * 管理员批量分配工程师，逐单返回结果，不合格的工单不影响其他工单
+     */
+    RepairOrderBulkResultResponse bulkAssignEngineers(Long adminId, RepairOrderBulkAssignRequest request);
+
+    /**
+     * 管理员批量强制取消工单，逐单返回结果
+     */
+    RepairOrderBulkResultResponse bulkCancelOrders(Long adminId, RepairOrderBulkCancelRequest request);
+
     /**
      * 根据ID获取工单详情
      */
     RepairOrderResponse getOrderById(Long requesterId, boolean isAdmin, Long orderId);
 
+    /**
+     * 工单时间线（查看权限与工单详情一致）
+     */
+    List<OrderEventResponse> getOrderTimeline(Long requesterId, boolean isAdmin, Long orderId);
+
+    /**
+     * 工单详情的版本标识（用于 ETag）：工单版本号 + 查看人 + 基础数据版本，不加载工单关联
+     * 工单不存在或无权查看时返回 null，由详情接口给出相应错误
+     */
+    String getOrderVersionTag(Long requesterId, boolean isAdmin, Long orderId);
+
+    /**
+     * 用户工单列表的版本标识（用于 ETag）：该用户全部工单（含归档）的数量与版本号之和 + 基础数据版本，
+     * 任一工单新增或变化都会改变，与筛选条件、分页无关
+     */
+    String getUserOrdersVersionTag(Long userId);
+
     /**
      * 获取用户的工单列表
      */
@@ -94,16 +131,37 @@ public interface RepairOrderService {
     Page<RepairOrderResponse> getAllOrdersSimple(RepairOrderStatus status, Long userId, Long engineerId, 
                                                 Long buildingId, Long faultTypeId, Pageable pageable);
 
+    /**
+     * 管理员游标分页查询所有工单（按创建时间倒序，不统计总数）
+     */
+    CursorPageResponse<RepairOrderResponse> getAllOrdersByCursor(RepairOrderQueryRequest request, String cursor, int size);
+
+    /**
+     * 管理员按关键词全文检索工单描述与维修说明，按相关度排序，可叠加状态、楼栋、故障类型筛选
+     */
+    Page<RepairOrderResponse> searchOrders(String keyword, RepairOrderStatus status, Long buildingId,
+                                           Long faultTypeId, int page, int size);
+
     /**
      * 获取待分配的工单列表
      */
     Page<RepairOrderResponse> getUnassignedOrders(Pageable pageable);
 
+    /**
+     * 游标分页获取待分配的工单列表（按创建时间正序，不统计总数）
+     */
+    CursorPageResponse<RepairOrderResponse> getUnassignedOrdersByCursor(String cursor, int size);
+
     /**
      * 获取可分配给指定故障类型和区域的工程师列表
      */
     List<EngineerResponse> getAvailableEngineers(Long faultTypeId, Long floorId);
 
+    /**
+     * 获取工单的自动分配执行记录（最新在前）
+     */
+    List<OrderAssignmentRecordResponse> getAutoAssignRecords(Long orderId);
+
     /**
      * 获取工单统计信息
      */
@@ -119,11 +177,6 @@ public interface RepairOrderService {
      */
     RepairOrderStatsResponse getEngineerOrderStats(Long engineerId);
 
-    /**
-     * 更新工单状态（内部使用）
-     */
-    RepairOrder updateOrderStatus(Long orderId, RepairOrderStatus status);
-
     /**
      * 验证工单操作权限
      */
@@ -2,23 +2,58 @@ package org.trs.therepairsystem.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.trs.therepairsystem.dto.request.*;
+import org.trs.therepairsystem.dto.response.CursorPageResponse;
+import org.trs.therepairsystem.dto.response.OrderAssignmentRecordResponse;
+import org.trs.therepairsystem.dto.response.OrderEventResponse;
+import org.trs.therepairsystem.dto.response.RepairOrderBulkResultResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderResponse;
 import org.trs.therepairsystem.dto.response.RepairOrderStatsResponse;
 import org.trs.therepairsystem.dto.response.EngineerResponse;
 import org.trs.therepairsystem.common.util.ContactVisibilityPolicy;
+import org.trs.therepairsystem.common.util.OrderCursorCodec;
 import org.trs.therepairsystem.entity.*;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
 import org.trs.therepairsystem.common.enums.RepairOrderStatus;
 import org.trs.therepairsystem.repository.*;
 import org.trs.therepairsystem.common.exception.BusinessException;
-
+import org.trs.therepairsystem.common.exception.OrderStateConflictException;
+import org.trs.therepairsystem.service.assign.AssignmentContext;
+import org.trs.therepairsystem.service.assign.AssignmentStrategies;
+import org.trs.therepairsystem.service.assign.EngineerEligibilityIndex;
+import org.trs.therepairsystem.service.assign.EngineerWorkloadTable;
+import org.trs.therepairsystem.service.cache.ArchivedOrderCountCache;
+import org.trs.therepairsystem.service.cache.ReferenceDataCache;
+import org.trs.therepairsystem.service.event.OrderChangedEvent;
+import org.trs.therepairsystem.service.event.OrderSubmittedEvent;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -26,14 +61,33 @@ import java.util.Random;
 @Transactional
 public class RepairOrderServiceImpl implements RepairOrderService {
 
+    private static final Sort DEFAULT_LIST_SORT = Sort.by(Sort.Direction.DESC, "createTime");
+    private static final Sort KEYSET_SORT_DESC = Sort.by(Sort.Direction.DESC, "createTime", "id");
+    /** 工单响应中包含名称的基础数据 */
+    private static final ReferenceDataType[] ORDER_REFERENCE_DATA = {
+        ReferenceDataType.BUILDING, ReferenceDataType.FLOOR, ReferenceDataType.FAULT_TYPE};
+    private static final Comparator<RepairOrder> KEYSET_ORDER_DESC = Comparator
+        .comparing(RepairOrder::getCreateTime)
+        .thenComparing(RepairOrder::getId)
+        .reversed();
+
     private final RepairOrderRepository repairOrderRepository;
     private final UserRepository userRepository;
-    private final BuildingRepository buildingRepository;
-    private final FloorRepository floorRepository;
-    private final FaultTypeRepository faultTypeRepository;
     private final EngineerAreaRelRepository engineerAreaRelRepository;
     private final EngineerFaultRelRepository engineerFaultRelRepository;
     private final RepairRatingRepository repairRatingRepository;
+    private final OrderStatsCounterService orderStatsCounterService;
+    private final OrderDailyRollupService orderDailyRollupService;
+    private final OrderAssignmentRecordRepository orderAssignmentRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EngineerEligibilityIndex eligibilityIndex;
+    private final AssignmentStrategies assignmentStrategies;
+    private final EngineerWorkloadTable workloadTable;
+    private final OrderEventService orderEventService;
+    private final OrderSearchIndex orderSearchIndex;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    private final ArchivedOrderCountCache archivedOrderCountCache;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     public RepairOrderResponse submitOrder(Long userId, RepairOrderSubmitRequest request) {
@@ -41,22 +95,11 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException("用户不存在"));
 
-        // 验证建筑
-        Building building = buildingRepository.findById(request.getBuildingId())
-            .orElseThrow(() -> new BusinessException("建筑不存在"));
-
-        // 验证楼层
-        Floor floor = floorRepository.findById(request.getFloorId())
-            .orElseThrow(() -> new BusinessException("楼层不存在"));
-
-        // 验证楼层属于指定建筑
-        if (!floor.getBuilding().getId().equals(request.getBuildingId())) {
-            throw new BusinessException("楼层不属于指定建筑");
-        }
-
-        // 验证故障类型
-        FaultType faultType = faultTypeRepository.findById(request.getFaultTypeId())
-            .orElseThrow(() -> new BusinessException("故障类型不存在"));
+        // 验证建筑、楼层、故障类型（走基础数据缓存）
+        OrderLocation location = resolveLocation(request);
+        Building building = location.building();
+        Floor floor = location.floor();
+        FaultType faultType = location.faultType();
 
         // 创建维修工单
         RepairOrder order = RepairOrder.builder()
@@ -70,16 +113,13 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             .build();
 
         RepairOrder savedOrder = repairOrderRepository.save(order);
+        onOrderChanged(savedOrder, null, null, OrderEventType.CREATED, userId);
+        orderSearchIndex.onTextChanged(savedOrder, null, null);
         
         log.info("用户 {} 提交了维修工单 {}", userId, savedOrder.getId());
         
-        // 尝试自动分配工程师
-        try {
-            autoAssignEngineer(null, savedOrder.getId());
-            log.info("工单 {} 自动分配成功", savedOrder.getId());
-        } catch (Exception e) {
-            log.warn("工单 {} 自动分配失败: {}, 等待管理员手动分配", savedOrder.getId(), e.getMessage());
-        }
+        // 事务提交后由自动分配工作线程异步分配工程师
+        eventPublisher.publishEvent(new OrderSubmittedEvent(savedOrder.getId()));
         
         return convertToResponse(savedOrder, userId, false);
     }
@@ -90,22 +130,11 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException("用户不存在"));
 
-        // 验证建筑
-        Building building = buildingRepository.findById(request.getBuildingId())
-            .orElseThrow(() -> new BusinessException("建筑不存在"));
-
-        // 验证楼层
-        Floor floor = floorRepository.findById(request.getFloorId())
-            .orElseThrow(() -> new BusinessException("楼层不存在"));
-
-        // 验证楼层属于指定建筑
-        if (!floor.getBuilding().getId().equals(request.getBuildingId())) {
-            throw new BusinessException("楼层不属于指定建筑");
-        }
-
-        // 验证故障类型
-        FaultType faultType = faultTypeRepository.findById(request.getFaultTypeId())
-            .orElseThrow(() -> new BusinessException("故障类型不存在"));
+        // 验证建筑、楼层、故障类型（走基础数据缓存）
+        OrderLocation location = resolveLocation(request);
+        Building building = location.building();
+        Floor floor = location.floor();
+        FaultType faultType = location.faultType();
 
         // 创建维修工单草稿
         RepairOrder order = RepairOrder.builder()
@@ -119,6 +148,8 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             .build();
 
         RepairOrder savedOrder = repairOrderRepository.save(order);
+        onOrderChanged(savedOrder, null, null, OrderEventType.DRAFT_SAVED, userId);
+        orderSearchIndex.onTextChanged(savedOrder, null, null);
         
         log.info("用户 {} 保存了维修工单草稿 {}", userId, savedOrder.getId());
         return convertToResponse(savedOrder, userId, false);
@@ -127,7 +158,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
     @Override
     public RepairOrderResponse submitDraft(Long userId, Long orderId) {
         // 查找工单
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
         
         // 验证工单属于当前用户
@@ -141,19 +172,14 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
         
         // 更新状态为已提交
-        order.setStatus(RepairOrderStatus.SUBMITTED);
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        transition(order, RepairOrderStatus.SUBMITTED, null);
+        onOrderChanged(order, RepairOrderStatus.DRAFT, null, OrderEventType.SUBMITTED, userId);
         
-        // 尝试自动分配工程师
-        try {
-            autoAssignEngineer(null, savedOrder.getId());
-            log.info("草稿工单 {} 自动分配成功", savedOrder.getId());
-        } catch (Exception e) {
-            log.warn("草稿工单 {} 自动分配失败: {}, 等待管理员手动分配", savedOrder.getId(), e.getMessage());
-        }
+        // 事务提交后由自动分配工作线程异步分配工程师
+        eventPublisher.publishEvent(new OrderSubmittedEvent(order.getId()));
         
         log.info("用户 {} 提交了草稿工单 {}", userId, orderId);
-        return convertToResponse(savedOrder, userId, false);
+        return convertToResponse(order, userId, false);
     }
 
     @Override
@@ -172,30 +198,28 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             throw new BusinessException("只能修改草稿状态的工单");
         }
         
-        // 验证建筑
-        Building building = buildingRepository.findById(request.getBuildingId())
-            .orElseThrow(() -> new BusinessException("建筑不存在"));
-
-        // 验证楼层
-        Floor floor = floorRepository.findById(request.getFloorId())
-            .orElseThrow(() -> new BusinessException("楼层不存在"));
-
-        // 验证楼层属于指定建筑
-        if (!floor.getBuilding().getId().equals(request.getBuildingId())) {
-            throw new BusinessException("楼层不属于指定建筑");
-        }
-
-        // 验证故障类型
-        FaultType faultType = faultTypeRepository.findById(request.getFaultTypeId())
-            .orElseThrow(() -> new BusinessException("故障类型不存在"));
+        // 验证建筑、楼层、故障类型（走基础数据缓存）
+        OrderLocation location = resolveLocation(request);
+        Building building = location.building();
+        Floor floor = location.floor();
+        FaultType faultType = location.faultType();
         
         // 更新草稿内容
+        Long previousBuildingId = order.getBuilding().getId();
+        String previousDescription = order.getDescription();
         order.setBuilding(building);
         order.setFloor(floor);
         order.setFaultType(faultType);
         order.setDescription(request.getDescription());
         
         RepairOrder savedOrder = repairOrderRepository.save(order);
+        if (!previousBuildingId.equals(building.getId())) {
+            // 状态不变，仅按日汇总需要把计数从原楼栋移到新楼栋
+            orderDailyRollupService.onOrderChanged(savedOrder, RepairOrderStatus.DRAFT, previousBuildingId);
+        }
+        orderEventService.record(savedOrder, OrderEventType.DRAFT_UPDATED, RepairOrderStatus.DRAFT, userId);
+        orderSearchIndex.onOrderChanged(savedOrder);
+        orderSearchIndex.onTextChanged(savedOrder, previousDescription, savedOrder.getRepairInfo());
         
         log.info("用户 {} 修改了草稿工单 {}", userId, orderId);
         return convertToResponse(savedOrder, userId, false);
@@ -208,7 +232,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             .orElseThrow(() -> new BusinessException("管理员不存在"));
 
         // 验证工单存在
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
         // 验证工单状态
@@ -233,14 +257,14 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             throw new BusinessException("工程师不负责该区域");
         }
 
-        // 分配工程师
-        order.setEngineer(engineer);
-        order.setAdmin(admin);
-        order.setStatus(RepairOrderStatus.PENDING); // 分配成功后状态变为待处理
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        // 分配工程师，分配成功后状态变为待处理
+        RepairOrderStatus previousStatus = order.getStatus();
+        Long previousEngineerId = engineerIdOf(order);
+        assign(order, engineer, admin);
+        onOrderChanged(order, previousStatus, previousEngineerId, OrderEventType.ASSIGNED, adminId);
 
         log.info("管理员 {} 将工单 {} 分配给工程师 {}", adminId, orderId, request.getEngineerId());
-        return convertToResponse(savedOrder, adminId, true);
+        return convertToResponse(order, adminId, true);
     }
 
     @Override
@@ -252,7 +276,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
                 .orElseThrow(() -> new BusinessException("管理员不存在"));
         }
 
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
         if (!order.canAssignEngineer()) {
@@ -260,32 +284,32 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
 
         // 查找可用工程师
-        List<Long> availableEngineerIds = repairOrderRepository
-            .findAvailableEngineerIds(order.getFaultType().getId(), order.getFloor().getId());
+        List<Long> availableEngineerIds = eligibilityIndex
+            .findEligibleEngineerIds(order.getFaultType().getId(), order.getFloor().getId());
 
         if (availableEngineerIds.isEmpty()) {
-            throw new BusinessException("没有可用的工程师处理此工单");
+            throw new BusinessException(NO_ENGINEER_AVAILABLE, "没有可用的工程师处理此工单");
         }
 
-        // 随机选择一个工程师（实际项目中可能需要更复杂的分配策略）
-        Long selectedEngineerId = availableEngineerIds.get(
-            new Random().nextInt(availableEngineerIds.size())
-        );
+        // 按配置的分配策略选择工程师
+        Long selectedEngineerId = assignmentStrategies.current().select(availableEngineerIds,
+            new AssignmentContext(orderId, order.getFaultType().getId(), order.getFloor().getId()));
 
         User engineer = userRepository.findById(selectedEngineerId)
             .orElseThrow(() -> new BusinessException("选中的工程师不存在"));
 
-        order.setEngineer(engineer);
-        order.setAdmin(admin);
-        order.setStatus(RepairOrderStatus.PENDING); // 分配成功后状态变为待处理
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        RepairOrderStatus previousStatus = order.getStatus();
+        Long previousEngineerId = engineerIdOf(order);
+        assign(order, engineer, admin);
+        onOrderChanged(order, previousStatus, previousEngineerId,
+            adminId != null ? OrderEventType.ASSIGNED : OrderEventType.AUTO_ASSIGNED, adminId);
 
         if (adminId != null) {
             log.info("管理员 {} 将工单 {} 分配给工程师 {}", adminId, orderId, selectedEngineerId);
         } else {
             log.info("系统自动将工单 {} 分配给工程师 {}", orderId, selectedEngineerId);
         }
-        return convertToResponse(savedOrder, adminId, adminId != null);
+        return convertToResponse(order, adminId, adminId != null);
     }
 
     @Override
@@ -293,7 +317,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User engineer = userRepository.findById(engineerId)
             .orElseThrow(() -> new BusinessException("工程师不存在"));
 
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
         // 验证权限
@@ -305,13 +329,18 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             throw new BusinessException("当前状态不允许接受工单");
         }
 
-        // 接受工单
+        // 接受工单（条件更新：仍为待处理且仍分配给该工程师）
+        RepairOrderStatus previousStatus = order.getStatus();
+        LocalDateTime acceptTime = LocalDateTime.now();
+        requireUpdated(repairOrderRepository.acceptIfPending(orderId, engineerId, acceptTime),
+            orderId, previousStatus);
         order.setStatus(RepairOrderStatus.IN_PROGRESS);
-        order.setAcceptTime(LocalDateTime.now());
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        order.setAcceptTime(acceptTime);
+        order.setVersion(order.getVersion() + 1);
+        onOrderChanged(order, previousStatus, engineerIdOf(order), OrderEventType.ACCEPTED, engineerId);
 
         log.info("工程师 {} 接受了工单 {}", engineerId, orderId);
-        return convertToResponse(savedOrder, engineerId, false);
+        return convertToResponse(order, engineerId, false);
     }
 
     @Override
@@ -319,7 +348,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User engineer = userRepository.findById(engineerId)
             .orElseThrow(() -> new BusinessException("工程师不存在"));
 
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
         if (!order.isAssignedTo(engineerId)) {
@@ -330,14 +359,21 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             throw new BusinessException("当前状态不允许完成工单");
         }
 
-        // 完成工单
+        // 完成工单（条件更新：仍为处理中且仍分配给该工程师）
+        RepairOrderStatus previousStatus = order.getStatus();
+        String previousRepairInfo = order.getRepairInfo();
+        LocalDateTime finishTime = LocalDateTime.now();
+        requireUpdated(repairOrderRepository.completeIfInProgress(
+            orderId, engineerId, request.getRepairInfo(), finishTime), orderId, previousStatus);
         order.setStatus(RepairOrderStatus.COMPLETED);
         order.setRepairInfo(request.getRepairInfo());
-        order.setFinishTime(LocalDateTime.now());
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        order.setFinishTime(finishTime);
+        order.setVersion(order.getVersion() + 1);
+        onOrderChanged(order, previousStatus, engineerIdOf(order), OrderEventType.COMPLETED, engineerId);
+        orderSearchIndex.onTextChanged(order, order.getDescription(), previousRepairInfo);
 
         log.info("工程师 {} 完成了工单 {}", engineerId, orderId);
-        return convertToResponse(savedOrder, engineerId, false);
+        return convertToResponse(order, engineerId, false);
     }
 
     @Override
@@ -345,7 +381,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException("用户不存在"));
 
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
         if (!order.isSubmittedBy(userId)) {
@@ -357,12 +393,13 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
 
         // 关闭工单
-        order.setStatus(RepairOrderStatus.CLOSED);
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        RepairOrderStatus previousStatus = order.getStatus();
+        transition(order, RepairOrderStatus.CLOSED, null);
+        onOrderChanged(order, previousStatus, engineerIdOf(order), OrderEventType.CLOSED, userId);
 
         // 创建评价
         RepairRating rating = RepairRating.builder()
-            .order(savedOrder)
+            .order(order)
             .rating(ratingRequest.getRating())
             .comment(ratingRequest.getComment())
             .createTime(LocalDateTime.now())
@@ -371,7 +408,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         repairRatingRepository.save(rating);
 
         log.info("用户 {} 关闭了工单 {} 并提交了评价", userId, orderId);
-        return convertToResponse(savedOrder, userId, false);
+        return convertToResponse(order, userId, false);
     }
 
     @Override
@@ -379,7 +416,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException("用户不存在"));
 
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
         if (!order.isSubmittedBy(userId)) {
@@ -391,11 +428,12 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
 
         // 取消工单
-        order.setStatus(RepairOrderStatus.CANCELLED);
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        RepairOrderStatus previousStatus = order.getStatus();
+        transition(order, RepairOrderStatus.CANCELLED, null);
+        onOrderChanged(order, previousStatus, engineerIdOf(order), OrderEventType.CANCELLED, userId);
 
         log.info("用户 {} 取消了工单 {}", userId, orderId);
-        return convertToResponse(savedOrder, userId, false);
+        return convertToResponse(order, userId, false);
     }
 
     @Override
@@ -403,39 +441,194 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         User admin = userRepository.findById(adminId)
             .orElseThrow(() -> new BusinessException("管理员不存在"));
 
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = repairOrderRepository.findDetailById(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
-        if (order.getStatus() == RepairOrderStatus.CLOSED || order.getStatus() == RepairOrderStatus.CANCELLED) {
+        if (order.getStatus().isFinalStatus()) {
             throw new BusinessException("工单已关闭或取消");
         }
 
         // 管理员强制取消
-        order.setStatus(RepairOrderStatus.CANCELLED);
-        order.setAdmin(admin);
-        RepairOrder savedOrder = repairOrderRepository.save(order);
+        RepairOrderStatus previousStatus = order.getStatus();
+        transition(order, RepairOrderStatus.CANCELLED, admin);
+        onOrderChanged(order, previousStatus, engineerIdOf(order), OrderEventType.ADMIN_CANCELLED, adminId);
 
         log.info("管理员 {} 强制取消了工单 {}", adminId, orderId);
-        return convertToResponse(savedOrder, adminId, true);
+        return convertToResponse(order, adminId, true);
+    }
+
+    @Override
+    public RepairOrderBulkResultResponse bulkAssignEngineers(Long adminId, RepairOrderBulkAssignRequest request) {
+        User admin = userRepository.findById(adminId)
+            .orElseThrow(() -> new BusinessException("管理员不存在"));
+
+        List<RepairOrderBulkAssignRequest.Assignment> assignments = request.getAssignments();
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> engineerIds = new HashSet<>();
+        for (RepairOrderBulkAssignRequest.Assignment assignment : assignments) {
+            orderIds.add(assignment.getOrderId());
+            engineerIds.add(assignment.getEngineerId());
+        }
+
+        // 每个校验维度只查一次：工单（加锁）、工程师、故障类型资质、负责区域
+        Map<Long, RepairOrder> orders = lockOrders(orderIds);
+        Map<Long, User> engineers = new HashMap<>();
+        userRepository.findAllById(engineerIds).forEach(user -> engineers.put(user.getId(), user));
+        Map<Long, Set<Long>> faultTypesByEngineer = groupPairs(
+            engineerFaultRelRepository.findEngineerFaultTypePairs(engineerIds));
+        Map<Long, Set<Long>> floorsByEngineer = groupPairs(
+            engineerAreaRelRepository.findEngineerFloorPairs(engineerIds));
+
+        RepairOrderBulkResultResponse.Item[] results = new RepairOrderBulkResultResponse.Item[assignments.size()];
+        Map<Long, List<Long>> orderIdsByEngineer = new TreeMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < assignments.size(); i++) {
+            Long orderId = assignments.get(i).getOrderId();
+            Long engineerId = assignments.get(i).getEngineerId();
+            RepairOrder order = orders.get(orderId);
+            String error;
+            if (!seen.add(orderId)) {
+                error = "同一工单重复出现";
+            } else if (order == null) {
+                error = "工单不存在";
+            } else if (!order.canAssignEngineer()) {
+                error = "当前状态不允许分配工程师";
+            } else if (!engineers.containsKey(engineerId)) {
+                error = "工程师不存在";
+            } else if (!faultTypesByEngineer.getOrDefault(engineerId, Set.of()).contains(order.getFaultType().getId())) {
+                error = "工程师不具备处理该故障类型的资质";
+            } else if (!floorsByEngineer.getOrDefault(engineerId, Set.of()).contains(order.getFloor().getId())) {
+                error = "工程师不负责该区域";
+            } else {
+                orderIdsByEngineer.computeIfAbsent(engineerId, id -> new ArrayList<>()).add(orderId);
+                continue;
+            }
+            results[i] = RepairOrderBulkResultResponse.Item.failure(orderId, error);
+        }
+
+        // 同一工程师的工单一条 UPDATE；UPDATE 会清空持久化上下文，之后再同步内存中的工单供统计使用
+        orderIdsByEngineer.forEach((engineerId, ids) -> {
+            if (repairOrderRepository.assignIfSubmitted(ids, engineers.get(engineerId), admin) != ids.size()) {
+                throw new BusinessException("工单状态已变化，请重试");
+            }
+        });
+        List<OrderChange> changes = new ArrayList<>();
+        orderIdsByEngineer.forEach((engineerId, ids) -> {
+            for (Long orderId : ids) {
+                RepairOrder order = orders.get(orderId);
+                changes.add(new OrderChange(order, order.getStatus(), engineerIdOf(order)));
+                order.setEngineer(engineers.get(engineerId));
+                order.setAdmin(admin);
+                order.setStatus(RepairOrderStatus.PENDING);
+                order.setVersion(order.getVersion() + 1);
+            }
+        });
+        onOrdersChanged(changes, OrderEventType.ASSIGNED, adminId);
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = RepairOrderBulkResultResponse.Item.success(
+                    assignments.get(i).getOrderId(), RepairOrderStatus.PENDING);
+            }
+        }
+        log.info("管理员 {} 批量分配工单：请求 {} 个，成功 {} 个", adminId, results.length, changes.size());
+        return RepairOrderBulkResultResponse.of(List.of(results));
+    }
+
+    @Override
+    public RepairOrderBulkResultResponse bulkCancelOrders(Long adminId, RepairOrderBulkCancelRequest request) {
+        User admin = userRepository.findById(adminId)
+            .orElseThrow(() -> new BusinessException("管理员不存在"));
+
+        List<Long> requestedIds = request.getOrderIds();
+        Map<Long, RepairOrder> orders = lockOrders(new HashSet<>(requestedIds));
+
+        RepairOrderBulkResultResponse.Item[] results = new RepairOrderBulkResultResponse.Item[requestedIds.size()];
+        List<Long> cancelIds = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < requestedIds.size(); i++) {
+            Long orderId = requestedIds.get(i);
+            RepairOrder order = orders.get(orderId);
+            if (!seen.add(orderId)) {
+                results[i] = RepairOrderBulkResultResponse.Item.failure(orderId, "同一工单重复出现");
+            } else if (order == null) {
+                results[i] = RepairOrderBulkResultResponse.Item.failure(orderId, "工单不存在");
+            } else if (order.getStatus().isFinalStatus()) {
+                results[i] = RepairOrderBulkResultResponse.Item.failure(orderId, "工单已关闭或取消");
+            } else {
+                cancelIds.add(orderId);
+            }
+        }
+
+        List<OrderChange> changes = new ArrayList<>();
+        if (!cancelIds.isEmpty()) {
+            if (repairOrderRepository.bulkAdminCancel(cancelIds, admin) != cancelIds.size()) {
+                throw new BusinessException("工单状态已变化，请重试");
+            }
+            for (Long orderId : cancelIds) {
+                RepairOrder order = orders.get(orderId);
+                changes.add(new OrderChange(order, order.getStatus(), engineerIdOf(order)));
+                order.setStatus(RepairOrderStatus.CANCELLED);
+                order.setAdmin(admin);
+                order.setVersion(order.getVersion() + 1);
+            }
+            onOrdersChanged(changes, OrderEventType.ADMIN_CANCELLED, adminId);
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = RepairOrderBulkResultResponse.Item.success(requestedIds.get(i), RepairOrderStatus.CANCELLED);
+            }
+        }
+        log.info("管理员 {} 批量强制取消工单：请求 {} 个，成功 {} 个", adminId, results.length, changes.size());
+        return RepairOrderBulkResultResponse.of(List.of(results));
     }
 
     @Override
     @Transactional(readOnly = true)
     public RepairOrderResponse getOrderById(Long requesterId, boolean isAdmin, Long orderId) {
-        RepairOrder order = repairOrderRepository.findById(orderId)
+        RepairOrder order = findIncludingArchive(orderId)
             .orElseThrow(() -> new BusinessException("工单不存在"));
 
-        if (!isAdmin) {
-            boolean isSubmitter = order.getSubmitUser() != null &&
-                    requesterId.equals(order.getSubmitUser().getId());
-            boolean isAssignedEngineer = order.getEngineer() != null &&
-                    requesterId.equals(order.getEngineer().getId());
+        checkViewPermission(order, requesterId, isAdmin);
+        return convertToResponse(order, requesterId, isAdmin);
+    }
 
-            if (!isSubmitter && !isAssignedEngineer) {
-                throw new BusinessException("没有权限查看该工单");
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderEventResponse> getOrderTimeline(Long requesterId, boolean isAdmin, Long orderId) {
+        RepairOrder order = findIncludingArchive(orderId)
+            .orElseThrow(() -> new BusinessException("工单不存在"));
+
+        checkViewPermission(order, requesterId, isAdmin);
+        return orderEventService.getTimeline(orderId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getOrderVersionTag(Long requesterId, boolean isAdmin, Long orderId) {
+        OrderVersionView view = repairOrderRepository.findVersionById(orderId)
+            .or(() -> archivedRepairOrderRepository.findVersionById(orderId))
+            .orElse(null);
+        if (view == null) {
+            return null;
         }
-        return convertToResponse(order, requesterId, isAdmin);
+        if (!isAdmin && !requesterId.equals(view.getSubmitUserId()) && !requesterId.equals(view.getEngineerId())) {
+            return null;
+        }
+        // 联系方式是否脱敏取决于查看人，查看人须计入版本标识
+        return orderId + "." + view.getVersion() + "." + requesterId + (isAdmin ? ".a." : ".u.")
+            + referenceDataCache.getVersionTag(ORDER_REFERENCE_DATA);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserOrdersVersionTag(Long userId) {
+        OrderVersionSummary active = repairOrderRepository.summarizeVersionsBySubmitUserId(userId);
+        OrderVersionSummary archived = archivedRepairOrderRepository.summarizeVersionsBySubmitUserId(userId);
+        return userId + "." + (active.getTotal() + archived.getTotal())
+            + "." + (active.getVersionSum() + archived.getVersionSum())
+            + "." + referenceDataCache.getVersionTag(ORDER_REFERENCE_DATA);
     }
 
     @Override
@@ -445,7 +638,8 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             repairOrderRepository.findByUserIdAndStatus(userId, status, pageable) :
             repairOrderRepository.findBySubmitUserIdOrderByCreateTimeDesc(userId, pageable);
         
-        return orders.map(order -> convertToResponse(order, userId, false));
+        return withArchived(orders, pageable, userId, null, status, null, null)
+            .map(order -> convertToResponse(order, userId, false));
     }
 
     @Override
@@ -455,29 +649,93 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             repairOrderRepository.findByEngineerIdAndStatus(engineerId, status, pageable) :
             repairOrderRepository.findByEngineerIdOrderByCreateTimeDesc(engineerId, pageable);
         
-        return orders.map(order -> convertToResponse(order, engineerId, false));
+        return withArchived(orders, pageable, null, engineerId, status, null, null)
+            .map(order -> convertToResponse(order, engineerId, false));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<RepairOrderResponse> getAllOrders(RepairOrderQueryRequest request, Pageable pageable) {
-        return repairOrderRepository.findByConditions(
+        Specification<RepairOrder> spec = RepairOrderSpecifications.byConditions(
             request.getUserId(),
-            request.getEngineerId(), 
+            request.getEngineerId(),
             request.getStatus(),
             request.getBuildingId(),
-            request.getFaultTypeId(),
-            pageable
-        ).map(order -> convertToResponse(order, request.getUserId(), true));
+            request.getFaultTypeId()
+        );
+        Pageable sorted = withDefaultSort(pageable);
+        return withArchived(repairOrderRepository.findAll(spec, sorted), sorted, request.getUserId(),
+            request.getEngineerId(), request.getStatus(), request.getBuildingId(), request.getFaultTypeId())
+            .map(order -> convertToResponse(order, request.getUserId(), true));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<RepairOrderResponse> getAllOrdersSimple(RepairOrderStatus status, Long userId, Long engineerId,
                                                       Long buildingId, Long faultTypeId, Pageable pageable) {
-        return repairOrderRepository.findByConditions(
-            userId, engineerId, status, buildingId, faultTypeId, pageable
-        ).map(order -> convertToResponse(order, userId, true));
+        Specification<RepairOrder> spec = RepairOrderSpecifications.byConditions(
+            userId, engineerId, status, buildingId, faultTypeId);
+        Pageable sorted = withDefaultSort(pageable);
+        return withArchived(repairOrderRepository.findAll(spec, sorted), sorted,
+            userId, engineerId, status, buildingId, faultTypeId)
+            .map(order -> convertToResponse(order, userId, true));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<RepairOrderResponse> getAllOrdersByCursor(RepairOrderQueryRequest request,
+                                                                        String cursor, int size) {
+        Specification<RepairOrder> spec = RepairOrderSpecifications.byConditions(
+            request.getUserId(),
+            request.getEngineerId(),
+            request.getStatus(),
+            request.getBuildingId(),
+            request.getFaultTypeId()
+        );
+        Specification<ArchivedRepairOrder> archiveSpec = RepairOrderSpecifications.byConditions(
+            request.getUserId(),
+            request.getEngineerId(),
+            request.getStatus(),
+            request.getBuildingId(),
+            request.getFaultTypeId()
+        );
+        if (cursor != null && !cursor.isBlank()) {
+            OrderCursorCodec.Cursor position = OrderCursorCodec.decode(cursor);
+            spec = spec.and(RepairOrderSpecifications.createdBefore(position.createTime(), position.id()));
+            archiveSpec = archiveSpec.and(RepairOrderSpecifications.createdBefore(position.createTime(), position.id()));
+        }
+
+        // 多取一条用于判断是否还有下一页
+        List<RepairOrder> rows = repairOrderRepository.findLimited(spec, KEYSET_SORT_DESC, size + 1);
+        if (mayHaveArchived(request.getStatus())) {
+            // 两张表各取一页按同一键集顺序归并，游标对两者同样有效
+            List<RepairOrder> merged = new ArrayList<>(rows);
+            archivedRepairOrderRepository.findRange(archiveSpec, KEYSET_SORT_DESC, 0, size + 1)
+                .forEach(archived -> merged.add(archived.toOrder()));
+            merged.sort(KEYSET_ORDER_DESC);
+            rows = merged.size() > size + 1 ? merged.subList(0, size + 1) : merged;
+        }
+        return toCursorPage(rows, size, request.getUserId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<RepairOrderResponse> searchOrders(String keyword, RepairOrderStatus status, Long buildingId,
+                                                  Long faultTypeId, int page, int size) {
+        OrderSearchIndex.SearchResult result = orderSearchIndex.search(
+            keyword, status, buildingId, faultTypeId, page * size, size);
+        Map<Long, RepairOrder> orders = repairOrderRepository.findDetailByIdIn(result.orderIds()).stream()
+            .collect(Collectors.toMap(RepairOrder::getId, Function.identity()));
+
+        // 保持索引给出的相关度顺序；索引与数据库短暂不一致时跳过已不存在的工单
+        List<RepairOrderResponse> content = new ArrayList<>(result.orderIds().size());
+        for (Long id : result.orderIds()) {
+            RepairOrder order = orders.get(id);
+            if (order != null) {
+                content.add(convertToResponse(order, null, true));
+            }
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size), result.total());
     }
 
     @Override
@@ -487,78 +745,75 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             .map(order -> convertToResponse(order, null, true));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<RepairOrderResponse> getUnassignedOrdersByCursor(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<RepairOrder> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repairOrderRepository.findFirstUnassignedKeyset(limit);
+        } else {
+            OrderCursorCodec.Cursor position = OrderCursorCodec.decode(cursor);
+            rows = repairOrderRepository.findNextUnassignedKeyset(position.createTime(), position.id(), limit);
+        }
+        return toCursorPage(rows, size, null);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<EngineerResponse> getAvailableEngineers(Long faultTypeId, Long floorId) {
-        List<Long> engineerIds = repairOrderRepository.findAvailableEngineerIds(faultTypeId, floorId);
-        return engineerIds.stream()
-            .map(id -> userRepository.findById(id).orElse(null))
-            .filter(user -> user != null)
+        List<Long> engineerIds = eligibilityIndex.findEligibleEngineerIds(faultTypeId, floorId);
+        if (engineerIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllById(engineerIds).stream()
+            .sorted(Comparator.comparing(User::getId))
             .map(this::convertUserToEngineerResponse)
             .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public RepairOrderStatsResponse getOrderStats() {
-        return new RepairOrderStatsResponse(
-            repairOrderRepository.count(),
-            repairOrderRepository.countByStatus(RepairOrderStatus.DRAFT),
-            repairOrderRepository.countByStatus(RepairOrderStatus.PENDING),
-            repairOrderRepository.countByStatus(RepairOrderStatus.IN_PROGRESS),
-            repairOrderRepository.countByStatus(RepairOrderStatus.COMPLETED),
-            repairOrderRepository.countByStatus(RepairOrderStatus.CLOSED),
-            repairOrderRepository.countByStatus(RepairOrderStatus.CANCELLED),
-            repairOrderRepository.countTodayOrders(),
-            repairOrderRepository.countTodayOrdersByStatus(RepairOrderStatus.COMPLETED)
-        );
+    public List<OrderAssignmentRecordResponse> getAutoAssignRecords(Long orderId) {
+        if (!repairOrderRepository.existsById(orderId)) {
+            throw new BusinessException("工单不存在");
+        }
+        return orderAssignmentRecordRepository.findByOrderIdOrderByCreateTimeDesc(orderId).stream()
+            .map(record -> new OrderAssignmentRecordResponse(
+                record.getOrderId(),
+                record.getOutcome(),
+                record.getEngineerId(),
+                record.getAttempts(),
+                record.getMessage(),
+                record.getCreateTime()))
+            .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public RepairOrderStatsResponse getUserOrderStats(Long userId) {
-        return new RepairOrderStatsResponse(
-            (long) repairOrderRepository.findBySubmitUserIdOrderByCreateTimeDesc(userId, 
-                org.springframework.data.domain.PageRequest.of(0, 1)).getTotalElements(),
-            repairOrderRepository.countByUserIdAndStatus(userId, RepairOrderStatus.DRAFT),
-            repairOrderRepository.countByUserIdAndStatus(userId, RepairOrderStatus.PENDING),
-            repairOrderRepository.countByUserIdAndStatus(userId, RepairOrderStatus.IN_PROGRESS),
-            repairOrderRepository.countByUserIdAndStatus(userId, RepairOrderStatus.COMPLETED),
-            repairOrderRepository.countByUserIdAndStatus(userId, RepairOrderStatus.CLOSED),
-            repairOrderRepository.countByUserIdAndStatus(userId, RepairOrderStatus.CANCELLED),
-            0, 0 // 用户统计不需要今日数据
-        );
+    public RepairOrderStatsResponse getOrderStats() {
+        Map<RepairOrderStatus, Long> todayCounts = orderDailyRollupService.getDailyCounts(LocalDate.now());
+        return toStatsResponse(orderStatsCounterService.getCounts(CounterScope.GLOBAL, null), todayCounts);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public RepairOrderStatsResponse getEngineerOrderStats(Long engineerId) {
-        return new RepairOrderStatsResponse(
-            (long) repairOrderRepository.findByEngineerIdOrderByCreateTimeDesc(engineerId, 
-                org.springframework.data.domain.PageRequest.of(0, 1)).getTotalElements(),
-            repairOrderRepository.countByEngineerIdAndStatus(engineerId, RepairOrderStatus.DRAFT),
-            repairOrderRepository.countByEngineerIdAndStatus(engineerId, RepairOrderStatus.PENDING),
-            repairOrderRepository.countByEngineerIdAndStatus(engineerId, RepairOrderStatus.IN_PROGRESS),
-            repairOrderRepository.countByEngineerIdAndStatus(engineerId, RepairOrderStatus.COMPLETED),
-            repairOrderRepository.countByEngineerIdAndStatus(engineerId, RepairOrderStatus.CLOSED),
-            repairOrderRepository.countByEngineerIdAndStatus(engineerId, RepairOrderStatus.CANCELLED),
-            0, 0 // 工程师统计不需要今日数据
-        );
+    public RepairOrderStatsResponse getUserOrderStats(Long userId) {
+        // 用户统计不需要今日数据
+        return toStatsResponse(orderStatsCounterService.getCounts(CounterScope.USER, userId), Map.of());
     }
 
     @Override
-    public RepairOrder updateOrderStatus(Long orderId, RepairOrderStatus status) {
-        RepairOrder order = repairOrderRepository.findById(orderId)
-            .orElseThrow(() -> new BusinessException("工单不存在"));
-        
-        order.setStatus(status);
-        return repairOrderRepository.save(order);
+    @Transactional(readOnly = true)
+    public RepairOrderStatsResponse getEngineerOrderStats(Long engineerId) {
+        // 工程师统计不需要今日数据
+        return toStatsResponse(orderStatsCounterService.getCounts(CounterScope.ENGINEER, engineerId), Map.of());
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean hasPermission(Long userId, Long orderId, String action) {
-        RepairOrder order = repairOrderRepository.findById(orderId).orElse(null);
+        RepairOrder order = findIncludingArchive(orderId).orElse(null);
         if (order == null) {
             return false;
         }
@@ -580,6 +835,29 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
     }
 
+    /**
+     * 校验提交/草稿请求中的建筑、楼层、故障类型，返回的是缓存副本，挂到工单上只用到主键
+     */
+    private OrderLocation resolveLocation(RepairOrderSubmitRequest request) {
+        Building building = referenceDataCache.getBuilding(request.getBuildingId())
+            .orElseThrow(() -> new BusinessException("建筑不存在"));
+
+        Floor floor = referenceDataCache.getFloor(request.getFloorId())
+            .orElseThrow(() -> new BusinessException("楼层不存在"));
+
+        // 验证楼层属于指定建筑
+        if (!floor.getBuilding().getId().equals(request.getBuildingId())) {
+            throw new BusinessException("楼层不属于指定建筑");
+        }
+
+        FaultType faultType = referenceDataCache.getFaultType(request.getFaultTypeId())
+            .orElseThrow(() -> new BusinessException("故障类型不存在"));
+        return new OrderLocation(building, floor, faultType);
+    }
+
+    private record OrderLocation(Building building, Floor floor, FaultType faultType) {
+    }
+
         private RepairOrderResponse convertToResponse(RepairOrder order, Long viewerUserId, boolean viewerIsAdmin) {
         return RepairOrderResponse.builder()
             .id(order.getId())
@@ -613,6 +891,260 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             .build();
     }
 
+    /**
+     * 将各状态数量汇总为统计响应
+     */
+    private RepairOrderStatsResponse toStatsResponse(Map<RepairOrderStatus, Long> totals,
+                                                     Map<RepairOrderStatus, Long> todayCounts) {
+        long totalOrders = totals.values().stream().mapToLong(Long::longValue).sum();
+        long todayOrders = todayCounts.values().stream().mapToLong(Long::longValue).sum();
+
+        return new RepairOrderStatsResponse(
+            totalOrders,
+            totals.getOrDefault(RepairOrderStatus.DRAFT, 0L),
+            totals.getOrDefault(RepairOrderStatus.PENDING, 0L),
+            totals.getOrDefault(RepairOrderStatus.IN_PROGRESS, 0L),
+            totals.getOrDefault(RepairOrderStatus.COMPLETED, 0L),
+            totals.getOrDefault(RepairOrderStatus.CLOSED, 0L),
+            totals.getOrDefault(RepairOrderStatus.CANCELLED, 0L),
+            todayOrders,
+            todayCounts.getOrDefault(RepairOrderStatus.COMPLETED, 0L)
+        );
+    }
+
+    /**
+     * 工单创建、状态或工程师变化后的统一处理（与状态变更处于同一事务）
+     * 计数器、按日汇总同步更新；负载表、检索索引、事件日志、实时通知在事务提交后生效
+     */
+    private void onOrderChanged(RepairOrder order, RepairOrderStatus previousStatus, Long previousEngineerId,
+                                OrderEventType eventType, Long operatorId) {
+        orderStatsCounterService.onOrderChanged(order, previousStatus, previousEngineerId);
+        orderDailyRollupService.onOrderChanged(order, previousStatus, null);
+        workloadTable.onOrderChanged(order, previousStatus, previousEngineerId);
+        orderSearchIndex.onOrderChanged(order);
+        orderEventService.record(order, eventType, previousStatus, operatorId);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order, eventType, previousStatus, previousEngineerId));
+    }
+
+    /**
+     * 按读取到的状态做条件更新，并把结果同步到内存中的工单（状态机见 RepairOrderStatus）
+     *
+     * @param admin 执行操作的管理员，为空时不修改工单的管理员
+     */
+    private void transition(RepairOrder order, RepairOrderStatus target, User admin) {
+        RepairOrderStatus expected = order.getStatus();
+        if (!expected.canTransitionTo(target)) {
+            throw new BusinessException("工单状态不能从" + expected.getDescription() + "变更为" + target.getDescription());
+        }
+        int updated = admin != null
+            ? repairOrderRepository.updateStatusByAdminIfMatch(order.getId(), expected, target, admin)
+            : repairOrderRepository.updateStatusIfMatch(order.getId(), expected, target);
+        requireUpdated(updated, order.getId(), expected);
+        order.setStatus(target);
+        if (admin != null) {
+            order.setAdmin(admin);
+        }
+        order.setVersion(order.getVersion() + 1);
+    }
+
+    private void assign(RepairOrder order, User engineer, User admin) {
+        requireUpdated(repairOrderRepository.assignIfSubmitted(List.of(order.getId()), engineer, admin),
+            order.getId(), order.getStatus());
+        order.setEngineer(engineer);
+        order.setAdmin(admin);
+        order.setStatus(RepairOrderStatus.PENDING);
+        order.setVersion(order.getVersion() + 1);
+    }
+
+    /**
+     * 条件更新未命中（工单已被并发请求修改）时抛出冲突异常，附带工单当前状态
+     */
+    private void requireUpdated(int updated, Long orderId, RepairOrderStatus expected) {
+        if (updated == 0) {
+            throw new OrderStateConflictException(orderId, expected,
+                repairOrderRepository.findStatusById(orderId).orElse(null));
+        }
+    }
+
+    /**
+     * 批量变化的统一处理，计数与按日汇总合并后每行只更新一次
+     */
+    private void onOrdersChanged(List<OrderChange> changes, OrderEventType eventType, Long operatorId) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        orderStatsCounterService.onOrdersChanged(changes);
+        orderDailyRollupService.onOrdersChanged(changes);
+        for (OrderChange change : changes) {
+            workloadTable.onOrderChanged(change.order(), change.previousStatus(), change.previousEngineerId());
+            orderSearchIndex.onOrderChanged(change.order());
+            eventPublisher.publishEvent(OrderChangedEvent.of(
+                change.order(), eventType, change.previousStatus(), change.previousEngineerId()));
+        }
+        orderEventService.recordAll(changes, eventType, operatorId);
+    }
+
+    /**
+     * 按 ID 锁定工单，供批量操作校验与更新
+     */
+    private Map<Long, RepairOrder> lockOrders(Collection<Long> orderIds) {
+        Map<Long, RepairOrder> orders = new HashMap<>();
+        for (RepairOrder order : repairOrderRepository.findAllByIdForUpdate(orderIds)) {
+            orders.put(order.getId(), order);
+        }
+        return orders;
+    }
+
+    private static Map<Long, Set<Long>> groupPairs(List<Object[]> pairs) {
+        Map<Long, Set<Long>> grouped = new HashMap<>();
+        for (Object[] pair : pairs) {
+            grouped.computeIfAbsent((Long) pair[0], id -> new HashSet<>()).add((Long) pair[1]);
+        }
+        return grouped;
+    }
+
+    /**
+     * 管理员可查看任意工单；普通用户仅可查看自己提交的工单；工程师仅可查看分配给自己的工单
+     */
+    private static void checkViewPermission(RepairOrder order, Long requesterId, boolean isAdmin) {
+        if (isAdmin) {
+            return;
+        }
+        boolean isSubmitter = order.getSubmitUser() != null &&
+                requesterId.equals(order.getSubmitUser().getId());
+        boolean isAssignedEngineer = order.getEngineer() != null &&
+                requesterId.equals(order.getEngineer().getId());
+
+        if (!isSubmitter && !isAssignedEngineer) {
+            throw new BusinessException("没有权限查看该工单");
+        }
+    }
+
+    /**
+     * 按ID读取工单及展示所需关联，活跃表中不存在时回查归档表（归档工单转换为只读对象）
+     */
+    private Optional<RepairOrder> findIncludingArchive(Long orderId) {
+        Optional<RepairOrder> order = repairOrderRepository.findDetailById(orderId);
+        if (order.isPresent()) {
+            return order;
+        }
+        return archivedRepairOrderRepository.findDetailById(orderId).map(ArchivedRepairOrder::toOrder);
+    }
+
+    /**
+     * 归档表只有已关闭/已取消的工单，按其他状态筛选时无需查询
+     */
+    private static boolean mayHaveArchived(RepairOrderStatus status) {
+        return status == null || status.isFinalStatus();
+    }
+
+    /**
+     * 拼接归档工单：总数为活跃与归档两者之和，归档总数按查询范围缓存
+     * 按创建时间倒序（默认排序）时归档工单均早于保留期，活跃工单排完后按偏移量从归档表续接；
+     * 其他排序两张表交错，各取前 offset + size 条按同一排序归并后截取当前页，越往后的页代价越高，深分页应使用游标接口
+     */
+    private Page<RepairOrder> withArchived(Page<RepairOrder> active, Pageable pageable, Long userId, Long engineerId,
+                                           RepairOrderStatus status, Long buildingId, Long faultTypeId) {
+        if (!mayHaveArchived(status) || pageable.isUnpaged()) {
+            return active;
+        }
+        long archivedTotal = archivedOrderCountCache.count(userId, engineerId, status, buildingId, faultTypeId);
+        if (archivedTotal == 0) {
+            return active;
+        }
+        Specification<ArchivedRepairOrder> archiveSpec = RepairOrderSpecifications.byConditions(
+            userId, engineerId, status, buildingId, faultTypeId);
+        long total = active.getTotalElements() + archivedTotal;
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_LIST_SORT;
+
+        if (sort.equals(DEFAULT_LIST_SORT)) {
+            List<RepairOrder> content = new ArrayList<>(active.getContent());
+            int remaining = pageable.getPageSize() - content.size();
+            if (remaining > 0) {
+                long offset = Math.max(0, pageable.getOffset() - active.getTotalElements());
+                archivedRepairOrderRepository.findRange(archiveSpec, sort, offset, remaining)
+                    .forEach(archived -> content.add(archived.toOrder()));
+            }
+            return new PageImpl<>(content, pageable, total);
+        }
+
+        int limit = (int) Math.min(Integer.MAX_VALUE - 1L, pageable.getOffset() + pageable.getPageSize());
+        Specification<RepairOrder> spec = RepairOrderSpecifications.byConditions(
+            userId, engineerId, status, buildingId, faultTypeId);
+        List<RepairOrder> merged = new ArrayList<>(repairOrderRepository.findLimited(spec, sort, limit));
+        archivedRepairOrderRepository.findRange(archiveSpec, sort, 0, limit)
+            .forEach(archived -> merged.add(archived.toOrder()));
+        merged.sort(comparatorOf(sort));
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    /**
+     * 按排序条件在内存中比较工单，与数据库排序一致：枚举按名称（按字符串存储），
+     * 升序时空值在前、降序时在后；无法比较的字段视为相等，最后按ID倒序保证顺序稳定
+     */
+    private static Comparator<RepairOrder> comparatorOf(Sort sort) {
+        Comparator<RepairOrder> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Comparator<RepairOrder> byProperty = (a, b) -> compareKeys(sortKeyOf(a, property), sortKeyOf(b, property));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator.thenComparing(RepairOrder::getId, Comparator.nullsLast(Comparator.<Long>reverseOrder()));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compareKeys(Comparable a, Comparable b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static Comparable<?> sortKeyOf(RepairOrder order, String property) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(order);
+        // 中间的关联为空时不可读
+        if (!wrapper.isReadableProperty(property)) {
+            return null;
+        }
+        Object value = wrapper.getPropertyValue(property);
+        if (value instanceof Enum<?> e) {
+            return e.name();
+        }
+        return value instanceof Comparable<?> comparable ? comparable : null;
+    }
+
+    private static Long engineerIdOf(RepairOrder order) {
+        return order.getEngineer() != null ? order.getEngineer().getId() : null;
+    }
+
+    /**
+     * 动态查询不再在语句中固定 ORDER BY，未指定排序时按创建时间倒序
+     */
+    private Pageable withDefaultSort(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_LIST_SORT);
+    }
+
+    private CursorPageResponse<RepairOrderResponse> toCursorPage(List<RepairOrder> rows, int size, Long viewerUserId) {
+        boolean hasNext = rows.size() > size;
+        List<RepairOrder> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            RepairOrder last = content.get(content.size() - 1);
+            nextCursor = OrderCursorCodec.encode(last.getCreateTime(), last.getId());
+        }
+
+        List<RepairOrderResponse> responses = content.stream()
+            .map(order -> convertToResponse(order, viewerUserId, true))
+            .toList();
+        return new CursorPageResponse<>(responses, nextCursor, hasNext, size);
+    }
+
     private EngineerResponse convertUserToEngineerResponse(User user) {
         return EngineerResponse.builder()
             .id(user.getId())
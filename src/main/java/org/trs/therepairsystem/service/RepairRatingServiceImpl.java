@@ -8,11 +8,14 @@ import org.springframework.stereotype.Service;
 import org.trs.therepairsystem.common.exception.BusinessException;
 import org.trs.therepairsystem.dto.response.RepairRatingResponse;
 import org.trs.therepairsystem.entity.RepairRating;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairRatingRepository;
 import org.trs.therepairsystem.repository.RepairRatingRepository;
 import org.trs.therepairsystem.repository.UserRepository;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -20,11 +23,14 @@ import java.util.Map;
 public class RepairRatingServiceImpl implements RepairRatingService {
 
     private final RepairRatingRepository repairRatingRepository;
+    private final ArchivedRepairRatingRepository archivedRepairRatingRepository;
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
     private final UserRepository userRepository;
 
     @Override
     public RepairRatingResponse getRatingByOrderId(Long orderId) {
         RepairRating rating = repairRatingRepository.findByOrderId(orderId)
+            .or(() -> findArchivedRating(orderId))
             .orElseThrow(() -> new BusinessException("该工单暂无评价"));
         
         return convertToResponse(rating);
@@ -40,18 +46,31 @@ public class RepairRatingServiceImpl implements RepairRatingService {
         // 获取统计数据
         Long totalCount = repairRatingRepository.countByEngineerId(engineerId);
         Double averageRating = repairRatingRepository.findAverageRatingByEngineerId(engineerId);
-        
-        // 获取各评分的数量统计
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalCount", totalCount);
-        stats.put("averageRating", averageRating != null ? Math.round(averageRating * 100.0) / 100.0 : 0);
-        
+
         // 各评分数量统计
         Map<Integer, Long> ratingDistribution = new HashMap<>();
         for (int i = 1; i <= 5; i++) {
             Long count = repairRatingRepository.countByEngineerIdAndRating(engineerId, i);
             ratingDistribution.put(i, count);
         }
+
+        // 合并已归档工单的评价，统计口径不随归档变化
+        long activeCount = totalCount != null ? totalCount : 0L;
+        double ratingSum = averageRating != null ? averageRating * activeCount : 0;
+        long archivedCount = 0;
+        for (Object[] row : archivedRepairRatingRepository.countByEngineerIdGroupByRating(engineerId)) {
+            int rating = (Integer) row[0];
+            long count = (Long) row[1];
+            ratingDistribution.merge(rating, count, Long::sum);
+            ratingSum += (double) rating * count;
+            archivedCount += count;
+        }
+        long ratedCount = activeCount + archivedCount;
+        Double overallAverage = ratedCount > 0 ? ratingSum / ratedCount : null;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalCount", ratedCount);
+        stats.put("averageRating", overallAverage != null ? Math.round(overallAverage * 100.0) / 100.0 : 0);
         stats.put("ratingDistribution", ratingDistribution);
         
         return stats;
@@ -96,6 +115,12 @@ public class RepairRatingServiceImpl implements RepairRatingService {
         return ratings.map(this::convertToResponse);
     }
 
+    private Optional<RepairRating> findArchivedRating(Long orderId) {
+        return archivedRepairRatingRepository.findByOrderId(orderId)
+            .flatMap(archived -> archivedRepairOrderRepository.findDetailById(orderId)
+                .map(order -> archived.toRating(order.toOrder())));
+    }
+
     private RepairRatingResponse convertToResponse(RepairRating rating) {
         return RepairRatingResponse.builder()
             .id(rating.getId())
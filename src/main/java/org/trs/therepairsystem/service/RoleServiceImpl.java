@@ -2,8 +2,10 @@ package org.trs.therepairsystem.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
 import org.trs.therepairsystem.entity.UserRole;
 import org.trs.therepairsystem.repository.RoleRepository;
+import org.trs.therepairsystem.service.cache.ReferenceDataCache;
 
 import java.util.List;
 
@@ -13,30 +15,38 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Override
     public List<UserRole> getAllRoles() {
-        return roleRepository.findAll();
+        return referenceDataCache.getAllRoles();
     }
 
     @Override
     public UserRole createRole(UserRole role) {
-        return roleRepository.save(role);
+        UserRole saved = roleRepository.save(role);
+        referenceDataCache.evict(ReferenceDataType.ROLE, saved.getId());
+        return saved;
     }
     
     @Override
     public UserRole updateRole(Integer roleId, UserRole role) {
         role.setId(roleId);
-        return roleRepository.save(role);
+        UserRole saved = roleRepository.save(role);
+        referenceDataCache.evict(ReferenceDataType.ROLE, roleId);
+        return saved;
     }
     
     @Override
     public UserRole getById(Integer roleId) {
-        return roleRepository.findById(roleId).orElse(null);
+        return referenceDataCache.getRole(roleId).orElse(null);
     }
 
     @Override
     public void deleteRole(Integer roleId) {
         roleRepository.deleteById(roleId);
+        referenceDataCache.evict(ReferenceDataType.ROLE, roleId);
     }
 }
 
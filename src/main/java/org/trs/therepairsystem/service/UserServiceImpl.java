@@ -14,6 +14,7 @@ import org.trs.therepairsystem.repository.UserRepository;
 import org.trs.therepairsystem.repository.UserRoleRelRepository;
 import org.trs.therepairsystem.repository.RepairOrderRepository;
 import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.service.assign.EngineerEligibilityIndex;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,6 +30,8 @@ public class UserServiceImpl implements UserService {
     private UserRoleRelRepository userRoleRelRepository;
     @Autowired
     private RepairOrderRepository repairOrderRepository;
+    @Autowired
+    private EngineerEligibilityIndex eligibilityIndex;
     
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
@@ -101,6 +104,7 @@ public class UserServiceImpl implements UserService {
         // 先删除用户角色关联，再删除用户（避免外键约束问题）
         userRoleRelRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        eligibilityIndex.updateEngineerRole(id, false);
     }
 
     @Override
@@ -122,6 +126,8 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
 
         userRoleRelRepository.saveAll(rels);
+        eligibilityIndex.updateEngineerRole(userId,
+                roles.stream().anyMatch(role -> "ENGINEER".equals(role.getRoleName())));
     }
 
     @Override
@@ -0,0 +1,11 @@
+package org.trs.therepairsystem.service.assign;
+
+/**
+ * 待分配工单的信息
+ *
+ * @param orderId     工单ID
+ * @param faultTypeId 故障类型ID
+ * @param floorId     楼层ID
+ */
+public record AssignmentContext(Long orderId, Long faultTypeId, Long floorId) {
+}
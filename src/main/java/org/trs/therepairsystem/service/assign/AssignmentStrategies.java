@@ -0,0 +1,38 @@
+package org.trs.therepairsystem.service.assign;
+
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+import org.trs.therepairsystem.config.AutoAssignProperties;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已注册的分配策略，按 repair-order.auto-assign.strategy 选择当前策略
+ */
+@Component
+public class AssignmentStrategies {
+
+    private final Map<AssignmentStrategyType, AssignmentStrategy> strategies = new EnumMap<>(AssignmentStrategyType.class);
+    private final AutoAssignProperties properties;
+
+    public AssignmentStrategies(List<AssignmentStrategy> strategies, AutoAssignProperties properties) {
+        for (AssignmentStrategy strategy : strategies) {
+            this.strategies.put(strategy.getType(), strategy);
+        }
+        this.properties = properties;
+    }
+
+    public AssignmentStrategy current() {
+        return get(properties.getStrategy());
+    }
+
+    public AssignmentStrategy get(AssignmentStrategyType type) {
+        AssignmentStrategy strategy = strategies.get(type);
+        if (strategy == null) {
+            throw new IllegalStateException("未注册的分配策略: " + type);
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,21 @@
+package org.trs.therepairsystem.service.assign;
+
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+
+import java.util.List;
+
+/**
+ * 自动分配策略：从具备资质的候选工程师中选出一名
+ * 实现类注册为 Spring Bean 后即可通过 repair-order.auto-assign.strategy 切换
+ */
+public interface AssignmentStrategy {
+
+    AssignmentStrategyType getType();
+
+    /**
+     * @param candidateIds 候选工程师ID（非空，升序）
+     * @param context      待分配工单信息
+     * @return 选中的工程师ID
+     */
+    Long select(List<Long> candidateIds, AssignmentContext context);
+}
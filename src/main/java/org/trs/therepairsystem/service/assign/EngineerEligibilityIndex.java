@@ -0,0 +1,196 @@
+package org.trs.therepairsystem.service.assign;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.util.TransactionCallbacks;
+import org.trs.therepairsystem.repository.EngineerAreaRelRepository;
+import org.trs.therepairsystem.repository.EngineerFaultRelRepository;
+import org.trs.therepairsystem.repository.UserRoleRelRepository;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * 工程师资质内存索引
+ * 按故障类型、楼层分别维护工程师ID位图，查询时与工程师角色位图求交集，
+ * 替代 users / user_role_rel / user_role / engineer_fault_rel / engineer_area_rel 的多表连接。
+ * <p>
+ * 读取无锁（volatile 快照），修改时复制受影响的位图后整体替换；
+ * 业务修改在事务提交后才生效，定期全量重建以兜底直接改库或多实例部署。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EngineerEligibilityIndex {
+
+    private static final String ENGINEER_ROLE = "ENGINEER";
+
+    private final EngineerFaultRelRepository engineerFaultRelRepository;
+    private final EngineerAreaRelRepository engineerAreaRelRepository;
+    private final UserRoleRelRepository userRoleRelRepository;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${repair-order.eligibility.refresh-interval:PT5M}",
+               initialDelayString = "${repair-order.eligibility.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("工程师资质索引刷新失败，继续使用旧索引", e);
+        }
+    }
+
+    /**
+     * 从关系表全量重建索引
+     */
+    public synchronized void rebuild() {
+        Map<Long, BitSet> byFaultType = new HashMap<>();
+        for (Object[] pair : engineerFaultRelRepository.findAllEngineerFaultTypePairs()) {
+            byFaultType.computeIfAbsent((Long) pair[1], k -> new BitSet()).set(bitOf((Long) pair[0]));
+        }
+        Map<Long, BitSet> byFloor = new HashMap<>();
+        for (Object[] pair : engineerAreaRelRepository.findAllEngineerFloorPairs()) {
+            byFloor.computeIfAbsent((Long) pair[1], k -> new BitSet()).set(bitOf((Long) pair[0]));
+        }
+        BitSet engineers = new BitSet();
+        for (Long userId : userRoleRelRepository.findUserIdsByRoleName(ENGINEER_ROLE)) {
+            engineers.set(bitOf(userId));
+        }
+        snapshot = new Snapshot(byFaultType, byFloor, engineers);
+        log.debug("工程师资质索引已重建：{} 名工程师，{} 个故障类型，{} 个楼层",
+            engineers.cardinality(), byFaultType.size(), byFloor.size());
+    }
+
+    /**
+     * 可处理指定故障类型且负责指定楼层的工程师ID（升序）
+     */
+    public List<Long> findEligibleEngineerIds(Long faultTypeId, Long floorId) {
+        Snapshot current = current();
+        BitSet byFaultType = current.byFaultType().get(faultTypeId);
+        BitSet byFloor = current.byFloor().get(floorId);
+        if (byFaultType == null || byFloor == null) {
+            return List.of();
+        }
+        BitSet eligible = (BitSet) byFaultType.clone();
+        eligible.and(byFloor);
+        eligible.and(current.engineers());
+        return eligible.stream().mapToObj(bit -> (long) bit).toList();
+    }
+
+    // ========== 增量维护（事务提交后生效） ==========
+
+    public void replaceFaultTypes(Long engineerId, Collection<Long> faultTypeIds) {
+        Set<Long> keys = new HashSet<>(faultTypeIds);
+        TransactionCallbacks.afterCommit(() -> update(s -> new Snapshot(
+            replaceMembership(s.byFaultType(), bitOf(engineerId), keys), s.byFloor(), s.engineers())));
+    }
+
+    public void removeFaultType(Long engineerId, Long faultTypeId) {
+        TransactionCallbacks.afterCommit(() -> update(s -> new Snapshot(
+            removeMembership(s.byFaultType(), bitOf(engineerId), faultTypeId), s.byFloor(), s.engineers())));
+    }
+
+    public void replaceFloors(Long engineerId, Collection<Long> floorIds) {
+        Set<Long> keys = new HashSet<>(floorIds);
+        TransactionCallbacks.afterCommit(() -> update(s -> new Snapshot(
+            s.byFaultType(), replaceMembership(s.byFloor(), bitOf(engineerId), keys), s.engineers())));
+    }
+
+    public void removeFloor(Long engineerId, Long floorId) {
+        TransactionCallbacks.afterCommit(() -> update(s -> new Snapshot(
+            s.byFaultType(), removeMembership(s.byFloor(), bitOf(engineerId), floorId), s.engineers())));
+    }
+
+    /**
+     * 用户角色变化后更新工程师角色位图
+     */
+    public void updateEngineerRole(Long userId, boolean engineer) {
+        TransactionCallbacks.afterCommit(() -> update(s -> {
+            BitSet engineers = (BitSet) s.engineers().clone();
+            engineers.set(bitOf(userId), engineer);
+            return new Snapshot(s.byFaultType(), s.byFloor(), engineers);
+        }));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // 启动预热前的首次查询同步构建
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private synchronized void update(UnaryOperator<Snapshot> change) {
+        if (snapshot == null) {
+            // 尚未构建时直接全量加载，已包含本次提交的变更
+            rebuild();
+            return;
+        }
+        snapshot = change.apply(snapshot);
+    }
+
+    private static Map<Long, BitSet> replaceMembership(Map<Long, BitSet> source, int bit, Set<Long> keys) {
+        Map<Long, BitSet> result = new HashMap<>(source.size() + keys.size());
+        source.forEach((key, members) -> {
+            if (members.get(bit) != keys.contains(key)) {
+                BitSet copy = (BitSet) members.clone();
+                copy.flip(bit);
+                if (!copy.isEmpty()) {
+                    result.put(key, copy);
+                }
+            } else {
+                result.put(key, members);
+            }
+        });
+        for (Long key : keys) {
+            if (!source.containsKey(key)) {
+                BitSet members = new BitSet();
+                members.set(bit);
+                result.put(key, members);
+            }
+        }
+        return result;
+    }
+
+    private static Map<Long, BitSet> removeMembership(Map<Long, BitSet> source, int bit, Long key) {
+        BitSet members = source.get(key);
+        if (members == null || !members.get(bit)) {
+            return source;
+        }
+        Map<Long, BitSet> result = new HashMap<>(source);
+        BitSet copy = (BitSet) members.clone();
+        copy.clear(bit);
+        if (copy.isEmpty()) {
+            result.remove(key);
+        } else {
+            result.put(key, copy);
+        }
+        return result;
+    }
+
+    // 用户ID为自增主键，直接作为位下标
+    private static int bitOf(Long userId) {
+        return Math.toIntExact(userId);
+    }
+
+    private record Snapshot(Map<Long, BitSet> byFaultType, Map<Long, BitSet> byFloor, BitSet engineers) {
+    }
+}
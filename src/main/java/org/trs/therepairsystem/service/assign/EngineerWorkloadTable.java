@@ -0,0 +1,167 @@
+package org.trs.therepairsystem.service.assign;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.util.TransactionCallbacks;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 工程师实时负载表
+ * 记录每名工程师手上未完成（待处理、处理中）的工单数，供分配策略读取，避免每次分配执行 COUNT 查询。
+ * 按工单记录其当前所属工程师与版本号，工单变化在事务提交后写入；同一工单只接受更高版本，
+ * 重复或乱序到达的变化不会重复计数，因此可以像检索索引一样在全量重建后重放重建期间的变化。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EngineerWorkloadTable {
+
+    static final List<RepairOrderStatus> OPEN_STATUSES = List.of(
+        RepairOrderStatus.PENDING, RepairOrderStatus.IN_PROGRESS);
+
+    private final RepairOrderRepository repairOrderRepository;
+
+    private final Object writeLock = new Object();
+
+    // 写入由 writeLock 保护；读取计数无需加锁
+    private volatile Table table;
+
+    // 非空表示正在重建，期间提交的变化在此排队，重建完成后重放到新表
+    private List<OrderSlot> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${repair-order.auto-assign.workload-refresh-interval:PT10M}",
+               initialDelayString = "${repair-order.auto-assign.workload-refresh-interval:PT10M}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("工程师负载表校正失败，继续使用增量数据", e);
+        }
+    }
+
+    /**
+     * 按 repair_order 全量重建，重建期间分配策略继续读取旧表
+     */
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        Table fresh = new Table();
+        try {
+            for (Object[] row : repairOrderRepository.findOpenOrderEngineers(OPEN_STATUSES)) {
+                fresh.apply(new OrderSlot((Long) row[0], (Long) row[1], ((Number) row[2]).longValue()));
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            // 读取期间提交的变化可能未被读到，按版本重放（已读到的版本不会再次计数）
+            pendingDuringRebuild.forEach(fresh::apply);
+            pendingDuringRebuild = null;
+            table = fresh;
+        }
+    }
+
+    /**
+     * 工程师当前未完成的工单数
+     */
+    public int openOrders(Long engineerId) {
+        AtomicInteger count = table().openByEngineer.get(engineerId);
+        return count != null ? Math.max(count.get(), 0) : 0;
+    }
+
+    /**
+     * 工单状态或工程师变化后调整负载（事务提交后生效）
+     */
+    public void onOrderChanged(RepairOrder order, RepairOrderStatus previousStatus, Long previousEngineerId) {
+        Long engineerId = order.getEngineer() != null ? order.getEngineer().getId() : null;
+        boolean wasOpen = previousEngineerId != null && isOpen(previousStatus);
+        boolean nowOpen = engineerId != null && isOpen(order.getStatus());
+        if (wasOpen && nowOpen && previousEngineerId.equals(engineerId)) {
+            return;
+        }
+        if (!wasOpen && !nowOpen) {
+            return;
+        }
+        OrderSlot slot = new OrderSlot(order.getId(), nowOpen ? engineerId : null, order.getVersion());
+        TransactionCallbacks.afterCommit(() -> apply(slot));
+    }
+
+    static boolean isOpen(RepairOrderStatus status) {
+        return status != null && OPEN_STATUSES.contains(status);
+    }
+
+    private void apply(OrderSlot slot) {
+        synchronized (writeLock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(slot);
+            }
+            // 尚未构建时忽略：之后的全量构建会读到已提交的数据
+            if (table != null) {
+                table.apply(slot);
+            }
+        }
+    }
+
+    private Table table() {
+        Table current = table;
+        if (current == null) {
+            rebuild();
+            current = table;
+        }
+        return current;
+    }
+
+    /**
+     * 工单当前所属的工程师，engineerId 为空表示已不在任何人的未完成列表中
+     */
+    private record OrderSlot(Long orderId, Long engineerId, long version) {
+    }
+
+    private static final class Table {
+
+        // 由 writeLock 保护；已完成的工单保留记录到下次重建，用于拒绝迟到的旧版本
+        private final Map<Long, OrderSlot> slots = new HashMap<>();
+        private final Map<Long, AtomicInteger> openByEngineer = new ConcurrentHashMap<>();
+
+        void apply(OrderSlot slot) {
+            OrderSlot current = slots.get(slot.orderId());
+            if (current != null && current.version() >= slot.version()) {
+                return;
+            }
+            slots.put(slot.orderId(), slot);
+            Long before = current != null ? current.engineerId() : null;
+            if (Objects.equals(before, slot.engineerId())) {
+                return;
+            }
+            if (before != null) {
+                openByEngineer.computeIfAbsent(before, id -> new AtomicInteger()).decrementAndGet();
+            }
+            if (slot.engineerId() != null) {
+                openByEngineer.computeIfAbsent(slot.engineerId(), id -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+    }
+}
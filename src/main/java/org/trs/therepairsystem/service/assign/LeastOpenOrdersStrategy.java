@@ -0,0 +1,36 @@
+package org.trs.therepairsystem.service.assign;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+
+import java.util.List;
+
+/**
+ * 分配给未完成工单最少的工程师，数量相同时取ID较小者
+ */
+@Component
+@RequiredArgsConstructor
+public class LeastOpenOrdersStrategy implements AssignmentStrategy {
+
+    private final EngineerWorkloadTable workloadTable;
+
+    @Override
+    public AssignmentStrategyType getType() {
+        return AssignmentStrategyType.LEAST_OPEN_ORDERS;
+    }
+
+    @Override
+    public Long select(List<Long> candidateIds, AssignmentContext context) {
+        Long selected = null;
+        int minOpen = Integer.MAX_VALUE;
+        for (Long engineerId : candidateIds) {
+            int open = workloadTable.openOrders(engineerId);
+            if (open < minOpen) {
+                minOpen = open;
+                selected = engineerId;
+            }
+        }
+        return selected;
+    }
+}
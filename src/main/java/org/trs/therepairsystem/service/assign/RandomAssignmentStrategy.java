@@ -0,0 +1,24 @@
+package org.trs.therepairsystem.service.assign;
+
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 在候选工程师中均匀随机选择
+ */
+@Component
+public class RandomAssignmentStrategy implements AssignmentStrategy {
+
+    @Override
+    public AssignmentStrategyType getType() {
+        return AssignmentStrategyType.RANDOM;
+    }
+
+    @Override
+    public Long select(List<Long> candidateIds, AssignmentContext context) {
+        return candidateIds.get(ThreadLocalRandom.current().nextInt(candidateIds.size()));
+    }
+}
@@ -0,0 +1,29 @@
+package org.trs.therepairsystem.service.assign;
+
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 每个楼层维护独立的轮转游标，同一楼层的工单依次分给候选工程师
+ */
+@Component
+public class RoundRobinPerAreaStrategy implements AssignmentStrategy {
+
+    private final Map<Long, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    @Override
+    public AssignmentStrategyType getType() {
+        return AssignmentStrategyType.ROUND_ROBIN_PER_AREA;
+    }
+
+    @Override
+    public Long select(List<Long> candidateIds, AssignmentContext context) {
+        int next = cursors.computeIfAbsent(context.floorId(), id -> new AtomicInteger()).getAndIncrement();
+        return candidateIds.get(Math.floorMod(next, candidateIds.size()));
+    }
+}
@@ -0,0 +1,102 @@
+package org.trs.therepairsystem.service.assign;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.AssignmentStrategyType;
+import org.trs.therepairsystem.repository.ArchivedRepairRatingRepository;
+import org.trs.therepairsystem.repository.RepairRatingRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按 评分 / (1 + 未完成工单数) 加权随机选择
+ * 评分向默认值做贝叶斯平滑，评价很少的工程师不会因一两个极端评分被过度偏好或冷落
+ * 评分同时统计在用表与归档表，工单归档后工程师的历史评价仍计入权重
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WeightedRatingStrategy implements AssignmentStrategy {
+
+    static final double DEFAULT_RATING = 4.0;
+    private static final long PRIOR_COUNT = 5;
+
+    private final EngineerWorkloadTable workloadTable;
+    private final RepairRatingRepository repairRatingRepository;
+    private final ArchivedRepairRatingRepository archivedRepairRatingRepository;
+
+    private volatile Map<Long, Double> ratings;
+
+    @Override
+    public AssignmentStrategyType getType() {
+        return AssignmentStrategyType.WEIGHTED_RATING;
+    }
+
+    @Override
+    public Long select(List<Long> candidateIds, AssignmentContext context) {
+        Map<Long, Double> currentRatings = ratings();
+        double[] weights = new double[candidateIds.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Long engineerId = candidateIds.get(i);
+            double rating = currentRatings.getOrDefault(engineerId, DEFAULT_RATING);
+            weights[i] = rating / (1 + workloadTable.openOrders(engineerId));
+            total += weights[i];
+        }
+
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return candidateIds.get(i);
+            }
+        }
+        return candidateIds.get(candidateIds.size() - 1);
+    }
+
+    @Scheduled(fixedDelayString = "${repair-order.auto-assign.rating-refresh-interval:PT30M}",
+               initialDelayString = "${repair-order.auto-assign.rating-refresh-interval:PT30M}")
+    public void refresh() {
+        try {
+            reloadRatings();
+        } catch (Exception e) {
+            log.error("工程师评分权重刷新失败，继续使用旧权重", e);
+        }
+    }
+
+    public synchronized void reloadRatings() {
+        // 在用表与归档表分别汇总，按评价数加权合并为 [评分总和, 评价数] 后再平滑
+        Map<Long, double[]> totals = new HashMap<>();
+        accumulate(totals, repairRatingRepository.summarizeRatingsGroupByEngineer());
+        accumulate(totals, archivedRepairRatingRepository.summarizeRatingsGroupByEngineer());
+
+        Map<Long, Double> smoothed = new HashMap<>();
+        totals.forEach((engineerId, total) -> smoothed.put(engineerId,
+            (total[0] + DEFAULT_RATING * PRIOR_COUNT) / (total[1] + PRIOR_COUNT)));
+        ratings = smoothed;
+    }
+
+    private static void accumulate(Map<Long, double[]> totals, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            double average = ((Number) row[1]).doubleValue();
+            long count = ((Number) row[2]).longValue();
+            double[] total = totals.computeIfAbsent((Long) row[0], id -> new double[2]);
+            total[0] += average * count;
+            total[1] += count;
+        }
+    }
+
+    private Map<Long, Double> ratings() {
+        Map<Long, Double> current = ratings;
+        if (current == null) {
+            reloadRatings();
+            current = ratings;
+        }
+        return current;
+    }
+}
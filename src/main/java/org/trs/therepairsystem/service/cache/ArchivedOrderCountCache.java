@@ -0,0 +1,58 @@
+package org.trs.therepairsystem.service.cache;
+
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.config.OrderArchiveProperties;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderSpecifications;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * 归档工单总数缓存：按查询范围（提交人、工程师、状态、楼栋、故障类型）缓存归档表的 COUNT 结果
+ * <p>
+ * 归档表只在归档任务中写入，列表分页每次都 COUNT 归档表没有必要；
+ * 本节点每批归档提交后整体失效，其他节点的缓存在有效期内可能少算新归档的工单。
+ */
+@Component
+public class ArchivedOrderCountCache {
+
+    private final ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    private final ReferenceCache<Scope, ScopeTotal> totals;
+
+    public ArchivedOrderCountCache(ArchivedRepairOrderRepository archivedRepairOrderRepository,
+                                   OrderArchiveProperties properties) {
+        this.archivedRepairOrderRepository = archivedRepairOrderRepository;
+        this.totals = new ReferenceCache<>(properties.getCountCacheSize(), properties.getCountCacheTtl(),
+            ScopeTotal::scope, UnaryOperator.identity());
+    }
+
+    /**
+     * 指定范围内的归档工单数，参数为 null 表示不筛选该字段
+     */
+    public long count(Long userId, Long engineerId, RepairOrderStatus status, Long buildingId, Long faultTypeId) {
+        Scope scope = new Scope(userId, engineerId, status, buildingId, faultTypeId);
+        return totals.get(scope, this::load).map(ScopeTotal::total).orElse(0L);
+    }
+
+    /**
+     * 归档表有新增后调用
+     */
+    public void invalidateAll() {
+        totals.invalidateAll();
+    }
+
+    private Optional<ScopeTotal> load(Scope scope) {
+        long total = archivedRepairOrderRepository.count(RepairOrderSpecifications.<ArchivedRepairOrder>byConditions(
+            scope.userId(), scope.engineerId(), scope.status(), scope.buildingId(), scope.faultTypeId()));
+        return Optional.of(new ScopeTotal(scope, total));
+    }
+
+    private record Scope(Long userId, Long engineerId, RepairOrderStatus status, Long buildingId, Long faultTypeId) {
+    }
+
+    private record ScopeTotal(Scope scope, long total) {
+    }
+}
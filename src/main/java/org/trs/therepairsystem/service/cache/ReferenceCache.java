@@ -0,0 +1,188 @@
+package org.trs.therepairsystem.service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 单类基础数据的有界缓存：按 ID 缓存单条记录，另缓存一份全量列表
+ * <p>
+ * 超过容量时淘汰最久未访问的记录，写入超过有效期的记录视为未命中。
+ * 存入和取出时都复制一份，调用方拿到的对象可以随意修改或挂到新实体上，不会影响缓存内容。
+ * 每次失效递增版本号，失效前开始的加载不再写入缓存，避免并发加载把旧值放回去。
+ * 全量列表附带一份内容指纹，只由数据本身决定，各节点加载到相同数据时指纹相同。
+ */
+final class ReferenceCache<K, V> {
+
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final UnaryOperator<V> copier;
+    private final Function<V, K> keyOf;
+    private final Map<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private long generation;
+    private Entry<List<V>> all;
+    private String allFingerprint;
+
+    ReferenceCache(int maximumSize, Duration expireAfterWrite, Function<V, K> keyOf, UnaryOperator<V> copier) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.keyOf = keyOf;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReferenceCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(System.nanoTime())) {
+                hits.increment();
+                return Optional.of(copier.apply(entry.value()));
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        Optional<V> loaded = loader.apply(key).map(copier);
+        loaded.ifPresent(value -> {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + expireAfterWriteNanos));
+                }
+            }
+        });
+        return loaded.map(copier);
+    }
+
+    List<V> getAll(Supplier<List<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            if (all != null && !all.isExpired(System.nanoTime())) {
+                hits.increment();
+                return copyOf(all.value());
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        List<V> loaded = copyOf(loader.get());
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                long expireAt = System.nanoTime() + expireAfterWriteNanos;
+                all = new Entry<>(List.copyOf(loaded), expireAt);
+                allFingerprint = fingerprintOf(loaded);
+                // 全量列表通常不超过容量，顺带填充按 ID 缓存
+                if (loaded.size() <= maximumSize) {
+                    loaded.forEach(value -> entries.put(keyOf.apply(value), new Entry<>(value, expireAt)));
+                }
+            }
+        }
+        return copyOf(loaded);
+    }
+
+    /**
+     * 全量列表的内容指纹：条数 + 各记录 hashCode 打散后求和（与顺序无关）
+     * 随全量列表缓存，列表失效或过期后重新加载时一并重算
+     */
+    String fingerprint(Supplier<List<V>> loader) {
+        synchronized (this) {
+            if (all != null && !all.isExpired(System.nanoTime())) {
+                return allFingerprint;
+            }
+        }
+        // 加载期间被失效时列表不会写入缓存，按本次加载的数据计算
+        return fingerprintOf(getAll(loader));
+    }
+
+    synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+        all = null;
+        invalidations.increment();
+    }
+
+    synchronized void invalidateIf(Predicate<V> predicate) {
+        generation++;
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+        all = null;
+        invalidations.increment();
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        all = null;
+        invalidations.increment();
+    }
+
+    synchronized Stats stats() {
+        return new Stats(entries.size(), hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    private static String fingerprintOf(List<?> values) {
+        long sum = 0;
+        for (Object value : values) {
+            sum += mix(value.hashCode());
+        }
+        return values.size() + "-" + Long.toUnsignedString(sum, 36);
+    }
+
+    /**
+     * MurmurHash3 的 64 位收尾混合，避免少量字段变化时各记录的 hashCode 相互抵消
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private List<V> copyOf(List<V> values) {
+        List<V> copies = new ArrayList<>(values.size());
+        for (V value : values) {
+            copies.add(copier.apply(value));
+        }
+        return copies;
+    }
+
+    private record Entry<T>(T value, long expireAt) {
+
+        boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+
+    /**
+     * 累计命中/未命中/容量淘汰/失效次数与当前条目数
+     */
+    record Stats(int size, long hits, long misses, long evictions, long invalidations) {
+
+        double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+}
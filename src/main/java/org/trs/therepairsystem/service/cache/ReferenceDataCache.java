@@ -0,0 +1,227 @@
+package org.trs.therepairsystem.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
+import org.trs.therepairsystem.common.util.TransactionCallbacks;
+import org.trs.therepairsystem.config.ReferenceDataCacheProperties;
+import org.trs.therepairsystem.dto.response.ReferenceCacheStatsResponse;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.entity.UserRole;
+import org.trs.therepairsystem.repository.BuildingRepository;
+import org.trs.therepairsystem.repository.FaultTypeRepository;
+import org.trs.therepairsystem.repository.FloorRepository;
+import org.trs.therepairsystem.repository.RoleRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 楼栋、楼层、故障类型、角色的进程内缓存
+ * <p>
+ * 这些数据几乎不变，却在提交/修改工单时每次都要校验。缓存按 ID 及全量列表两种方式提供，返回的都是脱离持久化上下文的副本，
+ * 可以直接挂到新建的工单上（只用到主键），但不能用来修改后保存——修改请从 Repository 加载。
+ * <p>
+ * 修改方在写入后调用 {@link #evict}：立即清除本地缓存，事务提交后再清除一次（防止提交前有并发请求把旧值重新加载进来），
+ * 并通过 {@link ReferenceDataInvalidationPublisher} 通知其他节点。
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    private final BuildingRepository buildingRepository;
+    private final FloorRepository floorRepository;
+    private final FaultTypeRepository faultTypeRepository;
+    private final RoleRepository roleRepository;
+    private final ObjectProvider<ReferenceDataInvalidationPublisher> invalidationPublishers;
+
+    private final ReferenceCache<Long, Building> buildings;
+    private final ReferenceCache<Long, Floor> floors;
+    private final ReferenceCache<Long, FaultType> faultTypes;
+    private final ReferenceCache<Integer, UserRole> roles;
+    private final Map<ReferenceDataType, ReferenceCache<?, ?>> caches = new EnumMap<>(ReferenceDataType.class);
+
+    public ReferenceDataCache(BuildingRepository buildingRepository,
+                              FloorRepository floorRepository,
+                              FaultTypeRepository faultTypeRepository,
+                              RoleRepository roleRepository,
+                              ReferenceDataCacheProperties properties,
+                              ObjectProvider<ReferenceDataInvalidationPublisher> invalidationPublishers) {
+        this.buildingRepository = buildingRepository;
+        this.floorRepository = floorRepository;
+        this.faultTypeRepository = faultTypeRepository;
+        this.roleRepository = roleRepository;
+        this.invalidationPublishers = invalidationPublishers;
+
+        int maximumSize = properties.getMaximumSize();
+        buildings = new ReferenceCache<>(maximumSize, properties.getExpireAfterWrite(),
+            Building::getId, ReferenceDataCache::copyOf);
+        floors = new ReferenceCache<>(maximumSize, properties.getExpireAfterWrite(),
+            Floor::getId, ReferenceDataCache::copyOf);
+        faultTypes = new ReferenceCache<>(maximumSize, properties.getExpireAfterWrite(),
+            FaultType::getId, ReferenceDataCache::copyOf);
+        roles = new ReferenceCache<>(maximumSize, properties.getExpireAfterWrite(),
+            UserRole::getId, ReferenceDataCache::copyOf);
+        caches.put(ReferenceDataType.BUILDING, buildings);
+        caches.put(ReferenceDataType.FLOOR, floors);
+        caches.put(ReferenceDataType.FAULT_TYPE, faultTypes);
+        caches.put(ReferenceDataType.ROLE, roles);
+    }
+
+    public Optional<Building> getBuilding(Long id) {
+        return buildings.get(id, buildingRepository::findById);
+    }
+
+    /**
+     * 全部楼栋，按名称排序
+     */
+    public List<Building> getAllBuildings() {
+        return buildings.getAll(buildingRepository::findAllByOrderByName);
+    }
+
+    /**
+     * 楼层，所属楼栋已一并加载
+     */
+    public Optional<Floor> getFloor(Long id) {
+        return floors.get(id, floorRepository::findById);
+    }
+
+    public Optional<FaultType> getFaultType(Long id) {
+        return faultTypes.get(id, faultTypeRepository::findById);
+    }
+
+    /**
+     * 全部故障类型，按名称排序
+     */
+    public List<FaultType> getAllFaultTypes() {
+        return faultTypes.getAll(faultTypeRepository::findAllByOrderByName);
+    }
+
+    public Optional<UserRole> getRole(Integer id) {
+        return roles.get(id, roleRepository::findById);
+    }
+
+    public List<UserRole> getAllRoles() {
+        return roles.getAll(roleRepository::findAll);
+    }
+
+    /**
+     * 基础数据新增、修改、删除后调用，id 为空表示该类型全部失效
+     */
+    public void evict(ReferenceDataType type, Object id) {
+        invalidateLocal(type, id);
+        TransactionCallbacks.afterCommit(() -> {
+            invalidateLocal(type, id);
+            invalidationPublishers.ifAvailable(publisher -> {
+                try {
+                    publisher.publish(type, id);
+                } catch (RuntimeException e) {
+                    log.warn("广播基础数据失效失败: type={}, id={}，其他节点将在缓存过期后更新", type, id, e);
+                }
+            });
+        });
+    }
+
+    /**
+     * 清空全部缓存并通知其他节点
+     */
+    public void evictAll() {
+        for (ReferenceDataType type : ReferenceDataType.values()) {
+            evict(type, null);
+        }
+    }
+
+    /**
+     * 收到其他节点的失效广播时调用，只清除本地缓存，不再转发
+     */
+    public void applyRemoteInvalidation(ReferenceDataType type, Object id) {
+        invalidateLocal(type, id);
+    }
+
+    /**
+     * 基础数据的版本标识，用于接口 ETag：相关类型全量数据的内容指纹（条数 + 内容哈希）
+     * <p>
+     * 只由数据本身决定，负载均衡后的各节点数据一致时标识相同，客户端换节点也能命中 304。
+     * 指纹随全量列表缓存：本节点修改或收到失效广播后立即重算；直接改库且未配置广播时，
+     * 最迟在缓存有效期后随列表重新加载而变化，与缓存本身的不一致时间相同。
+     */
+    public String getVersionTag(ReferenceDataType... types) {
+        StringBuilder tag = new StringBuilder();
+        for (ReferenceDataType type : types) {
+            if (!tag.isEmpty()) {
+                tag.append('.');
+            }
+            tag.append(fingerprint(type));
+        }
+        return tag.toString();
+    }
+
+    public List<ReferenceCacheStatsResponse> getStats() {
+        List<ReferenceCacheStatsResponse> stats = new ArrayList<>(caches.size());
+        caches.forEach((type, cache) -> {
+            ReferenceCache.Stats s = cache.stats();
+            stats.add(new ReferenceCacheStatsResponse(type, s.size(), s.hits(), s.misses(), s.hitRate(),
+                s.evictions(), s.invalidations()));
+        });
+        return stats;
+    }
+
+    private String fingerprint(ReferenceDataType type) {
+        return switch (type) {
+            case BUILDING -> buildings.fingerprint(buildingRepository::findAllByOrderByName);
+            case FLOOR -> floors.fingerprint(floorRepository::findAll);
+            case FAULT_TYPE -> faultTypes.fingerprint(faultTypeRepository::findAllByOrderByName);
+            case ROLE -> roles.fingerprint(roleRepository::findAll);
+        };
+    }
+
+    private void invalidateLocal(ReferenceDataType type, Object id) {
+        if (id == null) {
+            caches.get(type).invalidateAll();
+            if (type == ReferenceDataType.BUILDING) {
+                floors.invalidateAll();
+            }
+            return;
+        }
+        switch (type) {
+            case BUILDING -> {
+                Long buildingId = toLong(id);
+                buildings.invalidate(buildingId);
+                // 楼层缓存中带有楼栋名称，一并失效
+                floors.invalidateIf(floor -> floor.getBuilding() != null
+                    && Objects.equals(floor.getBuilding().getId(), buildingId));
+            }
+            case FLOOR -> floors.invalidate(toLong(id));
+            case FAULT_TYPE -> faultTypes.invalidate(toLong(id));
+            case ROLE -> roles.invalidate(((Number) id).intValue());
+        }
+    }
+
+    private static Long toLong(Object id) {
+        return ((Number) id).longValue();
+    }
+
+    private static Building copyOf(Building building) {
+        return new Building(building.getId(), building.getName());
+    }
+
+    private static Floor copyOf(Floor floor) {
+        Building building = floor.getBuilding() != null ? copyOf(floor.getBuilding()) : null;
+        return new Floor(floor.getId(), building, floor.getFloorNo(), floor.getName());
+    }
+
+    private static FaultType copyOf(FaultType faultType) {
+        return new FaultType(faultType.getId(), faultType.getName(), faultType.getColor(), faultType.getDescription());
+    }
+
+    private static UserRole copyOf(UserRole role) {
+        return new UserRole(role.getId(), role.getRoleName());
+    }
+}
@@ -0,0 +1,20 @@
+package org.trs.therepairsystem.service.cache;
+
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
+
+/**
+ * 基础数据失效的跨节点广播钩子
+ * <p>
+ * 默认单节点部署不需要实现；多节点部署时提供一个实现（例如基于 Redis 发布订阅或消息队列），
+ * 本节点提交修改后会调用 {@link #publish}，其他节点收到消息后调用
+ * {@link ReferenceDataCache#applyRemoteInvalidation} 清除本地缓存。
+ * 未配置广播时，其他节点的缓存最迟在 repair-order.reference-cache.expire-after-write 后过期。
+ */
+public interface ReferenceDataInvalidationPublisher {
+
+    /**
+     * @param type 数据类型
+     * @param id   失效的记录ID，为空表示该类型全部失效
+     */
+    void publish(ReferenceDataType type, Object id);
+}
@@ -0,0 +1,9 @@
+package org.trs.therepairsystem.service.event;
+
+/**
+ * 附件已登记事件，事务提交后触发缩略图生成
+ *
+ * @param attachmentId 附件ID
+ */
+public record AttachmentStoredEvent(Long attachmentId) {
+}
@@ -0,0 +1,165 @@
+package org.trs.therepairsystem.service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.OrderStreamProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 工单变化进程内事件总线
+ * 工单事务提交后按提交人、工程师、全部工单三种范围分发给 SSE 订阅者。
+ * 每个订阅者有独立的有界缓冲区，消费过慢导致缓冲区写满时断开该订阅，
+ * 客户端重连后应重新拉取一次列表，避免慢连接拖住发布线程或占用无限内存。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderChangeBus {
+
+    static final String EVENT_NAME = "order-changed";
+
+    private final OrderStreamProperties properties;
+
+    private final Map<Topic, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public enum Scope {
+        /** 自己提交的工单 */
+        USER,
+        /** 分配给自己的工单 */
+        ENGINEER,
+        /** 全部工单（管理员） */
+        ALL
+    }
+
+    /**
+     * 订阅的范围与范围ID（ALL 的范围ID为空）
+     */
+    public record Topic(Scope scope, Long scopeId) {
+    }
+
+    /**
+     * 建立订阅，返回的事件流包含工单变化、定时心跳，到达最长连接时间后正常结束
+     */
+    public Flux<ServerSentEvent<OrderChangedEvent>> subscribe(List<Topic> subscribedTopics) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new BusinessException("实时通知连接数已满，请稍后重试");
+        }
+        Subscriber subscriber = new Subscriber(subscribedTopics, Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<OrderChangedEvent>get(properties.getSubscriberBufferSize()).get()));
+        for (Topic topic : subscribedTopics) {
+            topics.compute(topic, (t, subscribers) -> {
+                Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+
+        Flux<ServerSentEvent<OrderChangedEvent>> changes = subscriber.sink.asFlux()
+            .map(event -> ServerSentEvent.builder(event)
+                .id(String.valueOf(sequence.incrementAndGet()))
+                .event(EVENT_NAME)
+                .build());
+        // 客户端读不过来时跳过心跳，是否断开只由变化事件的缓冲区决定
+        Flux<ServerSentEvent<OrderChangedEvent>> heartbeats = Flux.interval(properties.getHeartbeatInterval())
+            .onBackpressureDrop()
+            .map(tick -> ServerSentEvent.<OrderChangedEvent>builder().comment("heartbeat").build());
+        ServerSentEvent<OrderChangedEvent> connected = ServerSentEvent.<OrderChangedEvent>builder()
+            .comment("connected")
+            .retry(properties.getReconnectDelay())
+            .build();
+
+        // merge 预取 1 条，积压留在订阅者自己的有界缓冲区里
+        return Flux.merge(1, changes, heartbeats)
+            .startWith(connected)
+            .take(properties.getMaxConnectionLifetime())
+            .doFinally(signal -> unsubscribe(subscriber));
+    }
+
+    /**
+     * 工单事务提交后分发（没有事务时立即分发）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        publish(event);
+    }
+
+    void publish(OrderChangedEvent event) {
+        // 同一订阅者可能同时订阅多个范围（如管理员），只推送一次
+        Set<Subscriber> targets = new LinkedHashSet<>();
+        collect(targets, new Topic(Scope.ALL, null));
+        collect(targets, new Topic(Scope.USER, event.submitUserId()));
+        if (event.engineerId() != null) {
+            collect(targets, new Topic(Scope.ENGINEER, event.engineerId()));
+        }
+        if (event.previousEngineerId() != null && !event.previousEngineerId().equals(event.engineerId())) {
+            collect(targets, new Topic(Scope.ENGINEER, event.previousEngineerId()));
+        }
+        for (Subscriber subscriber : targets) {
+            Sinks.EmitResult result;
+            // 多个业务线程可能同时发布，单播 sink 要求串行写入
+            synchronized (subscriber) {
+                result = subscriber.sink.tryEmitNext(event);
+            }
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                log.warn("SSE 订阅者 {} 消费过慢，缓冲区已满，断开连接", subscriber.topics);
+                synchronized (subscriber) {
+                    subscriber.sink.tryEmitComplete();
+                }
+                unsubscribe(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void collect(Set<Subscriber> targets, Topic topic) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            targets.addAll(subscribers);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        for (Topic topic : subscriber.topics) {
+            topics.computeIfPresent(topic, (t, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        subscriberCount.decrementAndGet();
+    }
+
+    private static final class Subscriber {
+        private final List<Topic> topics;
+        private final Sinks.Many<OrderChangedEvent> sink;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(List<Topic> topics, Sinks.Many<OrderChangedEvent> sink) {
+            this.topics = topics;
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.trs.therepairsystem.service.event;
+
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.entity.RepairOrder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工单变化通知，事务提交后推送给订阅了该工单提交人、工程师或全部工单的客户端
+ *
+ * @param orderId            工单ID
+ * @param eventType          事件类型
+ * @param fromStatus         变化前状态，新建工单为空
+ * @param toStatus           变化后状态
+ * @param submitUserId       提交人ID
+ * @param engineerId         变化后的工程师ID
+ * @param previousEngineerId 变化前的工程师ID（改派或取消时原工程师也会收到通知）
+ * @param occurredAt         发生时间
+ */
+public record OrderChangedEvent(Long orderId,
+                                OrderEventType eventType,
+                                RepairOrderStatus fromStatus,
+                                RepairOrderStatus toStatus,
+                                Long submitUserId,
+                                Long engineerId,
+                                Long previousEngineerId,
+                                LocalDateTime occurredAt) {
+
+    public static OrderChangedEvent of(RepairOrder order, OrderEventType eventType,
+                                       RepairOrderStatus fromStatus, Long previousEngineerId) {
+        return new OrderChangedEvent(
+            order.getId(),
+            eventType,
+            fromStatus,
+            order.getStatus(),
+            order.getSubmitUser().getId(),
+            order.getEngineer() != null ? order.getEngineer().getId() : null,
+            previousEngineerId,
+            LocalDateTime.now());
+    }
+}
@@ -0,0 +1,9 @@
+package org.trs.therepairsystem.service.event;
+
+/**
+ * 工单已提交事件，事务提交后触发自动分配
+ *
+ * @param orderId 工单ID
+ */
+public record OrderSubmittedEvent(Long orderId) {
+}
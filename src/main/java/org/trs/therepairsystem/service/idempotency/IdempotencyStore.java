@@ -0,0 +1,159 @@
+package org.trs.therepairsystem.service.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.common.exception.IdempotencyConflictException;
+import org.trs.therepairsystem.config.IdempotencyProperties;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 幂等键存储：同一用户携带相同 Idempotency-Key 的重复请求只执行一次，之后直接重放首次的结果
+ * <p>
+ * 首个请求执行期间到达的重复请求不会再次执行，而是等待首个请求结束后拿同一份结果；
+ * 业务异常（参数错误、状态不允许等）同样记录并重放，其他异常（数据库不可用等）不记录，释放幂等键供客户端重试。
+ * 同一幂等键用于内容不同的请求时拒绝执行。
+ * 记录按写入顺序保存，超过有效期或总数超过上限时从最早的开始淘汰。
+ * 记录只保存在本节点内存中，多节点部署时需按用户会话保持路由，重启后已有记录失效。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final IdempotencyProperties properties;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 按幂等键执行操作
+     *
+     * @param userId         操作人ID，幂等键按用户隔离
+     * @param idempotencyKey 客户端传入的幂等键，为空时直接执行
+     * @param fingerprint    请求内容（接口名、路径参数、请求体等），同一幂等键内容不一致时拒绝
+     * @param action         实际执行的操作
+     */
+    public <T> T execute(Long userId, String idempotencyKey, List<?> fingerprint, Supplier<T> action) {
+        if (!StringUtils.hasText(idempotencyKey)) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > properties.getMaxKeyLength()) {
+            throw new BusinessException("Idempotency-Key 长度不能超过 " + properties.getMaxKeyLength() + " 个字符");
+        }
+
+        String storeKey = userId + ":" + idempotencyKey;
+        while (true) {
+            long now = System.nanoTime();
+            evict(now);
+            Entry created = new Entry(storeKey, fingerprint, now + properties.getTtl().toNanos());
+            Entry existing = entries.putIfAbsent(storeKey, created);
+            if (existing == null) {
+                insertionOrder.add(created);
+                evict(now);
+                return runFirst(created, action);
+            }
+            if (existing.isExpired(now)) {
+                entries.remove(storeKey, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyConflictException(idempotencyKey, "该 Idempotency-Key 已用于其他请求，请更换后重试");
+            }
+            Outcome outcome = await(existing, idempotencyKey);
+            if (outcome == null) {
+                // 首个请求因非业务异常失败，幂等键已释放，由当前请求重新执行
+                continue;
+            }
+            log.debug("重放幂等请求结果: {}", storeKey);
+            return outcome.replay();
+        }
+    }
+
+    /**
+     * 当前记录数，包括仍在处理中的请求
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private <T> T runFirst(Entry entry, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (BusinessException ex) {
+            entry.outcome.complete(new Outcome(null, ex));
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            entries.remove(entry.key, entry);
+            entry.outcome.completeExceptionally(ex);
+            throw ex;
+        }
+        entry.outcome.complete(new Outcome(result, null));
+        return result;
+    }
+
+    private Outcome await(Entry entry, String idempotencyKey) {
+        try {
+            return entry.outcome.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException(idempotencyKey, "相同请求正在处理中，请稍后重试");
+        } catch (ExecutionException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(idempotencyKey, "等待相同请求处理结果时被中断，请稍后重试");
+        }
+    }
+
+    private void evict(long now) {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.isExpired(now) || entries.size() > properties.getMaximumEntries())) {
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final List<?> fingerprint;
+        private final long expireAt;
+        private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+
+        private Entry(String key, List<?> fingerprint, long expireAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+
+    private record Outcome(Object value, BusinessException failure) {
+
+        @SuppressWarnings("unchecked")
+        <T> T replay() {
+            if (failure != null) {
+                throw failure;
+            }
+            return (T) value;
+        }
+    }
+}
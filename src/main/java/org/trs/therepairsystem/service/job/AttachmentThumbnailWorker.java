@@ -0,0 +1,163 @@
+package org.trs.therepairsystem.service.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.trs.therepairsystem.common.enums.StorageProvider;
+import org.trs.therepairsystem.common.util.ImageThumbnails;
+import org.trs.therepairsystem.config.AttachmentStorageProperties;
+import org.trs.therepairsystem.entity.RepairOrderAttachment;
+import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
+import org.trs.therepairsystem.service.event.AttachmentStoredEvent;
+import org.trs.therepairsystem.service.storage.AttachmentStorageService;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 附件缩略图生成工作线程
+ * 附件登记事务提交后接收附件ID，在固定大小的线程池中读取原图、生成 JPEG 缩略图，
+ * 写入原图同目录（对象键 {@code <原对象键去扩展名>.thumb.jpg}）后登记到附件记录。
+ * 队列只在进程内，队列满时跳过，启动时会为仍没有缩略图的附件补生成。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttachmentThumbnailWorker {
+
+    static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+    private static final String THUMBNAIL_CONTENT_TYPE = "image/jpeg";
+
+    private final RepairOrderAttachmentRepository attachmentRepository;
+    private final AttachmentStorageProperties storageProperties;
+    private final List<AttachmentStorageService> storageServices;
+
+    private Map<StorageProvider, AttachmentStorageService> storageByProvider;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        storageByProvider = new EnumMap<>(StorageProvider.class);
+        storageServices.forEach(service -> storageByProvider.put(service.provider(), service));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AttachmentStorageProperties.Thumbnail properties = storageProperties.getThumbnail();
+        if (!properties.isEnabled()) {
+            log.info("附件缩略图生成已关闭");
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "attachment-thumbnail-" + threadIndex.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        // 没有解码器的类型（如 webp）不补生成，避免每次启动重复尝试
+        List<String> renderableTypes = storageProperties.getAllowedContentTypes().stream()
+            .map(String::trim)
+            .filter(type -> ImageIO.getImageReadersByMIMEType(type).hasNext())
+            .toList();
+        if (renderableTypes.isEmpty()) {
+            return;
+        }
+        List<Long> pendingIds = attachmentRepository.findIdsWithoutThumbnail(
+            renderableTypes, PageRequest.of(0, properties.getQueueCapacity()));
+        pendingIds.forEach(this::enqueue);
+        if (!pendingIds.isEmpty()) {
+            log.info("缩略图补生成：{} 个附件入队", pendingIds.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            long timeout = storageProperties.getThumbnail().getShutdownTimeout().toMillis();
+            if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 附件登记事务提交后才入队，保证工作线程能读到附件记录
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttachmentStored(AttachmentStoredEvent event) {
+        enqueue(event.attachmentId());
+    }
+
+    void enqueue(Long attachmentId) {
+        if (executor == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> render(attachmentId));
+        } catch (RejectedExecutionException e) {
+            // 队列满时不阻塞上传线程，列表回退使用原图地址，重启后补生成
+            log.warn("缩略图队列已满，附件 {} 暂不生成缩略图", attachmentId);
+        }
+    }
+
+    void render(Long attachmentId) {
+        RepairOrderAttachment attachment = attachmentRepository.findById(attachmentId).orElse(null);
+        if (attachment == null || attachment.getThumbnailKey() != null) {
+            return;
+        }
+        AttachmentStorageService storage = storageByProvider.get(attachment.getStorageProvider());
+        if (storage == null) {
+            return;
+        }
+
+        byte[] thumbnail;
+        try (InputStream in = storage.download(attachment.getObjectKey()).openStream()) {
+            AttachmentStorageProperties.Thumbnail properties = storageProperties.getThumbnail();
+            thumbnail = ImageThumbnails.render(in, properties.getMaxDimension(), properties.getQuality());
+        } catch (IOException | RuntimeException e) {
+            log.warn("附件 {} 生成缩略图失败: {}", attachmentId, e.getMessage());
+            return;
+        }
+        if (thumbnail == null) {
+            log.debug("附件 {} 的图片格式无法解码，不生成缩略图", attachmentId);
+            return;
+        }
+
+        String thumbnailKey = thumbnailKey(attachment.getObjectKey());
+        try {
+            storage.store(thumbnailKey, thumbnail, THUMBNAIL_CONTENT_TYPE);
+            if (attachmentRepository.updateThumbnailKey(attachmentId, thumbnailKey) == 0) {
+                // 生成期间附件已被删除或归档
+                storage.delete(thumbnailKey);
+            }
+        } catch (RuntimeException e) {
+            log.warn("附件 {} 保存缩略图失败: {}", attachmentId, e.getMessage());
+        }
+    }
+
+    static String thumbnailKey(String objectKey) {
+        int slash = objectKey.lastIndexOf('/');
+        int dot = objectKey.lastIndexOf('.');
+        String base = dot > slash ? objectKey.substring(0, dot) : objectKey;
+        return base + THUMBNAIL_SUFFIX;
+    }
+}
@@ -0,0 +1,31 @@
+package org.trs.therepairsystem.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.service.RepairOrderAttachmentService;
+
+/**
+ * 附件分片上传会话清理任务
+ * 删除超过有效期仍未完成的会话及其分片，避免客户端放弃上传后分片长期占用存储
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttachmentUploadSessionCleanupJob {
+
+    private final RepairOrderAttachmentService attachmentService;
+
+    @Scheduled(fixedDelayString = "${file.upload.session.cleanup-interval:PT10M}")
+    public void cleanup() {
+        try {
+            int cleaned = attachmentService.cleanupExpiredUploadSessions();
+            if (cleaned > 0) {
+                log.info("已清理 {} 个过期的附件上传会话", cleaned);
+            }
+        } catch (Exception e) {
+            log.error("清理附件上传会话失败", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.trs.therepairsystem.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.config.OrderArchiveProperties;
+import org.trs.therepairsystem.service.OrderArchiveService;
+
+/**
+ * 工单冷热归档任务
+ * 按 cron 将超过保留期的已关闭/已取消工单迁出 repair_order，使活跃工单的查询与索引只覆盖工作集
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderArchiveJob {
+
+    private final OrderArchiveService orderArchiveService;
+    private final OrderArchiveProperties archiveProperties;
+
+    @Scheduled(cron = "${repair-order.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        try {
+            orderArchiveService.archiveExpiredOrders();
+        } catch (Exception e) {
+            log.error("工单归档失败", e);
+        }
+    }
+}
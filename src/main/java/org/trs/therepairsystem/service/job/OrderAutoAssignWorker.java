@@ -0,0 +1,204 @@
+package org.trs.therepairsystem.service.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.trs.therepairsystem.common.enums.AssignmentOutcome;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.AutoAssignProperties;
+import org.trs.therepairsystem.dto.response.RepairOrderResponse;
+import org.trs.therepairsystem.entity.OrderAssignmentRecord;
+import org.trs.therepairsystem.repository.OrderAssignmentRecordRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.service.RepairOrderService;
+import org.trs.therepairsystem.service.event.OrderSubmittedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工单自动分配工作线程
+ * 提交事务完成后接收工单ID，按批取出并在虚拟线程中逐单分配（每单独立事务），
+ * 瞬时错误按退避重试，每个工单的最终结果写入 order_assignment_record。
+ * 队列只在进程内，启动时会把仍未分配的 SUBMITTED 工单重新入队。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderAutoAssignWorker {
+
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    private final RepairOrderService repairOrderService;
+    private final RepairOrderRepository repairOrderRepository;
+    private final OrderAssignmentRecordRepository recordRepository;
+    private final AutoAssignProperties properties;
+
+    private BlockingQueue<Long> queue;
+    private Semaphore batchPermits;
+    private ExecutorService executor;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        batchPermits = new Semaphore(properties.getMaxConcurrentBatches());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("工单自动分配已关闭，新提交的工单需管理员手动分配");
+            return;
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-auto-assign-", 0).factory());
+        running = true;
+        dispatcher = Thread.ofVirtual().name("order-auto-assign-dispatcher").start(this::dispatchLoop);
+
+        List<Long> pendingIds = repairOrderRepository.findUnassignedSubmittedIds(
+            PageRequest.of(0, properties.getQueueCapacity()));
+        pendingIds.forEach(this::enqueue);
+        if (!pendingIds.isEmpty()) {
+            log.info("自动分配恢复：{} 个待分配工单重新入队", pendingIds.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 提交事务提交后才入队，保证工作线程能读到已提交的工单
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderSubmitted(OrderSubmittedEvent event) {
+        enqueue(event.orderId());
+    }
+
+    void enqueue(Long orderId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!queue.offer(orderId)) {
+            // 队列满时不阻塞提交线程，工单保持 SUBMITTED，重启恢复或管理员手动分配
+            log.warn("自动分配队列已满，工单 {} 等待管理员手动分配", orderId);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Long> batch = new ArrayList<>(properties.getBatchSize());
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+
+                batchPermits.acquire();
+                executor.submit(() -> {
+                    try {
+                        processBatch(batch);
+                    } finally {
+                        batchPermits.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void processBatch(List<Long> orderIds) {
+        // 同一批内重复入队的工单只处理一次
+        for (Long orderId : new LinkedHashSet<>(orderIds)) {
+            try {
+                assignWithRetry(orderId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void assignWithRetry(Long orderId) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                RepairOrderResponse response = repairOrderService.autoAssignEngineer(null, orderId);
+                record(orderId, AssignmentOutcome.ASSIGNED, response.getEngineerId(), attempt, null);
+                return;
+            } catch (BusinessException e) {
+                // 业务校验失败（无可用工程师、工单已被处理）重试也不会成功
+                record(orderId, outcomeOf(e), null, attempt, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.error("工单 {} 自动分配 {} 次后仍失败，等待管理员手动分配", orderId, attempt, e);
+                    record(orderId, AssignmentOutcome.FAILED, null, attempt, e.getMessage());
+                    return;
+                }
+                log.warn("工单 {} 第 {} 次自动分配失败: {}，稍后重试", orderId, attempt, e.getMessage());
+                Thread.sleep(properties.getRetryBackoff().toMillis() * attempt);
+            }
+        }
+    }
+
+    private AssignmentOutcome outcomeOf(BusinessException e) {
+        return switch (e.getCode()) {
+            case RepairOrderService.NO_ENGINEER_AVAILABLE -> AssignmentOutcome.NO_ENGINEER;
+            default -> AssignmentOutcome.SKIPPED;
+        };
+    }
+
+    private void record(Long orderId, AssignmentOutcome outcome, Long engineerId, int attempts, String message) {
+        if (outcome != AssignmentOutcome.ASSIGNED) {
+            log.info("工单 {} 自动分配结果 {}: {}", orderId, outcome, message);
+        }
+        try {
+            recordRepository.save(OrderAssignmentRecord.builder()
+                .orderId(orderId)
+                .outcome(outcome)
+                .engineerId(engineerId)
+                .attempts(attempts)
+                .message(truncate(message))
+                .createTime(LocalDateTime.now())
+                .build());
+        } catch (RuntimeException e) {
+            log.warn("工单 {} 自动分配记录写入失败: {}", orderId, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
@@ -0,0 +1,30 @@
+package org.trs.therepairsystem.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.service.OrderDailyRollupService;
+
+/**
+ * 工单按日汇总补齐任务
+ * 启动时回填所有尚无完成标记的日期：部署前创建的工单只有部署后的增量，不回填时当天统计会出现缺失或负数
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderDailyRollupBackfillJob {
+
+    private final OrderDailyRollupService orderDailyRollupService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        try {
+            orderDailyRollupService.backfillMissing();
+        } catch (Exception e) {
+            // 未回填的日期继续按工单表统计，下次启动或手动回填时补齐
+            log.error("工单按日汇总补齐回填失败", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.trs.therepairsystem.service.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.config.OrderEventProperties;
+import org.trs.therepairsystem.entity.OrderEvent;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工单事件批量写入器
+ * 业务事务提交后事件进入进程内队列，后台线程攒够 batch-size 条或等待 flush-interval 后
+ * 用一次 JDBC 批量插入写入 order_event，业务请求不再为事件多一次数据库往返。
+ * 队列满时由调用线程直接写入，宁可拖慢请求也不丢事件；进程异常退出时队列中尚未写入的事件会丢失。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderEventWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO order_event " +
+        "(order_id, event_type, from_status, to_status, operator_id, engineer_id, create_time) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderEventProperties properties;
+
+    private BlockingQueue<OrderEvent> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        flusher = Thread.ofVirtual().name("order-event-writer").start(this::flushLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        }
+        if (!queue.isEmpty()) {
+            log.warn("工单事件写入器停止时仍有 {} 条事件未写入", queue.size());
+        }
+    }
+
+    public void enqueue(List<OrderEvent> events) {
+        List<OrderEvent> overflow = null;
+        for (OrderEvent event : events) {
+            if (!queue.offer(event)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(event);
+            }
+        }
+        if (overflow != null) {
+            log.warn("工单事件队列已满，由调用线程直接写入 {} 条事件", overflow.size());
+            write(overflow);
+        }
+    }
+
+    private void flushLoop() {
+        List<OrderEvent> batch = new ArrayList<>(properties.getBatchSize());
+        // 停止后继续把队列中的事件写完
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderEvent first = queue.poll(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    OrderEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void write(List<OrderEvent> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                    ps.setLong(1, event.getOrderId());
+                    ps.setString(2, event.getEventType().name());
+                    if (event.getFromStatus() != null) {
+                        ps.setString(3, event.getFromStatus().name());
+                    } else {
+                        ps.setNull(3, Types.VARCHAR);
+                    }
+                    ps.setString(4, event.getToStatus().name());
+                    ps.setObject(5, event.getOperatorId(), Types.BIGINT);
+                    ps.setObject(6, event.getEngineerId(), Types.BIGINT);
+                    ps.setTimestamp(7, Timestamp.valueOf(event.getCreateTime()));
+                });
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.error("工单事件写入 {} 次后仍失败，丢弃 {} 条事件: {}", attempt, batch.size(), batch, e);
+                    return;
+                }
+                log.warn("工单事件第 {} 次写入失败: {}，稍后重试", attempt, e.getMessage());
+                try {
+                    Thread.sleep(properties.getFlushInterval().toMillis() * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    log.error("工单事件写入被中断，丢弃 {} 条事件: {}", batch.size(), batch);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.trs.therepairsystem.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.trs.therepairsystem.service.OrderStatsCounterService;
+
+/**
+ * 工单状态计数器对账任务
+ * 启动时若计数器从未初始化则全量重建；之后按 cron 定期与 repair_order 比对并修正偏差
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatsCounterReconcileJob {
+
+    private final OrderStatsCounterService orderStatsCounterService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (orderStatsCounterService.needsInitialization()) {
+            log.info("工单状态计数器为空，开始根据 repair_order 初始化");
+            orderStatsCounterService.reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${repair-order.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            orderStatsCounterService.reconcile();
+        } catch (Exception e) {
+            log.error("工单状态计数器对账失败", e);
+        }
+    }
+}
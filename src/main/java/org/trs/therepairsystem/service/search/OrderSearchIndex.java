@@ -0,0 +1,477 @@
+package org.trs.therepairsystem.service.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.common.util.TransactionCallbacks;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 工单全文检索内存索引
+ * 对工单描述和维修说明按相邻两个字符（bigram）建立倒排表，中文无需分词即可按任意连续片段检索，
+ * 同时按工单ID保存状态、楼栋、故障类型，检索时直接在内存中过滤，避免对 TEXT 列执行 LIKE '%…%' 全表扫描。
+ * <p>
+ * 启动时按 repair_order 全量构建；提交、修改草稿、完成工单时按新旧文本的差异增量维护，
+ * 状态变化同步更新筛选属性，归档的工单移出检索范围，增量均在事务提交后生效。检索持读锁并发执行，增量只短暂持有写锁。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSearchIndex {
+
+    public static final int MAX_KEYWORD_LENGTH = 64;
+
+    /**
+     * 单次检索最多可翻到的结果数，更靠后的结果应通过筛选条件缩小范围
+     */
+    public static final int MAX_RESULT_WINDOW = 1000;
+
+    private static final int[] NO_TERMS = new int[0];
+
+    // 分数从低到高，同分时旧工单在前；用作小顶堆时堆顶是当前最差的结果
+    private static final Comparator<Hit> WORST_FIRST = Comparator
+        .comparingDouble(Hit::score)
+        .thenComparingInt(Hit::doc);
+
+    private final RepairOrderRepository repairOrderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 由 lock 保护；volatile 仅用于无锁判断是否已构建
+    private volatile IndexData data;
+
+    // 非空表示正在重建，期间提交的增量在此排队，重建完成后重放到新索引
+    private List<Consumer<IndexData>> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${repair-order.search.rebuild-cron:0 0 4 * * *}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("工单检索索引重建失败，继续使用旧索引", e);
+        }
+    }
+
+    /**
+     * 按 repair_order 全量重建索引，重建期间检索继续使用旧索引
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        writeLocked(() -> pendingDuringRebuild = new ArrayList<>());
+        IndexData fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            writeLocked(() -> pendingDuringRebuild = null);
+            throw e;
+        }
+        writeLocked(() -> {
+            // 重建读取期间提交的变更可能未被读到，按顺序重放（各操作幂等，已读到的重放无副作用）
+            pendingDuringRebuild.forEach(change -> change.accept(fresh));
+            pendingDuringRebuild = null;
+            data = fresh;
+        });
+        log.info("工单检索索引已重建：{} 个工单，{} 个片段，耗时 {} ms",
+            fresh.docCount, fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 按关键词检索工单，按匹配片段的 IDF 之和排序，同分时新工单在前
+     * 关键词拆为 bigram 后，工单至少需要命中其中约三分之二（1~2 个片段时需全部命中）
+     *
+     * @param status      状态筛选，为空表示不筛选
+     * @param buildingId  楼栋筛选，为空表示不筛选
+     * @param faultTypeId 故障类型筛选，为空表示不筛选
+     */
+    public SearchResult search(String keyword, RepairOrderStatus status, Long buildingId, Long faultTypeId,
+                               int offset, int limit) {
+        if (keyword != null && keyword.length() > MAX_KEYWORD_LENGTH) {
+            throw new BusinessException("搜索关键词不能超过" + MAX_KEYWORD_LENGTH + "个字符");
+        }
+        int[] terms = bigrams(keyword);
+        if (terms.length == 0) {
+            throw new BusinessException("搜索关键词至少需要包含两个连续的汉字、字母或数字");
+        }
+        if (offset + limit > MAX_RESULT_WINDOW) {
+            throw new BusinessException("检索结果最多查看前" + MAX_RESULT_WINDOW + "条，请增加筛选条件");
+        }
+        if (data == null) {
+            // 启动预热前的首次检索同步构建
+            rebuild();
+        }
+
+        lock.readLock().lock();
+        try {
+            return data.search(terms, new Filter(status, buildingId, faultTypeId), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== 增量维护（事务提交后生效） ==========
+
+    /**
+     * 工单状态、楼栋或故障类型变化后更新筛选属性
+     */
+    public void onOrderChanged(RepairOrder order) {
+        int doc = docOf(order.getId());
+        RepairOrderStatus status = order.getStatus();
+        Long buildingId = order.getBuilding().getId();
+        Long faultTypeId = order.getFaultType().getId();
+        TransactionCallbacks.afterCommit(() -> apply(d -> d.setAttributes(doc, status, buildingId, faultTypeId)));
+    }
+
+    /**
+     * 工单描述或维修说明变化后按新旧文本差异更新倒排表，新建工单的旧文本传 null
+     */
+    public void onTextChanged(RepairOrder order, String previousDescription, String previousRepairInfo) {
+        int doc = docOf(order.getId());
+        String previous = textOf(previousDescription, previousRepairInfo);
+        String text = textOf(order.getDescription(), order.getRepairInfo());
+        if (previous.equals(text)) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> apply(d -> d.replaceText(doc, previous, text)));
+    }
+
+    /**
+     * 工单归档后从检索范围中移除；倒排表中残留的下标在检索时被过滤，下次全量重建时清除
+     */
+    public void onOrdersArchived(Collection<Long> orderIds) {
+        int[] docs = orderIds.stream().mapToInt(OrderSearchIndex::docOf).toArray();
+        TransactionCallbacks.afterCommit(() -> apply(d -> {
+            for (int doc : docs) {
+                d.removeDocument(doc);
+            }
+        }));
+    }
+
+    private IndexData load() {
+        IndexData fresh = new IndexData();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = repairOrderRepository.streamSearchDocuments()) {
+                rows.forEach(row -> {
+                    int doc = docOf((Long) row[0]);
+                    fresh.setAttributes(doc, (RepairOrderStatus) row[3], (Long) row[4], (Long) row[5]);
+                    fresh.replaceText(doc, "", textOf((String) row[1], (String) row[2]));
+                });
+            }
+        });
+        fresh.trimToSize();
+        return fresh;
+    }
+
+    private void apply(Consumer<IndexData> change) {
+        writeLocked(() -> {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+            // 尚未构建时忽略：之后的全量构建会读到已提交的数据
+            if (data != null) {
+                change.accept(data);
+            }
+        });
+    }
+
+    private void writeLocked(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 拼接可检索文本，换行符使描述与维修说明之间不产生跨字段的片段
+     */
+    static String textOf(String description, String repairInfo) {
+        if (repairInfo == null || repairInfo.isEmpty()) {
+            return description != null ? description : "";
+        }
+        return (description != null ? description : "") + "\n" + repairInfo;
+    }
+
+    /**
+     * 将文本拆为去重后升序的 bigram 编码（两个字符各占 16 位）
+     * 只在连续的文字、字母、数字之间取片段，标点和空白作为分隔；英文字母统一转为小写
+     */
+    static int[] bigrams(String text) {
+        if (text == null || text.length() < 2) {
+            return NO_TERMS;
+        }
+        int[] terms = new int[text.length() - 1];
+        int count = 0;
+        char previous = 0;
+        boolean inRun = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                inRun = false;
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if (inRun) {
+                terms[count++] = (previous << 16) | c;
+            }
+            previous = c;
+            inRun = true;
+        }
+        if (count == 0) {
+            return NO_TERMS;
+        }
+        Arrays.sort(terms, 0, count);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (terms[i] != terms[distinct - 1]) {
+                terms[distinct++] = terms[i];
+            }
+        }
+        return Arrays.copyOf(terms, distinct);
+    }
+
+    // 工单ID为自增主键，直接作为文档下标
+    private static int docOf(Long orderId) {
+        return Math.toIntExact(orderId);
+    }
+
+    public record SearchResult(List<Long> orderIds, long total) {
+    }
+
+    private record Filter(RepairOrderStatus status, Long buildingId, Long faultTypeId) {
+    }
+
+    private record Hit(int doc, double score) {
+    }
+
+    /**
+     * 索引数据：倒排表加按文档下标存放的筛选属性
+     */
+    static final class IndexData {
+
+        private static final int INITIAL_DOC_CAPACITY = 1024;
+
+        final Map<Integer, Postings> postings = new HashMap<>();
+
+        // 状态存 ordinal + 1，0 表示该文档不存在
+        private byte[] statuses = new byte[INITIAL_DOC_CAPACITY];
+        private int[] buildingIds = new int[INITIAL_DOC_CAPACITY];
+        private int[] faultTypeIds = new int[INITIAL_DOC_CAPACITY];
+        int docCount;
+
+        void setAttributes(int doc, RepairOrderStatus status, Long buildingId, Long faultTypeId) {
+            ensureCapacity(doc);
+            if (statuses[doc] == 0) {
+                docCount++;
+            }
+            statuses[doc] = (byte) (status.ordinal() + 1);
+            buildingIds[doc] = Math.toIntExact(buildingId);
+            faultTypeIds[doc] = Math.toIntExact(faultTypeId);
+        }
+
+        void removeDocument(int doc) {
+            if (doc < statuses.length && statuses[doc] != 0) {
+                statuses[doc] = 0;
+                docCount--;
+            }
+        }
+
+        /**
+         * 只改动新旧文本中不同的片段：移除仅在旧文本中出现的，加入仅在新文本中出现的
+         */
+        void replaceText(int doc, String previous, String text) {
+            int[] before = bigrams(previous);
+            int[] after = bigrams(text);
+            int i = 0;
+            int j = 0;
+            while (i < before.length || j < after.length) {
+                if (j == after.length || (i < before.length && before[i] < after[j])) {
+                    remove(before[i++], doc);
+                } else if (i == before.length || after[j] < before[i]) {
+                    postings.computeIfAbsent(after[j++], term -> new Postings()).add(doc);
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+        }
+
+        SearchResult search(int[] terms, Filter filter, int offset, int limit) {
+            Postings[] lists = new Postings[terms.length];
+            double[] weights = new double[terms.length];
+            int k = 0;
+            for (int term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    lists[k] = list;
+                    weights[k++] = idf(list.size);
+                }
+            }
+            int minMatch = terms.length - terms.length / 3;
+            if (k < minMatch) {
+                return new SearchResult(List.of(), 0);
+            }
+
+            // 各倒排表按文档升序存放，从尾部（新工单）向前逐文档合并统计命中的片段；
+            // 同分时先遇到的新工单排在前面，后续同分文档无需进入结果堆
+            int[] positions = new int[k];
+            for (int i = 0; i < k; i++) {
+                positions[i] = lists[i].size - 1;
+            }
+            int window = offset + limit;
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(window, 1), WORST_FIRST);
+            long total = 0;
+            while (true) {
+                int doc = -1;
+                for (int i = 0; i < k; i++) {
+                    if (positions[i] >= 0 && lists[i].docs[positions[i]] > doc) {
+                        doc = lists[i].docs[positions[i]];
+                    }
+                }
+                if (doc < 0) {
+                    break;
+                }
+                int matched = 0;
+                double score = 0;
+                for (int i = 0; i < k; i++) {
+                    if (positions[i] >= 0 && lists[i].docs[positions[i]] == doc) {
+                        matched++;
+                        score += weights[i];
+                        positions[i]--;
+                    }
+                }
+                if (matched < minMatch || !matches(doc, filter)) {
+                    continue;
+                }
+                total++;
+                if (top.size() < window) {
+                    top.add(new Hit(doc, score));
+                } else if (window > 0 && score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(doc, score));
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(WORST_FIRST.reversed());
+            List<Long> orderIds = new ArrayList<>(Math.max(ranked.size() - offset, 0));
+            for (int i = offset; i < ranked.size(); i++) {
+                orderIds.add((long) ranked.get(i).doc());
+            }
+            return new SearchResult(orderIds, total);
+        }
+
+        void trimToSize() {
+            postings.values().forEach(Postings::trimToSize);
+        }
+
+        private boolean matches(int doc, Filter filter) {
+            if (doc >= statuses.length || statuses[doc] == 0) {
+                return false;
+            }
+            if (filter.status() != null && statuses[doc] != filter.status().ordinal() + 1) {
+                return false;
+            }
+            if (filter.buildingId() != null && buildingIds[doc] != filter.buildingId()) {
+                return false;
+            }
+            return filter.faultTypeId() == null || faultTypeIds[doc] == filter.faultTypeId();
+        }
+
+        private double idf(int documentFrequency) {
+            return Math.log(1 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        private void remove(int term, int doc) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+
+        private void ensureCapacity(int doc) {
+            if (doc < statuses.length) {
+                return;
+            }
+            int capacity = Math.max(doc + 1, statuses.length + (statuses.length >> 1));
+            statuses = Arrays.copyOf(statuses, capacity);
+            buildingIds = Arrays.copyOf(buildingIds, capacity);
+            faultTypeIds = Arrays.copyOf(faultTypeIds, capacity);
+        }
+    }
+
+    /**
+     * 单个片段的倒排表：升序、去重的文档下标
+     */
+    static final class Postings {
+
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            // 新工单ID递增，绝大多数情况直接追加
+            if (size > 0 && doc <= docs[size - 1]) {
+                int index = Arrays.binarySearch(docs, 0, size, doc);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, doc);
+                return;
+            }
+            insertAt(size, doc);
+        }
+
+        boolean remove(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        void trimToSize() {
+            if (docs.length > size) {
+                docs = Arrays.copyOf(docs, size);
+            }
+        }
+
+        private void insertAt(int index, int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, Math.max(4, size + (size >> 1)));
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            docs[index] = doc;
+            size++;
+        }
+    }
+}
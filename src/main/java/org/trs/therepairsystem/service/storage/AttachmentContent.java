@@ -0,0 +1,33 @@
+package org.trs.therepairsystem.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 待下载的附件内容：长度在打开时已确定，数据在写出时才从存储读取，不整体加载到内存
+ */
+public interface AttachmentContent {
+
+    /**
+     * 内容字节数
+     */
+    long contentLength();
+
+    /**
+     * 打开数据流，由调用方负责关闭
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * 将全部内容写入输出流（不关闭输出流），返回写出的字节数
+     */
+    default long transferTo(OutputStream out) throws IOException {
+        return transferTo(out, 0, contentLength());
+    }
+
+    /**
+     * 将从 offset 开始的 length 个字节写入输出流（不关闭输出流），只从存储读取这一段，返回写出的字节数
+     */
+    long transferTo(OutputStream out, long offset, long length) throws IOException;
+}
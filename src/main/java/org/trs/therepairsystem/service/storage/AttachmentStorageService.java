@@ -9,7 +9,15 @@ public interface AttachmentStorageService {
 
     void upload(String objectKey, MultipartFile file);
 
-    byte[] download(String objectKey);
+    /**
+     * 写入服务端生成的小文件（如缩略图），已存在时覆盖
+     */
+    void store(String objectKey, byte[] data, String contentType);
+
+    /**
+     * 打开附件内容用于下载；文件不存在时立即抛出异常，数据在写出时才读取
+     */
+    AttachmentContent download(String objectKey);
 
     void delete(String objectKey);
 }
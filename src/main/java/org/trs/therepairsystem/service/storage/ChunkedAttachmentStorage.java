@@ -0,0 +1,32 @@
+package org.trs.therepairsystem.service.storage;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 支持分片上传的存储：分片按会话暂存，全部到齐后合并为最终对象
+ * <p>
+ * 分片写入是原子的，中途断开不会留下半个分片，客户端可按 {@link #listParts} 的结果续传缺失的分片。
+ */
+public interface ChunkedAttachmentStorage extends AttachmentStorageService {
+
+    /**
+     * 写入一个分片，已存在的同号分片被覆盖；读到的字节数与 size 不一致时丢弃本次写入并抛出异常
+     */
+    void writePart(String sessionId, int partNumber, InputStream data, long size);
+
+    /**
+     * 已完整写入的分片：分片号 -> 字节数
+     */
+    Map<Integer, Long> listParts(String sessionId);
+
+    /**
+     * 按分片号 1..partCount 顺序合并为 objectKey 对应的对象，成功后删除分片
+     */
+    void assemble(String sessionId, int partCount, String objectKey, String contentType);
+
+    /**
+     * 删除会话的全部分片
+     */
+    void discardParts(String sessionId);
+}
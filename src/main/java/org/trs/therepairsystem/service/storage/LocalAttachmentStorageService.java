@@ -8,13 +8,26 @@ import org.trs.therepairsystem.common.exception.BusinessException;
 import org.trs.therepairsystem.config.AttachmentStorageProperties;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
-public class LocalAttachmentStorageService implements AttachmentStorageService {
+public class LocalAttachmentStorageService implements ChunkedAttachmentStorage {
+
+    private static final String SESSION_DIR = ".upload-sessions";
+    private static final String PART_SUFFIX = ".part";
 
     private final AttachmentStorageProperties storageProperties;
 
@@ -35,13 +48,29 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
     }
 
     @Override
-    public byte[] download(String objectKey) {
+    public void store(String objectKey, byte[] data, String contentType) {
+        Path fullPath = resolveAndCheckPath(objectKey);
+        Path temp = null;
+        try {
+            Files.createDirectories(fullPath.getParent());
+            temp = Files.createTempFile(fullPath.getParent(), ".store-", ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, fullPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new BusinessException("附件保存失败", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public AttachmentContent download(String objectKey) {
         Path fullPath = resolveAndCheckPath(objectKey);
-        if (!Files.exists(fullPath)) {
+        if (!Files.isRegularFile(fullPath)) {
             throw new BusinessException("附件文件不存在");
         }
         try {
-            return Files.readAllBytes(fullPath);
+            return new LocalFileContent(fullPath, Files.size(fullPath));
         } catch (IOException ex) {
             throw new BusinessException("读取附件文件失败", ex);
         }
@@ -57,6 +86,112 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
         }
     }
 
+    @Override
+    public void writePart(String sessionId, int partNumber, InputStream data, long size) {
+        Path partDir = resolveSessionDir(sessionId);
+        Path temp = null;
+        try {
+            Files.createDirectories(partDir);
+            // 先写临时文件，长度核对无误后再改名，中途断开不会留下不完整的分片
+            temp = Files.createTempFile(partDir, partNumber + "-", ".tmp");
+            long written;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                written = data.transferTo(out);
+            }
+            if (written != size) {
+                throw new BusinessException("分片数据不完整，请重新上传该分片");
+            }
+            Files.move(temp, partDir.resolve(partNumber + PART_SUFFIX),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new BusinessException("分片保存失败", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> listParts(String sessionId) {
+        Path partDir = resolveSessionDir(sessionId);
+        Map<Integer, Long> parts = new TreeMap<>();
+        if (!Files.isDirectory(partDir)) {
+            return parts;
+        }
+        try (Stream<Path> files = Files.list(partDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PART_SUFFIX)) {
+                    parts.put(Integer.parseInt(name.substring(0, name.length() - PART_SUFFIX.length())), Files.size(file));
+                }
+            }
+        } catch (IOException ex) {
+            throw new BusinessException("读取分片信息失败", ex);
+        }
+        return parts;
+    }
+
+    @Override
+    public void assemble(String sessionId, int partCount, String objectKey, String contentType) {
+        Path partDir = resolveSessionDir(sessionId);
+        Path target = resolveAndCheckPath(objectKey);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), ".assemble-", ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                    try (FileChannel in = FileChannel.open(partDir.resolve(partNumber + PART_SUFFIX), StandardOpenOption.READ)) {
+                        // 文件到文件的 transferTo 由内核完成拷贝，不经过堆内存
+                        long size = in.size();
+                        long position = 0;
+                        while (position < size) {
+                            long transferred = in.transferTo(position, size - position, out);
+                            if (transferred <= 0) {
+                                throw new IOException("分片 " + partNumber + " 读取中断");
+                            }
+                            position += transferred;
+                        }
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new BusinessException("合并分片失败", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+        discardParts(sessionId);
+    }
+
+    @Override
+    public void discardParts(String sessionId) {
+        Path partDir = resolveSessionDir(sessionId);
+        if (!Files.isDirectory(partDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(partDir)) {
+            files.forEach(this::deleteQuietly);
+            Files.deleteIfExists(partDir);
+        } catch (IOException ex) {
+            throw new BusinessException("删除分片失败", ex);
+        }
+    }
+
+    private Path resolveSessionDir(String sessionId) {
+        return resolveAndCheckPath(SESSION_DIR + "/" + sessionId);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 残留的临时文件随会话清理一并删除
+        }
+    }
+
     private Path resolveAndCheckPath(String objectKey) {
         Path root = Paths.get(storageProperties.getBasePath()).toAbsolutePath().normalize();
         Path target = root.resolve(objectKey).normalize();
@@ -65,4 +200,33 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
         }
         return target;
     }
+
+    /**
+     * 本地文件内容：写出时通过 FileChannel.transferTo 从指定位置直接拷贝到输出通道，
+     * 不经过堆上的整文件缓冲区，分段下载时也无需读取目标区间之前的数据
+     */
+    private record LocalFileContent(Path path, long contentLength) implements AttachmentContent {
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public long transferTo(OutputStream out, long offset, long length) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long written = 0;
+                while (written < length) {
+                    long transferred = channel.transferTo(offset + written, length - written, target);
+                    if (transferred <= 0) {
+                        // 文件在下载过程中被截断
+                        break;
+                    }
+                    written += transferred;
+                }
+                return written;
+            }
+        }
+    }
 }
@@ -2,6 +2,10 @@ package org.trs.therepairsystem.service.storage;
 
 import io.minio.*;
 import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -10,12 +14,23 @@ import org.trs.therepairsystem.common.enums.StorageProvider;
 import org.trs.therepairsystem.common.exception.BusinessException;
 import org.trs.therepairsystem.config.AttachmentStorageProperties;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
-public class MinioAttachmentStorageService implements AttachmentStorageService {
+public class MinioAttachmentStorageService implements PresignedAttachmentStorage, ChunkedAttachmentStorage {
+
+    private static final String SESSION_PREFIX = "upload-sessions/";
 
     private final AttachmentStorageProperties storageProperties;
 
@@ -63,14 +78,30 @@ public class MinioAttachmentStorageService implements AttachmentStorageService {
     }
 
     @Override
-    public byte[] download(String objectKey) {
+    public void store(String objectKey, byte[] data, String contentType) {
+        MinioClient client = requireClient();
+        try {
+            client.putObject(PutObjectArgs.builder()
+                    .bucket(storageProperties.getMinio().getBucket())
+                    .object(objectKey)
+                    .stream(new ByteArrayInputStream(data), data.length, -1)
+                    .contentType(contentType)
+                    .build());
+        } catch (Exception ex) {
+            throw new BusinessException("附件上传到 MinIO 失败", ex);
+        }
+    }
+
+    @Override
+    public AttachmentContent download(String objectKey) {
         MinioClient client = requireClient();
         String bucket = storageProperties.getMinio().getBucket();
-        try (InputStream inputStream = client.getObject(GetObjectArgs.builder()
-                .bucket(bucket)
-                .object(objectKey)
-                .build())) {
-            return inputStream.readAllBytes();
+        StatObjectResponse stat;
+        try {
+            stat = client.statObject(StatObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectKey)
+                    .build());
         } catch (ErrorResponseException ex) {
             if (ex.errorResponse() != null && "NoSuchKey".equalsIgnoreCase(ex.errorResponse().code())) {
                 throw new BusinessException("附件文件不存在");
@@ -79,6 +110,48 @@ public class MinioAttachmentStorageService implements AttachmentStorageService {
         } catch (Exception ex) {
             throw new BusinessException("从 MinIO 读取附件失败", ex);
         }
+        return new MinioObjectContent(client, bucket, objectKey, stat.size());
+    }
+
+    @Override
+    public String presignUpload(String objectKey, String contentType, Duration expiry) {
+        return presign(GetPresignedObjectUrlArgs.builder()
+                .method(Method.PUT)
+                .bucket(storageProperties.getMinio().getBucket())
+                .object(objectKey)
+                .expiry(toExpirySeconds(expiry))
+                .extraHeaders(Map.of("Content-Type", contentType)));
+    }
+
+    @Override
+    public String presignDownload(String objectKey, String contentType, String contentDisposition, Duration expiry) {
+        return presign(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET)
+                .bucket(storageProperties.getMinio().getBucket())
+                .object(objectKey)
+                .expiry(toExpirySeconds(expiry))
+                .extraQueryParams(Map.of(
+                        "response-content-type", contentType,
+                        "response-content-disposition", contentDisposition)));
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String objectKey) {
+        MinioClient client = requireClient();
+        try {
+            StatObjectResponse stat = client.statObject(StatObjectArgs.builder()
+                    .bucket(storageProperties.getMinio().getBucket())
+                    .object(objectKey)
+                    .build());
+            return Optional.of(new StoredObject(stat.size(), stat.contentType()));
+        } catch (ErrorResponseException ex) {
+            if (ex.errorResponse() != null && "NoSuchKey".equalsIgnoreCase(ex.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new BusinessException("查询 MinIO 附件失败", ex);
+        } catch (Exception ex) {
+            throw new BusinessException("查询 MinIO 附件失败", ex);
+        }
     }
 
     @Override
@@ -95,6 +168,118 @@ public class MinioAttachmentStorageService implements AttachmentStorageService {
         }
     }
 
+    @Override
+    public void writePart(String sessionId, int partNumber, InputStream data, long size) {
+        MinioClient client = requireClient();
+        try {
+            // 已知长度的单次 PutObject 要么完整写入要么失败，不会留下不完整的分片
+            client.putObject(PutObjectArgs.builder()
+                    .bucket(storageProperties.getMinio().getBucket())
+                    .object(partObjectKey(sessionId, partNumber))
+                    .stream(data, size, -1)
+                    .build());
+        } catch (Exception ex) {
+            throw new BusinessException("分片上传到 MinIO 失败", ex);
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> listParts(String sessionId) {
+        Map<Integer, Long> parts = new TreeMap<>();
+        String prefix = SESSION_PREFIX + sessionId + "/";
+        for (Item item : listSessionObjects(sessionId)) {
+            parts.put(Integer.parseInt(item.objectName().substring(prefix.length())), item.size());
+        }
+        return parts;
+    }
+
+    @Override
+    public void assemble(String sessionId, int partCount, String objectKey, String contentType) {
+        MinioClient client = requireClient();
+        String bucket = storageProperties.getMinio().getBucket();
+        List<ComposeSource> sources = new ArrayList<>(partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            sources.add(ComposeSource.builder()
+                    .bucket(bucket)
+                    .object(partObjectKey(sessionId, partNumber))
+                    .build());
+        }
+        try {
+            // 服务端通过分段上传（UploadPartCopy）拼接，分片数据不回流到应用节点
+            client.composeObject(ComposeObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectKey)
+                    .sources(sources)
+                    .headers(Map.of("Content-Type", contentType))
+                    .build());
+        } catch (Exception ex) {
+            throw new BusinessException("MinIO 合并分片失败", ex);
+        }
+        discardParts(sessionId);
+    }
+
+    @Override
+    public void discardParts(String sessionId) {
+        MinioClient client = requireClient();
+        List<DeleteObject> objects = new ArrayList<>();
+        for (Item item : listSessionObjects(sessionId)) {
+            objects.add(new DeleteObject(item.objectName()));
+        }
+        if (objects.isEmpty()) {
+            return;
+        }
+        try {
+            // removeObjects 惰性执行，需遍历结果才会真正删除
+            for (Result<DeleteError> result : client.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(storageProperties.getMinio().getBucket())
+                    .objects(objects)
+                    .build())) {
+                DeleteError error = result.get();
+                throw new BusinessException("删除 MinIO 分片失败: " + error.objectName() + " " + error.message());
+            }
+        } catch (BusinessException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new BusinessException("删除 MinIO 分片失败", ex);
+        }
+    }
+
+    private List<Item> listSessionObjects(String sessionId) {
+        MinioClient client = requireClient();
+        List<Item> items = new ArrayList<>();
+        try {
+            for (Result<Item> result : client.listObjects(ListObjectsArgs.builder()
+                    .bucket(storageProperties.getMinio().getBucket())
+                    .prefix(SESSION_PREFIX + sessionId + "/")
+                    .recursive(true)
+                    .build())) {
+                items.add(result.get());
+            }
+        } catch (Exception ex) {
+            throw new BusinessException("读取 MinIO 分片信息失败", ex);
+        }
+        return items;
+    }
+
+    private String partObjectKey(String sessionId, int partNumber) {
+        return SESSION_PREFIX + sessionId + "/" + partNumber;
+    }
+
+    private String presign(GetPresignedObjectUrlArgs.Builder builder) {
+        MinioClient client = requireClient();
+        try {
+            return client.getPresignedObjectUrl(builder.build());
+        } catch (Exception ex) {
+            throw new BusinessException("生成 MinIO 预签名地址失败", ex);
+        }
+    }
+
+    private int toExpirySeconds(Duration expiry) {
+        // MinIO 预签名有效期为 1 秒 ~ 7 天
+        long seconds = Math.max(1, Math.min(expiry.toSeconds(), TimeUnit.DAYS.toSeconds(7)));
+        return (int) seconds;
+    }
+
     private void ensureBucketExists(String bucket) {
         MinioClient client = requireClient();
         try {
@@ -117,4 +302,41 @@ public class MinioAttachmentStorageService implements AttachmentStorageService {
     private boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
+
+    /**
+     * MinIO 对象内容：写出时才发起 GetObject（分段下载时带 offset/length 只取目标区间），响应体边读边写
+     */
+    private record MinioObjectContent(MinioClient client, String bucket, String objectKey, long contentLength)
+            implements AttachmentContent {
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return getObject(GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectKey)
+                    .build());
+        }
+
+        @Override
+        public long transferTo(OutputStream out, long offset, long length) throws IOException {
+            try (InputStream in = getObject(GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectKey)
+                    .offset(offset)
+                    .length(length)
+                    .build())) {
+                return in.transferTo(out);
+            }
+        }
+
+        private InputStream getObject(GetObjectArgs args) throws IOException {
+            try {
+                return client.getObject(args);
+            } catch (IOException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IOException("从 MinIO 读取附件失败", ex);
+            }
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package org.trs.therepairsystem.service.storage;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 支持预签名直传的存储：客户端凭短期有效的 URL 直接与对象存储传输文件，文件内容不经过应用节点
+ */
+public interface PresignedAttachmentStorage extends AttachmentStorageService {
+
+    /**
+     * 签发 PUT 上传地址，客户端上传时须带上相同的 Content-Type
+     */
+    String presignUpload(String objectKey, String contentType, Duration expiry);
+
+    /**
+     * 签发 GET 下载地址，响应头中的 Content-Type / Content-Disposition 由存储按签名参数返回
+     */
+    String presignDownload(String objectKey, String contentType, String contentDisposition, Duration expiry);
+
+    /**
+     * 查询已上传对象的实际大小与内容类型，对象不存在时返回空
+     */
+    Optional<StoredObject> stat(String objectKey);
+
+    record StoredObject(long size, String contentType) {
+    }
+}
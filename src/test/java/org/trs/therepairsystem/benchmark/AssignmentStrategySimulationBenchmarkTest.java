@@ -0,0 +1,207 @@
+package org.trs.therepairsystem.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairRatingRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairRatingRepository;
+import org.trs.therepairsystem.service.assign.AssignmentContext;
+import org.trs.therepairsystem.service.assign.AssignmentStrategy;
+import org.trs.therepairsystem.service.assign.EngineerWorkloadTable;
+import org.trs.therepairsystem.service.assign.LeastOpenOrdersStrategy;
+import org.trs.therepairsystem.service.assign.RandomAssignmentStrategy;
+import org.trs.therepairsystem.service.assign.RoundRobinPerAreaStrategy;
+import org.trs.therepairsystem.service.assign.WeightedRatingStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 自动分配策略排队仿真
+ *
+ * 离散事件仿真早高峰报修：工单按泊松过程到达，每个楼层有若干具备资质的工程师，
+ * 工程师按先到先修处理自己手上的工单，维修耗时服从指数分布且不同工程师速度不同（评分与速度正相关）。
+ * 对每种策略统计工单从分配到开始维修的排队等待时间和工程师最大积压。
+ * 默认不执行，运行方式：
+ * mvn test -Dbenchmark=true -Dtest=AssignmentStrategySimulationBenchmarkTest
+ * 可通过 -Dbenchmark.orders=20000 调整工单数量。
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("自动分配策略排队仿真")
+class AssignmentStrategySimulationBenchmarkTest {
+
+    private static final long SEED = 20240501L;
+    private static final int FLOORS = 6;
+    private static final int ENGINEERS = 12;
+    private static final int AREAS_PER_ENGINEER = 2;
+    // 平均每 5.5 分钟到达一单，工程师平均维修 30~75 分钟，整体负载约 80%（热点楼层更高）
+    private static final double MEAN_INTERARRIVAL_MINUTES = 5.5;
+
+    @Test
+    void compareQueueWaitAcrossStrategies() {
+        int orders = Integer.getInteger("benchmark.orders", 5000);
+        Scenario scenario = Scenario.generate(orders, new Random(SEED));
+
+        Map<String, Function<EngineerWorkloadTable, AssignmentStrategy>> strategies = Map.of(
+                "RANDOM", table -> new RandomAssignmentStrategy(),
+                "ROUND_ROBIN_PER_AREA", table -> new RoundRobinPerAreaStrategy(),
+                "LEAST_OPEN_ORDERS", LeastOpenOrdersStrategy::new,
+                "WEIGHTED_RATING", table -> new WeightedRatingStrategy(table, ratingsOf(scenario),
+                        mock(ArchivedRepairRatingRepository.class)));
+
+        System.out.printf("%n%-22s %10s %10s %10s %10s %12s%n",
+                "strategy", "avg(min)", "p50(min)", "p95(min)", "p99(min)", "max backlog");
+        for (String name : List.of("RANDOM", "ROUND_ROBIN_PER_AREA", "LEAST_OPEN_ORDERS", "WEIGHTED_RATING")) {
+            EngineerWorkloadTable table = emptyWorkloadTable();
+            Result result = simulate(scenario, strategies.get(name).apply(table), table);
+            assertEquals(orders, result.waits().length);
+            System.out.printf("%-22s %10.1f %10.1f %10.1f %10.1f %12d%n", name,
+                    Arrays.stream(result.waits()).average().orElse(0),
+                    percentile(result.waits(), 0.50),
+                    percentile(result.waits(), 0.95),
+                    percentile(result.waits(), 0.99),
+                    result.maxBacklog());
+        }
+    }
+
+    private Result simulate(Scenario scenario, AssignmentStrategy strategy, EngineerWorkloadTable table) {
+        Random serviceRandom = new Random(SEED + 1);
+        List<Queue<double[]>> queues = new ArrayList<>();
+        double[] busyUntil = new double[ENGINEERS + 1];
+        for (int i = 0; i <= ENGINEERS; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+
+        // 事件：{时间, 类型(0=到达,1=完工), 工单序号, 工程师ID}
+        PriorityQueue<double[]> events = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < scenario.arrivals().length; i++) {
+            events.add(new double[]{scenario.arrivals()[i], 0, i, 0});
+        }
+
+        double[] waits = new double[scenario.arrivals().length];
+        int maxBacklog = 0;
+        while (!events.isEmpty()) {
+            double[] event = events.poll();
+            double now = event[0];
+            int order = (int) event[2];
+            if (event[1] == 0) {
+                int floor = scenario.floors()[order];
+                Long engineerId = strategy.select(scenario.candidates().get(floor),
+                        new AssignmentContext((long) order, 1L, (long) floor));
+                table.onOrderChanged(order(order, engineerId, RepairOrderStatus.PENDING, 1L),
+                        RepairOrderStatus.SUBMITTED, null);
+                int engineer = engineerId.intValue();
+                queues.get(engineer).add(new double[]{order, now});
+                maxBacklog = Math.max(maxBacklog, table.openOrders(engineerId));
+                if (busyUntil[engineer] <= now && queues.get(engineer).size() == 1) {
+                    startNext(engineer, now, queues, busyUntil, waits, events, scenario, serviceRandom);
+                }
+            } else {
+                int engineer = (int) event[3];
+                table.onOrderChanged(order(order, (long) engineer, RepairOrderStatus.COMPLETED, 2L),
+                        RepairOrderStatus.IN_PROGRESS, (long) engineer);
+                startNext(engineer, now, queues, busyUntil, waits, events, scenario, serviceRandom);
+            }
+        }
+        return new Result(waits, maxBacklog);
+    }
+
+    private void startNext(int engineer, double now, List<Queue<double[]>> queues, double[] busyUntil,
+                           double[] waits, PriorityQueue<double[]> events, Scenario scenario, Random random) {
+        double[] next = queues.get(engineer).poll();
+        if (next == null) {
+            return;
+        }
+        waits[(int) next[0]] = now - next[1];
+        double serviceTime = -Math.log(1 - random.nextDouble()) * scenario.meanServiceMinutes()[engineer];
+        busyUntil[engineer] = now + serviceTime;
+        events.add(new double[]{busyUntil[engineer], 1, next[0], engineer});
+    }
+
+    private EngineerWorkloadTable emptyWorkloadTable() {
+        RepairOrderRepository repository = mock(RepairOrderRepository.class);
+        when(repository.findOpenOrderEngineers(any())).thenReturn(List.of());
+        EngineerWorkloadTable table = new EngineerWorkloadTable(repository);
+        table.rebuild();
+        return table;
+    }
+
+    private RepairOrder order(int order, Long engineerId, RepairOrderStatus status, long version) {
+        User engineer = new User();
+        engineer.setId(engineerId);
+        return RepairOrder.builder()
+                .id((long) order)
+                .engineer(engineer)
+                .status(status)
+                .version(version)
+                .build();
+    }
+
+    private RepairRatingRepository ratingsOf(Scenario scenario) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int engineer = 1; engineer <= ENGINEERS; engineer++) {
+            rows.add(new Object[]{(long) engineer, scenario.ratings()[engineer], 40L});
+        }
+        RepairRatingRepository repository = mock(RepairRatingRepository.class);
+        when(repository.summarizeRatingsGroupByEngineer()).thenReturn(rows);
+        return repository;
+    }
+
+    private static double percentile(double[] values, double p) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(double[] waits, int maxBacklog) {
+    }
+
+    private record Scenario(double[] arrivals, int[] floors, List<List<Long>> candidates,
+                            double[] meanServiceMinutes, double[] ratings) {
+
+        static Scenario generate(int orders, Random random) {
+            double[] meanService = new double[ENGINEERS + 1];
+            double[] ratings = new double[ENGINEERS + 1];
+            List<List<Long>> candidates = new ArrayList<>();
+            for (int floor = 0; floor < FLOORS; floor++) {
+                candidates.add(new ArrayList<>());
+            }
+            for (int engineer = 1; engineer <= ENGINEERS; engineer++) {
+                meanService[engineer] = 30 + random.nextDouble() * 45;
+                // 维修越快评分越高，范围约 3.0 ~ 5.0
+                ratings[engineer] = 5.0 - (meanService[engineer] - 30) / 45 * 2;
+                for (int k = 0; k < AREAS_PER_ENGINEER; k++) {
+                    candidates.get((engineer + k * 3) % FLOORS).add((long) engineer);
+                }
+            }
+            candidates.forEach(list -> list.sort(Long::compare));
+
+            double[] arrivals = new double[orders];
+            int[] floors = new int[orders];
+            double time = 0;
+            for (int i = 0; i < orders; i++) {
+                time += -Math.log(1 - random.nextDouble()) * MEAN_INTERARRIVAL_MINUTES;
+                arrivals[i] = time;
+                // 前两层报修较多，模拟热点楼层
+                floors[i] = random.nextDouble() < 0.4 ? random.nextInt(2) : random.nextInt(FLOORS);
+            }
+            return new Scenario(arrivals, floors, candidates, meanService, ratings);
+        }
+    }
+}
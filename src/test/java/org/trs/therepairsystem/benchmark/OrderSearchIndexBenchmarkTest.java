@@ -0,0 +1,128 @@
+package org.trs.therepairsystem.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 工单全文检索内存索引延迟测试
+ *
+ * 按常见报修用语随机拼出工单描述（约三成带维修说明），全量构建索引后统计构建耗时、堆占用，
+ * 以及不同关键词（常见/少见片段、短语、叠加筛选条件）取第一页的检索延迟。
+ * 默认不执行，运行方式：
+ * mvn test -Dbenchmark=true -Dtest=OrderSearchIndexBenchmarkTest
+ * 可通过 -Dbenchmark.orders=1000000 调整工单数量。
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("工单全文检索内存索引延迟")
+class OrderSearchIndexBenchmarkTest {
+
+    private static final long SEED = 20240601L;
+    private static final int WARMUP_RUNS = 200;
+    private static final int RUNS = 1000;
+    private static final int BUILDINGS = 20;
+    private static final int FAULT_TYPES = 12;
+
+    private static final String[] PLACES = {
+        "宿舍", "教室", "实验室", "走廊", "卫生间", "楼梯间", "会议室", "办公室", "阅览室", "食堂后厨", "开水房", "机房"};
+    private static final String[] OBJECTS = {
+        "空调", "日光灯", "水龙头", "门锁", "插座", "窗户", "投影仪", "饮水机", "暖气片", "排风扇", "网线接口", "马桶"};
+    private static final String[] SYMPTOMS = {
+        "漏水", "不制冷", "不亮", "闪烁", "打不开", "松动", "没有电", "异响", "关不上", "堵塞", "跳闸", "冒烟"};
+    private static final String[] DETAILS = {
+        "已经好几天了", "影响正常上课", "晚上尤其明显", "请尽快处理", "之前报修过一次", "周末也可以上门", "急", "麻烦带上梯子"};
+    private static final String[] REPAIRS = {
+        "更换压缩机电容", "更换灯管和镇流器", "更换阀芯", "重新固定锁芯", "更换插座面板", "疏通管道", "紧固螺丝", "更换保险丝"};
+
+    @Test
+    void measureSearchLatency() {
+        int orders = Integer.getInteger("benchmark.orders", 1_000_000);
+        RepairOrderRepository repository = mock(RepairOrderRepository.class);
+        when(repository.streamSearchDocuments()).thenAnswer(invocation -> documents(orders));
+        OrderSearchIndex index = new OrderSearchIndex(repository, mock(PlatformTransactionManager.class));
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        index.rebuild();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapMb = (usedHeap() - heapBefore) / (1024 * 1024);
+        System.out.printf("%n%d orders: build %d ms, heap ~%d MB%n", orders, buildMillis, heapMb);
+
+        List<Query> queries = List.of(
+            new Query("常见片段 空调", "空调", null, null),
+            new Query("短语 空调漏水", "空调漏水", null, null),
+            new Query("长短语 宿舍空调不制冷", "宿舍空调不制冷", null, null),
+            new Query("少见片段 冒烟", "冒烟", null, null),
+            new Query("维修说明 更换阀芯", "更换阀芯", null, null),
+            new Query("短语+状态+楼栋", "日光灯闪烁", RepairOrderStatus.SUBMITTED, 3L),
+            new Query("常见片段 漏水", "漏水", null, null));
+
+        System.out.printf("%-24s %10s %10s %10s %10s %10s%n", "query", "hits", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        for (Query query : queries) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                run(index, query);
+            }
+            double[] millis = new double[RUNS];
+            long hits = 0;
+            for (int i = 0; i < RUNS; i++) {
+                long begin = System.nanoTime();
+                hits = run(index, query).total();
+                millis[i] = (System.nanoTime() - begin) / 1_000_000.0;
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-24s %10d %10.2f %10.2f %10.2f %10.2f%n", query.name(), hits,
+                percentile(millis, 0.50), percentile(millis, 0.95), percentile(millis, 0.99), millis[RUNS - 1]);
+            assertTrue(hits > 0, query.name() + " 应有命中");
+        }
+    }
+
+    private static OrderSearchIndex.SearchResult run(OrderSearchIndex index, Query query) {
+        return index.search(query.keyword(), query.status(), query.buildingId(), null, 0, 20);
+    }
+
+    private static Stream<Object[]> documents(int orders) {
+        Random random = new Random(SEED);
+        RepairOrderStatus[] statuses = {
+            RepairOrderStatus.SUBMITTED, RepairOrderStatus.PENDING, RepairOrderStatus.IN_PROGRESS,
+            RepairOrderStatus.COMPLETED, RepairOrderStatus.CLOSED, RepairOrderStatus.CANCELLED};
+        return LongStream.rangeClosed(1, orders).mapToObj(id -> {
+            String description = pick(random, PLACES) + pick(random, OBJECTS) + pick(random, SYMPTOMS)
+                + "，" + pick(random, DETAILS);
+            String repairInfo = random.nextDouble() < 0.3 ? pick(random, REPAIRS) + "，已恢复正常" : null;
+            return new Object[]{id, description, repairInfo, statuses[random.nextInt(statuses.length)],
+                (long) random.nextInt(BUILDINGS) + 1, (long) random.nextInt(FAULT_TYPES) + 1};
+        });
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Query(String name, String keyword, RepairOrderStatus status, Long buildingId) {
+    }
+}
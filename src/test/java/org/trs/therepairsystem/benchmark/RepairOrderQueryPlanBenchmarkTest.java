@@ -0,0 +1,232 @@
+package org.trs.therepairsystem.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderSpecifications;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 工单条件查询执行计划对比（基于本地 MySQL）
+ *
+ * 对比旧的 "(:param IS NULL OR col = :param)" 全条件语句与按需生成谓词的语句在同一数据集上的
+ * EXPLAIN 结果和平均耗时。按需生成的语句不手写：通过 {@link CapturingStatementInspector} 截取
+ * 管理员列表查询（{@link RepairOrderSpecifications} + 分页）实际发给数据库的 SQL 再执行 EXPLAIN。
+ * 默认不执行，运行方式：
+ * mvn test -Dbenchmark=true -Dtest=RepairOrderQueryPlanBenchmarkTest
+ * 可通过 -Dbenchmark.rows=500000 调整造数规模。
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.trs.therepairsystem.benchmark.RepairOrderQueryPlanBenchmarkTest$CapturingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("工单条件查询执行计划对比")
+class RepairOrderQueryPlanBenchmarkTest {
+
+    private static final String MARKER = "bench-plan-";
+    private static final int BUILDINGS = 20;
+    private static final int FAULT_TYPES = 10;
+    private static final int BATCH_SIZE = 5000;
+    private static final int RUNS = 20;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] STATUSES = {"SUBMITTED", "PENDING", "IN_PROGRESS", "COMPLETED", "CLOSED", "CANCELLED"};
+
+    private static final String CATCH_ALL_SQL = "SELECT ro.* FROM repair_order ro " +
+            "WHERE (? IS NULL OR ro.user_id = ?) " +
+            "AND (? IS NULL OR ro.engineer_id = ?) " +
+            "AND (? IS NULL OR ro.status = ?) " +
+            "AND (? IS NULL OR ro.building_id = ?) " +
+            "AND (? IS NULL OR ro.fault_type_id = ?) " +
+            "ORDER BY ro.create_time DESC LIMIT " + PAGE_SIZE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    private final List<Long> buildingIds = new ArrayList<>();
+    private final List<Long> floorIds = new ArrayList<>();
+    private final List<Long> faultTypeIds = new ArrayList<>();
+    private Long userId;
+
+    @BeforeAll
+    void seed() {
+        int rows = Integer.getInteger("benchmark.rows", 200_000);
+
+        jdbcTemplate.update("INSERT INTO users (username, password, real_name, phone) VALUES (?, ?, ?, ?)",
+                MARKER + "user", "x", "bench", "199" + System.currentTimeMillis() % 100_000_000L);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, MARKER + "user");
+
+        for (int i = 0; i < BUILDINGS; i++) {
+            jdbcTemplate.update("INSERT INTO building (name) VALUES (?)", MARKER + i);
+            Long buildingId = jdbcTemplate.queryForObject("SELECT id FROM building WHERE name = ?", Long.class, MARKER + i);
+            buildingIds.add(buildingId);
+            jdbcTemplate.update("INSERT INTO floor (building_id, floor_no, name) VALUES (?, 1, ?)", buildingId, MARKER + i);
+            floorIds.add(jdbcTemplate.queryForObject(
+                    "SELECT id FROM floor WHERE building_id = ? AND floor_no = 1", Long.class, buildingId));
+        }
+        for (int i = 0; i < FAULT_TYPES; i++) {
+            jdbcTemplate.update("INSERT INTO fault_type (name, color) VALUES (?, '#000000')", MARKER + i);
+            faultTypeIds.add(jdbcTemplate.queryForObject("SELECT id FROM fault_type WHERE name = ?", Long.class, MARKER + i));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime base = LocalDateTime.now().minusYears(3);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            int building = random.nextInt(BUILDINGS);
+            batch.add(new Object[]{
+                    userId,
+                    buildingIds.get(building),
+                    floorIds.get(building),
+                    faultTypeIds.get(random.nextInt(FAULT_TYPES)),
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    MARKER + i,
+                    Timestamp.valueOf(base.plusMinutes(random.nextInt(3 * 365 * 24 * 60)))
+            });
+            if (batch.size() == BATCH_SIZE) {
+                insertOrders(batch);
+                batch.clear();
+            }
+        }
+        insertOrders(batch);
+        jdbcTemplate.execute("ANALYZE TABLE repair_order");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM repair_order WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM floor WHERE name LIKE ?", MARKER + "%");
+        jdbcTemplate.update("DELETE FROM building WHERE name LIKE ?", MARKER + "%");
+        jdbcTemplate.update("DELETE FROM fault_type WHERE name LIKE ?", MARKER + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    @DisplayName("按楼栋筛选：全条件语句 vs 动态谓词")
+    void compareBuildingFilter() {
+        Long buildingId = buildingIds.get(0);
+        Object[] catchAllArgs = {null, null, null, null, null, null, buildingId, buildingId, null, null};
+
+        report("catch-all (building)", CATCH_ALL_SQL, catchAllArgs);
+        String generated = generatedSql(RepairOrderSpecifications.byConditions(null, null, null, buildingId, null));
+        List<Map<String, Object>> plan = report("dynamic (building)", generated, bind(generated, buildingId));
+
+        assertFalse(extra(plan).contains("filesort"), "按需生成谓词后应能利用 idx_building_create_time 避免排序");
+    }
+
+    @Test
+    @DisplayName("按故障类型+状态筛选：全条件语句 vs 动态谓词")
+    void compareFaultTypeAndStatusFilter() {
+        Long faultTypeId = faultTypeIds.get(0);
+        Object[] catchAllArgs = {null, null, null, null, "PENDING", "PENDING", null, null, faultTypeId, faultTypeId};
+
+        report("catch-all (fault+status)", CATCH_ALL_SQL, catchAllArgs);
+        String generated = generatedSql(RepairOrderSpecifications.byConditions(
+                null, null, RepairOrderStatus.PENDING, null, faultTypeId));
+        // 谓词顺序与 byConditions 一致：状态在故障类型之前
+        List<Map<String, Object>> plan = report("dynamic (fault+status)", generated,
+                bind(generated, "PENDING", faultTypeId));
+
+        assertFalse(extra(plan).contains("filesort"), "按需生成谓词后应能利用 idx_fault_status_create_time 避免排序");
+    }
+
+    /**
+     * 按管理员列表的方式执行一次分页查询，返回 Hibernate 生成的取数语句（排除分页 COUNT）
+     */
+    private String generatedSql(Specification<RepairOrder> spec) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        repairOrderRepository.findAll(spec, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createTime")));
+        String sql = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().contains(" order by "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("未截取到分页查询语句：" + CapturingStatementInspector.STATEMENTS));
+        System.out.println("[generated] " + sql);
+        return sql;
+    }
+
+    /**
+     * 生成语句的参数：筛选条件依次绑定，分页的 LIMIT 由 Hibernate 作为最后一个参数绑定
+     */
+    private Object[] bind(String sql, Object... filterArgs) {
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        assertEquals(filterArgs.length + 1, placeholders, "生成语句的参数个数与预期不符：" + sql);
+        Object[] args = Arrays.copyOf(filterArgs, filterArgs.length + 1);
+        args[filterArgs.length] = PAGE_SIZE;
+        return args;
+    }
+
+    private List<Map<String, Object>> report(String label, String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+
+        // 预热一次后取平均值
+        jdbcTemplate.queryForList(sql, args);
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            jdbcTemplate.queryForList(sql, args);
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+
+        for (Map<String, Object> row : plan) {
+            System.out.printf("[%s] type=%s key=%s rows=%s extra=%s avg=%.2fms%n",
+                    label, row.get("type"), row.get("key"), row.get("rows"), row.get("Extra"), avgMillis);
+        }
+        return plan;
+    }
+
+    private String extra(List<Map<String, Object>> plan) {
+        StringBuilder sb = new StringBuilder();
+        for (Map<String, Object> row : plan) {
+            sb.append(row.get("Extra")).append(';');
+        }
+        return sb.toString().toLowerCase();
+    }
+
+    private void insertOrders(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO repair_order " +
+                "(user_id, building_id, floor_id, fault_type_id, status, description, create_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    /**
+     * 记录 Hibernate 发出的每条 SQL，由 hibernate.session_factory.statement_inspector 按类名实例化
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
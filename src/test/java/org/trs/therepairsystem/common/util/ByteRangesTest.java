@@ -0,0 +1,64 @@
+package org.trs.therepairsystem.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ByteRangesTest {
+
+    private static final String ETAG = "\"attachment-10-1000\"";
+
+    @Test
+    void noRangeReturnsFullContent() {
+        assertEquals(ByteRanges.Kind.FULL, ByteRanges.select(null, null, ETAG, 1000).kind());
+    }
+
+    @Test
+    void openEndedRangeResumesFromOffset() {
+        ByteRanges.Selection selection = ByteRanges.select("bytes=400-", null, ETAG, 1000);
+
+        assertEquals(ByteRanges.Kind.PARTIAL, selection.kind());
+        assertEquals(400, selection.start());
+        assertEquals(999, selection.end());
+        assertEquals(600, selection.length());
+        assertEquals("bytes 400-999/1000", selection.contentRange(1000));
+    }
+
+    @Test
+    void suffixRangeReturnsTail() {
+        ByteRanges.Selection selection = ByteRanges.select("bytes=-100", null, ETAG, 1000);
+
+        assertEquals(900, selection.start());
+        assertEquals(999, selection.end());
+    }
+
+    @Test
+    void rangeEndIsClampedToContentLength() {
+        ByteRanges.Selection selection = ByteRanges.select("bytes=0-4999", null, ETAG, 1000);
+
+        assertEquals(ByteRanges.Kind.PARTIAL, selection.kind());
+        assertEquals(999, selection.end());
+    }
+
+    @Test
+    void startBeyondLengthIsUnsatisfiable() {
+        assertEquals(ByteRanges.Kind.UNSATISFIABLE, ByteRanges.select("bytes=1000-", null, ETAG, 1000).kind());
+        assertEquals(ByteRanges.Kind.UNSATISFIABLE, ByteRanges.select("bytes=0-", null, ETAG, 0).kind());
+        assertEquals("bytes */1000", ByteRanges.unsatisfiedContentRange(1000));
+    }
+
+    @Test
+    void multipleOrMalformedRangesFallBackToFullContent() {
+        assertEquals(ByteRanges.Kind.FULL, ByteRanges.select("bytes=0-9,20-29", null, ETAG, 1000).kind());
+        assertEquals(ByteRanges.Kind.FULL, ByteRanges.select("bytes=abc", null, ETAG, 1000).kind());
+        assertEquals(ByteRanges.Kind.FULL, ByteRanges.select("items=0-9", null, ETAG, 1000).kind());
+    }
+
+    @Test
+    void ifRangeMustMatchCurrentEtag() {
+        assertEquals(ByteRanges.Kind.PARTIAL, ByteRanges.select("bytes=10-", ETAG, ETAG, 1000).kind());
+        assertEquals(ByteRanges.Kind.FULL, ByteRanges.select("bytes=10-", "\"attachment-10-999\"", ETAG, 1000).kind());
+        assertEquals(ByteRanges.Kind.FULL,
+            ByteRanges.select("bytes=10-", "Wed, 21 Oct 2015 07:28:00 GMT", ETAG, 1000).kind());
+    }
+}
@@ -0,0 +1,32 @@
+package org.trs.therepairsystem.common.util;
+
+import org.junit.jupiter.api.Test;
+import org.trs.therepairsystem.common.exception.BusinessException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderCursorCodecTest {
+
+    @Test
+    void shouldRoundTripCreateTimeAndId() {
+        LocalDateTime createTime = LocalDateTime.of(2026, 10, 17, 9, 12, 34, 123456000);
+
+        String cursor = OrderCursorCodec.encode(createTime, 1234L);
+        OrderCursorCodec.Cursor decoded = OrderCursorCodec.decode(cursor);
+
+        assertEquals(createTime, decoded.createTime());
+        assertEquals(1234L, decoded.id());
+        assertFalse(cursor.contains("|"));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(BusinessException.class, () -> OrderCursorCodec.decode("not-a-cursor!"));
+        assertThrows(BusinessException.class, () -> OrderCursorCodec.decode(
+                OrderCursorCodec.encode(LocalDateTime.now(), 1L).substring(3)));
+    }
+}
@@ -0,0 +1,132 @@
+package org.trs.therepairsystem.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 读写分离路由：主库、从库各用一个内存 H2，库内 db_marker 记录库名以判断查询落在哪个库
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaPool replicaPool;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("rw_primary");
+        replica = database("rw_replica");
+        replicaPool = new ReplicaPool(Map.of("replica-1", replica));
+        lagMonitor = new ReplicaLagMonitor(primary, replicaPool, Duration.ofSeconds(5));
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(primary, replicaPool, true));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.end();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionGoesToHealthyReplica() {
+        replicaHeartbeat(LocalDateTime.now());
+        lagMonitor.check();
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaLags() {
+        replicaHeartbeat(LocalDateTime.now().minusMinutes(1));
+        lagMonitor.check();
+
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void replicaWithoutHeartbeatIsNotUsed() {
+        lagMonitor.check();
+
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void replicaIsUsedAgainAfterCatchingUp() {
+        replicaHeartbeat(LocalDateTime.now().minusMinutes(1));
+        lagMonitor.check();
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+
+        replicaHeartbeat(LocalDateTime.now());
+        lagMonitor.check();
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readAfterWriteInSameRequestStaysOnPrimary() {
+        replicaHeartbeat(LocalDateTime.now());
+        lagMonitor.check();
+
+        ReadYourWritesContext.begin();
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE db_marker SET name = name"));
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+        ReadYourWritesContext.end();
+
+        ReadYourWritesContext.begin();
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void primaryHeartbeatIsWrittenOnEachCheck() {
+        lagMonitor.check();
+        lagMonitor.check();
+
+        assertEquals(1, new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM replica_heartbeat", Integer.class));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM db_marker", String.class);
+    }
+
+    private void replicaHeartbeat(LocalDateTime beatTime) {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("DELETE FROM replica_heartbeat");
+        replicaJdbc.update("INSERT INTO replica_heartbeat (id, beat_time) VALUES (1, ?)", Timestamp.valueOf(beatTime));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE db_marker (name VARCHAR(20) NOT NULL)");
+        jdbc.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_time TIMESTAMP NOT NULL)");
+        jdbc.update("INSERT INTO db_marker (name) VALUES (?)", name.substring("rw_".length()));
+        return dataSource;
+    }
+}
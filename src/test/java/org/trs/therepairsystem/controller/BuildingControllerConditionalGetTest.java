@@ -0,0 +1,82 @@
+package org.trs.therepairsystem.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.trs.therepairsystem.common.advice.GlobalResponseAdvice;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.service.BuildingService;
+
+import java.util.List;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 条件 GET：经 GlobalResponseAdvice 包装的接口同样按 ETag 返回 304
+ */
+@ExtendWith(MockitoExtension.class)
+class BuildingControllerConditionalGetTest {
+
+    private static final String ETAG = "W/\"buildings-n1.3.100\"";
+
+    @Mock
+    private BuildingService buildingService;
+
+    @InjectMocks
+    private BuildingController buildingController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(buildingController)
+                .setControllerAdvice(new GlobalResponseAdvice())
+                .build();
+        when(buildingService.getAllBuildingsVersionTag()).thenReturn("n1.3.100");
+    }
+
+    @Test
+    void firstRequestReturnsWrappedBodyWithETag() throws Exception {
+        when(buildingService.getAllBuildings()).thenReturn(List.of(new Building(1L, "一号楼")));
+
+        mockMvc.perform(get("/api/buildings"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[0].name").value("一号楼"));
+    }
+
+    @Test
+    void matchingETagReturns304WithoutLoadingBuildings() throws Exception {
+        mockMvc.perform(get("/api/buildings").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+
+        verify(buildingService, never()).getAllBuildings();
+    }
+
+    @Test
+    void staleETagReturnsFullResponse() throws Exception {
+        when(buildingService.getAllBuildings()).thenReturn(List.of(new Building(1L, "一号教学楼")));
+
+        mockMvc.perform(get("/api/buildings").header(HttpHeaders.IF_NONE_MATCH, "W/\"buildings-n1.2.100\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.data[0].name").value("一号教学楼"));
+    }
+}
@@ -0,0 +1,159 @@
+package org.trs.therepairsystem.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 工单列表查询的抓取计划测试
+ *
+ * 测试目标：列表接口会在 convertToResponse 中访问全部关联，
+ * 每页只应产生「数据查询 + 总数查询」两条 SQL，不能随行数增长。
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("工单列表抓取计划测试")
+class RepairOrderRepositoryFetchPlanTest {
+
+    private static final int ORDER_COUNT = 30;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    private Statistics statistics;
+    private User submitter;
+    private User engineer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        submitter = user("submitter", "13800000000");
+        engineer = user("engineer", "13900000000");
+        User admin = user("admin", "13700000000");
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            // 每条工单使用独立的楼栋/楼层/故障类型，确保懒加载时无法命中一级缓存
+            Building building = entityManager.persist(new Building(null, "楼栋" + i));
+            Floor floor = entityManager.persist(new Floor(null, building, i, i + "F"));
+            FaultType faultType = entityManager.persist(new FaultType(null, "故障" + i, "#FFFFFF", null));
+
+            entityManager.persist(RepairOrder.builder()
+                    .submitUser(submitter)
+                    .engineer(i % 2 == 0 ? engineer : null)
+                    .admin(i % 2 == 0 ? admin : null)
+                    .building(building)
+                    .floor(floor)
+                    .faultType(faultType)
+                    .status(i % 2 == 0 ? RepairOrderStatus.PENDING : RepairOrderStatus.SUBMITTED)
+                    .description("工单" + i)
+                    .createTime(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("管理员条件查询：每页两条SQL")
+    void findByConditions_shouldLoadPageWithSingleSelect() {
+        Page<RepairOrder> page = repairOrderRepository.findAll(
+                RepairOrderSpecifications.byConditions(null, null, null, null, null), firstPage());
+
+        assertPageFullyLoadedWithTwoStatements(page);
+    }
+
+    @Test
+    @DisplayName("动态条件查询：只按传入条件筛选")
+    void findByConditions_shouldApplyOnlyPresentFilters() {
+        Page<RepairOrder> page = repairOrderRepository.findAll(
+                RepairOrderSpecifications.byConditions(null, engineer.getId(), RepairOrderStatus.PENDING, null, null),
+                firstPage());
+
+        assertEquals(ORDER_COUNT / 2, page.getTotalElements());
+        page.forEach(order -> assertEquals(engineer.getId(), order.getEngineer().getId()));
+    }
+
+    @Test
+    @DisplayName("用户工单列表：每页两条SQL")
+    void findBySubmitUserId_shouldLoadPageWithSingleSelect() {
+        Page<RepairOrder> page = repairOrderRepository.findBySubmitUserIdOrderByCreateTimeDesc(
+                submitter.getId(), firstPage());
+
+        assertPageFullyLoadedWithTwoStatements(page);
+    }
+
+    @Test
+    @DisplayName("待分配工单列表：关联加载不产生额外SQL")
+    void findUnassignedPendingOrders_shouldNotTriggerLazyLoads() {
+        Page<RepairOrder> page = repairOrderRepository.findUnassignedPendingOrders(PageRequest.of(0, 5));
+
+        touchAssociations(page);
+        // 待分配工单共 15 条，分页大小为 5，因此需要总数查询
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Pageable firstPage() {
+        return PageRequest.of(0, PAGE_SIZE);
+    }
+
+    private void assertPageFullyLoadedWithTwoStatements(Page<RepairOrder> page) {
+        assertEquals(PAGE_SIZE, page.getContent().size());
+        touchAssociations(page);
+        assertEquals(2, statistics.getPrepareStatementCount(),
+                "列表查询应只执行数据查询和总数查询");
+    }
+
+    /**
+     * 按 convertToResponse 的方式访问全部关联
+     */
+    private void touchAssociations(Page<RepairOrder> page) {
+        for (RepairOrder order : page) {
+            order.getSubmitUser().getRealName();
+            order.getBuilding().getName();
+            order.getFloor().getName();
+            order.getFaultType().getName();
+            if (order.getAdmin() != null) {
+                order.getAdmin().getRealName();
+            }
+            if (order.getEngineer() != null) {
+                order.getEngineer().getRealName();
+            }
+        }
+    }
+
+    private User user(String username, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRealName(username);
+        user.setPhone(phone);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,112 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.config.OrderArchiveProperties;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairRatingRepository;
+import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairRatingRepository;
+import org.trs.therepairsystem.service.cache.ArchivedOrderCountCache;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceImplTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2023, 1, 1, 8, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2023, 1, 2, 8, 0);
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+    @Mock
+    private RepairRatingRepository repairRatingRepository;
+    @Mock
+    private RepairOrderAttachmentRepository attachmentRepository;
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    @Mock
+    private ArchivedRepairRatingRepository archivedRepairRatingRepository;
+    @Mock
+    private ArchivedRepairOrderAttachmentRepository archivedAttachmentRepository;
+    @Mock
+    private OrderSearchIndex orderSearchIndex;
+    @Mock
+    private ArchivedOrderCountCache archivedOrderCountCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderArchiveProperties properties;
+    private OrderArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderArchiveProperties();
+        properties.setChunkSize(2);
+        archiveService = new OrderArchiveServiceImpl(repairOrderRepository, repairRatingRepository,
+                attachmentRepository, archivedRepairOrderRepository, archivedRepairRatingRepository,
+                archivedAttachmentRepository, orderSearchIndex, archivedOrderCountCache, properties, transactionManager);
+    }
+
+    @Test
+    void archiveExpiredOrders_shouldCopyThenDeleteEachChunkAndAdvanceCursor() {
+        when(repairOrderRepository.findFirstArchiveCandidates(eq(RepairOrderStatus.CLOSED), any(), any()))
+                .thenReturn(List.of(new Object[]{1L, T1}, new Object[]{2L, T2}));
+        when(repairOrderRepository.findNextArchiveCandidates(eq(RepairOrderStatus.CLOSED), any(), eq(T2), eq(2L), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, T2}));
+        when(repairOrderRepository.findFirstArchiveCandidates(eq(RepairOrderStatus.CANCELLED), any(), any()))
+                .thenReturn(List.of());
+        when(repairOrderRepository.lockFinalOrderIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        // 第二批挑选后已被并发删除，锁定不到任何行
+        when(repairOrderRepository.lockFinalOrderIds(List.of(5L))).thenReturn(List.of());
+
+        int archived = archiveService.archiveExpiredOrders();
+
+        assertEquals(2, archived);
+        InOrder inOrder = inOrder(archivedRepairOrderRepository, archivedRepairRatingRepository,
+                archivedAttachmentRepository, attachmentRepository, repairRatingRepository, repairOrderRepository);
+        inOrder.verify(archivedRepairOrderRepository).copyFromOrders(eq(List.of(1L, 2L)), any());
+        inOrder.verify(archivedRepairRatingRepository).copyFromRatings(List.of(1L, 2L));
+        inOrder.verify(archivedAttachmentRepository).copyFromAttachments(List.of(1L, 2L));
+        inOrder.verify(attachmentRepository).deleteByOrderIdIn(List.of(1L, 2L));
+        inOrder.verify(repairRatingRepository).deleteByOrderIdIn(List.of(1L, 2L));
+        inOrder.verify(repairOrderRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(orderSearchIndex).onOrdersArchived(List.of(1L, 2L));
+        verify(archivedRepairOrderRepository, never()).copyFromOrders(eq(List.of(5L)), any());
+        // 只有实际迁移了工单的批次才让归档总数缓存失效
+        verify(archivedOrderCountCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void archiveExpiredOrders_shouldStopAfterMaxChunksPerRun() {
+        properties.setMaxChunksPerRun(1);
+        when(repairOrderRepository.findFirstArchiveCandidates(eq(RepairOrderStatus.CLOSED), any(), any()))
+                .thenReturn(List.of(new Object[]{1L, T1}, new Object[]{2L, T2}));
+        when(repairOrderRepository.lockFinalOrderIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+
+        assertEquals(2, archiveService.archiveExpiredOrders());
+
+        verify(repairOrderRepository, never()).findNextArchiveCandidates(any(), any(), any(), any(), any());
+        verify(repairOrderRepository, never())
+                .findFirstArchiveCandidates(eq(RepairOrderStatus.CANCELLED), any(), any());
+    }
+}
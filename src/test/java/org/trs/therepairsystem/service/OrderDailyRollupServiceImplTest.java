@@ -0,0 +1,227 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.dto.response.OrderDailyStatsResponse;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.OrderDailyRollupMarkRepository;
+import org.trs.therepairsystem.repository.OrderDailyRollupRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderStatusCount;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderDailyRollupServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @Mock
+    private OrderDailyRollupRepository rollupRepository;
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+
+    @Mock
+    private OrderDailyRollupMarkRepository markRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderDailyRollupServiceImpl rollupService;
+
+    @Test
+    void onOrderChanged_statusChange_shouldMoveCountWithinCreateDay() {
+        RepairOrder order = order(3L, RepairOrderStatus.COMPLETED);
+
+        rollupService.onOrderChanged(order, RepairOrderStatus.IN_PROGRESS, null);
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).increment(DAY, 3L, "IN_PROGRESS", -1L);
+        inOrder.verify(rollupRepository).increment(DAY, 3L, "COMPLETED", 1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void onOrderChanged_buildingChange_shouldMoveCountBetweenBuildings() {
+        RepairOrder order = order(5L, RepairOrderStatus.DRAFT);
+
+        rollupService.onOrderChanged(order, RepairOrderStatus.DRAFT, 2L);
+
+        verify(rollupRepository).increment(DAY, 2L, "DRAFT", -1L);
+        verify(rollupRepository).increment(DAY, 5L, "DRAFT", 1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void getDailyCounts_dayNotBackfilled_shouldFallBackToHalfOpenRange() {
+        // 部署后的增量已写入该天，但该天尚未回填，汇总不完整
+        when(markRepository.findLatestStatDate()).thenReturn(Optional.empty());
+        when(repairOrderRepository.countCreatedBetweenGroupByStatus(
+                DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(count(RepairOrderStatus.SUBMITTED, 4L), count(RepairOrderStatus.CLOSED, 1L)));
+        when(archivedRepairOrderRepository.countCreatedBetweenGroupByStatus(
+                DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(count(RepairOrderStatus.CLOSED, 2L)));
+
+        Map<RepairOrderStatus, Long> counts = rollupService.getDailyCounts(DAY);
+
+        // 已归档的工单仍计入当天
+        assertEquals(Map.of(RepairOrderStatus.SUBMITTED, 4L, RepairOrderStatus.CLOSED, 3L), counts);
+        verify(rollupRepository, never()).sumByDateGroupByStatus(any());
+    }
+
+    @Test
+    void getDailyCounts_backfilledDay_shouldNotQueryOrderTable() {
+        when(markRepository.findLatestStatDate()).thenReturn(Optional.of(DAY));
+        when(markRepository.findStatDatesBetween(DAY, DAY)).thenReturn(List.of(DAY));
+        when(rollupRepository.sumByDateGroupByStatus(DAY)).thenReturn(List.of(
+                count(RepairOrderStatus.SUBMITTED, 4L),
+                count(RepairOrderStatus.CLOSED, 0L)));
+
+        Map<RepairOrderStatus, Long> counts = rollupService.getDailyCounts(DAY);
+
+        assertEquals(Map.of(RepairOrderStatus.SUBMITTED, 4L), counts);
+        verify(repairOrderRepository, never()).countCreatedBetweenGroupByStatus(any(), any());
+    }
+
+    @Test
+    void getTrend_shouldFillDaysWithoutOrders() {
+        givenBackfilledBefore(DAY);
+        when(rollupRepository.sumByDateRangeGroupByDateAndStatus(DAY, DAY.plusDays(3))).thenReturn(List.of(
+                new Object[]{DAY, RepairOrderStatus.SUBMITTED, 2L},
+                new Object[]{DAY.plusDays(2), RepairOrderStatus.COMPLETED, 1L}));
+
+        List<OrderDailyStatsResponse> trend = rollupService.getTrend(DAY, DAY.plusDays(2), null);
+
+        assertEquals(3, trend.size());
+        assertEquals(2L, trend.get(0).getTotalOrders());
+        assertEquals(0L, trend.get(1).getTotalOrders());
+        assertTrue(trend.get(1).getStatusCounts().isEmpty());
+        assertEquals(1L, trend.get(2).getStatusCounts().get(RepairOrderStatus.COMPLETED));
+    }
+
+    @Test
+    void getTrend_withBuilding_shouldQueryThatBuildingOnly() {
+        givenBackfilledBefore(DAY);
+        when(rollupRepository.sumByDateRangeAndBuildingGroupByDateAndStatus(DAY, DAY.plusDays(1), 10L))
+                .thenReturn(List.<Object[]>of(new Object[]{DAY, RepairOrderStatus.PENDING, 4L}));
+
+        List<OrderDailyStatsResponse> trend = rollupService.getTrend(DAY, DAY, 10L);
+
+        assertEquals(4L, trend.get(0).getStatusCounts().get(RepairOrderStatus.PENDING));
+        verify(rollupRepository, never()).sumByDateRangeGroupByDateAndStatus(any(), any());
+    }
+
+    @Test
+    void getTrend_dayNotBackfilled_shouldCountThatDayFromOrders() {
+        // 最近回填到 DAY+1，DAY 尚未回填；DAY+2 之后全部由增量维护
+        when(markRepository.findLatestStatDate()).thenReturn(Optional.of(DAY.plusDays(1)));
+        when(markRepository.findStatDatesBetween(DAY, DAY.plusDays(2))).thenReturn(List.of(DAY.plusDays(1)));
+        when(rollupRepository.sumByDateRangeGroupByDateAndStatus(DAY, DAY.plusDays(3))).thenReturn(List.of(
+                new Object[]{DAY, RepairOrderStatus.SUBMITTED, -1L},
+                new Object[]{DAY, RepairOrderStatus.PENDING, 1L},
+                new Object[]{DAY.plusDays(2), RepairOrderStatus.COMPLETED, 1L}));
+        when(repairOrderRepository.countCreatedBetweenGroupByStatus(
+                DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(count(RepairOrderStatus.SUBMITTED, 5L), count(RepairOrderStatus.PENDING, 1L)));
+
+        List<OrderDailyStatsResponse> trend = rollupService.getTrend(DAY, DAY.plusDays(2), null);
+
+        assertEquals(6L, trend.get(0).getTotalOrders());
+        assertEquals(5L, trend.get(0).getStatusCounts().get(RepairOrderStatus.SUBMITTED));
+        assertEquals(0L, trend.get(1).getTotalOrders());
+        assertEquals(1L, trend.get(2).getTotalOrders());
+    }
+
+    @Test
+    void backfill_shouldLockDayBeforeRebuildingAndMarkIt() {
+        rollupService.backfill(DAY, DAY);
+
+        InOrder inOrder = inOrder(repairOrderRepository, rollupRepository, markRepository);
+        inOrder.verify(repairOrderRepository).lockIdsCreatedBetween(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        inOrder.verify(rollupRepository).deleteByStatDate(DAY);
+        inOrder.verify(rollupRepository).insertFromOrders(DAY, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        inOrder.verify(markRepository).save(argThat(mark -> mark.getStatDate().equals(DAY)));
+    }
+
+    @Test
+    void backfillMissing_firstRun_shouldBackfillFromTodayBackToEarliestOrder() {
+        LocalDate today = LocalDate.now();
+        when(markRepository.findLatestStatDate()).thenReturn(Optional.empty());
+        when(repairOrderRepository.findEarliestCreateTime()).thenReturn(Optional.of(today.minusDays(1).atTime(10, 0)));
+        when(archivedRepairOrderRepository.findEarliestCreateTime()).thenReturn(Optional.of(today.minusDays(2).atTime(8, 0)));
+        when(markRepository.findStatDatesBetween(today.minusDays(2), today)).thenReturn(List.of(today.minusDays(1)));
+
+        assertEquals(2, rollupService.backfillMissing());
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).deleteByStatDate(today);
+        inOrder.verify(rollupRepository).deleteByStatDate(today.minusDays(2));
+        verify(rollupRepository, never()).deleteByStatDate(today.minusDays(1));
+    }
+
+    @Test
+    void getTrend_rangeTooLong_shouldBeRejected() {
+        assertThrows(BusinessException.class,
+                () -> rollupService.getTrend(DAY, DAY.plusDays(400), null));
+    }
+
+    private void givenBackfilledBefore(LocalDate date) {
+        when(markRepository.findLatestStatDate()).thenReturn(Optional.of(date.minusDays(1)));
+        when(markRepository.findStatDatesBetween(any(), any())).thenReturn(List.of(date.minusDays(1)));
+    }
+
+    private RepairOrder order(Long buildingId, RepairOrderStatus status) {
+        Building building = new Building();
+        building.setId(buildingId);
+        return RepairOrder.builder()
+                .building(building)
+                .status(status)
+                .createTime(LocalDateTime.of(DAY, LocalTime.of(9, 30)))
+                .build();
+    }
+
+    private RepairOrderStatusCount count(RepairOrderStatus status, Long total) {
+        return new RepairOrderStatusCount() {
+            @Override
+            public RepairOrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.response.OrderCounterReconcileResponse;
+import org.trs.therepairsystem.entity.OrderStatusCounter;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.OrderStatusCounterRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderStatusCount;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatsCounterServiceImplTest {
+
+    @Mock
+    private OrderStatusCounterRepository counterRepository;
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+
+    @InjectMocks
+    private OrderStatsCounterServiceImpl counterService;
+
+    private User submitter;
+    private User engineer;
+
+    @BeforeEach
+    void setUp() {
+        submitter = new User();
+        submitter.setId(1L);
+        engineer = new User();
+        engineer.setId(2L);
+    }
+
+    @Test
+    void onOrderChanged_newOrder_shouldIncrementGlobalAndUserCounters() {
+        RepairOrder order = RepairOrder.builder()
+                .submitUser(submitter)
+                .status(RepairOrderStatus.SUBMITTED)
+                .build();
+
+        counterService.onOrderChanged(order, null, null);
+
+        verify(counterRepository).increment("GLOBAL", 0L, "SUBMITTED", 1L);
+        verify(counterRepository).increment("USER", 1L, "SUBMITTED", 1L);
+        verifyNoMoreInteractions(counterRepository);
+    }
+
+    @Test
+    void onOrderChanged_assign_shouldMoveCountsAndAddEngineerCounter() {
+        RepairOrder order = RepairOrder.builder()
+                .submitUser(submitter)
+                .engineer(engineer)
+                .status(RepairOrderStatus.PENDING)
+                .build();
+
+        counterService.onOrderChanged(order, RepairOrderStatus.SUBMITTED, null);
+
+        InOrder ordered = inOrder(counterRepository);
+        ordered.verify(counterRepository).increment("GLOBAL", 0L, "SUBMITTED", -1L);
+        ordered.verify(counterRepository).increment("GLOBAL", 0L, "PENDING", 1L);
+        ordered.verify(counterRepository).increment("USER", 1L, "SUBMITTED", -1L);
+        ordered.verify(counterRepository).increment("USER", 1L, "PENDING", 1L);
+        ordered.verify(counterRepository).increment("ENGINEER", 2L, "PENDING", 1L);
+        verifyNoMoreInteractions(counterRepository);
+    }
+
+    @Test
+    void onOrderChanged_unchangedStatusAndEngineer_shouldNotTouchCounters() {
+        RepairOrder order = RepairOrder.builder()
+                .submitUser(submitter)
+                .engineer(engineer)
+                .status(RepairOrderStatus.IN_PROGRESS)
+                .build();
+
+        counterService.onOrderChanged(order, RepairOrderStatus.IN_PROGRESS, 2L);
+
+        verify(counterRepository, never()).increment(anyString(), anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void reconcile_shouldApplyDriftAsDeltaSoConcurrentIncrementsSurvive() {
+        when(repairOrderRepository.countGroupByStatus()).thenReturn(List.of(statusCount(RepairOrderStatus.PENDING, 3L)));
+        when(archivedRepairOrderRepository.countGroupByStatus())
+                .thenReturn(List.of(statusCount(RepairOrderStatus.CLOSED, 4L)));
+        when(repairOrderRepository.countGroupByUserAndStatus())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, RepairOrderStatus.PENDING, 3L}));
+        when(counterRepository.findAll()).thenReturn(List.of(
+                new OrderStatusCounter(1L, CounterScope.GLOBAL, 0L, RepairOrderStatus.PENDING, 5L),
+                new OrderStatusCounter(2L, CounterScope.GLOBAL, 0L, RepairOrderStatus.CLOSED, 4L),
+                new OrderStatusCounter(3L, CounterScope.USER, 1L, RepairOrderStatus.PENDING, 2L),
+                new OrderStatusCounter(4L, CounterScope.ENGINEER, 2L, RepairOrderStatus.PENDING, 1L)));
+
+        OrderCounterReconcileResponse response = counterService.reconcile();
+
+        // 只写入差值，计数行上快照之后的累加不受影响
+        InOrder ordered = inOrder(counterRepository);
+        ordered.verify(counterRepository).findAll();
+        ordered.verify(counterRepository).increment("GLOBAL", 0L, "PENDING", -2L);
+        ordered.verify(counterRepository).increment("USER", 1L, "PENDING", 1L);
+        ordered.verify(counterRepository).increment("ENGINEER", 2L, "PENDING", -1L);
+        verifyNoMoreInteractions(counterRepository);
+        assertEquals(4, response.getCheckedCounters());
+        assertEquals(3, response.getDriftCount());
+    }
+
+    private RepairOrderStatusCount statusCount(RepairOrderStatus status, long total) {
+        return new RepairOrderStatusCount() {
+            @Override
+            public RepairOrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,342 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.enums.StorageProvider;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.AttachmentStorageProperties;
+import org.trs.therepairsystem.dto.request.AttachmentUploadConfirmRequest;
+import org.trs.therepairsystem.dto.request.AttachmentUploadUrlRequest;
+import org.trs.therepairsystem.dto.response.AttachmentDownloadUrlResponse;
+import org.trs.therepairsystem.dto.response.AttachmentUploadUrlResponse;
+import org.trs.therepairsystem.dto.response.RepairOrderAttachmentResponse;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.RepairOrderAttachment;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.AttachmentUploadSessionRepository;
+import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.UserRepository;
+import org.trs.therepairsystem.service.storage.AttachmentContent;
+import org.trs.therepairsystem.service.storage.PresignedAttachmentStorage;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 附件直传模式测试：用进程内的对象存储替身模拟 MinIO，客户端上传即直接写入替身
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("工单附件直传测试")
+class RepairOrderAttachmentDirectTransferTest {
+
+    @Mock
+    private RepairOrderAttachmentRepository attachmentRepository;
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    @Mock
+    private ArchivedRepairOrderAttachmentRepository archivedAttachmentRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AttachmentUploadSessionRepository uploadSessionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AttachmentStorageProperties storageProperties;
+    private InMemoryObjectStorage objectStorage;
+    private RepairOrderAttachmentServiceImpl attachmentService;
+
+    private User submitter;
+    private User engineer;
+    private RepairOrder order;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new AttachmentStorageProperties();
+        storageProperties.setStorageProvider(StorageProvider.MINIO);
+        storageProperties.getMinio().setEnabled(true);
+        storageProperties.getMinio().setDirectTransfer(true);
+        objectStorage = new InMemoryObjectStorage();
+        attachmentService = new RepairOrderAttachmentServiceImpl(attachmentRepository, repairOrderRepository,
+                archivedRepairOrderRepository, archivedAttachmentRepository, userRepository,
+                uploadSessionRepository, storageProperties, List.of(objectStorage), eventPublisher);
+        attachmentService.initStorageServices();
+
+        submitter = new User();
+        submitter.setId(1L);
+        engineer = new User();
+        engineer.setId(2L);
+        order = RepairOrder.builder()
+                .id(100L)
+                .submitUser(submitter)
+                .engineer(engineer)
+                .status(RepairOrderStatus.DRAFT)
+                .build();
+    }
+
+    @Test
+    void issuesUploadUrlAndRegistersUploadedObject() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(submitter));
+        when(attachmentRepository.save(any(RepairOrderAttachment.class))).thenAnswer(invocation -> {
+            RepairOrderAttachment attachment = invocation.getArgument(0);
+            attachment.setId(7L);
+            return attachment;
+        });
+
+        AttachmentUploadUrlResponse upload = attachmentService.createUploadUrl(1L, false, 100L,
+                uploadUrlRequest(AttachmentType.PROBLEM_PHOTO, "漏水.JPG", "image/jpeg", 2048L));
+
+        assertTrue(upload.getObjectKey().startsWith("repair-orders/100/problem_photo/u1-"));
+        assertTrue(upload.getObjectKey().endsWith(".jpg"));
+        assertEquals("PUT", upload.getMethod());
+        assertEquals(Map.of("Content-Type", "image/jpeg"), upload.getHeaders());
+        assertEquals("memory://put/" + upload.getObjectKey(), upload.getUploadUrl());
+
+        // 客户端按签发的地址直接上传，实际大小以对象存储为准
+        objectStorage.put(upload.getObjectKey(), 3000L, "image/jpeg");
+
+        RepairOrderAttachmentResponse response = attachmentService.confirmUpload(1L, false, 100L,
+                confirmRequest(upload.getObjectKey(), AttachmentType.PROBLEM_PHOTO, "漏水.JPG"));
+
+        assertEquals(7L, response.getId());
+        assertEquals(3000L, response.getFileSize());
+        assertEquals("image/jpeg", response.getContentType());
+        assertEquals(StorageProvider.MINIO, response.getStorageProvider());
+        assertEquals("漏水.JPG", response.getOriginalFileName());
+    }
+
+    @Test
+    void uploadUrlFollowsStatusAndTypeRules() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.createUploadUrl(2L, false, 100L,
+                uploadUrlRequest(AttachmentType.REPAIR_PROOF, "proof.jpg", "image/jpeg", 2048L)));
+
+        assertEquals("STATE_VIOLATION", ex.getCode());
+        assertEquals(0, objectStorage.presignedUploads);
+    }
+
+    @Test
+    void uploadUrlRejectsDisallowedContentType() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+
+        assertThrows(BusinessException.class, () -> attachmentService.createUploadUrl(1L, false, 100L,
+                uploadUrlRequest(AttachmentType.PROBLEM_PHOTO, "a.pdf", "application/pdf", 2048L)));
+        assertEquals(0, objectStorage.presignedUploads);
+    }
+
+    @Test
+    void confirmRejectsObjectIssuedToAnotherUser() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        String othersKey = "repair-orders/100/problem_photo/u2-0b1c.jpg";
+        objectStorage.put(othersKey, 100L, "image/jpeg");
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.confirmUpload(1L, false, 100L,
+                confirmRequest(othersKey, AttachmentType.PROBLEM_PHOTO, "a.jpg")));
+
+        assertEquals("无权确认该上传对象", ex.getMessage());
+        verify(attachmentRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmRechecksStatusAfterUrlWasIssued() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        AttachmentUploadUrlResponse upload = attachmentService.createUploadUrl(1L, false, 100L,
+                uploadUrlRequest(AttachmentType.PROBLEM_PHOTO, "a.jpg", "image/jpeg", 2048L));
+        objectStorage.put(upload.getObjectKey(), 2048L, "image/jpeg");
+        order.setStatus(RepairOrderStatus.IN_PROGRESS);
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.confirmUpload(1L, false, 100L,
+                confirmRequest(upload.getObjectKey(), AttachmentType.PROBLEM_PHOTO, "a.jpg")));
+
+        assertEquals("STATE_VIOLATION", ex.getCode());
+        verify(attachmentRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmDeletesObjectThatFailsVerification() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        AttachmentUploadUrlResponse upload = attachmentService.createUploadUrl(1L, false, 100L,
+                uploadUrlRequest(AttachmentType.PROBLEM_PHOTO, "a.jpg", "image/jpeg", 2048L));
+        // 客户端声明的是图片，实际上传了超大的其他文件
+        objectStorage.put(upload.getObjectKey(), storageProperties.getMaxFileSizeBytes() + 1, "application/zip");
+
+        assertThrows(BusinessException.class, () -> attachmentService.confirmUpload(1L, false, 100L,
+                confirmRequest(upload.getObjectKey(), AttachmentType.PROBLEM_PHOTO, "a.jpg")));
+
+        assertFalse(objectStorage.contains(upload.getObjectKey()));
+        verify(attachmentRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmBeforeUploadFails() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        AttachmentUploadUrlResponse upload = attachmentService.createUploadUrl(1L, false, 100L,
+                uploadUrlRequest(AttachmentType.PROBLEM_PHOTO, "a.jpg", "image/jpeg", 2048L));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.confirmUpload(1L, false, 100L,
+                confirmRequest(upload.getObjectKey(), AttachmentType.PROBLEM_PHOTO, "a.jpg")));
+
+        assertEquals("上传文件不存在，请先完成上传", ex.getMessage());
+    }
+
+    @Test
+    void repeatedConfirmReturnsRegisteredAttachment() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        String objectKey = "repair-orders/100/problem_photo/u1-0b1c.jpg";
+        RepairOrderAttachment existing = attachment(7L, StorageProvider.MINIO, objectKey);
+        when(attachmentRepository.findByObjectKey(objectKey)).thenReturn(Optional.of(existing));
+
+        RepairOrderAttachmentResponse response = attachmentService.confirmUpload(1L, false, 100L,
+                confirmRequest(objectKey, AttachmentType.PROBLEM_PHOTO, "a.jpg"));
+
+        assertEquals(7L, response.getId());
+        verify(attachmentRepository, never()).save(any());
+    }
+
+    @Test
+    void issuesDownloadUrlForViewer() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        RepairOrderAttachment attachment = attachment(7L, StorageProvider.MINIO, "repair-orders/100/problem_photo/x.jpg");
+        when(attachmentRepository.findByIdAndOrderId(7L, 100L)).thenReturn(Optional.of(attachment));
+
+        AttachmentDownloadUrlResponse response = attachmentService.createDownloadUrl(2L, false, 100L, 7L);
+
+        assertEquals("memory://get/repair-orders/100/problem_photo/x.jpg", response.getUrl());
+        assertTrue(response.getExpireTime().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void downloadUrlRejectsNonViewer() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+
+        assertThrows(BusinessException.class, () -> attachmentService.createDownloadUrl(99L, false, 100L, 7L));
+    }
+
+    @Test
+    void directTransferMustBeEnabled() {
+        storageProperties.getMinio().setDirectTransfer(false);
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.createUploadUrl(1L, false, 100L,
+                uploadUrlRequest(AttachmentType.PROBLEM_PHOTO, "a.jpg", "image/jpeg", 2048L)));
+
+        assertEquals("未启用附件直传模式", ex.getMessage());
+    }
+
+    private RepairOrderAttachment attachment(Long id, StorageProvider provider, String objectKey) {
+        return RepairOrderAttachment.builder()
+                .id(id)
+                .order(order)
+                .uploadedBy(submitter)
+                .attachmentType(AttachmentType.PROBLEM_PHOTO)
+                .storageProvider(provider)
+                .originalFileName("a.jpg")
+                .objectKey(objectKey)
+                .contentType("image/jpeg")
+                .fileSize(2048L)
+                .uploadTime(LocalDateTime.now())
+                .build();
+    }
+
+    private static AttachmentUploadUrlRequest uploadUrlRequest(AttachmentType type, String fileName, String contentType, Long size) {
+        AttachmentUploadUrlRequest request = new AttachmentUploadUrlRequest();
+        request.setAttachmentType(type);
+        request.setFileName(fileName);
+        request.setContentType(contentType);
+        request.setFileSize(size);
+        return request;
+    }
+
+    private static AttachmentUploadConfirmRequest confirmRequest(String objectKey, AttachmentType type, String fileName) {
+        AttachmentUploadConfirmRequest request = new AttachmentUploadConfirmRequest();
+        request.setObjectKey(objectKey);
+        request.setAttachmentType(type);
+        request.setFileName(fileName);
+        return request;
+    }
+
+    /**
+     * 进程内对象存储替身：签发的地址不可真正访问，测试通过 put 模拟客户端直传
+     */
+    private static final class InMemoryObjectStorage implements PresignedAttachmentStorage {
+
+        private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+        private int presignedUploads;
+
+        void put(String objectKey, long size, String contentType) {
+            objects.put(objectKey, new StoredObject(size, contentType));
+        }
+
+        boolean contains(String objectKey) {
+            return objects.containsKey(objectKey);
+        }
+
+        @Override
+        public StorageProvider provider() {
+            return StorageProvider.MINIO;
+        }
+
+        @Override
+        public String presignUpload(String objectKey, String contentType, Duration expiry) {
+            presignedUploads++;
+            return "memory://put/" + objectKey;
+        }
+
+        @Override
+        public String presignDownload(String objectKey, String contentType, String contentDisposition, Duration expiry) {
+            return "memory://get/" + objectKey;
+        }
+
+        @Override
+        public Optional<StoredObject> stat(String objectKey) {
+            return Optional.ofNullable(objects.get(objectKey));
+        }
+
+        @Override
+        public void upload(String objectKey, MultipartFile file) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void store(String objectKey, byte[] data, String contentType) {
+            put(objectKey, data.length, contentType);
+        }
+
+        @Override
+        public AttachmentContent download(String objectKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(String objectKey) {
+            objects.remove(objectKey);
+        }
+    }
+}
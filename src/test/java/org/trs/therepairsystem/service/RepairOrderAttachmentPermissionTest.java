@@ -20,6 +20,7 @@ import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
 import org.trs.therepairsystem.repository.RepairOrderRepository;
 import org.trs.therepairsystem.repository.UserRepository;
 import org.trs.therepairsystem.service.storage.AttachmentStorageService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -55,6 +56,9 @@ class RepairOrderAttachmentPermissionTest {
     @Mock
     private List<AttachmentStorageService> storageServices;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RepairOrderAttachmentServiceImpl attachmentService;
 
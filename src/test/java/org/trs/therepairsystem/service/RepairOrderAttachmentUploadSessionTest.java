@@ -0,0 +1,247 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.trs.therepairsystem.common.enums.AttachmentType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.enums.StorageProvider;
+import org.trs.therepairsystem.common.enums.UploadSessionStatus;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.AttachmentStorageProperties;
+import org.trs.therepairsystem.dto.request.AttachmentUploadSessionRequest;
+import org.trs.therepairsystem.dto.response.AttachmentUploadSessionResponse;
+import org.trs.therepairsystem.dto.response.RepairOrderAttachmentResponse;
+import org.trs.therepairsystem.entity.AttachmentUploadSession;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.RepairOrderAttachment;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.AttachmentUploadSessionRepository;
+import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.UserRepository;
+import org.trs.therepairsystem.service.storage.LocalAttachmentStorageService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分片上传会话测试：使用真实的本地存储写入分片与合并，仓库层用 Mock 替代
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("工单附件分片上传测试")
+class RepairOrderAttachmentUploadSessionTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @TempDir
+    Path baseDir;
+
+    @Mock
+    private RepairOrderAttachmentRepository attachmentRepository;
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    @Mock
+    private ArchivedRepairOrderAttachmentRepository archivedAttachmentRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AttachmentUploadSessionRepository uploadSessionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private RepairOrderAttachmentServiceImpl attachmentService;
+    private User submitter;
+    private RepairOrder order;
+
+    @BeforeEach
+    void setUp() {
+        AttachmentStorageProperties storageProperties = new AttachmentStorageProperties();
+        storageProperties.setBasePath(baseDir.toString());
+        storageProperties.getSession().setPartSize(PART_SIZE);
+        attachmentService = new RepairOrderAttachmentServiceImpl(attachmentRepository, repairOrderRepository,
+                archivedRepairOrderRepository, archivedAttachmentRepository, userRepository,
+                uploadSessionRepository, storageProperties,
+                List.of(new LocalAttachmentStorageService(storageProperties)), eventPublisher);
+        attachmentService.initStorageServices();
+
+        submitter = new User();
+        submitter.setId(1L);
+        order = RepairOrder.builder()
+                .id(100L)
+                .submitUser(submitter)
+                .status(RepairOrderStatus.DRAFT)
+                .build();
+    }
+
+    @Test
+    void createSessionSplitsFileIntoParts() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        when(uploadSessionRepository.save(any(AttachmentUploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AttachmentUploadSessionResponse response = attachmentService.createUploadSession(1L, false, 100L,
+                sessionRequest(2L * PART_SIZE + 10));
+
+        assertEquals(PART_SIZE, response.getPartSize());
+        assertEquals(3, response.getPartCount());
+        assertEquals(UploadSessionStatus.UPLOADING, response.getStatus());
+        assertTrue(response.getUploadedParts().isEmpty());
+    }
+
+    @Test
+    void createSessionRejectsFileOverSessionLimit() {
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.createUploadSession(1L, false, 100L,
+                sessionRequest(300L * 1024 * 1024)));
+
+        assertEquals("附件大小超出限制", ex.getMessage());
+        verify(uploadSessionRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsPartWithWrongSize() {
+        AttachmentUploadSession session = session(2L * PART_SIZE + 10);
+        when(uploadSessionRepository.findByIdAndOrderId(session.getId(), 100L)).thenReturn(Optional.of(session));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.uploadSessionPart(1L, 100L,
+                session.getId(), 3, new ByteArrayInputStream(new byte[11]), 11));
+
+        assertEquals("分片 3 的大小应为 10 字节", ex.getMessage());
+    }
+
+    @Test
+    void resumesFromUploadedPartsAndAssemblesFile() throws Exception {
+        byte[] data = new byte[2 * PART_SIZE + 10];
+        new Random(11).nextBytes(data);
+        AttachmentUploadSession session = session(data.length);
+        when(uploadSessionRepository.findByIdAndOrderId(session.getId(), 100L)).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.lockByIdAndOrderId(session.getId(), 100L)).thenReturn(Optional.of(session));
+        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(order));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(submitter));
+        when(attachmentRepository.save(any(RepairOrderAttachment.class))).thenAnswer(invocation -> {
+            RepairOrderAttachment attachment = invocation.getArgument(0);
+            attachment.setId(9L);
+            return attachment;
+        });
+
+        uploadPart(session, data, 1);
+        uploadPart(session, data, 3);
+
+        // 断线后查询会话，只需补传缺失的分片
+        assertEquals(List.of(1, 3), attachmentService.getUploadSession(1L, 100L, session.getId()).getUploadedParts());
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> attachmentService.completeUploadSession(1L, false, 100L, session.getId()));
+        assertEquals("分片未全部上传，缺少分片：[2]", ex.getMessage());
+
+        uploadPart(session, data, 2);
+        RepairOrderAttachmentResponse response = attachmentService.completeUploadSession(1L, false, 100L, session.getId());
+
+        assertEquals(9L, response.getId());
+        assertEquals((long) data.length, response.getFileSize());
+        assertEquals(StorageProvider.LOCAL, response.getStorageProvider());
+        assertArrayEquals(data, Files.readAllBytes(baseDir.resolve(session.getObjectKey())));
+        assertEquals(UploadSessionStatus.COMPLETED, session.getStatus());
+        assertEquals(9L, session.getAttachmentId());
+        assertFalse(Files.exists(baseDir.resolve(".upload-sessions").resolve(session.getId())));
+    }
+
+    @Test
+    void rejectsPartFromAnotherUser() {
+        AttachmentUploadSession session = session(10);
+        when(uploadSessionRepository.findByIdAndOrderId(session.getId(), 100L)).thenReturn(Optional.of(session));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> attachmentService.uploadSessionPart(2L, 100L,
+                session.getId(), 1, new ByteArrayInputStream(new byte[10]), 10));
+
+        assertEquals("无权操作该上传会话", ex.getMessage());
+    }
+
+    @Test
+    void abortDiscardsUploadedParts() {
+        byte[] data = new byte[PART_SIZE + 10];
+        AttachmentUploadSession session = session(data.length);
+        when(uploadSessionRepository.findByIdAndOrderId(session.getId(), 100L)).thenReturn(Optional.of(session));
+        uploadPart(session, data, 1);
+
+        attachmentService.abortUploadSession(1L, 100L, session.getId());
+
+        assertFalse(Files.exists(baseDir.resolve(".upload-sessions").resolve(session.getId())));
+        verify(uploadSessionRepository).delete(session);
+    }
+
+    @Test
+    void cleanupRemovesExpiredSessionsAndParts() {
+        byte[] data = new byte[PART_SIZE + 10];
+        AttachmentUploadSession session = session(data.length);
+        when(uploadSessionRepository.findByIdAndOrderId(session.getId(), 100L)).thenReturn(Optional.of(session));
+        uploadPart(session, data, 1);
+        session.setExpireTime(LocalDateTime.now().minusMinutes(1));
+        when(uploadSessionRepository.findExpired(any(LocalDateTime.class), any())).thenReturn(List.of(session));
+
+        assertEquals(1, attachmentService.cleanupExpiredUploadSessions());
+
+        assertFalse(Files.exists(baseDir.resolve(".upload-sessions").resolve(session.getId())));
+        verify(uploadSessionRepository).delete(session);
+    }
+
+    private void uploadPart(AttachmentUploadSession session, byte[] data, int partNumber) {
+        int from = (partNumber - 1) * PART_SIZE;
+        byte[] part = Arrays.copyOfRange(data, from, (int) Math.min(data.length, (long) from + PART_SIZE));
+        attachmentService.uploadSessionPart(1L, 100L, session.getId(), partNumber,
+                new ByteArrayInputStream(part), part.length);
+    }
+
+    private AttachmentUploadSession session(long fileSize) {
+        return AttachmentUploadSession.builder()
+                .id("session-" + fileSize)
+                .orderId(100L)
+                .uploaderId(1L)
+                .attachmentType(AttachmentType.PROBLEM_PHOTO)
+                .storageProvider(StorageProvider.LOCAL)
+                .originalFileName("现场.jpg")
+                .objectKey("repair-orders/100/problem_photo/assembled.jpg")
+                .contentType("image/jpeg")
+                .fileSize(fileSize)
+                .partSize((long) PART_SIZE)
+                .partCount((int) ((fileSize + PART_SIZE - 1) / PART_SIZE))
+                .status(UploadSessionStatus.UPLOADING)
+                .createTime(LocalDateTime.now())
+                .expireTime(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    private AttachmentUploadSessionRequest sessionRequest(long fileSize) {
+        AttachmentUploadSessionRequest request = new AttachmentUploadSessionRequest();
+        request.setAttachmentType(AttachmentType.PROBLEM_PHOTO);
+        request.setFileName("现场.jpg");
+        request.setContentType("image/jpeg");
+        request.setFileSize(fileSize);
+        return request;
+    }
+}
@@ -0,0 +1,189 @@
+package org.trs.therepairsystem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trs.therepairsystem.common.enums.OrderExportFormat;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.OrderExportProperties;
+import org.trs.therepairsystem.dto.request.RepairOrderQueryRequest;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepairOrderExportServiceImplTest {
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+
+    private RepairOrderExportServiceImpl exportService;
+
+    private User submitter;
+    private Building building;
+    private Floor floor;
+    private FaultType faultType;
+
+    @BeforeEach
+    void setUp() {
+        OrderExportProperties properties = new OrderExportProperties();
+        properties.setChunkSize(2);
+        exportService = new RepairOrderExportServiceImpl(
+                repairOrderRepository, archivedRepairOrderRepository, properties, new ObjectMapper().findAndRegisterModules());
+
+        submitter = new User();
+        submitter.setId(1L);
+        submitter.setRealName("张三");
+        submitter.setPhone("13800138000");
+        building = new Building(10L, "A栋");
+        floor = new Floor(20L, building, 3, "3F");
+        faultType = new FaultType(30L, "空调", "#FFFFFF", "desc");
+    }
+
+    @Test
+    void exportCsv_shouldEscapeFieldsAndClearPersistenceContextEveryChunk() {
+        when(repairOrderRepository.streamAll(any(), any(), eq(1000))).thenReturn(Stream.of(
+                order(1L, "空调不制冷, 漏水"),
+                order(2L, "门口写着\"禁止入内\"\n第二行"),
+                order(3L, "=HYPERLINK(\"http://x\")")));
+
+        String csv = export(new RepairOrderQueryRequest(), OrderExportFormat.CSV);
+
+        assertTrue(csv.startsWith("\uFEFF工单ID,状态,"));
+        assertTrue(csv.contains("\r\n1,待处理,\"空调不制冷, 漏水\",,1,张三,13800138000,10,A栋,20,3F,30,空调,"));
+        assertTrue(csv.contains("\"门口写着\"\"禁止入内\"\"\n第二行\""));
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"http://x\"\")\","));
+        // 3 行数据、每批 2 行：写满第一批后清空一次
+        verify(repairOrderRepository, times(1)).clearPersistenceContext();
+    }
+
+    @Test
+    void exportNdjson_shouldWriteOneJsonObjectPerLine() throws Exception {
+        when(repairOrderRepository.streamAll(any(), any(), eq(1000))).thenReturn(Stream.of(
+                order(1L, "a"), order(2L, "b"), order(3L, "c"), order(4L, "d")));
+
+        String ndjson = export(new RepairOrderQueryRequest(), OrderExportFormat.NDJSON);
+
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(4, lines.size());
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("PENDING", first.get("status").asText());
+        assertEquals("13800138000", first.get("submitUserPhone").asText());
+        verify(repairOrderRepository, times(2)).clearPersistenceContext();
+    }
+
+    @Test
+    void exportNdjson_shouldMergeArchivedOrdersByCreateTimeDescending() throws Exception {
+        when(repairOrderRepository.streamAll(any(), any(), eq(1000))).thenReturn(Stream.of(
+                order(5L, "a", LocalDateTime.of(2024, 5, 3, 9, 0)),
+                order(3L, "b", LocalDateTime.of(2024, 5, 1, 9, 0))));
+        when(archivedRepairOrderRepository.streamAll(any(), any(), eq(1000))).thenReturn(Stream.of(
+                archived(4L, LocalDateTime.of(2024, 5, 1, 9, 0)),
+                archived(1L, LocalDateTime.of(2024, 4, 1, 9, 0))));
+
+        String ndjson = export(new RepairOrderQueryRequest(), OrderExportFormat.NDJSON);
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : ndjson.lines().toList()) {
+            ids.add(new ObjectMapper().readTree(line).get("id").asLong());
+        }
+        // 同一创建时间按 ID 倒序
+        assertEquals(List.of(5L, 4L, 3L, 1L), ids);
+    }
+
+    @Test
+    void export_withUnfinishedStatus_shouldNotReadArchive() {
+        when(repairOrderRepository.streamAll(any(), any(), eq(1000))).thenReturn(Stream.of(order(1L, "a")));
+        RepairOrderQueryRequest request = new RepairOrderQueryRequest();
+        request.setStatus(RepairOrderStatus.PENDING);
+
+        export(request, OrderExportFormat.NDJSON);
+
+        verifyNoInteractions(archivedRepairOrderRepository);
+    }
+
+    @Test
+    void validateFilters_shouldRejectMalformedOrReversedTimeRange() {
+        RepairOrderQueryRequest malformed = new RepairOrderQueryRequest();
+        malformed.setStartTime("2024-05-01");
+        assertThrows(BusinessException.class, () -> exportService.validateFilters(malformed));
+
+        RepairOrderQueryRequest reversed = new RepairOrderQueryRequest();
+        reversed.setStartTime("2024-05-02 00:00:00");
+        reversed.setEndTime("2024-05-01 00:00:00");
+        assertThrows(BusinessException.class, () -> exportService.validateFilters(reversed));
+
+        verifyNoInteractions(repairOrderRepository, archivedRepairOrderRepository);
+    }
+
+    private String export(RepairOrderQueryRequest request, OrderExportFormat format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            exportService.exportOrders(request, format, output);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private RepairOrder order(Long id, String description) {
+        return order(id, description, LocalDateTime.of(2024, 5, 1, 8, 30));
+    }
+
+    private RepairOrder order(Long id, String description, LocalDateTime createTime) {
+        return RepairOrder.builder()
+                .id(id)
+                .submitUser(submitter)
+                .building(building)
+                .floor(floor)
+                .faultType(faultType)
+                .status(RepairOrderStatus.PENDING)
+                .description(description)
+                .createTime(createTime)
+                .build();
+    }
+
+    private ArchivedRepairOrder archived(Long id, LocalDateTime createTime) {
+        ArchivedRepairOrder archived = new ArchivedRepairOrder();
+        archived.setId(id);
+        archived.setSubmitUser(submitter);
+        archived.setBuilding(building);
+        archived.setFloor(floor);
+        archived.setFaultType(faultType);
+        archived.setStatus(RepairOrderStatus.CLOSED);
+        archived.setDescription("archived");
+        archived.setCreateTime(createTime);
+        return archived;
+    }
+}
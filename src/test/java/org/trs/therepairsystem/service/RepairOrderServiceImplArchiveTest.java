@@ -0,0 +1,185 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.request.RepairOrderQueryRequest;
+import org.trs.therepairsystem.dto.response.CursorPageResponse;
+import org.trs.therepairsystem.dto.response.RepairOrderResponse;
+import org.trs.therepairsystem.entity.ArchivedRepairOrder;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.service.cache.ArchivedOrderCountCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepairOrderServiceImplArchiveTest {
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+    @Mock
+    private ArchivedRepairOrderRepository archivedRepairOrderRepository;
+    @Mock
+    private ArchivedOrderCountCache archivedOrderCountCache;
+
+    @InjectMocks
+    private RepairOrderServiceImpl repairOrderService;
+
+    private User submitter;
+    private Building building;
+    private Floor floor;
+    private FaultType faultType;
+
+    @BeforeEach
+    void setUp() {
+        submitter = new User();
+        submitter.setId(1L);
+        building = new Building(10L, "A栋");
+        floor = new Floor(20L, building, 3, "3F");
+        faultType = new FaultType(30L, "空调", "#FFFFFF", "desc");
+    }
+
+    @Test
+    void getOrderById_missingFromActiveTable_shouldFallBackToArchive() {
+        when(repairOrderRepository.findDetailById(7L)).thenReturn(Optional.empty());
+        when(archivedRepairOrderRepository.findDetailById(7L))
+                .thenReturn(Optional.of(archived(7L, LocalDateTime.of(2023, 1, 1, 8, 0))));
+
+        RepairOrderResponse response = repairOrderService.getOrderById(1L, false, 7L);
+
+        assertEquals(7L, response.getId());
+        assertEquals(RepairOrderStatus.CLOSED, response.getStatus());
+        assertFalse(response.getCanCancel());
+    }
+
+    @Test
+    void getUserOrders_lastActivePage_shouldContinueWithArchivedOrders() {
+        PageRequest pageable = PageRequest.of(0, 3);
+        when(repairOrderRepository.findBySubmitUserIdOrderByCreateTimeDesc(1L, pageable))
+                .thenReturn(new PageImpl<>(List.of(active(9L, LocalDateTime.now())), pageable, 1));
+        when(archivedOrderCountCache.count(1L, null, null, null, null)).thenReturn(5L);
+        when(archivedRepairOrderRepository.findRange(any(), any(), eq(0L), eq(2))).thenReturn(List.of(
+                archived(4L, LocalDateTime.of(2023, 3, 1, 8, 0)),
+                archived(3L, LocalDateTime.of(2023, 2, 1, 8, 0))));
+
+        Page<RepairOrderResponse> page = repairOrderService.getUserOrders(1L, null, pageable);
+
+        assertEquals(List.of(9L, 4L, 3L), page.getContent().stream().map(RepairOrderResponse::getId).toList());
+        assertEquals(6, page.getTotalElements());
+    }
+
+    @Test
+    void getUserOrders_pageBeyondActiveOrders_shouldOffsetIntoArchive() {
+        PageRequest pageable = PageRequest.of(1, 3);
+        when(repairOrderRepository.findBySubmitUserIdOrderByCreateTimeDesc(1L, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 1));
+        when(archivedOrderCountCache.count(1L, null, null, null, null)).thenReturn(5L);
+        // 活跃工单 1 个，第 2 页从归档的第 3 条开始
+        when(archivedRepairOrderRepository.findRange(any(), any(), eq(2L), eq(3))).thenReturn(List.of(
+                archived(2L, LocalDateTime.of(2023, 1, 1, 8, 0))));
+
+        Page<RepairOrderResponse> page = repairOrderService.getUserOrders(1L, null, pageable);
+
+        assertEquals(List.of(2L), page.getContent().stream().map(RepairOrderResponse::getId).toList());
+        assertEquals(6, page.getTotalElements());
+    }
+
+    @Test
+    void getUserOrders_withActiveStatus_shouldNotQueryArchive() {
+        PageRequest pageable = PageRequest.of(0, 3);
+        when(repairOrderRepository.findByUserIdAndStatus(1L, RepairOrderStatus.PENDING, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        repairOrderService.getUserOrders(1L, RepairOrderStatus.PENDING, pageable);
+
+        verifyNoInteractions(archivedRepairOrderRepository, archivedOrderCountCache);
+    }
+
+    @Test
+    void getAllOrdersSimple_sortedByOtherKey_shouldMergeActiveAndArchived() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "createTime"));
+        when(repairOrderRepository.findAll(any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(active(9L, now)), pageable, 3));
+        when(archivedOrderCountCache.count(null, null, null, null, null)).thenReturn(2L);
+        // 升序时归档工单排在前面，各取前 offset + size 条归并后截取第 2 页
+        when(repairOrderRepository.findLimited(any(), eq(pageable.getSort()), eq(4))).thenReturn(List.of(
+                active(7L, now.minusYears(2)), active(8L, now.minusDays(1)), active(9L, now)));
+        when(archivedRepairOrderRepository.findRange(any(), eq(pageable.getSort()), eq(0L), eq(4))).thenReturn(List.of(
+                archived(2L, now.minusYears(3)), archived(3L, now.minusYears(1))));
+
+        Page<RepairOrderResponse> page = repairOrderService.getAllOrdersSimple(null, null, null, null, null, pageable);
+
+        assertEquals(List.of(3L, 8L), page.getContent().stream().map(RepairOrderResponse::getId).toList());
+        assertEquals(5, page.getTotalElements());
+    }
+
+    @Test
+    void getAllOrdersByCursor_shouldMergeActiveAndArchivedByCreateTime() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repairOrderRepository.findLimited(any(), any(), eq(3))).thenReturn(List.of(
+                active(9L, now), active(8L, now.minusYears(2))));
+        when(archivedRepairOrderRepository.findRange(any(), any(), eq(0L), anyInt())).thenReturn(List.of(
+                archived(5L, now.minusYears(1)), archived(4L, now.minusYears(3))));
+
+        CursorPageResponse<RepairOrderResponse> page =
+                repairOrderService.getAllOrdersByCursor(new RepairOrderQueryRequest(), null, 2);
+
+        assertEquals(List.of(9L, 5L), page.getContent().stream().map(RepairOrderResponse::getId).toList());
+        assertTrue(page.isHasNext());
+    }
+
+    private RepairOrder active(Long id, LocalDateTime createTime) {
+        return RepairOrder.builder()
+                .id(id)
+                .submitUser(submitter)
+                .building(building)
+                .floor(floor)
+                .faultType(faultType)
+                .status(RepairOrderStatus.PENDING)
+                .description("active")
+                .createTime(createTime)
+                .build();
+    }
+
+    private ArchivedRepairOrder archived(Long id, LocalDateTime createTime) {
+        return ArchivedRepairOrder.builder()
+                .id(id)
+                .submitUser(submitter)
+                .building(building)
+                .floor(floor)
+                .faultType(faultType)
+                .status(RepairOrderStatus.CLOSED)
+                .description("archived")
+                .createTime(createTime)
+                .finishTime(createTime.plusDays(1))
+                .version(3L)
+                .archiveTime(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.request.RepairOrderBulkAssignRequest;
+import org.trs.therepairsystem.dto.request.RepairOrderBulkCancelRequest;
+import org.trs.therepairsystem.dto.response.RepairOrderBulkResultResponse;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.EngineerAreaRelRepository;
+import org.trs.therepairsystem.repository.EngineerFaultRelRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.UserRepository;
+import org.trs.therepairsystem.service.assign.EngineerWorkloadTable;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepairOrderServiceImplBulkTest {
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EngineerFaultRelRepository engineerFaultRelRepository;
+
+    @Mock
+    private EngineerAreaRelRepository engineerAreaRelRepository;
+
+    @Mock
+    private OrderStatsCounterService orderStatsCounterService;
+
+    @Mock
+    private OrderDailyRollupService orderDailyRollupService;
+
+    @Mock
+    private EngineerWorkloadTable workloadTable;
+
+    @Mock
+    private OrderEventService orderEventService;
+
+    @Mock
+    private OrderSearchIndex orderSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RepairOrderServiceImpl repairOrderService;
+
+    private User admin;
+    private User engineer;
+    private Floor floor;
+    private Floor otherFloor;
+    private FaultType faultType;
+
+    @BeforeEach
+    void setUp() {
+        admin = new User();
+        admin.setId(3L);
+        engineer = new User();
+        engineer.setId(2L);
+
+        Building building = new Building(10L, "A栋");
+        floor = new Floor(20L, building, 3, "3F");
+        otherFloor = new Floor(21L, building, 4, "4F");
+        faultType = new FaultType(30L, "空调", "#FFFFFF", "desc");
+        when(userRepository.findById(3L)).thenReturn(Optional.of(admin));
+    }
+
+    @Test
+    void bulkAssignEngineers_shouldUpdateEligibleOrdersInOneStatementAndReportEachOrder() {
+        RepairOrder ok = order(100L, RepairOrderStatus.SUBMITTED, floor);
+        RepairOrder alreadyAssigned = order(101L, RepairOrderStatus.PENDING, floor);
+        RepairOrder wrongArea = order(102L, RepairOrderStatus.SUBMITTED, otherFloor);
+        RepairOrder ok2 = order(103L, RepairOrderStatus.SUBMITTED, floor);
+        RepairOrder unknownEngineer = order(104L, RepairOrderStatus.SUBMITTED, floor);
+        when(repairOrderRepository.findAllByIdForUpdate(anyCollection()))
+                .thenReturn(List.of(ok, alreadyAssigned, wrongArea, ok2, unknownEngineer));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(engineer));
+        when(engineerFaultRelRepository.findEngineerFaultTypePairs(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 30L}));
+        when(engineerAreaRelRepository.findEngineerFloorPairs(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 20L}));
+        when(repairOrderRepository.assignIfSubmitted(List.of(100L, 103L), engineer, admin)).thenReturn(2);
+
+        RepairOrderBulkResultResponse result = repairOrderService.bulkAssignEngineers(3L, assignRequest(
+                new Long[]{100L, 2L}, new Long[]{101L, 2L}, new Long[]{102L, 2L},
+                new Long[]{100L, 2L}, new Long[]{999L, 2L}, new Long[]{104L, 9L}, new Long[]{103L, 2L}));
+
+        assertEquals(7, result.getRequested());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(5, result.getFailed());
+        List<RepairOrderBulkResultResponse.Item> items = result.getResults();
+        assertTrue(items.get(0).isSuccess());
+        assertEquals(RepairOrderStatus.PENDING, items.get(0).getStatus());
+        assertEquals("当前状态不允许分配工程师", items.get(1).getMessage());
+        assertEquals("工程师不负责该区域", items.get(2).getMessage());
+        assertEquals("同一工单重复出现", items.get(3).getMessage());
+        assertEquals("工单不存在", items.get(4).getMessage());
+        assertEquals("工程师不存在", items.get(5).getMessage());
+        assertTrue(items.get(6).isSuccess());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(orderStatsCounterService).onOrdersChanged(changes.capture());
+        assertEquals(2, changes.getValue().size());
+        assertEquals(RepairOrderStatus.SUBMITTED, changes.getValue().get(0).previousStatus());
+        assertEquals(RepairOrderStatus.PENDING, changes.getValue().get(0).order().getStatus());
+        verify(orderDailyRollupService).onOrdersChanged(changes.getValue());
+    }
+
+    @Test
+    void bulkCancelOrders_shouldSkipClosedOrdersAndCancelTheRest() {
+        RepairOrder inProgress = order(100L, RepairOrderStatus.IN_PROGRESS, floor);
+        inProgress.setEngineer(engineer);
+        RepairOrder closed = order(101L, RepairOrderStatus.CLOSED, floor);
+        when(repairOrderRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(inProgress, closed));
+        when(repairOrderRepository.bulkAdminCancel(List.of(100L), admin)).thenReturn(1);
+
+        RepairOrderBulkCancelRequest request = new RepairOrderBulkCancelRequest();
+        request.setOrderIds(List.of(100L, 101L));
+        RepairOrderBulkResultResponse result = repairOrderService.bulkCancelOrders(3L, request);
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(RepairOrderStatus.CANCELLED, result.getResults().get(0).getStatus());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertEquals("工单已关闭或取消", result.getResults().get(1).getMessage());
+        verify(workloadTable).onOrderChanged(inProgress, RepairOrderStatus.IN_PROGRESS, 2L);
+    }
+
+    @Test
+    void bulkCancelOrders_nothingToCancel_shouldNotIssueUpdate() {
+        when(repairOrderRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of());
+
+        RepairOrderBulkCancelRequest request = new RepairOrderBulkCancelRequest();
+        request.setOrderIds(List.of(100L));
+        RepairOrderBulkResultResponse result = repairOrderService.bulkCancelOrders(3L, request);
+
+        assertEquals(0, result.getSucceeded());
+        verify(repairOrderRepository, never()).bulkAdminCancel(anyCollection(), any());
+        verify(orderStatsCounterService, never()).onOrdersChanged(any());
+    }
+
+    private RepairOrder order(Long id, RepairOrderStatus status, Floor orderFloor) {
+        User submitter = new User();
+        submitter.setId(1L);
+        return RepairOrder.builder()
+                .id(id)
+                .submitUser(submitter)
+                .building(orderFloor.getBuilding())
+                .floor(orderFloor)
+                .faultType(faultType)
+                .status(status)
+                .version(0L)
+                .description("test")
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+
+    private static RepairOrderBulkAssignRequest assignRequest(Long[]... pairs) {
+        RepairOrderBulkAssignRequest request = new RepairOrderBulkAssignRequest();
+        request.setAssignments(Arrays.stream(pairs).map(pair -> {
+            RepairOrderBulkAssignRequest.Assignment assignment = new RepairOrderBulkAssignRequest.Assignment();
+            assignment.setOrderId(pair[0]);
+            assignment.setEngineerId(pair[1]);
+            return assignment;
+        }).toList());
+        return request;
+    }
+}
@@ -108,7 +108,7 @@ class RepairOrderServiceImplContactVisibilityTest {
 
     @Test
     void getOrderById_submitterViewAssignedOrder_shouldExposeBothPhones() {
-        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(assignedOrder));
+        when(repairOrderRepository.findDetailById(100L)).thenReturn(Optional.of(assignedOrder));
 
         RepairOrderResponse response = repairOrderService.getOrderById(1L, false, 100L);
 
@@ -118,7 +118,7 @@ class RepairOrderServiceImplContactVisibilityTest {
 
     @Test
     void getOrderById_engineerViewAssignedOrder_shouldExposeBothPhones() {
-        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(assignedOrder));
+        when(repairOrderRepository.findDetailById(100L)).thenReturn(Optional.of(assignedOrder));
 
         RepairOrderResponse response = repairOrderService.getOrderById(2L, false, 100L);
 
@@ -128,7 +128,7 @@ class RepairOrderServiceImplContactVisibilityTest {
 
     @Test
     void getOrderById_adminViewAssignedOrder_shouldExposeBothPhones() {
-        when(repairOrderRepository.findById(100L)).thenReturn(Optional.of(assignedOrder));
+        when(repairOrderRepository.findDetailById(100L)).thenReturn(Optional.of(assignedOrder));
 
         RepairOrderResponse response = repairOrderService.getOrderById(3L, true, 100L);
 
@@ -138,7 +138,7 @@ class RepairOrderServiceImplContactVisibilityTest {
 
     @Test
     void getOrderById_submitterViewUnassignedOrder_shouldExposeSubmitterPhoneOnly() {
-        when(repairOrderRepository.findById(101L)).thenReturn(Optional.of(unassignedOrder));
+        when(repairOrderRepository.findDetailById(101L)).thenReturn(Optional.of(unassignedOrder));
 
         RepairOrderResponse response = repairOrderService.getOrderById(1L, false, 101L);
 
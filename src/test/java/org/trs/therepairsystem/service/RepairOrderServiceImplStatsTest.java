@@ -0,0 +1,75 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trs.therepairsystem.common.enums.CounterScope;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.dto.response.RepairOrderStatsResponse;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepairOrderServiceImplStatsTest {
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private OrderStatsCounterService orderStatsCounterService;
+
+    @Mock
+    private OrderDailyRollupService orderDailyRollupService;
+
+    @InjectMocks
+    private RepairOrderServiceImpl repairOrderService;
+
+    @Test
+    void getOrderStats_shouldReadMaterializedCountersAndDailyRollup() {
+        when(orderStatsCounterService.getCounts(CounterScope.GLOBAL, null)).thenReturn(Map.of(
+                RepairOrderStatus.DRAFT, 2L,
+                RepairOrderStatus.SUBMITTED, 3L,
+                RepairOrderStatus.IN_PROGRESS, 4L,
+                RepairOrderStatus.COMPLETED, 5L,
+                RepairOrderStatus.CANCELLED, 1L));
+        when(orderDailyRollupService.getDailyCounts(LocalDate.now())).thenReturn(Map.of(
+                RepairOrderStatus.SUBMITTED, 3L,
+                RepairOrderStatus.COMPLETED, 2L));
+
+        RepairOrderStatsResponse stats = repairOrderService.getOrderStats();
+
+        assertEquals(15L, stats.getTotalOrders());
+        assertEquals(2L, stats.getDraftOrders());
+        assertEquals(0L, stats.getPendingOrders());
+        assertEquals(4L, stats.getProcessingOrders());
+        assertEquals(5L, stats.getCompletedOrders());
+        assertEquals(0L, stats.getClosedOrders());
+        assertEquals(1L, stats.getCancelledOrders());
+        assertEquals(5L, stats.getTodayOrders());
+        assertEquals(2L, stats.getTodayCompletedOrders());
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void getUserOrderStats_shouldNotScanOrderTable() {
+        when(orderStatsCounterService.getCounts(CounterScope.USER, 1L)).thenReturn(Map.of(
+                RepairOrderStatus.PENDING, 2L,
+                RepairOrderStatus.CLOSED, 3L));
+
+        RepairOrderStatsResponse stats = repairOrderService.getUserOrderStats(1L);
+
+        assertEquals(5L, stats.getTotalOrders());
+        assertEquals(2L, stats.getPendingOrders());
+        assertEquals(3L, stats.getClosedOrders());
+        assertEquals(0L, stats.getTodayOrders());
+        verifyNoInteractions(repairOrderRepository);
+    }
+}
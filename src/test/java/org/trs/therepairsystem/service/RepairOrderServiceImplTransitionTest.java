@@ -0,0 +1,136 @@
+package org.trs.therepairsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.exception.OrderStateConflictException;
+import org.trs.therepairsystem.dto.response.RepairOrderResponse;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.UserRepository;
+import org.trs.therepairsystem.service.assign.EngineerWorkloadTable;
+import org.trs.therepairsystem.service.search.OrderSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepairOrderServiceImplTransitionTest {
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderStatsCounterService orderStatsCounterService;
+
+    @Mock
+    private OrderDailyRollupService orderDailyRollupService;
+
+    @Mock
+    private EngineerWorkloadTable workloadTable;
+
+    @Mock
+    private OrderEventService orderEventService;
+
+    @Mock
+    private OrderSearchIndex orderSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RepairOrderServiceImpl repairOrderService;
+
+    private User engineer;
+    private RepairOrder order;
+
+    @BeforeEach
+    void setUp() {
+        User submitter = new User();
+        submitter.setId(1L);
+        engineer = new User();
+        engineer.setId(2L);
+
+        Building building = new Building(10L, "A栋");
+        order = RepairOrder.builder()
+                .id(100L)
+                .submitUser(submitter)
+                .engineer(engineer)
+                .building(building)
+                .floor(new Floor(20L, building, 3, "3F"))
+                .faultType(new FaultType(30L, "空调", "#FFFFFF", "desc"))
+                .status(RepairOrderStatus.PENDING)
+                .version(3L)
+                .description("test")
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void acceptOrder_shouldUseConditionalUpdateAndNotSaveWholeEntity() {
+        givenPendingOrder();
+        when(repairOrderRepository.acceptIfPending(eq(100L), eq(2L), any())).thenReturn(1);
+
+        RepairOrderResponse response = repairOrderService.acceptOrder(2L, 100L);
+
+        assertEquals(RepairOrderStatus.IN_PROGRESS, response.getStatus());
+        assertEquals(4L, order.getVersion());
+        verify(repairOrderRepository, never()).save(any());
+        verify(orderStatsCounterService).onOrderChanged(order, RepairOrderStatus.PENDING, 2L);
+        verify(orderEventService).record(order, OrderEventType.ACCEPTED, RepairOrderStatus.PENDING, 2L);
+    }
+
+    @Test
+    void acceptOrder_concurrentlyCancelled_shouldThrowTypedConflictWithoutSideEffects() {
+        givenPendingOrder();
+        when(repairOrderRepository.acceptIfPending(eq(100L), eq(2L), any())).thenReturn(0);
+        when(repairOrderRepository.findStatusById(100L)).thenReturn(Optional.of(RepairOrderStatus.CANCELLED));
+
+        OrderStateConflictException ex = assertThrows(OrderStateConflictException.class,
+                () -> repairOrderService.acceptOrder(2L, 100L));
+
+        assertEquals(RepairOrderStatus.PENDING, ex.getExpectedStatus());
+        assertEquals(RepairOrderStatus.CANCELLED, ex.getCurrentStatus());
+        assertEquals(OrderStateConflictException.CODE, ex.getCode());
+        verifyNoInteractions(orderStatsCounterService, orderDailyRollupService, workloadTable, orderEventService, eventPublisher);
+    }
+
+    @Test
+    void stateMachine_shouldOnlyAllowForwardStepsAndAdminCancel() {
+        assertTrue(RepairOrderStatus.PENDING.canTransitionTo(RepairOrderStatus.IN_PROGRESS));
+        assertTrue(RepairOrderStatus.IN_PROGRESS.canTransitionTo(RepairOrderStatus.CANCELLED));
+        assertFalse(RepairOrderStatus.SUBMITTED.canTransitionTo(RepairOrderStatus.IN_PROGRESS));
+        assertFalse(RepairOrderStatus.CLOSED.canTransitionTo(RepairOrderStatus.CANCELLED));
+        assertFalse(RepairOrderStatus.IN_PROGRESS.canCancel());
+        assertTrue(RepairOrderStatus.SUBMITTED.canCancel());
+    }
+
+    private void givenPendingOrder() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(engineer));
+        when(repairOrderRepository.findDetailById(100L)).thenReturn(Optional.of(order));
+    }
+}
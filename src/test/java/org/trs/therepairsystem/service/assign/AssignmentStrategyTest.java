@@ -0,0 +1,158 @@
+package org.trs.therepairsystem.service.assign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.entity.User;
+import org.trs.therepairsystem.repository.ArchivedRepairRatingRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.repository.RepairRatingRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AssignmentStrategyTest {
+
+    private static final AssignmentContext FLOOR_1 = new AssignmentContext(1L, 10L, 100L);
+    private static final AssignmentContext FLOOR_2 = new AssignmentContext(2L, 10L, 200L);
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private RepairRatingRepository repairRatingRepository;
+
+    @Mock
+    private ArchivedRepairRatingRepository archivedRepairRatingRepository;
+
+    private EngineerWorkloadTable workloadTable;
+
+    @BeforeEach
+    void setUp() {
+        // 工程师 1 有 3 个未完成工单，工程师 2 有 1 个（工单 21），工程师 3 空闲
+        when(repairOrderRepository.findOpenOrderEngineers(any())).thenReturn(List.of(
+                new Object[]{11L, 1L, 1L}, new Object[]{12L, 1L, 1L}, new Object[]{13L, 1L, 1L},
+                new Object[]{21L, 2L, 1L}));
+        workloadTable = new EngineerWorkloadTable(repairOrderRepository);
+        workloadTable.rebuild();
+    }
+
+    @Test
+    void leastOpenOrders_shouldPickIdleEngineerAndFollowWorkloadChanges() {
+        LeastOpenOrdersStrategy strategy = new LeastOpenOrdersStrategy(workloadTable);
+
+        assertEquals(3L, strategy.select(List.of(1L, 2L, 3L), FLOOR_1));
+
+        // 工程师 3 接了 2 单，工程师 2 完成 1 单
+        workloadTable.onOrderChanged(order(31L, 3L, RepairOrderStatus.PENDING, 1L), RepairOrderStatus.SUBMITTED, null);
+        workloadTable.onOrderChanged(order(32L, 3L, RepairOrderStatus.PENDING, 1L), RepairOrderStatus.SUBMITTED, null);
+        workloadTable.onOrderChanged(order(21L, 2L, RepairOrderStatus.COMPLETED, 2L), RepairOrderStatus.IN_PROGRESS, 2L);
+
+        assertEquals(0, workloadTable.openOrders(2L));
+        assertEquals(2L, strategy.select(List.of(1L, 2L, 3L), FLOOR_1));
+    }
+
+    @Test
+    void workloadTable_shouldIgnoreTransitionsBetweenOpenStatesOfSameEngineer() {
+        workloadTable.onOrderChanged(order(21L, 2L, RepairOrderStatus.IN_PROGRESS, 2L), RepairOrderStatus.PENDING, 2L);
+
+        assertEquals(1, workloadTable.openOrders(2L));
+    }
+
+    @Test
+    void workloadTable_repeatedOrStaleChange_shouldNotCountTwice() {
+        RepairOrder assigned = order(31L, 3L, RepairOrderStatus.PENDING, 1L);
+        workloadTable.onOrderChanged(assigned, RepairOrderStatus.SUBMITTED, null);
+        workloadTable.onOrderChanged(assigned, RepairOrderStatus.SUBMITTED, null);
+        assertEquals(1, workloadTable.openOrders(3L));
+
+        // 完成（版本 2）先于指派（版本 1）到达时，迟到的指派被忽略
+        workloadTable.onOrderChanged(order(41L, 3L, RepairOrderStatus.COMPLETED, 2L), RepairOrderStatus.IN_PROGRESS, 3L);
+        workloadTable.onOrderChanged(order(41L, 3L, RepairOrderStatus.PENDING, 1L), RepairOrderStatus.SUBMITTED, null);
+        assertEquals(1, workloadTable.openOrders(3L));
+    }
+
+    @Test
+    void workloadTable_changesDuringRebuild_shouldBeReplayedOnce() {
+        // 重建读取的是旧快照：工单 21 仍未完成，工单 31 已指派给工程师 3
+        when(repairOrderRepository.findOpenOrderEngineers(any())).thenAnswer(invocation -> {
+            workloadTable.onOrderChanged(order(21L, 2L, RepairOrderStatus.COMPLETED, 2L),
+                    RepairOrderStatus.IN_PROGRESS, 2L);
+            workloadTable.onOrderChanged(order(31L, 3L, RepairOrderStatus.PENDING, 1L),
+                    RepairOrderStatus.SUBMITTED, null);
+            return List.of(new Object[]{21L, 2L, 1L}, new Object[]{31L, 3L, 1L});
+        });
+
+        workloadTable.rebuild();
+
+        assertEquals(0, workloadTable.openOrders(2L));
+        assertEquals(1, workloadTable.openOrders(3L));
+    }
+
+    @Test
+    void roundRobinPerArea_shouldRotateIndependentlyPerFloor() {
+        RoundRobinPerAreaStrategy strategy = new RoundRobinPerAreaStrategy();
+        List<Long> candidates = List.of(1L, 2L, 3L);
+
+        assertEquals(1L, strategy.select(candidates, FLOOR_1));
+        assertEquals(2L, strategy.select(candidates, FLOOR_1));
+        assertEquals(1L, strategy.select(candidates, FLOOR_2));
+        assertEquals(3L, strategy.select(candidates, FLOOR_1));
+        assertEquals(1L, strategy.select(candidates, FLOOR_1));
+    }
+
+    @Test
+    void weightedRating_shouldFavorWellRatedIdleEngineers() {
+        // 工程师 3 评分高且空闲，工程师 1 评分低且繁忙
+        when(repairRatingRepository.summarizeRatingsGroupByEngineer()).thenReturn(List.of(
+                new Object[]{1L, 2.0, 50L}, new Object[]{3L, 5.0, 50L}));
+        WeightedRatingStrategy strategy = new WeightedRatingStrategy(workloadTable, repairRatingRepository,
+                archivedRepairRatingRepository);
+
+        int[] picks = new int[4];
+        for (int i = 0; i < 2000; i++) {
+            picks[strategy.select(List.of(1L, 2L, 3L), FLOOR_1).intValue()]++;
+        }
+
+        assertTrue(picks[3] > picks[2], "高分空闲工程师应获得最多分配");
+        assertTrue(picks[2] > picks[1], "低分繁忙工程师应获得最少分配");
+    }
+
+    @Test
+    void weightedRating_shouldKeepArchivedRatingHistory() {
+        // 工程师 3、4 均空闲；工程师 3 近期只有 1 条满分评价，归档表中有 40 条 2 分评价
+        when(repairRatingRepository.summarizeRatingsGroupByEngineer()).thenReturn(List.<Object[]>of(
+                new Object[]{3L, 5.0, 1L}));
+        when(archivedRepairRatingRepository.summarizeRatingsGroupByEngineer()).thenReturn(List.<Object[]>of(
+                new Object[]{3L, 2.0, 40L}, new Object[]{4L, 5.0, 40L}));
+        WeightedRatingStrategy strategy = new WeightedRatingStrategy(workloadTable, repairRatingRepository,
+                archivedRepairRatingRepository);
+
+        int[] picks = new int[5];
+        for (int i = 0; i < 2000; i++) {
+            picks[strategy.select(List.of(3L, 4L), FLOOR_1).intValue()]++;
+        }
+
+        assertTrue(picks[4] > picks[3] * 1.5, "归档的低分历史应继续计入权重");
+    }
+
+    private RepairOrder order(Long id, Long engineerId, RepairOrderStatus status, long version) {
+        User engineer = new User();
+        engineer.setId(engineerId);
+        return RepairOrder.builder()
+                .id(id)
+                .engineer(engineer)
+                .status(status)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package org.trs.therepairsystem.service.assign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trs.therepairsystem.repository.EngineerAreaRelRepository;
+import org.trs.therepairsystem.repository.EngineerFaultRelRepository;
+import org.trs.therepairsystem.repository.UserRoleRelRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EngineerEligibilityIndexTest {
+
+    @Mock
+    private EngineerFaultRelRepository engineerFaultRelRepository;
+
+    @Mock
+    private EngineerAreaRelRepository engineerAreaRelRepository;
+
+    @Mock
+    private UserRoleRelRepository userRoleRelRepository;
+
+    @InjectMocks
+    private EngineerEligibilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // 工程师 2、3、4 都能处理故障类型 10；2、3 负责楼层 100，4 负责楼层 200；用户 3 不再是工程师
+        when(engineerFaultRelRepository.findAllEngineerFaultTypePairs()).thenReturn(List.of(
+                new Object[]{2L, 10L}, new Object[]{3L, 10L}, new Object[]{4L, 10L}, new Object[]{2L, 11L}));
+        when(engineerAreaRelRepository.findAllEngineerFloorPairs()).thenReturn(List.of(
+                new Object[]{2L, 100L}, new Object[]{3L, 100L}, new Object[]{4L, 200L}));
+        when(userRoleRelRepository.findUserIdsByRoleName("ENGINEER")).thenReturn(List.of(2L, 4L));
+        index.rebuild();
+    }
+
+    @Test
+    void findEligibleEngineerIds_shouldIntersectFaultTypeFloorAndRole() {
+        assertEquals(List.of(2L), index.findEligibleEngineerIds(10L, 100L));
+        assertEquals(List.of(4L), index.findEligibleEngineerIds(10L, 200L));
+        assertEquals(List.of(), index.findEligibleEngineerIds(11L, 200L));
+        assertEquals(List.of(), index.findEligibleEngineerIds(99L, 100L));
+    }
+
+    @Test
+    void replaceFloors_shouldMoveEngineerBetweenFloors() {
+        index.replaceFloors(2L, List.of(200L));
+
+        assertEquals(List.of(), index.findEligibleEngineerIds(10L, 100L));
+        assertEquals(List.of(2L, 4L), index.findEligibleEngineerIds(10L, 200L));
+    }
+
+    @Test
+    void removeFaultTypeAndRole_shouldExcludeEngineer() {
+        index.removeFaultType(4L, 10L);
+        assertEquals(List.of(), index.findEligibleEngineerIds(10L, 200L));
+
+        index.updateEngineerRole(3L, true);
+        assertEquals(List.of(2L, 3L), index.findEligibleEngineerIds(10L, 100L));
+
+        index.updateEngineerRole(2L, false);
+        assertEquals(List.of(3L), index.findEligibleEngineerIds(10L, 100L));
+    }
+}
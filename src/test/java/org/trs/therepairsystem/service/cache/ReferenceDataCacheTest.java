@@ -0,0 +1,200 @@
+package org.trs.therepairsystem.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.trs.therepairsystem.common.enums.ReferenceDataType;
+import org.trs.therepairsystem.config.ReferenceDataCacheProperties;
+import org.trs.therepairsystem.dto.response.ReferenceCacheStatsResponse;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.Floor;
+import org.trs.therepairsystem.repository.BuildingRepository;
+import org.trs.therepairsystem.repository.FaultTypeRepository;
+import org.trs.therepairsystem.repository.FloorRepository;
+import org.trs.therepairsystem.repository.RoleRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private BuildingRepository buildingRepository;
+    @Mock
+    private FloorRepository floorRepository;
+    @Mock
+    private FaultTypeRepository faultTypeRepository;
+    @Mock
+    private RoleRepository roleRepository;
+
+    private ReferenceDataInvalidationPublisher publisher;
+    private ReferenceDataCacheProperties properties;
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        publisher = mock(ReferenceDataInvalidationPublisher.class);
+        properties = new ReferenceDataCacheProperties();
+        cache = newCache();
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        when(buildingRepository.findById(1L)).thenReturn(Optional.of(new Building(1L, "一号楼")));
+
+        assertEquals("一号楼", cache.getBuilding(1L).orElseThrow().getName());
+        assertEquals("一号楼", cache.getBuilding(1L).orElseThrow().getName());
+
+        verify(buildingRepository, times(1)).findById(1L);
+        ReferenceCacheStatsResponse stats = stats(ReferenceDataType.BUILDING);
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void callersReceiveIndependentCopies() {
+        when(buildingRepository.findById(1L)).thenReturn(Optional.of(new Building(1L, "一号楼")));
+
+        Building first = cache.getBuilding(1L).orElseThrow();
+        first.setName("被调用方修改");
+        Building second = cache.getBuilding(1L).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("一号楼", second.getName());
+    }
+
+    @Test
+    void missingRecordIsNotCached() {
+        when(buildingRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertFalse(cache.getBuilding(9L).isPresent());
+        assertFalse(cache.getBuilding(9L).isPresent());
+
+        verify(buildingRepository, times(2)).findById(9L);
+    }
+
+    @Test
+    void evictReloadsAndNotifiesOtherNodes() {
+        when(buildingRepository.findById(1L))
+            .thenReturn(Optional.of(new Building(1L, "一号楼")))
+            .thenReturn(Optional.of(new Building(1L, "一号教学楼")));
+        cache.getBuilding(1L);
+
+        cache.evict(ReferenceDataType.BUILDING, 1L);
+
+        assertEquals("一号教学楼", cache.getBuilding(1L).orElseThrow().getName());
+        verify(publisher).publish(ReferenceDataType.BUILDING, 1L);
+    }
+
+    @Test
+    void evictingBuildingAlsoEvictsItsFloors() {
+        Building building = new Building(1L, "一号楼");
+        when(floorRepository.findById(10L)).thenReturn(Optional.of(new Floor(10L, building, 1, "1F")));
+        when(floorRepository.findById(20L)).thenReturn(Optional.of(new Floor(20L, new Building(2L, "二号楼"), 1, "1F")));
+        cache.getFloor(10L);
+        cache.getFloor(20L);
+
+        cache.applyRemoteInvalidation(ReferenceDataType.BUILDING, 1L);
+        cache.getFloor(10L);
+        cache.getFloor(20L);
+
+        verify(floorRepository, times(2)).findById(10L);
+        verify(floorRepository, times(1)).findById(20L);
+    }
+
+    @Test
+    void allListIsCachedAndFillsLookupById() {
+        when(buildingRepository.findAllByOrderByName())
+            .thenReturn(List.of(new Building(1L, "一号楼"), new Building(2L, "二号楼")));
+
+        assertEquals(2, cache.getAllBuildings().size());
+        assertEquals(2, cache.getAllBuildings().size());
+        assertEquals("二号楼", cache.getBuilding(2L).orElseThrow().getName());
+
+        verify(buildingRepository, times(1)).findAllByOrderByName();
+        verify(buildingRepository, never()).findById(2L);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        properties.setMaximumSize(2);
+        cache = newCache();
+        for (long id = 1; id <= 3; id++) {
+            long buildingId = id;
+            when(buildingRepository.findById(buildingId))
+                .thenReturn(Optional.of(new Building(buildingId, "楼栋" + buildingId)));
+        }
+
+        cache.getBuilding(1L);
+        cache.getBuilding(2L);
+        cache.getBuilding(1L);
+        cache.getBuilding(3L);
+        cache.getBuilding(1L);
+        cache.getBuilding(2L);
+
+        verify(buildingRepository, times(1)).findById(1L);
+        verify(buildingRepository, times(2)).findById(2L);
+        assertEquals(2, stats(ReferenceDataType.BUILDING).getEvictions());
+    }
+
+    @Test
+    void loadStartedBeforeInvalidationIsNotCached() {
+        doAnswer(invocation -> {
+            // 加载过程中数据被修改
+            cache.applyRemoteInvalidation(ReferenceDataType.BUILDING, 1L);
+            return Optional.of(new Building(1L, "旧名称"));
+        }).doReturn(Optional.of(new Building(1L, "新名称")))
+            .when(buildingRepository).findById(1L);
+
+        assertEquals("旧名称", cache.getBuilding(1L).orElseThrow().getName());
+        assertEquals("新名称", cache.getBuilding(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void versionTagDependsOnlyOnDataSoAllNodesAgree() {
+        when(buildingRepository.findAllByOrderByName())
+            .thenReturn(List.of(new Building(1L, "一号楼"), new Building(2L, "二号楼")))
+            .thenReturn(List.of(new Building(2L, "二号楼"), new Building(1L, "一号楼")))
+            .thenReturn(List.of(new Building(1L, "一号教学楼"), new Building(2L, "二号楼")));
+        ReferenceDataCache otherNode = newCache();
+
+        String tag = cache.getVersionTag(ReferenceDataType.BUILDING);
+
+        assertEquals(tag, cache.getVersionTag(ReferenceDataType.BUILDING));
+        // 另一节点加载到同样的数据（顺序不同）得到相同标识
+        assertEquals(tag, otherNode.getVersionTag(ReferenceDataType.BUILDING));
+        cache.applyRemoteInvalidation(ReferenceDataType.BUILDING, 1L);
+        assertNotEquals(tag, cache.getVersionTag(ReferenceDataType.BUILDING));
+        verify(buildingRepository, times(3)).findAllByOrderByName();
+    }
+
+    private ReferenceDataCache newCache() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("publisher", publisher));
+        return new ReferenceDataCache(buildingRepository, floorRepository, faultTypeRepository, roleRepository,
+            properties, beanFactory.getBeanProvider(ReferenceDataInvalidationPublisher.class));
+    }
+
+    private ReferenceCacheStatsResponse stats(ReferenceDataType type) {
+        return cache.getStats().stream()
+            .filter(stats -> stats.getType() == type)
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,72 @@
+package org.trs.therepairsystem.service.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.config.OrderStreamProperties;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderChangeBusTest {
+
+    private OrderChangeBus bus;
+
+    @BeforeEach
+    void setUp() {
+        OrderStreamProperties properties = new OrderStreamProperties();
+        properties.setSubscriberBufferSize(2);
+        properties.setHeartbeatInterval(Duration.ofHours(1));
+        bus = new OrderChangeBus(properties);
+    }
+
+    @Test
+    void publish_shouldDeliverOnlyToMatchingUserAndEngineerTopics() {
+        Flux<ServerSentEvent<OrderChangedEvent>> userStream = bus.subscribe(
+                List.of(new OrderChangeBus.Topic(OrderChangeBus.Scope.USER, 1L)));
+        Flux<ServerSentEvent<OrderChangedEvent>> reassignedEngineerStream = bus.subscribe(
+                List.of(new OrderChangeBus.Topic(OrderChangeBus.Scope.ENGINEER, 7L)));
+
+        // 连接建立后先收到 connected 注释，再发布
+        var userEvents = userStream.skip(1).take(1).collectList().toFuture();
+        var engineerEvents = reassignedEngineerStream.skip(1).take(1).collectList().toFuture();
+        bus.publish(event(100L, 2L, 8L, null));
+        bus.publish(event(101L, 1L, 8L, 7L));
+
+        assertEquals(101L, userEvents.join().get(0).data().orderId());
+        assertEquals(101L, engineerEvents.join().get(0).data().orderId());
+        assertEquals(OrderChangeBus.EVENT_NAME, userEvents.join().get(0).event());
+        assertEquals(0, bus.subscriberCount());
+    }
+
+    @Test
+    void publish_slowSubscriberOverflowingBuffer_shouldBeDisconnected() {
+        bus.subscribe(List.of(new OrderChangeBus.Topic(OrderChangeBus.Scope.ALL, null)))
+                .subscribe(new BaseSubscriber<>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        // 不请求任何数据，模拟不再读取的客户端
+                    }
+                });
+        assertEquals(1, bus.subscriberCount());
+
+        for (long orderId = 1; orderId <= 4; orderId++) {
+            bus.publish(event(orderId, 1L, null, null));
+        }
+
+        assertEquals(0, bus.subscriberCount());
+    }
+
+    private static OrderChangedEvent event(Long orderId, Long submitUserId, Long engineerId, Long previousEngineerId) {
+        return new OrderChangedEvent(orderId, OrderEventType.ASSIGNED, RepairOrderStatus.SUBMITTED,
+                RepairOrderStatus.PENDING, submitUserId, engineerId, previousEngineerId, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,197 @@
+package org.trs.therepairsystem.service.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.common.exception.IdempotencyConflictException;
+import org.trs.therepairsystem.config.IdempotencyProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        store = new IdempotencyStore(properties);
+    }
+
+    @Test
+    void replaysStoredResultForSameKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = store.execute(1L, "k1", List.of("submit", "body"), () -> "order-" + calls.incrementAndGet());
+        String second = store.execute(1L, "k1", List.of("submit", "body"), () -> "order-" + calls.incrementAndGet());
+
+        assertEquals("order-1", first);
+        assertEquals("order-1", second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void executesEveryTimeWithoutKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute(1L, null, List.of("submit"), calls::incrementAndGet);
+        store.execute(1L, " ", List.of("submit"), calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet);
+        store.execute(2L, "k1", List.of("submit"), calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void rejectsSameKeyWithDifferentRequest() {
+        store.execute(1L, "k1", List.of("complete", 10L), () -> "done");
+
+        assertThrows(IdempotencyConflictException.class,
+            () -> store.execute(1L, "k1", List.of("complete", 11L), () -> "other"));
+    }
+
+    @Test
+    void rejectsOverlongKey() {
+        properties.setMaxKeyLength(4);
+
+        assertThrows(BusinessException.class, () -> store.execute(1L, "12345", List.of("submit"), () -> "x"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void replaysBusinessFailureWithoutExecutingAgain() {
+        AtomicInteger calls = new AtomicInteger();
+        BusinessException failure = new BusinessException("工单状态不允许完成");
+
+        BusinessException first = assertThrows(BusinessException.class, () -> store.execute(1L, "k1", List.of("complete", 10L), () -> {
+            calls.incrementAndGet();
+            throw failure;
+        }));
+        BusinessException second = assertThrows(BusinessException.class, () -> store.execute(1L, "k1", List.of("complete", 10L), () -> {
+            calls.incrementAndGet();
+            return "done";
+        }));
+
+        assertSame(failure, first);
+        assertSame(failure, second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void releasesKeyAfterUnexpectedFailure() {
+        assertThrows(IllegalStateException.class, () -> store.execute(1L, "k1", List.of("submit"), () -> {
+            throw new IllegalStateException("数据库不可用");
+        }));
+
+        assertEquals("ok", store.execute(1L, "k1", List.of("submit"), () -> "ok"));
+    }
+
+    @Test
+    void coalescesConcurrentDuplicates() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> first = executor.submit(() -> store.execute(1L, "k1", List.of("submit"), () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<Integer>> duplicates = List.of(
+                executor.submit(() -> store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet)),
+                executor.submit(() -> store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet)),
+                executor.submit(() -> store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet)));
+
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> duplicate : duplicates) {
+                assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicateGivesUpWhenFirstRequestRunsTooLong() throws Exception {
+        properties.setMaxWait(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> store.execute(1L, "k1", List.of("submit"), () -> {
+                started.countDown();
+                await(release);
+                return "done";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyConflictException.class,
+                () -> store.execute(1L, "k1", List.of("submit"), () -> "again"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredEntriesAreExecutedAgain() throws Exception {
+        properties.setTtl(Duration.ofMillis(20));
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet);
+        Thread.sleep(40);
+        store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void evictsOldestEntriesBeyondCapacity() {
+        properties.setMaximumEntries(2);
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet);
+        store.execute(1L, "k2", List.of("submit"), calls::incrementAndGet);
+        store.execute(1L, "k3", List.of("submit"), calls::incrementAndGet);
+
+        assertEquals(2, store.size());
+        assertEquals(4, store.execute(1L, "k1", List.of("submit"), calls::incrementAndGet));
+        assertEquals(3, store.execute(1L, "k3", List.of("submit"), calls::incrementAndGet));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.trs.therepairsystem.service.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.trs.therepairsystem.common.enums.StorageProvider;
+import org.trs.therepairsystem.config.AttachmentStorageProperties;
+import org.trs.therepairsystem.entity.RepairOrderAttachment;
+import org.trs.therepairsystem.repository.RepairOrderAttachmentRepository;
+import org.trs.therepairsystem.service.storage.LocalAttachmentStorageService;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentThumbnailWorkerTest {
+
+    @TempDir
+    Path baseDir;
+
+    @Mock
+    private RepairOrderAttachmentRepository attachmentRepository;
+
+    private AttachmentThumbnailWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        AttachmentStorageProperties properties = new AttachmentStorageProperties();
+        properties.setBasePath(baseDir.toString());
+        worker = new AttachmentThumbnailWorker(attachmentRepository, properties,
+                List.of(new LocalAttachmentStorageService(properties)));
+        worker.init();
+    }
+
+    @Test
+    void render_shouldStoreDownscaledJpegNextToOriginal() throws Exception {
+        writeImage("repair-orders/1/problem_photo/a.png", 1600, 1200);
+        when(attachmentRepository.findById(5L)).thenReturn(Optional.of(attachment(5L, "repair-orders/1/problem_photo/a.png")));
+        when(attachmentRepository.updateThumbnailKey(5L, "repair-orders/1/problem_photo/a.thumb.jpg")).thenReturn(1);
+
+        worker.render(5L);
+
+        BufferedImage thumbnail = ImageIO.read(baseDir.resolve("repair-orders/1/problem_photo/a.thumb.jpg").toFile());
+        assertEquals(240, thumbnail.getWidth());
+        assertEquals(180, thumbnail.getHeight());
+    }
+
+    @Test
+    void render_smallImage_shouldNotUpscale() throws Exception {
+        writeImage("repair-orders/1/problem_photo/b.png", 100, 60);
+        when(attachmentRepository.findById(6L)).thenReturn(Optional.of(attachment(6L, "repair-orders/1/problem_photo/b.png")));
+        when(attachmentRepository.updateThumbnailKey(6L, "repair-orders/1/problem_photo/b.thumb.jpg")).thenReturn(1);
+
+        worker.render(6L);
+
+        BufferedImage thumbnail = ImageIO.read(baseDir.resolve("repair-orders/1/problem_photo/b.thumb.jpg").toFile());
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(60, thumbnail.getHeight());
+    }
+
+    @Test
+    void render_attachmentDeletedMeanwhile_shouldRemoveThumbnail() throws Exception {
+        writeImage("repair-orders/1/problem_photo/c.png", 800, 800);
+        when(attachmentRepository.findById(7L)).thenReturn(Optional.of(attachment(7L, "repair-orders/1/problem_photo/c.png")));
+        when(attachmentRepository.updateThumbnailKey(7L, "repair-orders/1/problem_photo/c.thumb.jpg")).thenReturn(0);
+
+        worker.render(7L);
+
+        assertFalse(Files.exists(baseDir.resolve("repair-orders/1/problem_photo/c.thumb.jpg")));
+    }
+
+    @Test
+    void render_undecodableFile_shouldSkip() throws Exception {
+        Path original = baseDir.resolve("repair-orders/1/problem_photo/d.webp");
+        Files.createDirectories(original.getParent());
+        Files.write(original, new byte[]{'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'});
+        when(attachmentRepository.findById(8L)).thenReturn(Optional.of(attachment(8L, "repair-orders/1/problem_photo/d.webp")));
+
+        worker.render(8L);
+
+        verify(attachmentRepository, never()).updateThumbnailKey(anyLong(), anyString());
+        assertTrue(Files.exists(original));
+    }
+
+    @Test
+    void thumbnailKey_shouldReplaceExtension() {
+        assertEquals("repair-orders/1/x/u2-abc.thumb.jpg", AttachmentThumbnailWorker.thumbnailKey("repair-orders/1/x/u2-abc.jpeg"));
+        assertEquals("repair-orders/1.5/x/abc.thumb.jpg", AttachmentThumbnailWorker.thumbnailKey("repair-orders/1.5/x/abc"));
+    }
+
+    private void writeImage(String objectKey, int width, int height) throws Exception {
+        Path path = baseDir.resolve(objectKey);
+        Files.createDirectories(path.getParent());
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", path.toFile());
+    }
+
+    private RepairOrderAttachment attachment(Long id, String objectKey) {
+        return RepairOrderAttachment.builder()
+                .id(id)
+                .storageProvider(StorageProvider.LOCAL)
+                .objectKey(objectKey)
+                .contentType("image/png")
+                .build();
+    }
+}
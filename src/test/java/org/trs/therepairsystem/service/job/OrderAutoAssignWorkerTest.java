@@ -0,0 +1,121 @@
+package org.trs.therepairsystem.service.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.trs.therepairsystem.common.enums.AssignmentOutcome;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.AutoAssignProperties;
+import org.trs.therepairsystem.dto.response.RepairOrderResponse;
+import org.trs.therepairsystem.entity.OrderAssignmentRecord;
+import org.trs.therepairsystem.repository.OrderAssignmentRecordRepository;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+import org.trs.therepairsystem.service.RepairOrderService;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderAutoAssignWorkerTest {
+
+    @Mock
+    private RepairOrderService repairOrderService;
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private OrderAssignmentRecordRepository recordRepository;
+
+    private OrderAutoAssignWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        AutoAssignProperties properties = new AutoAssignProperties();
+        properties.setRetryBackoff(Duration.ZERO);
+        worker = new OrderAutoAssignWorker(repairOrderService, repairOrderRepository, recordRepository, properties);
+        worker.init();
+    }
+
+    @Test
+    void processBatch_assigned_shouldRecordEngineerOncePerOrder() {
+        when(repairOrderService.autoAssignEngineer(null, 1L))
+                .thenReturn(RepairOrderResponse.builder().id(1L).engineerId(7L).build());
+
+        worker.processBatch(List.of(1L, 1L));
+
+        verify(repairOrderService, times(1)).autoAssignEngineer(null, 1L);
+        OrderAssignmentRecord record = savedRecord();
+        assertEquals(AssignmentOutcome.ASSIGNED, record.getOutcome());
+        assertEquals(7L, record.getEngineerId());
+        assertEquals(1, record.getAttempts());
+    }
+
+    @Test
+    void processBatch_noEngineer_shouldNotRetry() {
+        when(repairOrderService.autoAssignEngineer(null, 2L))
+                .thenThrow(new BusinessException(RepairOrderService.NO_ENGINEER_AVAILABLE, "没有可用的工程师处理此工单"));
+
+        worker.processBatch(List.of(2L));
+
+        verify(repairOrderService, times(1)).autoAssignEngineer(null, 2L);
+        OrderAssignmentRecord record = savedRecord();
+        assertEquals(AssignmentOutcome.NO_ENGINEER, record.getOutcome());
+        assertNull(record.getEngineerId());
+    }
+
+    @Test
+    void processBatch_otherBusinessError_shouldRecordSkipped() {
+        // 只按错误码区分，提示文案中出现“工程师”不影响结果
+        when(repairOrderService.autoAssignEngineer(null, 5L))
+                .thenThrow(new BusinessException("当前状态不允许分配工程师"));
+
+        worker.processBatch(List.of(5L));
+
+        verify(repairOrderService, times(1)).autoAssignEngineer(null, 5L);
+        assertEquals(AssignmentOutcome.SKIPPED, savedRecord().getOutcome());
+    }
+
+    @Test
+    void processBatch_transientError_shouldRetryUntilSuccess() {
+        when(repairOrderService.autoAssignEngineer(null, 3L))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(RepairOrderResponse.builder().id(3L).engineerId(9L).build());
+
+        worker.processBatch(List.of(3L));
+
+        verify(repairOrderService, times(2)).autoAssignEngineer(null, 3L);
+        OrderAssignmentRecord record = savedRecord();
+        assertEquals(AssignmentOutcome.ASSIGNED, record.getOutcome());
+        assertEquals(2, record.getAttempts());
+    }
+
+    @Test
+    void processBatch_persistentError_shouldRecordFailureAfterMaxAttempts() {
+        when(repairOrderService.autoAssignEngineer(null, 4L))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        worker.processBatch(List.of(4L));
+
+        verify(repairOrderService, times(3)).autoAssignEngineer(null, 4L);
+        OrderAssignmentRecord record = savedRecord();
+        assertEquals(AssignmentOutcome.FAILED, record.getOutcome());
+        assertEquals(3, record.getAttempts());
+    }
+
+    private OrderAssignmentRecord savedRecord() {
+        ArgumentCaptor<OrderAssignmentRecord> captor = ArgumentCaptor.forClass(OrderAssignmentRecord.class);
+        verify(recordRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,91 @@
+package org.trs.therepairsystem.service.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.trs.therepairsystem.common.enums.OrderEventType;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.config.OrderEventProperties;
+import org.trs.therepairsystem.entity.OrderEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderEventProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderEventProperties();
+        properties.setBatchSize(3);
+        properties.setFlushInterval(Duration.ofMillis(20));
+    }
+
+    @Test
+    void enqueue_shouldWriteEveryEventInBatchesNoLargerThanBatchSize() throws InterruptedException {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    synchronized (batchSizes) {
+                        batchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+                    }
+                    return new int[0][];
+                });
+        OrderEventWriter writer = new OrderEventWriter(jdbcTemplate, properties);
+        writer.start();
+
+        writer.enqueue(LongStream.rangeClosed(1, 7).mapToObj(OrderEventWriterTest::event).toList());
+        writer.stop();
+
+        assertEquals(7, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 3), "每批不超过 batch-size");
+    }
+
+    @Test
+    void write_transientFailure_shouldRetryThenSucceed() {
+        properties.setFlushInterval(Duration.ZERO);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[0][]);
+        OrderEventWriter writer = new OrderEventWriter(jdbcTemplate, properties);
+
+        writer.write(List.of(event(1L)));
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static OrderEvent event(long orderId) {
+        return OrderEvent.builder()
+                .orderId(orderId)
+                .eventType(OrderEventType.CREATED)
+                .toStatus(RepairOrderStatus.SUBMITTED)
+                .operatorId(1L)
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package org.trs.therepairsystem.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.trs.therepairsystem.common.enums.RepairOrderStatus;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.entity.Building;
+import org.trs.therepairsystem.entity.FaultType;
+import org.trs.therepairsystem.entity.RepairOrder;
+import org.trs.therepairsystem.repository.RepairOrderRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSearchIndexTest {
+
+    @Mock
+    private RepairOrderRepository repairOrderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repairOrderRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                new Object[]{1L, "三楼空调漏水，滴到桌面", null, RepairOrderStatus.SUBMITTED, 10L, 100L},
+                new Object[]{2L, "空调不制冷", "更换压缩机后漏水问题解决", RepairOrderStatus.COMPLETED, 10L, 100L},
+                new Object[]{3L, "卫生间水龙头漏水", null, RepairOrderStatus.PENDING, 20L, 200L},
+                new Object[]{4L, "走廊灯不亮", null, RepairOrderStatus.SUBMITTED, 20L, 300L}));
+        index = new OrderSearchIndex(repairOrderRepository, transactionManager);
+        index.rebuild();
+    }
+
+    @Test
+    void search_shouldRankOrdersMatchingWholePhraseFirst() {
+        OrderSearchIndex.SearchResult result = index.search("空调漏水", null, null, null, 0, 10);
+
+        // 工单 1 命中全部片段；工单 2 的“空调”“漏水”分布在描述和维修说明中，命中 2/3
+        assertEquals(List.of(1L, 2L), result.orderIds());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void search_shouldApplyStatusBuildingAndFaultTypeFilters() {
+        assertEquals(List.of(3L), index.search("漏水", null, 20L, null, 0, 10).orderIds());
+        assertEquals(List.of(2L), index.search("漏水", RepairOrderStatus.COMPLETED, null, null, 0, 10).orderIds());
+        assertEquals(List.of(), index.search("漏水", null, null, 300L, 0, 10).orderIds());
+    }
+
+    @Test
+    void search_shouldPageWithinRankedResults() {
+        OrderSearchIndex.SearchResult result = index.search("漏水", null, null, null, 1, 1);
+
+        // 单个片段时各工单同分，按新工单在前：3, 2, 1
+        assertEquals(3, result.total());
+        assertEquals(List.of(2L), result.orderIds());
+    }
+
+    @Test
+    void onTextChanged_shouldReplaceOnlyDifferingBigramsAndFollowStatusChanges() {
+        RepairOrder order = RepairOrder.builder()
+                .id(4L)
+                .building(new Building(20L, "B栋"))
+                .faultType(new FaultType(300L, "照明", "#FFFFFF", "desc"))
+                .status(RepairOrderStatus.IN_PROGRESS)
+                .description("走廊灯闪烁")
+                .build();
+
+        // 无事务时增量立即生效
+        index.onTextChanged(order, "走廊灯不亮", null);
+        index.onOrderChanged(order);
+
+        assertEquals(List.of(), index.search("不亮", null, null, null, 0, 10).orderIds());
+        assertEquals(List.of(4L), index.search("闪烁", RepairOrderStatus.IN_PROGRESS, null, null, 0, 10).orderIds());
+        assertEquals(List.of(4L), index.search("走廊", null, null, null, 0, 10).orderIds());
+    }
+
+    @Test
+    void search_shouldRejectKeywordWithoutAnyBigram() {
+        assertThrows(BusinessException.class, () -> index.search("灯", null, null, null, 0, 10));
+        assertThrows(BusinessException.class, () -> index.search("灯 。", null, null, null, 0, 10));
+    }
+
+    @Test
+    void bigrams_shouldSplitOnPunctuationAndIgnoreCase() {
+        assertArrayEquals(OrderSearchIndex.bigrams("led灯"), OrderSearchIndex.bigrams("LED灯"));
+        assertEquals(3, OrderSearchIndex.bigrams("LED灯").length);
+        assertEquals(2, OrderSearchIndex.bigrams("LED，灯").length);
+        assertEquals(0, OrderSearchIndex.bigrams("灯，亮").length);
+    }
+}
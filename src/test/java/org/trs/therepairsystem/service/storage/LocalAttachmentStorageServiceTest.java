@@ -0,0 +1,78 @@
+package org.trs.therepairsystem.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trs.therepairsystem.common.exception.BusinessException;
+import org.trs.therepairsystem.config.AttachmentStorageProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalAttachmentStorageServiceTest {
+
+    @TempDir
+    Path baseDir;
+
+    private LocalAttachmentStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        AttachmentStorageProperties properties = new AttachmentStorageProperties();
+        properties.setBasePath(baseDir.toString());
+        storageService = new LocalAttachmentStorageService(properties);
+    }
+
+    @Test
+    void downloadStreamsWholeFile() throws Exception {
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(7).nextBytes(data);
+        Files.createDirectories(baseDir.resolve("orders/1"));
+        Files.write(baseDir.resolve("orders/1/photo.jpg"), data);
+
+        AttachmentContent content = storageService.download("orders/1/photo.jpg");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = content.transferTo(out);
+
+        assertEquals(data.length, content.contentLength());
+        assertEquals(data.length, written);
+        assertArrayEquals(data, out.toByteArray());
+        try (InputStream in = content.openStream()) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void transfersRequestedRangeOnly() throws Exception {
+        byte[] data = new byte[64 * 1024];
+        new Random(11).nextBytes(data);
+        Files.write(baseDir.resolve("video.bin"), data);
+
+        AttachmentContent content = storageService.download("video.bin");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = content.transferTo(out, 1000, 5000);
+
+        assertEquals(5000, written);
+        assertArrayEquals(Arrays.copyOfRange(data, 1000, 6000), out.toByteArray());
+    }
+
+    @Test
+    void downloadMissingFileFailsBeforeStreaming() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> storageService.download("orders/1/missing.jpg"));
+
+        assertEquals("附件文件不存在", ex.getMessage());
+    }
+
+    @Test
+    void downloadRejectsPathOutsideBaseDir() {
+        assertThrows(BusinessException.class, () -> storageService.download("../outside.jpg"));
+    }
+}